@@ -21,9 +21,11 @@ import jakarta.persistence.Table;
 import org.apache.commons.lang3.StringUtils;
 import org.hibernate.envers.Audited;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.stream.Collectors;
@@ -336,7 +338,24 @@ public class Cohort extends BaseChangeableOpenmrsData {
 	public void setName(String name) {
 		this.name = name;
 	}
-	
+
+	/**
+	 * Returns the ids of the patients with a non voided membership as a compact bitmap which can be
+	 * combined with other cohorts without copying any memberships.
+	 *
+	 * @return the patient ids of non voided memberships
+	 * @since 3.0.0
+	 */
+	public PatientIdSet getPatientIdSet() {
+		List<Integer> patientIds = new ArrayList<>();
+		for (CohortMembership member : getMemberships()) {
+			if (!member.getVoided()) {
+				patientIds.add(member.getPatientId());
+			}
+		}
+		return PatientIdSet.of(patientIds);
+	}
+
 	/**
 	 * @deprecated since 2.1.0 cohorts are more complex than just a set of patient ids, so there is no one-line replacement
 	 */
@@ -143,6 +143,12 @@ public class Concept extends BaseOpenmrsObject implements Auditable, Retireable,
 	 * getCompatibleNames().
 	 */
 	private Map<Locale, List<ConceptName>> compatibleCache;
+	
+	/**
+	 * The names by locale and the names resolved from them. Built on-the-fly by
+	 * {@link #getNameIndex()}.
+	 */
+	private transient volatile ConceptNameIndex nameIndex;
 
 	private Set<ConceptAttribute> attributes = new LinkedHashSet<>();
 
@@ -464,12 +470,22 @@ public class Concept extends BaseOpenmrsObject implements Auditable, Retireable,
 	 * <strong>Should</strong> return name in broader locale in case none is found in specific one
 	 */
 	public ConceptName getName() {
-		if (getNames().isEmpty()) {
+		ConceptNameIndex index = getNameIndex();
+		if (index.getNames().isEmpty()) {
 			log.debug("there are no names defined for: {}", conceptId);
 			return null;
 		}
 		
-		for (Locale currentLocale : LocaleUtility.getLocalesInOrder()) {
+		return index.resolve(index.namesInLocales, LocaleUtility.getLocalesInOrderList(), this::findName);
+	}
+	
+	/**
+	 * Finds the name as documented by {@link #getName()}.
+	 * 
+	 * @param localesInOrder the locales to search in order of preference
+	 */
+	private ConceptName findName(List<Locale> localesInOrder) {
+		for (Locale currentLocale : localesInOrder) {
 			ConceptName preferredName = getPreferredName(currentLocale);
 			if (preferredName != null) {
 				return preferredName;
@@ -495,14 +511,16 @@ public class Concept extends BaseOpenmrsObject implements Auditable, Retireable,
 			}
 		}
 		
-		for (ConceptName cn : getNames()) {
+		for (ConceptName cn : getNameIndex().getNames()) {
 			if (cn.isFullySpecifiedName()) {
 				return cn;
 			}
 		}
 		
-		if (!getSynonyms().isEmpty()) {
-			return getSynonyms().iterator().next();
+		for (ConceptName cn : getNameIndex().getNames()) {
+			if (cn.isSynonym()) {
+				return cn;
+			}
 		}
 		
 		// we don't expect to get here since every concept name must have at least
@@ -529,9 +547,9 @@ public class Concept extends BaseOpenmrsObject implements Auditable, Retireable,
 		
 		Collection<ConceptName> currentNames;
 		if (locale == null) {
-			currentNames = getNames();
+			currentNames = getNameIndex().getNames();
 		} else {
-			currentNames = getNames(locale);
+			currentNames = getNameIndex().getNames(locale);
 		}
 		
 		for (ConceptName currentName : currentNames) {
@@ -556,7 +574,7 @@ public class Concept extends BaseOpenmrsObject implements Auditable, Retireable,
 	 * @since 1.9
 	 **/
 	public ConceptName getName(Locale locale, ConceptNameType ofType, ConceptNameTag havingTag) {
-		Collection<ConceptName> namesInLocale = getNames(locale);
+		Collection<ConceptName> namesInLocale = getNameIndex().getNames(locale);
 		if (!namesInLocale.isEmpty()) {
 			//Pass the possible candidates through a stream and save the ones that match requirements to the list
 			List<ConceptName> matches = namesInLocale.stream().filter(
@@ -605,7 +623,7 @@ public class Concept extends BaseOpenmrsObject implements Auditable, Retireable,
 	public ConceptName getName(Locale locale, boolean exact) {
 		
 		// fail early if this concept has no names defined
-		if (getNames().isEmpty()) {
+		if (getNameIndex().getNames().isEmpty()) {
 			log.debug("there are no names defined for: {}", conceptId);
 			return null;
 		}
@@ -633,6 +651,14 @@ public class Concept extends BaseOpenmrsObject implements Auditable, Retireable,
 	 * @return null if name in given locale doesn't exist
 	 */
 	private ConceptName getNameInLocale(Locale locale) {
+		if (locale == null) {
+			return null;
+		}
+		ConceptNameIndex index = getNameIndex();
+		return index.resolve(index.namesInLocale, locale, this::findNameInLocale);
+	}
+	
+	private ConceptName findNameInLocale(Locale locale) {
 		ConceptName preferredName = getPreferredName(locale);
 		if (preferredName != null) {
 			return preferredName;
@@ -641,8 +667,10 @@ public class Concept extends BaseOpenmrsObject implements Auditable, Retireable,
 		ConceptName fullySpecifiedName = getFullySpecifiedName(locale);
 		if (fullySpecifiedName != null) {
 			return fullySpecifiedName;
-		} else if (!getSynonyms(locale).isEmpty()) {
-			return getSynonyms(locale).iterator().next();
+		}
+		Collection<ConceptName> synonyms = getSynonyms(locale);
+		if (!synonyms.isEmpty()) {
+			return synonyms.iterator().next();
 		}
 		
 		return null;
@@ -672,7 +700,15 @@ public class Concept extends BaseOpenmrsObject implements Auditable, Retireable,
 			return null;
 		}
 		
-		for (ConceptName nameInLocale : getNames(forLocale)) {
+		ConceptNameIndex index = getNameIndex();
+		if (exact) {
+			return index.resolve(index.exactPreferredNames, forLocale, l -> findPreferredName(l, true));
+		}
+		return index.resolve(index.preferredNames, forLocale, l -> findPreferredName(l, false));
+	}
+	
+	private ConceptName findPreferredName(Locale forLocale, boolean exact) {
+		for (ConceptName nameInLocale : getNameIndex().getNames(forLocale)) {
 			if (ObjectUtils.nullSafeEquals(nameInLocale.getLocalePreferred(), true)) {
 				return nameInLocale;
 			}
@@ -712,10 +748,19 @@ public class Concept extends BaseOpenmrsObject implements Auditable, Retireable,
 	 * <strong>Should</strong> return the name marked as fully specified for the given locale
 	 */
 	public ConceptName getFullySpecifiedName(Locale locale) {
-		if (locale != null && !getNames(locale).isEmpty()) {
+		if (locale == null) {
+			return null;
+		}
+		ConceptNameIndex index = getNameIndex();
+		return index.resolve(index.fullySpecifiedNames, locale, this::findFullySpecifiedName);
+	}
+	
+	private ConceptName findFullySpecifiedName(Locale locale) {
+		Collection<ConceptName> namesInLocale = getNameIndex().getNames(locale);
+		if (!namesInLocale.isEmpty()) {
 			//get the first fully specified name, since every concept must have a fully specified name,
 			//then, this loop will have to return a name
-			for (ConceptName conceptName : getNames(locale)) {
+			for (ConceptName conceptName : namesInLocale) {
 				if (ObjectUtils.nullSafeEquals(conceptName.isFullySpecifiedName(), true)) {
 					return conceptName;
 				}
@@ -747,9 +792,7 @@ public class Concept extends BaseOpenmrsObject implements Auditable, Retireable,
 	 * @return Collection of ConceptNames with the given locale
 	 */
 	public Collection<ConceptName> getNames(Locale locale) {
-		return getNames().stream()
-				.filter(n -> n.getLocale().equals(locale))
-				.collect(Collectors.toSet());
+		return new HashSet<>(getNameIndex().getNames(locale));
 	}
 	
 	/**
@@ -763,7 +806,7 @@ public class Concept extends BaseOpenmrsObject implements Auditable, Retireable,
 		String language = locale.getLanguage();
 		String country = locale.getCountry();
 		
-		return getNames().stream()
+		return getNameIndex().getNames().stream()
 				.filter(n -> language.equals(n.getLocale().getLanguage()) || 
 							StringUtils.isNotBlank(country) && country.equals(n.getLocale().getCountry()))
 				.collect(Collectors.toSet());
@@ -865,9 +908,18 @@ public class Concept extends BaseOpenmrsObject implements Auditable, Retireable,
 	 * @return the short name, or null if none has been explicitly set
 	 */
 	public ConceptName getShortNameInLocale(Locale locale) {
+		if (locale == null) {
+			return null;
+		}
+		ConceptNameIndex index = getNameIndex();
+		return index.resolve(index.shortNamesInLocale, locale, this::findShortNameInLocale);
+	}
+	
+	private ConceptName findShortNameInLocale(Locale locale) {
 		ConceptName bestMatch = null;
-		if (locale != null && !getShortNames().isEmpty()) {
-			for (ConceptName shortName : getShortNames()) {
+		List<ConceptName> shortNames = getNameIndex().getShortNames();
+		if (!shortNames.isEmpty()) {
+			for (ConceptName shortName : shortNames) {
 				Locale nameLocale = shortName.getLocale();
 				if (nameLocale.equals(locale)) {
 					return shortName;
@@ -890,17 +942,11 @@ public class Concept extends BaseOpenmrsObject implements Auditable, Retireable,
 	 * @return a collection of all short names for this concept
 	 */
 	public Collection<ConceptName> getShortNames() {
-		List<ConceptName> shortNames = new ArrayList<>();
-		if (getNames().isEmpty()) {
-			if (log.isDebugEnabled()) {
-				log.debug("The Concept with id: " + conceptId + " has no names");
-			}
-		} else {
-			shortNames = getNames().stream()
-							.filter(ConceptName::isShort)
-							.collect(Collectors.toList());
+		ConceptNameIndex index = getNameIndex();
+		if (index.getNames().isEmpty() && log.isDebugEnabled()) {
+			log.debug("The Concept with id: " + conceptId + " has no names");
 		}
-		return shortNames;
+		return new ArrayList<>(index.getShortNames());
 	}
 	
 	/**
@@ -1007,11 +1053,31 @@ public class Concept extends BaseOpenmrsObject implements Auditable, Retireable,
 				.collect(Collectors.toSet());
 	}
 	
+	/**
+	 * Gets the index of the current names, building it again if the names changed since it was
+	 * built.
+	 * 
+	 * @return the index of the names
+	 */
+	private ConceptNameIndex getNameIndex() {
+		if (names == null) {
+			names = new HashSet<>();
+		}
+		
+		ConceptNameIndex index = nameIndex;
+		if (index == null || !index.isCurrent(names)) {
+			index = new ConceptNameIndex(names);
+			nameIndex = index;
+		}
+		return index;
+	}
+	
 	/**
 	 * @param names The names to set.
 	 */
 	public void setNames(Collection<ConceptName> names) {
 		this.names = names;
+		this.nameIndex = null;
 	}
 	
 	/**
@@ -1053,6 +1119,7 @@ public class Concept extends BaseOpenmrsObject implements Auditable, Retireable,
 					}
 				}
 				names.add(conceptName);
+				nameIndex = null;
 				if (compatibleCache != null) {
 					// clear the locale cache, forcing it to be rebuilt
 					compatibleCache.clear();
@@ -1069,6 +1136,7 @@ public class Concept extends BaseOpenmrsObject implements Auditable, Retireable,
 	 */
 	public boolean removeName(ConceptName conceptName) {
 		if (names != null) {
+			nameIndex = null;
 			return names.remove(conceptName);
 		} else {
 			return false;
@@ -1285,8 +1353,8 @@ public class Concept extends BaseOpenmrsObject implements Auditable, Retireable,
 		
 		List<ConceptName> syns = new ArrayList<>();
 		ConceptName preferredConceptName = null;
-		for (ConceptName possibleSynonymInLoc : getSynonyms()) {
-			if (locale.equals(possibleSynonymInLoc.getLocale())) {
+		for (ConceptName possibleSynonymInLoc : getNameIndex().getNames(locale)) {
+			if (possibleSynonymInLoc.isSynonym()) {
 				if (possibleSynonymInLoc.isPreferred()) {
 					preferredConceptName = possibleSynonymInLoc;
 				} else {
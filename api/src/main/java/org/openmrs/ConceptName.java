@@ -14,6 +14,7 @@ import java.util.Date;
 import java.util.HashSet;
 import java.util.Locale;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -28,6 +29,8 @@ import jakarta.persistence.Table;
 import org.apache.commons.lang3.StringUtils;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Type;
 import org.hibernate.envers.Audited;
 import org.hibernate.search.mapper.pojo.bridge.mapping.annotation.ValueBridgeRef;
@@ -48,6 +51,8 @@ import org.openmrs.api.db.hibernate.type.StringEnumType;
  */
 @Entity
 @Table(name = "concept_name")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @BatchSize(size = 25)
 @Indexed
 @Audited
@@ -181,6 +186,7 @@ public class ConceptName extends BaseOpenmrsObject implements Auditable, Voidabl
 	
 	public void setLocale(Locale locale) {
 		this.locale = locale;
+		ConceptNameIndex.nameChanged();
 	}
 
 	/**
@@ -247,6 +253,7 @@ public class ConceptName extends BaseOpenmrsObject implements Auditable, Voidabl
 	@Override
 	public void setVoided(Boolean voided) {
 		this.voided = voided;
+		ConceptNameIndex.nameChanged();
 	}
 	
 	/**
@@ -342,6 +349,7 @@ public class ConceptName extends BaseOpenmrsObject implements Auditable, Voidabl
 	 */
 	public void setConceptNameType(ConceptNameType conceptNameType) {
 		this.conceptNameType = conceptNameType;
+		ConceptNameIndex.nameChanged();
 	}
 	
 	/**
@@ -370,6 +378,7 @@ public class ConceptName extends BaseOpenmrsObject implements Auditable, Voidabl
 	 */
 	public void setLocalePreferred(Boolean localePreferred) {
 		this.localePreferred = localePreferred;
+		ConceptNameIndex.nameChanged();
 	}
 	
 	/**
@@ -0,0 +1,145 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * An immutable snapshot of the non-voided names of a concept by locale, together with the names
+ * already resolved for each locale by the lookups of {@link Concept}, so that resolving the name of
+ * a concept again is a map lookup.
+ * <p>
+ * The index of a concept is built again when the names of the concept are added, removed or
+ * replaced, and when the locale, type, preferred flag or voided flag of any concept name changes.
+ * Concept names are rarely changed, so the latter simply invalidates the indexes of all concepts.
+ *
+ * @since 3.0.0
+ */
+final class ConceptNameIndex {
+
+	private static final AtomicInteger revision = new AtomicInteger();
+
+	private final int builtRevision;
+
+	private final Collection<ConceptName> source;
+
+	private final int sourceSize;
+
+	private final List<ConceptName> names;
+
+	private final Map<Locale, List<ConceptName>> namesByLocale;
+
+	private final List<ConceptName> shortNames;
+
+	final Map<Locale, Optional<ConceptName>> exactPreferredNames = new ConcurrentHashMap<>();
+
+	final Map<Locale, Optional<ConceptName>> preferredNames = new ConcurrentHashMap<>();
+
+	final Map<Locale, Optional<ConceptName>> fullySpecifiedNames = new ConcurrentHashMap<>();
+
+	final Map<Locale, Optional<ConceptName>> shortNamesInLocale = new ConcurrentHashMap<>();
+
+	final Map<Locale, Optional<ConceptName>> namesInLocale = new ConcurrentHashMap<>();
+
+	final Map<List<Locale>, Optional<ConceptName>> namesInLocales = new ConcurrentHashMap<>();
+
+	/**
+	 * @param source the names of the concept, including the voided ones
+	 */
+	ConceptNameIndex(Collection<ConceptName> source) {
+		// read before the names, so that a change while building invalidates this index
+		this.builtRevision = revision.get();
+		this.source = source;
+		this.sourceSize = source.size();
+
+		List<ConceptName> nonVoidedNames = new ArrayList<>(source.size());
+		Map<Locale, List<ConceptName>> byLocale = new HashMap<>();
+		List<ConceptName> shorts = new ArrayList<>();
+		for (ConceptName name : source) {
+			if (!name.getVoided()) {
+				nonVoidedNames.add(name);
+				byLocale.computeIfAbsent(name.getLocale(), l -> new ArrayList<>(1)).add(name);
+				if (name.isShort()) {
+					shorts.add(name);
+				}
+			}
+		}
+		byLocale.replaceAll((locale, namesInLocale) -> Collections.unmodifiableList(namesInLocale));
+
+		this.names = Collections.unmodifiableList(nonVoidedNames);
+		this.namesByLocale = byLocale;
+		this.shortNames = Collections.unmodifiableList(shorts);
+	}
+
+	/**
+	 * Invalidates the indexes of all concepts, to be called when a concept name changes in a way
+	 * which affects how the names of its concept are resolved.
+	 */
+	static void nameChanged() {
+		revision.incrementAndGet();
+	}
+
+	/**
+	 * @param names the current names of the concept
+	 * @return true if this index was built from the given names and no concept name changed since
+	 */
+	boolean isCurrent(Collection<ConceptName> names) {
+		return source == names && builtRevision == revision.get() && sourceSize == names.size();
+	}
+
+	/**
+	 * @return the non-voided names
+	 */
+	List<ConceptName> getNames() {
+		return names;
+	}
+
+	/**
+	 * @param locale the exact locale of the names
+	 * @return the non-voided names in the locale
+	 */
+	List<ConceptName> getNames(Locale locale) {
+		return namesByLocale.getOrDefault(locale, Collections.emptyList());
+	}
+
+	/**
+	 * @return the non-voided short names in all locales
+	 */
+	List<ConceptName> getShortNames() {
+		return shortNames;
+	}
+
+	/**
+	 * Gets a resolved name, resolving it the first time it is asked for.
+	 *
+	 * @param resolved the names resolved so far by one of the lookups
+	 * @param key the argument of the lookup, not null
+	 * @param resolver resolves the name if it was not resolved yet
+	 * @return the resolved name, which may be null
+	 */
+	<K> ConceptName resolve(Map<K, Optional<ConceptName>> resolved, K key, Function<K, ConceptName> resolver) {
+		Optional<ConceptName> name = resolved.get(key);
+		if (name == null) {
+			name = Optional.ofNullable(resolver.apply(key));
+			resolved.putIfAbsent(key, name);
+		}
+		return name.orElse(null);
+	}
+}
@@ -0,0 +1,227 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * An immutable set of patient ids backed by a bitmap. Patient ids are dense auto-incremented
+ * integers, so a cohort of several hundred thousand patients takes well under a megabyte and can be
+ * combined with {@link #union(PatientIdSet)}, {@link #intersect(PatientIdSet)} and
+ * {@link #subtract(PatientIdSet)} without creating any {@link CohortMembership}s.
+ * <p>
+ * Use {@link Cohort#getPatientIdSet()} or
+ * {@link org.openmrs.api.CohortService#getPatientIdSet(Cohort)} to obtain one.
+ *
+ * @since 3.0.0
+ */
+public final class PatientIdSet implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private static final PatientIdSet EMPTY = new PatientIdSet(new BitSet(0));
+	
+	private final BitSet ids;
+	
+	private PatientIdSet(BitSet ids) {
+		this.ids = ids;
+	}
+	
+	/**
+	 * @return an empty set
+	 */
+	public static PatientIdSet empty() {
+		return EMPTY;
+	}
+	
+	/**
+	 * @param patientIds the patient ids, nulls are ignored
+	 * @return a set containing the given ids
+	 * @throws IllegalArgumentException if any of the ids is negative
+	 */
+	public static PatientIdSet of(Collection<Integer> patientIds) {
+		BitSet ids = new BitSet();
+		for (Integer patientId : patientIds) {
+			if (patientId != null) {
+				if (patientId < 0) {
+					throw new IllegalArgumentException("Patient ids must not be negative: " + patientId);
+				}
+				ids.set(patientId);
+			}
+		}
+		return new PatientIdSet(ids);
+	}
+	
+	/**
+	 * @param patientIds the patient ids
+	 * @return a set containing the given ids
+	 * @throws IllegalArgumentException if any of the ids is negative
+	 */
+	public static PatientIdSet of(int... patientIds) {
+		BitSet ids = new BitSet();
+		for (int patientId : patientIds) {
+			if (patientId < 0) {
+				throw new IllegalArgumentException("Patient ids must not be negative: " + patientId);
+			}
+			ids.set(patientId);
+		}
+		return new PatientIdSet(ids);
+	}
+	
+	public boolean contains(Integer patientId) {
+		return patientId != null && patientId >= 0 && ids.get(patientId);
+	}
+	
+	public int size() {
+		return ids.cardinality();
+	}
+	
+	public boolean isEmpty() {
+		return ids.isEmpty();
+	}
+	
+	/**
+	 * @param other the other set, null is treated as empty
+	 * @return ids contained in this or the other set
+	 */
+	public PatientIdSet union(PatientIdSet other) {
+		if (other == null || other.isEmpty()) {
+			return this;
+		}
+		BitSet result = (BitSet) ids.clone();
+		result.or(other.ids);
+		return new PatientIdSet(result);
+	}
+	
+	/**
+	 * @param other the other set, null is treated as empty
+	 * @return ids contained in both this and the other set
+	 */
+	public PatientIdSet intersect(PatientIdSet other) {
+		if (other == null) {
+			return EMPTY;
+		}
+		BitSet result = (BitSet) ids.clone();
+		result.and(other.ids);
+		return new PatientIdSet(result);
+	}
+	
+	/**
+	 * @param other the other set, null is treated as empty
+	 * @return ids contained in this but not the other set
+	 */
+	public PatientIdSet subtract(PatientIdSet other) {
+		if (other == null || other.isEmpty()) {
+			return this;
+		}
+		BitSet result = (BitSet) ids.clone();
+		result.andNot(other.ids);
+		return new PatientIdSet(result);
+	}
+	
+	/**
+	 * @return the ids in ascending order
+	 */
+	public IntStream stream() {
+		return ids.stream();
+	}
+	
+	/**
+	 * @return the ids in ascending order
+	 */
+	public List<Integer> toList() {
+		List<Integer> result = new ArrayList<>(size());
+		ids.stream().forEach(result::add);
+		return result;
+	}
+	
+	/**
+	 * Splits the ids into consecutive batches in ascending order, which is useful for querying
+	 * the database in chunks instead of with one huge IN list.
+	 * 
+	 * @param batchSize the maximum number of ids per batch
+	 * @return the batches
+	 */
+	public List<PatientIdSet> partition(int batchSize) {
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("batchSize must be positive");
+		}
+		if (isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<PatientIdSet> batches = new ArrayList<>();
+		BitSet batch = new BitSet();
+		int count = 0;
+		for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+			batch.set(id);
+			if (++count == batchSize) {
+				batches.add(new PatientIdSet(batch));
+				batch = new BitSet();
+				count = 0;
+			}
+		}
+		if (count > 0) {
+			batches.add(new PatientIdSet(batch));
+		}
+		return batches;
+	}
+	
+	/**
+	 * Returns runs of consecutive ids as inclusive <code>{from, to}</code> pairs in ascending order.
+	 * A run may consist of a single id. It allows to express dense sets in SQL as a few BETWEEN
+	 * clauses instead of listing every id.
+	 * 
+	 * @return the ranges
+	 */
+	public List<int[]> getRanges() {
+		List<int[]> ranges = new ArrayList<>();
+		int from = ids.nextSetBit(0);
+		while (from >= 0) {
+			int to = ids.nextClearBit(from) - 1;
+			ranges.add(new int[] { from, to });
+			from = ids.nextSetBit(to + 1);
+		}
+		return ranges;
+	}
+	
+	/**
+	 * @return a new unsaved cohort with a membership for each id
+	 */
+	public Cohort toCohort() {
+		return new Cohort(toList());
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof PatientIdSet)) {
+			return false;
+		}
+		return ids.equals(((PatientIdSet) obj).ids);
+	}
+	
+	@Override
+	public int hashCode() {
+		return ids.hashCode();
+	}
+	
+	@Override
+	public String toString() {
+		return "PatientIdSet size=" + size();
+	}
+}
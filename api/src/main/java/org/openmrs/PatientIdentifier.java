@@ -72,7 +72,7 @@ public class PatientIdentifier extends BaseChangeableOpenmrsData implements java
 
 	@ManyToOne
 	@JoinColumn(name = "patient_id", nullable = false)
-	@IndexedEmbedded(includeEmbeddedObjectId = true)
+	@IndexedEmbedded(includeEmbeddedObjectId = true, includePaths = { "voided", "isPatient", "gender", "birthdate", "dead" })
 	@AssociationInverseSide(inversePath = @ObjectPath({
 		@PropertyValue(propertyName = "identifiers")
 	}))
@@ -17,6 +17,7 @@ import java.util.Set;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.envers.Audited;
+import org.openmrs.api.context.PrivilegeBitSet;
 import org.openmrs.util.RoleConstants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -77,6 +78,7 @@ public class Role extends BaseChangeableOpenmrsMetadata {
 	 */
 	public void setPrivileges(Set<Privilege> privileges) {
 		this.privileges = privileges;
+		PrivilegeBitSet.invalidateAll();
 	}
 	
 	@Override
@@ -95,6 +97,7 @@ public class Role extends BaseChangeableOpenmrsMetadata {
 		}
 		if (privilege != null && !containsPrivilege(privileges, privilege.getPrivilege())) {
 			privileges.add(privilege);
+			PrivilegeBitSet.invalidateAll();
 		}
 	}
 	
@@ -113,8 +116,8 @@ public class Role extends BaseChangeableOpenmrsMetadata {
 	 * @param privilege Privilege to remove
 	 */
 	public void removePrivilege(Privilege privilege) {
-		if (privileges != null) {
-			privileges.remove(privilege);
+		if (privileges != null && privileges.remove(privilege)) {
+			PrivilegeBitSet.invalidateAll();
 		}
 	}
 	
@@ -183,6 +186,7 @@ public class Role extends BaseChangeableOpenmrsMetadata {
 	 */
 	public void setInheritedRoles(Set<Role> inheritedRoles) {
 		this.inheritedRoles = inheritedRoles;
+		PrivilegeBitSet.invalidateAll();
 	}
 	
 	/**
@@ -272,6 +276,7 @@ public class Role extends BaseChangeableOpenmrsMetadata {
 	 */
 	public void setChildRoles(Set<Role> childRoles) {
 		this.childRoles = childRoles;
+		PrivilegeBitSet.invalidateAll();
 	}
 	
 	/**
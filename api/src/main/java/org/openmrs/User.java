@@ -44,6 +44,7 @@ import org.hibernate.annotations.CascadeType;
 import org.hibernate.envers.Audited;
 import org.hibernate.envers.NotAudited;
 import org.openmrs.api.context.Context;
+import org.openmrs.api.context.PrivilegeBitSet;
 import org.openmrs.util.LocaleUtility;
 import org.openmrs.util.OpenmrsConstants;
 import org.openmrs.util.OpenmrsUtil;
@@ -318,6 +319,7 @@ public class User extends BaseOpenmrsObject implements java.io.Serializable, Att
 	 */
 	public void setRoles(Set<Role> roles) {
 		this.roles = roles;
+		PrivilegeBitSet.invalidateAll();
 	}
 	
 	/**
@@ -332,6 +334,7 @@ public class User extends BaseOpenmrsObject implements java.io.Serializable, Att
 		}
 		if (!roles.contains(role) && role != null) {
 			roles.add(role);
+			PrivilegeBitSet.invalidateAll();
 		}
 		
 		return this;
@@ -344,8 +347,8 @@ public class User extends BaseOpenmrsObject implements java.io.Serializable, Att
 	 * @return this user with the given role removed
 	 */
 	public User removeRole(Role role) {
-		if (roles != null) {
-			roles.remove(role);
+		if (roles != null && roles.remove(role)) {
+			PrivilegeBitSet.invalidateAll();
 		}
 		
 		return this;
@@ -30,13 +30,15 @@ import org.springframework.transaction.interceptor.TransactionAttributeSource;
 
 /**
  * AOPConfig registers AOP advisors used across the OpenMRS service layer. It enables method-level interception using 
- * AspectJ-style pointcuts and integrates multiple aspects such as authorization, logging, required data handling, and caching.
+ * AspectJ-style pointcuts and integrates multiple aspects such as metrics, authorization, logging, required data handling, 
+ * and caching.
  * <p>
  * The advisors apply to all classes annotated with {@link Service}.
  *
  * <p>
  * The configured advisors include:
  * <ul>
+ *   <li><b>MetricsAdvisor</b> – Records the latency of service method invocations.</li>
  *   <li><b>AuthorizationAdvisor</b> – Ensures access control based on authorization annotations.</li>
  *   <li><b>LoggingAdvisor</b> – Logs service method invocations and exceptions for auditing and debugging.</li>
  *   <li><b>RequiredDataAdvisor</b> – Automatically sets required metadata like `creator`, `dateCreated`, etc.</li>
@@ -63,6 +65,7 @@ public class AOPConfig {
 
 	/**
 	 * Added for backwards compatibility with services defined in xml with TransactionProxyFactoryBean
+	 * @param metricsAdvice
 	 * @param authorizationAdvice
 	 * @param loggingAdvice
 	 * @param requiredDataAdvice
@@ -71,10 +74,11 @@ public class AOPConfig {
 	 * @deprecated since 3.0.0 use {@link Service} annotation instead
 	 */
 	@Bean 
-	public List<Advice> serviceInterceptors(AuthorizationAdvice authorizationAdvice,
+	public List<Advice> serviceInterceptors(MetricsAdvice metricsAdvice, AuthorizationAdvice authorizationAdvice,
 											LoggingAdvice loggingAdvice, RequiredDataAdvice requiredDataAdvice,
 											CacheInterceptor cacheInterceptor) {
 		List<Advice> interceptors = new ArrayList<>();
+		interceptors.add(metricsAdvice);
 		interceptors.add(authorizationAdvice);
 		interceptors.add(loggingAdvice);
 		interceptors.add(requiredDataAdvice);
@@ -93,6 +97,11 @@ public class AOPConfig {
 		return new AnnotationTransactionAttributeSource();
 	}
 	
+	@Bean
+	public Advisor metricsAdvisor(MetricsAdvice advice) {
+		return createAdvisor(advice, 0);
+	}
+	
 	@Bean
 	public Advisor authorizationAdvisor(AuthorizationAdvice advice) {
 		return createAdvisor(advice, 1);
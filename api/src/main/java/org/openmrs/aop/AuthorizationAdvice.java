@@ -11,7 +11,10 @@ package org.openmrs.aop;
 
 import java.lang.reflect.Method;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang3.StringUtils;
 import org.openmrs.User;
@@ -40,6 +43,19 @@ public class AuthorizationAdvice implements MethodBeforeAdvice {
 	private static final Logger log = LoggerFactory.getLogger(AuthorizationAdvice.class);
         private static final String USER_IS_NOT_AUTHORIZED_TO_ACCESS = "User {} is not authorized to access {}";
 	
+	/**
+	 * The parsed {@link org.openmrs.annotation.Authorized} attributes per method, since annotations
+	 * can't change at runtime. The attributes are stored with the declaring class of the method so
+	 * that the cache doesn't keep the classes of stopped modules from being unloaded.
+	 */
+	private final ClassValue<Map<Method, AuthorizedMethod>> authorizedMethods = new ClassValue<>() {
+		
+		@Override
+		protected Map<Method, AuthorizedMethod> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+	
 	/**
 	 * Allows us to check whether a user is authorized to access a particular method.
 	 * 
@@ -65,9 +81,10 @@ public class AuthorizationAdvice implements MethodBeforeAdvice {
 			return;
 		}
 		
-		AuthorizedAnnotationAttributes attributes = new AuthorizedAnnotationAttributes();
-		Collection<String> privileges = attributes.getAttributes(method);
-		boolean requireAll = attributes.getRequireAll(method);
+		AuthorizedMethod authorizedMethod = authorizedMethods.get(method.getDeclaringClass()).computeIfAbsent(method,
+		    AuthorizedMethod::new);
+		Collection<String> privileges = authorizedMethod.privileges;
+		boolean requireAll = authorizedMethod.requireAll;
 		
 		// Only execute if the "secure" method has authorization attributes
 		// Iterate through required privileges and return only if the user has
@@ -108,7 +125,7 @@ public class AuthorizationAdvice implements MethodBeforeAdvice {
 				throwUnauthorized(Context.getAuthenticatedUser(), method, privileges);
 			}
 			
-		} else if (attributes.hasAuthorizedAnnotation(method) && !Context.isAuthenticated()) {
+		} else if (authorizedMethod.annotated && !Context.isAuthenticated()) {
 			throwUnauthorized(Context.getAuthenticatedUser(), method);
 		}
 	}
@@ -149,4 +166,23 @@ public class AuthorizationAdvice implements MethodBeforeAdvice {
 		log.debug(USER_IS_NOT_AUTHORIZED_TO_ACCESS, user, method.getName());
 		throw new APIAuthenticationException(Context.getMessageSourceService().getMessage("error.aunthenticationRequired"));
 	}
+	
+	/**
+	 * The {@link AuthorizedAnnotationAttributes} of a method
+	 */
+	private static class AuthorizedMethod {
+		
+		private final Collection<String> privileges;
+		
+		private final boolean requireAll;
+		
+		private final boolean annotated;
+		
+		AuthorizedMethod(Method method) {
+			AuthorizedAnnotationAttributes attributes = new AuthorizedAnnotationAttributes();
+			this.privileges = Collections.unmodifiableCollection(attributes.getAttributes(method));
+			this.requireAll = attributes.getRequireAll(method);
+			this.annotated = attributes.hasAuthorizedAnnotation(method);
+		}
+	}
 }
@@ -0,0 +1,94 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.aop;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodClassKey;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+/**
+ * This class provides the around advice which records the latency of every service layer method
+ * call in the {@value #METRIC_NAME} timer, tagged with the service class, the method name and the
+ * simple name of the exception thrown, if any. The advice is placed first so that the recorded
+ * latency includes the authorization, caching and transaction handling of the call.
+ *
+ * @since 3.0.0
+ */
+@Component("metricsInterceptor")
+public class MetricsAdvice implements MethodInterceptor {
+
+	public static final String METRIC_NAME = "openmrs.service.calls";
+
+	private static final String NO_EXCEPTION = "none";
+
+	private final MeterRegistry meterRegistry;
+
+	/**
+	 * The timers of the calls which did not throw per method and target class, since building a
+	 * timer on every call is much slower than recording to it
+	 */
+	private final Map<MethodClassKey, Timer> timers = new ConcurrentHashMap<>();
+
+	@Autowired
+	public MetricsAdvice(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * @see org.aopalliance.intercept.MethodInterceptor#invoke(org.aopalliance.intercept.MethodInvocation)
+	 * <strong>Should</strong> record the latency of the call
+	 * <strong>Should</strong> record the exception thrown by the call
+	 */
+	@Override
+	public Object invoke(MethodInvocation invocation) throws Throwable {
+		long start = System.nanoTime();
+		Object result;
+		try {
+			result = invocation.proceed();
+		}
+		catch (Throwable t) {
+			getTimer(invocation, t.getClass().getSimpleName()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			throw t;
+		}
+
+		Method method = invocation.getMethod();
+		Class<?> targetClass = getTargetClass(invocation);
+		timers.computeIfAbsent(new MethodClassKey(method, targetClass),
+		    key -> buildTimer(targetClass, method, NO_EXCEPTION)).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		return result;
+	}
+
+	private Timer getTimer(MethodInvocation invocation, String exception) {
+		return buildTimer(getTargetClass(invocation), invocation.getMethod(), exception);
+	}
+
+	private Timer buildTimer(Class<?> targetClass, Method method, String exception) {
+		return Timer.builder(METRIC_NAME).description("The latency of the service layer methods")
+		        .tag("service", targetClass.getSimpleName()).tag("method", method.getName()).tag("exception", exception)
+		        .publishPercentileHistogram().minimumExpectedValue(Duration.ofMillis(1))
+		        .maximumExpectedValue(Duration.ofSeconds(30)).register(meterRegistry);
+	}
+
+	private static Class<?> getTargetClass(MethodInvocation invocation) {
+		Object target = invocation.getThis();
+		return target == null ? invocation.getMethod().getDeclaringClass() : ClassUtils.getUserClass(target);
+	}
+}
@@ -9,15 +9,21 @@
  */
 package org.openmrs.aop;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.openmrs.OpenmrsObject;
 import org.openmrs.Retireable;
@@ -27,6 +33,7 @@ import org.openmrs.annotation.AllowDirectAccess;
 import org.openmrs.annotation.DisableHandlers;
 import org.openmrs.annotation.Independent;
 import org.openmrs.api.APIException;
+import org.openmrs.api.BatchSaveResult;
 import org.openmrs.api.context.Context;
 import org.openmrs.api.handler.ConceptNameSaveHandler;
 import org.openmrs.api.handler.RequiredDataHandler;
@@ -39,6 +46,8 @@ import org.openmrs.util.HandlerUtil;
 import org.openmrs.util.Reflect;
 import org.openmrs.validator.ValidateUtil;
 import org.springframework.aop.MethodBeforeAdvice;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
@@ -79,10 +88,12 @@ import org.springframework.util.StringUtils;
  * @since 1.5
  */
 @Component("requiredDataInterceptor")
-public class RequiredDataAdvice implements MethodBeforeAdvice {
+public class RequiredDataAdvice implements MethodBeforeAdvice, ApplicationListener<ContextRefreshedEvent> {
 	
 	private static final String UNABLE_GETTER_METHOD = "unable.getter.method";
 	
+	private static final Map<PlanKey, HandlerPlan<?>> handlerPlans = new ConcurrentHashMap<>();
+	
 	/**
 	 * @see org.springframework.aop.MethodBeforeAdvice#before(java.lang.reflect.Method,
 	 *      java.lang.Object[], java.lang.Object)
@@ -130,8 +141,10 @@ public class RequiredDataAdvice implements MethodBeforeAdvice {
 				recursivelyHandle(SaveHandler.class, (OpenmrsObject) mainArgument, other);
 				ValidateUtil.validate(mainArgument);
 			}
-			// if the first argument is a list of openmrs objects, handle them all now
-			else if (Reflect.isCollection(mainArgument) && isOpenmrsObjectCollection(mainArgument)) {
+			// if the first argument is a list of openmrs objects, handle them all now unless the method
+			// reports the objects failing validation itself
+			else if (Reflect.isCollection(mainArgument) && isOpenmrsObjectCollection(mainArgument)
+			        && !BatchSaveResult.class.isAssignableFrom(method.getReturnType())) {
 				// ideally we would fail early if the method name is not like savePluralOfXyz(Collection<Xyz>)
 				// but this only occurs once in the API (AdministrationService.saveGlobalProperties
 				// so it is not worth handling this case
@@ -279,27 +292,70 @@ public class RequiredDataAdvice implements MethodBeforeAdvice {
 			return;
 		}
 		
-		Class<? extends OpenmrsObject> openmrsObjectClass = openmrsObject.getClass();
-		
 		if (alreadyHandled == null) {
 			alreadyHandled = new HashSet<>();
 		}
 		
-		// fetch all handlers for the object being saved
-		List<H> handlers = HandlerUtil.getHandlersForType(handlerType, openmrsObjectClass);
+		HandlerPlan<H> plan = getHandlerPlan(handlerType, openmrsObject.getClass());
 		
 		// loop over all handlers, calling onSave on each
-		for (H handler : handlers) {
+		for (H handler : plan.handlers) {
 			handler.handle(openmrsObject, currentUser, currentDate, other);
 		}
 		
 		alreadyHandled.add(openmrsObject);
 		
-		Reflect reflect = new Reflect(OpenmrsObject.class);
-		List<Field> allInheritedFields = reflect.getInheritedFields(openmrsObjectClass);
-		
 		// loop over all child collections of OpenmrsObjects and recursively save on those
-		for (Field field : allInheritedFields) {
+		for (CollectionAccessor accessor : plan.collections) {
+			
+			// the collection we'll be looping over
+			Collection<OpenmrsObject> childCollection = accessor.get(openmrsObject);
+			
+			if (childCollection != null) {
+				for (OpenmrsObject collectionElement : childCollection) {
+					if (!alreadyHandled.contains(collectionElement)) {
+						recursivelyHandle(handlerType, collectionElement, currentUser, currentDate,
+							other, alreadyHandled);
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Gets the cached {@link HandlerPlan} for the given handler type and class or builds it on the first
+	 * call. The plans are cleared on every context refresh, when {@link HandlerUtil} clears the cached
+	 * handlers as well.
+	 * 
+	 * @param handlerType the type of Handler
+	 * @param openmrsObjectClass the class of the object being handled
+	 * @return the plan
+	 * @since 3.0.0
+	 */
+	@SuppressWarnings("unchecked")
+	static <H extends RequiredDataHandler<OpenmrsObject>> HandlerPlan<H> getHandlerPlan(Class<H> handlerType,
+		Class<? extends OpenmrsObject> openmrsObjectClass) {
+		PlanKey key = new PlanKey(handlerType, openmrsObjectClass);
+		HandlerPlan<?> plan = handlerPlans.get(key);
+		if (plan == null) {
+			// built outside of computeIfAbsent as fetching handlers may load beans, which may save objects
+			plan = buildHandlerPlan(handlerType, openmrsObjectClass);
+			HandlerPlan<?> existing = handlerPlans.putIfAbsent(key, plan);
+			if (existing != null) {
+				plan = existing;
+			}
+		}
+		return (HandlerPlan<H>) plan;
+	}
+	
+	private static <H extends RequiredDataHandler<OpenmrsObject>> HandlerPlan<H> buildHandlerPlan(Class<H> handlerType,
+		Class<? extends OpenmrsObject> openmrsObjectClass) {
+		// fetch all handlers for the object being saved
+		List<H> handlers = HandlerUtil.getHandlersForType(handlerType, openmrsObjectClass);
+		
+		List<CollectionAccessor> collections = new ArrayList<>();
+		Reflect reflect = new Reflect(OpenmrsObject.class);
+		for (Field field : reflect.getInheritedFields(openmrsObjectClass)) {
 			
 			// skip field if it's declared independent
 			if (Reflect.isAnnotationPresent(openmrsObjectClass, field.getName(), Independent.class)) {
@@ -307,19 +363,143 @@ public class RequiredDataAdvice implements MethodBeforeAdvice {
 			}
 			
 			if (reflect.isCollectionField(field) && !isHandlerMarkedAsDisabled(handlerType, field)) {
-				
-				// the collection we'll be looping over
-				Collection<OpenmrsObject> childCollection = getChildCollection(openmrsObject, field);
-				
-				if (childCollection != null) {
-					for (OpenmrsObject collectionElement : childCollection) {
-						if (!alreadyHandled.contains(collectionElement)) {
-							recursivelyHandle(handlerType, collectionElement, currentUser, currentDate,
-								other, alreadyHandled);
-						}
-					}
+				collections.add(new CollectionAccessor(openmrsObjectClass, field));
+			}
+		}
+		
+		return new HandlerPlan<>(handlers, collections);
+	}
+	
+	/**
+	 * Clears all cached {@link HandlerPlan}s. Called whenever handlers are refreshed e.g. on module
+	 * start or stop.
+	 * 
+	 * @since 3.0.0
+	 */
+	public static void clearHandlerPlans() {
+		handlerPlans.clear();
+	}
+	
+	@Override
+	public void onApplicationEvent(ContextRefreshedEvent event) {
+		clearHandlerPlans();
+	}
+	
+	/**
+	 * An immutable list of handlers and child collections to descend into for a given handler type and
+	 * class so that reflection is done once per class and not for each handled object.
+	 */
+	static final class HandlerPlan<H> {
+		
+		private final List<H> handlers;
+		
+		private final List<CollectionAccessor> collections;
+		
+		HandlerPlan(List<H> handlers, List<CollectionAccessor> collections) {
+			this.handlers = Collections.unmodifiableList(new ArrayList<>(handlers));
+			this.collections = Collections.unmodifiableList(collections);
+		}
+		
+		List<H> getHandlers() {
+			return handlers;
+		}
+		
+		List<CollectionAccessor> getCollections() {
+			return collections;
+		}
+	}
+	
+	/**
+	 * Reads a child collection either through its getter or, if annotated with {@link AllowDirectAccess},
+	 * directly from the field using a {@link MethodHandle} resolved once.
+	 * 
+	 * @see #getChildCollection(OpenmrsObject, Field)
+	 */
+	static final class CollectionAccessor {
+		
+		private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+		
+		private final String fieldName;
+		
+		private final String getterName;
+		
+		private final boolean directAccess;
+		
+		private final MethodHandle getter;
+		
+		CollectionAccessor(Class<? extends OpenmrsObject> openmrsObjectClass, Field field) {
+			this.fieldName = field.getName();
+			this.getterName = "get" + StringUtils.capitalize(fieldName);
+			this.directAccess = field.isAnnotationPresent(AllowDirectAccess.class);
+			
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			try {
+				if (directAccess) {
+					field.setAccessible(true);
+					getter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+				} else {
+					getter = lookup.unreflect(openmrsObjectClass.getMethod(getterName)).asType(GETTER_TYPE);
+				}
+			}
+			catch (IllegalAccessException e) {
+				if (directAccess) {
+					throw new APIException("unable.get.field", new Object[] { fieldName, openmrsObjectClass });
 				}
+				throw new APIException(UNABLE_GETTER_METHOD, new Object[] { "use", getterName, fieldName,
+				        openmrsObjectClass });
+			}
+			catch (NoSuchMethodException e) {
+				throw new APIException(UNABLE_GETTER_METHOD, new Object[] { "find", getterName, fieldName,
+				        openmrsObjectClass });
+			}
+		}
+		
+		String getFieldName() {
+			return fieldName;
+		}
+		
+		@SuppressWarnings("unchecked")
+		Collection<OpenmrsObject> get(OpenmrsObject openmrsObject) {
+			try {
+				Object childCollection = getter.invokeExact((Object) openmrsObject);
+				return (Collection<OpenmrsObject>) childCollection;
+			}
+			catch (Error e) {
+				throw e;
+			}
+			catch (Throwable e) {
+				throw new APIException(UNABLE_GETTER_METHOD, new Object[] { "run", getterName, fieldName,
+				        openmrsObject.getClass() }, e);
+			}
+		}
+	}
+	
+	private static final class PlanKey {
+		
+		private final Class<?> handlerType;
+		
+		private final Class<?> type;
+		
+		PlanKey(Class<?> handlerType, Class<?> type) {
+			this.handlerType = handlerType;
+			this.type = type;
+		}
+		
+		@Override
+		public int hashCode() {
+			return 31 * handlerType.hashCode() + type.hashCode();
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof PlanKey)) {
+				return false;
 			}
+			PlanKey other = (PlanKey) obj;
+			return handlerType.equals(other.handlerType) && type.equals(other.type);
 		}
 	}
 	
@@ -117,6 +117,45 @@ public interface AdministrationService extends OpenmrsService {
 	@Authorized(PrivilegeConstants.GET_GLOBAL_PROPERTIES)
 	public String getGlobalProperty(String propertyName, String defaultValue);
 	
+	/**
+	 * Gets the value of the global property as an integer, parsed once until the global property is
+	 * changed.
+	 * 
+	 * @param propertyName property key to look for
+	 * @param defaultValue value to return if the property does not exist or is not an integer
+	 * @return the value of the property as an integer
+	 * @since 3.0.0
+	 * <strong>Should</strong> return the value as an integer
+	 * <strong>Should</strong> return the default value if the value is not an integer
+	 */
+	@Authorized(PrivilegeConstants.GET_GLOBAL_PROPERTIES)
+	public int getGlobalPropertyAsInt(String propertyName, int defaultValue);
+	
+	/**
+	 * Gets the value of the global property as a boolean, parsed once until the global property is
+	 * changed.
+	 * 
+	 * @param propertyName property key to look for
+	 * @param defaultValue value to return if the property does not exist or is blank
+	 * @return the value of the property as a boolean
+	 * @since 3.0.0
+	 * <strong>Should</strong> return the value as a boolean
+	 */
+	@Authorized(PrivilegeConstants.GET_GLOBAL_PROPERTIES)
+	public boolean getGlobalPropertyAsBoolean(String propertyName, boolean defaultValue);
+	
+	/**
+	 * Gets the value of the global property as a list of comma separated values, parsed once until
+	 * the global property is changed.
+	 * 
+	 * @param propertyName property key to look for
+	 * @return the trimmed, non blank values or an empty list if the property does not exist
+	 * @since 3.0.0
+	 * <strong>Should</strong> return the trimmed comma separated values
+	 */
+	@Authorized(PrivilegeConstants.GET_GLOBAL_PROPERTIES)
+	public List<String> getGlobalPropertyAsList(String propertyName);
+	
 	/**
 	 * Gets the global property that has the given <code>propertyName</code>
 	 * 
@@ -0,0 +1,61 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The outcome of a service method saving a batch of objects which reports the objects that could
+ * not be saved instead of failing the whole batch. Service methods returning this type handle and
+ * validate the objects themselves, so {@link org.openmrs.aop.RequiredDataAdvice} leaves their
+ * arguments alone.
+ *
+ * @param <T> the type of the saved objects
+ * @since 3.0.0
+ */
+public class BatchSaveResult<T> {
+
+	private final List<T> saved = new ArrayList<>();
+
+	private final Map<Integer, APIException> errors = new TreeMap<>();
+
+	/**
+	 * @return the saved objects, which may be different instances than the ones passed in
+	 */
+	public List<T> getSaved() {
+		return Collections.unmodifiableList(saved);
+	}
+
+	/**
+	 * @return the reason each object that was not saved failed, keyed by its position in the batch
+	 */
+	public Map<Integer, APIException> getErrors() {
+		return Collections.unmodifiableMap(errors);
+	}
+
+	/**
+	 * @return true if any object of the batch was not saved
+	 */
+	public boolean hasErrors() {
+		return !errors.isEmpty();
+	}
+
+	public void addSaved(T object) {
+		saved.add(object);
+	}
+
+	public void addError(int index, APIException error) {
+		errors.put(index, error);
+	}
+}
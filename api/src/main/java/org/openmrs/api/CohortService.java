@@ -15,6 +15,7 @@ import java.util.List;
 import org.openmrs.Cohort;
 import org.openmrs.CohortMembership;
 import org.openmrs.Patient;
+import org.openmrs.PatientIdSet;
 import org.openmrs.User;
 import org.openmrs.annotation.Authorized;
 import org.openmrs.api.db.CohortDAO;
@@ -290,4 +291,16 @@ public interface CohortService extends OpenmrsService {
 	 */
 	@Authorized({ PrivilegeConstants.GET_PATIENT_COHORTS })
 	List<CohortMembership> getCohortMemberships(Integer patientId, Date activeOnDate, boolean includeVoided);
+	
+	/**
+	 * Gets the ids of the patients with a non voided membership in the given cohort as a compact
+	 * bitmap. For a saved cohort the ids are read straight from the database without loading any
+	 * memberships, otherwise they are taken from the cohort itself.
+	 *
+	 * @param cohort the cohort
+	 * @return the patient ids, never null
+	 * @since 3.0.0
+	 */
+	@Authorized({ PrivilegeConstants.GET_PATIENT_COHORTS })
+	PatientIdSet getPatientIdSet(Cohort cohort);
 }
@@ -13,6 +13,7 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 import org.openmrs.Cohort;
 import org.openmrs.Encounter;
@@ -444,6 +445,25 @@ public interface EncounterService extends OpenmrsService {
 	 */
 	public Map<Integer, List<Encounter>> getAllEncounters(Cohort patients);
 	
+	/**
+	 * Walks the non voided encounters of the patients with a non voided membership in the given
+	 * cohort and passes each patient's encounters, most recent first, to the given callback. Unlike
+	 * {@link #getAllEncounters(Cohort)} the encounters are loaded read-only in batches of patients,
+	 * in a session of their own which is cleared after each batch, so memory use stays bounded
+	 * however large the cohort is. The current session is left as it was. Encounters must not be
+	 * kept or modified beyond the callback invocation.
+	 * 
+	 * @param patients the cohort of patients to walk
+	 * @param batchSize the maximum number of patients whose encounters are loaded at once
+	 * @param callback receives the patient id and that patient's encounters
+	 * <strong>Should</strong> pass the encounters of each patient in the cohort to the callback
+	 * <strong>Should</strong> skip patients without encounters
+	 * <strong>Should</strong> not add the walked encounters to the session
+	 * @since 3.0.0
+	 */
+	@Authorized( { PrivilegeConstants.GET_ENCOUNTERS })
+	public void forEachPatientEncounters(Cohort patients, int batchSize, BiConsumer<Integer, List<Encounter>> callback);
+	
 	/**
 	 * Return the number of encounters matching a patient name or patient identifier
 	 * 
@@ -9,10 +9,13 @@
  */
 package org.openmrs.api;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
+import org.openmrs.Cohort;
 import org.openmrs.Concept;
 import org.openmrs.ConceptName;
 import org.openmrs.Encounter;
@@ -23,6 +26,7 @@ import org.openmrs.Person;
 import org.openmrs.Visit;
 import org.openmrs.annotation.Authorized;
 import org.openmrs.api.db.ObsDAO;
+import org.openmrs.obs.ComplexData;
 import org.openmrs.obs.ComplexObsHandler;
 import org.openmrs.util.OpenmrsConstants.PERSON_TYPE;
 import org.openmrs.util.PrivilegeConstants;
@@ -129,6 +133,31 @@ public interface ObsService extends OpenmrsService {
 	@Authorized( { PrivilegeConstants.ADD_OBS, PrivilegeConstants.EDIT_OBS })
 	public Obs saveObs(Obs obs, String changeMessage) throws APIException;
 	
+	/**
+	 * Saves the given observations in one go, for example when importing historical data. Every obs
+	 * is handled and validated before any of them is written, and the ones failing are reported in
+	 * the result instead of failing the whole batch. New obs are then written in chunks of the JDBC
+	 * batch size with one flush per chunk, each chunk within a savepoint and a session of its own.
+	 * Only if a chunk fails to be written, it is rolled back and written obs by obs, so a failure of
+	 * the database only rolls back the obs failing and is reported at its position as well, like a
+	 * failure of a complex obs handler. Saved new obs aren't attached to the session of the caller,
+	 * the objects loaded before the call stay attached. Existing obs are saved as by
+	 * {@link #saveObs(Obs, String)}, each within a savepoint.
+	 * 
+	 * @param obs the observations to save
+	 * @param changeMessage the reason existing obs are changed, required if there are any
+	 * @return the saved obs, and the errors of the ones not saved by position in the given collection
+	 * @throws APIException
+	 * <strong>Should</strong> save all valid obs and report the invalid ones
+	 * <strong>Should</strong> require a change message for existing obs
+	 * <strong>Should</strong> report the obs failing to be written and save the others
+	 * <strong>Should</strong> not leave the obs failing to be written in the session
+	 * <strong>Should</strong> not detach objects loaded before the call
+	 * @since 3.0.0
+	 */
+	@Authorized( { PrivilegeConstants.ADD_OBS, PrivilegeConstants.EDIT_OBS })
+	public BatchSaveResult<Obs> saveObsBatch(Collection<Obs> obs, String changeMessage) throws APIException;
+	
 	/**
 	 * Equivalent to deleting an observation
 	 * 
@@ -428,6 +457,23 @@ public interface ObsService extends OpenmrsService {
 	 */
 	public ComplexObsHandler getHandler(Obs obs) throws APIException;
 	
+	/**
+	 * Get a range of the complex data of an observation as a stream which is read from the storage
+	 * as it is consumed, so that large complex data can be served in parts without being loaded in
+	 * memory.
+	 * 
+	 * @param obs a complex obs
+	 * @param offset position of the first byte to read
+	 * @param length maximum number of bytes to read or null to read up to the end
+	 * @return the range, whose data is an InputStream the caller must close, or null if the obs is
+	 *         not complex
+	 * @see ComplexObsHandler#getComplexDataRange(Obs, long, Long)
+	 * @since 3.0.0
+	 * <strong>Should</strong> return the requested range of the complex data
+	 */
+	@Authorized( { PrivilegeConstants.GET_OBS })
+	public ComplexData getComplexDataRange(Obs obs, long offset, Long length) throws APIException;
+	
 	/**
 	 * <u>Add</u> the given map to this service's handlers. This method registers each
 	 * ComplexObsHandler to this service. If the given String key exists, that handler is
@@ -537,4 +583,22 @@ public interface ObsService extends OpenmrsService {
 			List<Concept> answers, List<PERSON_TYPE> personTypes, List<Location> locations, List<Visit> visits,
 			Integer obsGroupId, Date fromDate, Date toDate, boolean includeVoidedObs, String accessionNumber)
 			throws APIException;
+	
+	/**
+	 * Walks the non voided observations of the patients with a non voided membership in the given
+	 * cohort and passes each patient's observations, most recent first, to the given callback. The
+	 * observations are loaded read-only in batches of patients, in a session of their own which is
+	 * cleared after each batch, so memory use stays bounded however large the cohort is. The current
+	 * session is left as it was. Observations must not be kept or modified beyond the callback
+	 * invocation.
+	 * 
+	 * @param patients the cohort of patients to walk
+	 * @param batchSize the maximum number of patients whose observations are loaded at once
+	 * @param callback receives the patient id and that patient's observations
+	 * <strong>Should</strong> pass the observations of each patient in the cohort to the callback
+	 * <strong>Should</strong> not detach observations already in the session
+	 * @since 3.0.0
+	 */
+	@Authorized(PrivilegeConstants.GET_OBS)
+	public void forEachPatientObs(Cohort patients, int batchSize, BiConsumer<Integer, List<Obs>> callback);
 }
@@ -15,6 +15,7 @@ import ca.uhn.hl7v2.parser.GenericParser;
 import org.hibernate.SessionFactory;
 import org.openmrs.hl7.handler.ADTA28Handler;
 import org.openmrs.hl7.handler.ORUR01Handler;
+import org.openmrs.messagesource.impl.CompiledResourceBundleMessageSource;
 import org.openmrs.messagesource.impl.MutableResourceBundleMessageSource;
 import org.openmrs.obs.ComplexObsHandler;
 import org.openmrs.obs.handler.BinaryDataHandler;
@@ -101,7 +102,7 @@ public class OpenmrsApplicationContextConfig {
 	
 	@Bean
 	public MutableResourceBundleMessageSource mutableResourceBundleMessageSource() {
-		MutableResourceBundleMessageSource messageSource = new MutableResourceBundleMessageSource();
+		MutableResourceBundleMessageSource messageSource = new CompiledResourceBundleMessageSource();
 		messageSource.setBasenames("classpath:custom_messages", "classpath:messages");
 		messageSource.setUseCodeAsDefaultMessage(true);
 		messageSource.setCacheSeconds(5);
@@ -348,6 +348,19 @@ public interface OrderService extends OpenmrsService {
 	@Authorized(PrivilegeConstants.ADD_ORDERS)
 	public Long getNextOrderNumberSeedSequenceValue();
 	
+	/**
+	 * Reserves a block of consecutive order number seeds in a separate transaction, so that an
+	 * order number generator can hand them out without going back to the database for each order
+	 * 
+	 * @param count the number of seeds to reserve
+	 * @return the first seed of the block
+	 * <strong>Should</strong> reserve the given number of seeds
+	 * <strong>Should</strong> fail if count is less than one
+	 * @since 3.0.0
+	 */
+	@Authorized(PrivilegeConstants.ADD_ORDERS)
+	public Long getNextOrderNumberSeedSequenceValues(int count);
+	
 	/**
 	 * Gets the order matching the specified order number and its previous orders in the ordering
 	 * they occurred, i.e if this order has a previous order, fetch it and if it also has a previous
@@ -25,6 +25,7 @@ import org.openmrs.annotation.Authorized;
 import org.openmrs.api.db.PatientDAO;
 import org.openmrs.comparator.PatientIdentifierTypeDefaultComparator;
 import org.openmrs.patient.IdentifierValidator;
+import org.openmrs.person.PersonMatch;
 import org.openmrs.person.PersonMergeLogData;
 import org.openmrs.serialization.SerializationException;
 import org.openmrs.util.PrivilegeConstants;
@@ -491,6 +492,24 @@ public interface PatientService extends OpenmrsService {
 	@Authorized( { PrivilegeConstants.GET_PATIENTS })
 	public List<Patient> getDuplicatePatientsByAttributes(List<String> attributes) throws APIException;
 	
+	/**
+	 * Finds pairs of patients who are probably the same person. The candidate pairs are the patients
+	 * sharing a phonetic match key of a name part, the gender and, within two years, the year of
+	 * birth, which are then scored by how similar their names, gender and year of birth are. This
+	 * requires the match keys to be maintained, see
+	 * {@link org.openmrs.util.OpenmrsConstants#GLOBAL_PROPERTY_PERSON_MATCH_KEYS_ENABLED}.
+	 * 
+	 * @param minimumScore the minimum score between 0 and 1 of the pairs to return
+	 * @param maxResults the maximum number of pairs to return
+	 * @return the pairs of patients with the highest scores first
+	 * @throws APIException
+	 * @since 3.0.0
+	 * @see org.openmrs.person.PersonMatchProfile#score(org.openmrs.person.PersonMatchProfile)
+	 * <strong>Should</strong> return patients with similar names, gender and birth year
+	 */
+	@Authorized( { PrivilegeConstants.GET_PATIENTS })
+	public List<PersonMatch> getProbableDuplicatePatients(double minimumScore, int maxResults) throws APIException;
+	
 	/**
 	 * Convenience method to join two patients' information into one record.
 	 * <ol>
@@ -534,6 +553,7 @@ public interface PatientService extends OpenmrsService {
 	 * <strong>Should</strong> not void relationships for same type and side with different relatives
 	 * <strong>Should</strong> audit moved encounters
 	 * <strong>Should</strong> audit moved visits
+	 * <strong>Should</strong> move encounters and their observations with bulk updates when enabled
 	 * <strong>Should</strong> audit created patient programs
 	 * <strong>Should</strong> audit voided relationships
 	 * <strong>Should</strong> audit created relationships
@@ -91,6 +91,7 @@ public interface PersonService extends OpenmrsService {
 	 * <strong>Should</strong> match two word search to any name part
 	 * <strong>Should</strong> match three word search to any name part
 	 * <strong>Should</strong> match search to familyName2
+	 * <strong>Should</strong> rank people by their match keys when enabled
 	 */
 	// TODO: make gender a (definable?) constant
 	@Authorized( { PrivilegeConstants.GET_PERSONS })
@@ -123,6 +124,7 @@ public interface PersonService extends OpenmrsService {
 	 * <strong>Should</strong> set the date created and creator on new
 	 * <strong>Should</strong> set the date changed and changed by on update
 	 * <strong>Should</strong> update any global property which reference this type
+	 * <strong>Should</strong> update the patient documents holding attributes of the type when made searchable
 	 * <strong>Should</strong> throw an error when trying to save person attribute type while person attribute types are locked
 	 */
 	@Authorized( { PrivilegeConstants.MANAGE_PERSON_ATTRIBUTE_TYPES })
@@ -835,6 +837,20 @@ public interface PersonService extends OpenmrsService {
 	@Authorized( { PrivilegeConstants.EDIT_PERSONS })
 	public PersonAddress savePersonAddress(PersonAddress personAddress);
 	
+	/**
+	 * Derives the phonetic match keys of all people again from their names, gender and birthdate.
+	 * The match keys are only maintained when people are saved while the
+	 * {@link OpenmrsConstants#GLOBAL_PROPERTY_PERSON_MATCH_KEYS_ENABLED} global property is true, so
+	 * this should be called once after enabling it. This clears the current session.
+	 * 
+	 * @return the number of people whose match keys were rebuilt
+	 * @throws APIException
+	 * @since 3.0.0
+	 * <strong>Should</strong> create the match keys of all people
+	 */
+	@Authorized( { PrivilegeConstants.EDIT_PERSONS })
+	public int rebuildPersonMatchKeys() throws APIException;
+	
 	/**
 	 * Check if the person attribute types are locked, and if they are throws an exception during manipulation of a person attribute type
 	 * 
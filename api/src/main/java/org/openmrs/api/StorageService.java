@@ -40,6 +40,19 @@ public interface StorageService extends OpenmrsService {
 	 */
 	InputStream getData(String key) throws IOException;
 
+	/**
+	 * Get InputStream to read a range of the data for the given key without reading the bytes before
+	 * it, e.g. to serve an HTTP range request.
+	 *
+	 * @param key unique key
+	 * @param offset position of the first byte to read
+	 * @param length maximum number of bytes to read or null to read up to the end
+	 * @return data
+	 * @throws IOException wrong key, offset past the end of the data or IO error
+	 * @since 3.0.0
+	 */
+	InputStream getData(String key, long offset, Long length) throws IOException;
+
 
 	/**
 	 * Get InputStream to read temporary data for the given key.
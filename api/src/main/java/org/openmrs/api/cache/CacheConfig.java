@@ -18,6 +18,7 @@ import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 import java.util.Set;
 
 import org.apache.commons.lang3.StringUtils;
@@ -57,6 +58,10 @@ import org.yaml.snakeyaml.Yaml;
  * <p>
  * Please note the underlying implementation changed from ehcache to Infinispan since 2.8.x 
  * to support replicated/distributed caches.
+ * <p>
+ * The regions of the Hibernate second-level cache can be sized in cache-hibernate.yaml files in the
+ * classpath, which contain a <b>regions</b> element mapping region names to their settings, see
+ * {@link #getHibernateCacheProperties()}.
  */
 @Configuration
 public class CacheConfig {
@@ -75,6 +80,9 @@ public class CacheConfig {
 	private String apiCacheBindPort;
 	
 	private String jChannelConfig;
+	
+	private static final Map<String, String> HIBERNATE_REGION_SETTINGS = Map.of("maxCount", ".memory.size", "maxIdle",
+	    ".expiration.max_idle", "lifespan", ".expiration.lifespan", "wakeUpInterval", ".expiration.wake_up_interval");
 
 	@Bean(name = "apiCacheManager", destroyMethod = "stop")
 	public SpringEmbeddedCacheManager apiCacheManager() throws Exception {
@@ -165,11 +173,56 @@ public class CacheConfig {
 		return new ByteArrayInputStream(configDump.getBytes(StandardCharsets.UTF_8));
 	}
 
+	/**
+	 * Converts the region settings of all cache-hibernate.yaml files to the properties of the
+	 * Infinispan region factory of Hibernate.
+	 * 
+	 * @return the properties, e.g. hibernate.cache.infinispan.org.openmrs.EncounterType.memory.size
+	 * @since 3.0.0
+	 */
+	public Properties getHibernateCacheProperties() {
+		Properties properties = new Properties();
+		Yaml yaml = new Yaml();
+		for (URL configFile : getConfigurations("cache-hibernate.yaml")) {
+			Map<String, Object> loadedConfig;
+			try (InputStream in = configFile.openStream()) {
+				loadedConfig = yaml.load(in);
+			}
+			catch (IOException e) {
+				log.error("Failed to read cache config file: {}", configFile, e);
+				continue;
+			}
+			
+			@SuppressWarnings("unchecked")
+			Map<String, Map<String, Object>> regions = (Map<String, Map<String, Object>>) loadedConfig.get("regions");
+			if (regions == null) {
+				continue;
+			}
+			for (Map.Entry<String, Map<String, Object>> region : regions.entrySet()) {
+				for (Map.Entry<String, Object> setting : region.getValue().entrySet()) {
+					String suffix = HIBERNATE_REGION_SETTINGS.get(setting.getKey());
+					if (suffix == null) {
+						log.warn("Ignoring unknown setting {} of cache region {} in {}", setting.getKey(), region.getKey(),
+						    configFile);
+					} else {
+						properties.setProperty("hibernate.cache.infinispan." + region.getKey() + suffix,
+						    String.valueOf(setting.getValue()));
+					}
+				}
+			}
+		}
+		return properties;
+	}
+	
 	public List<URL> getCacheConfigurations() {
+		return getConfigurations("cache-api.yaml");
+	}
+	
+	private List<URL> getConfigurations(String fileName) {
 		Resource[] configResources;
 		try {
 			ResourcePatternResolver patternResolver = new PathMatchingResourcePatternResolver();
-			configResources = patternResolver.getResources("classpath*:cache-api.yaml");
+			configResources = patternResolver.getResources("classpath*:" + fileName);
 		} catch (IOException e) {
 			throw new IllegalStateException("Unable to find cache configurations", e);
 		}
@@ -0,0 +1,249 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.cache;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openmrs.GlobalProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Read-through cache of the global properties by case insensitive name, so that global properties
+ * read on every request do not query the database each time. It is kept in the
+ * <i>globalProperties</i> cache of the apiCacheManager, which invalidates the other nodes of a
+ * cluster when a property is evicted.
+ * <p>
+ * Missing properties are not cached, so that properties added by database updates or modules are
+ * seen as soon as they exist. A property is only cached if no property was evicted while it was
+ * loaded, so that a value read before a change can't be put back after the change evicted it.
+ * Properties loaded in a transaction which is rolled back are evicted, since they may have been read
+ * before being committed. Each cached property parses its value at most once for each of the typed
+ * accessors.
+ *
+ * @since 3.0.0
+ */
+@Component
+public class GlobalPropertyCache {
+
+	public static final String CACHE_NAME = "globalProperties";
+
+	private final CacheManager cacheManager;
+
+	/**
+	 * Incremented by every eviction, while holding its lock, so that loads which started before an
+	 * eviction are not cached
+	 */
+	private final AtomicLong generation = new AtomicLong();
+
+	@Autowired
+	public GlobalPropertyCache(@Qualifier("apiCacheManager") CacheManager cacheManager) {
+		this.cacheManager = cacheManager;
+	}
+
+	/**
+	 * Gets the cached global property, loading it if it is not cached.
+	 *
+	 * @param propertyName the name of the global property
+	 * @param loader loads the global property, it may return null if it does not exist
+	 * @return the cached global property, with a null value if it does not exist
+	 */
+	public Entry get(String propertyName, Function<String, GlobalProperty> loader) {
+		String key = toKey(propertyName);
+		Entry entry = getCache().get(key, Entry.class);
+		if (entry == null) {
+			long loadedAt = generation.get();
+			GlobalProperty globalProperty = loader.apply(propertyName);
+			entry = new Entry(globalProperty);
+			if (globalProperty != null && putUnlessEvicted(key, entry, loadedAt)) {
+				evictOnRollback(key);
+			}
+		}
+		return entry;
+	}
+
+	/**
+	 * Removes the global property from the cache. If it is changed in a transaction it is removed
+	 * again when the transaction completes, as its value may have been read and cached from the
+	 * database in the meantime.
+	 *
+	 * @param propertyName the name of the global property
+	 */
+	public void evict(String propertyName) {
+		String key = toKey(propertyName);
+		evictKey(key);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+				@Override
+				public void afterCompletion(int status) {
+					evictKey(key);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Removes all global properties from the cache, e.g. after they were changed in the database
+	 * without the API by database updates or sql statements.
+	 */
+	public void clear() {
+		synchronized (generation) {
+			generation.incrementAndGet();
+			getCache().invalidate();
+		}
+	}
+
+	/**
+	 * Caches the loaded property unless a property was evicted since it started loading.
+	 *
+	 * @return true if the property was cached
+	 */
+	private boolean putUnlessEvicted(String key, Entry entry, long loadedAt) {
+		synchronized (generation) {
+			if (generation.get() != loadedAt) {
+				return false;
+			}
+			getCache().put(key, entry);
+			return true;
+		}
+	}
+
+	private void evictKey(String key) {
+		synchronized (generation) {
+			generation.incrementAndGet();
+			getCache().evict(key);
+		}
+	}
+
+	private void evictOnRollback(String key) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+				@Override
+				public void afterCompletion(int status) {
+					if (status == STATUS_ROLLED_BACK) {
+						getCache().evict(key);
+					}
+				}
+			});
+		}
+	}
+
+	/**
+	 * Global property names are case insensitive.
+	 */
+	private String toKey(String propertyName) {
+		return propertyName.toLowerCase(Locale.ROOT);
+	}
+
+	private Cache getCache() {
+		return cacheManager.getCache(CACHE_NAME);
+	}
+
+	/**
+	 * The cached value and view privilege of a global property.
+	 */
+	public static class Entry implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final String value;
+
+		private final String viewPrivilege;
+
+		private transient volatile Optional<Integer> intValue;
+
+		private transient volatile Optional<Boolean> booleanValue;
+
+		private transient volatile List<String> listValue;
+
+		Entry(GlobalProperty globalProperty) {
+			this.value = globalProperty != null ? globalProperty.getPropertyValue() : null;
+			this.viewPrivilege = globalProperty != null && globalProperty.getViewPrivilege() != null ? globalProperty
+			        .getViewPrivilege().getPrivilege() : null;
+		}
+
+		/**
+		 * @return the value of the global property or null if it does not exist
+		 */
+		public String getValue() {
+			return value;
+		}
+
+		/**
+		 * @return the privilege required to view the global property or null if none
+		 */
+		public String getViewPrivilege() {
+			return viewPrivilege;
+		}
+
+		/**
+		 * @param defaultValue returned if the value is missing or not an integer
+		 * @return the value as an integer
+		 */
+		public int getIntValue(int defaultValue) {
+			Optional<Integer> parsed = intValue;
+			if (parsed == null) {
+				Integer number = null;
+				try {
+					number = value != null ? Integer.valueOf(value.trim()) : null;
+				}
+				catch (NumberFormatException e) {
+					// the default value is used
+				}
+				parsed = Optional.ofNullable(number);
+				intValue = parsed;
+			}
+			return parsed.orElse(defaultValue);
+		}
+
+		/**
+		 * @param defaultValue returned if the value is missing or blank
+		 * @return the value as a boolean
+		 */
+		public boolean getBooleanValue(boolean defaultValue) {
+			Optional<Boolean> parsed = booleanValue;
+			if (parsed == null) {
+				parsed = Optional.ofNullable(StringUtils.isBlank(value) ? null : Boolean.valueOf(value.trim()));
+				booleanValue = parsed;
+			}
+			return parsed.orElse(defaultValue);
+		}
+
+		/**
+		 * @return the trimmed, non blank elements of the comma separated value, an empty list if the
+		 *         value is missing
+		 */
+		public List<String> getListValue() {
+			List<String> parsed = listValue;
+			if (parsed == null) {
+				parsed = value == null ? Collections.emptyList() : Collections.unmodifiableList(Arrays.stream(
+				    value.split(",")).map(String::trim).filter(StringUtils::isNotEmpty).collect(Collectors.toList()));
+				listValue = parsed;
+			}
+			return parsed;
+		}
+	}
+}
@@ -42,6 +42,7 @@ import org.openmrs.api.SerializationService;
 import org.openmrs.api.UserService;
 import org.openmrs.api.VisitService;
 import org.openmrs.api.db.ContextDAO;
+import org.openmrs.api.db.hibernate.search.SearchIndexProgress;
 import org.openmrs.hl7.HL7Service;
 import org.openmrs.logic.LogicService;
 import org.openmrs.messagesource.MessageSourceService;
@@ -79,6 +80,7 @@ import javax.mail.Session;
 import java.sql.Connection;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -1485,6 +1487,60 @@ public class Context {
 		getContextDAO().updateSearchIndex(types);
 	}
 
+	/**
+	 * Updates the search index for the objects of the given type whose property has the given
+	 * value, for example after a change to the metadata they embed in their documents. Unlike
+	 * {@link #updateSearchIndexForType(Class)} it works in the current session and does not purge
+	 * the index of the type first.
+	 *
+	 * @param type the indexed type
+	 * @param property the name of the property to match, or a path through collections of the type
+	 *            such as "attributes.attributeType"
+	 * @param value the value of the property to match
+	 * @since 3.0.0
+	 */
+	public static void updateSearchIndexForType(Class<?> type, String property, Object value) {
+		getContextDAO().updateSearchIndexForType(type, property, value);
+	}
+
+	/**
+	 * Rebuilds the search index in the background. The ids of each type are split into ranges of
+	 * {@link OpenmrsConstants#GP_SEARCH_INDEX_REBUILD_PARTITION_SIZE} which are indexed on
+	 * {@link OpenmrsConstants#GP_SEARCH_INDEX_REBUILD_THREADS} threads. The rebuild is checkpointed
+	 * after each range, so if it is interrupted it can be continued with
+	 * {@link #resumeSearchIndexRebuild()}, which also happens automatically on startup.
+	 *
+	 * @param changedSince if not null, only objects created, changed, voided or retired since this
+	 *            date are reindexed and the rest of the index is kept
+	 * @param types the types to reindex, all indexed types if none are given
+	 * @return object representing the result of the started asynchronous operation
+	 * @see #getSearchIndexProgress()
+	 * @since 3.0.0
+	 */
+	public static Future<SearchIndexProgress> rebuildSearchIndex(Date changedSince, Class<?>... types) {
+		return getContextDAO().rebuildSearchIndex(changedSince, types);
+	}
+
+	/**
+	 * Resumes a search index rebuild which was interrupted, skipping the ranges of ids which were
+	 * already indexed.
+	 *
+	 * @return object representing the result of the resumed asynchronous operation or null if there
+	 *         is no rebuild to resume
+	 * @since 3.0.0
+	 */
+	public static Future<SearchIndexProgress> resumeSearchIndexRebuild() {
+		return getContextDAO().resumeSearchIndexRebuild();
+	}
+
+	/**
+	 * @return the progress of the running or last search index rebuild started in this JVM, or null
+	 * @since 3.0.0
+	 */
+	public static SearchIndexProgress getSearchIndexProgress() {
+		return getContextDAO().getSearchIndexProgress();
+	}
+
 	/**
 	 * Updates the search index for the given object.
 	 *
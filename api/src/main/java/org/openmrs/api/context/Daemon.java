@@ -13,7 +13,12 @@ import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import org.apache.commons.collections.CollectionUtils;
@@ -110,6 +115,56 @@ public final class Daemon {
 		return module;
 	}
 
+	/**
+	 * This method should not be called directly. {@link ModuleFactory#startModules(int)} uses this to
+	 * start modules in parallel on a pool of threads authenticated as the daemon user, so that the
+	 * failures of the modules can be reported to the super users.
+	 *
+	 * @param parallelism the number of threads of the pool
+	 * @return a pool running each task as the daemon user, to be shut down by the caller
+	 * @since 3.0.0
+	 */
+	public static ExecutorService newModuleStartupExecutor(int parallelism) {
+		var possibleFrame = STACK_WALKER.walk(s ->
+			s.skip(1).limit(1).map(StackWalker.StackFrame::getDeclaringClass).findFirst()
+		);
+		
+		if (possibleFrame.isEmpty()) {
+			throw new APIException("Could not determine if module was called from appropriate place");
+		} else {
+			var callerClass = possibleFrame.get();
+			if (!ModuleFactory.class.equals(callerClass)) {
+				throw new APIException("Module.factory.only", new Object[] { callerClass.getName() });
+			}
+		}
+		
+		AtomicInteger threadNumber = new AtomicInteger();
+		return new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+		        runnable -> {
+			        Thread thread = new Thread(runnable, "OpenMRS Module Startup " + threadNumber.incrementAndGet());
+			        thread.setDaemon(true);
+			        return thread;
+		        }) {
+			
+			@Override
+			protected void beforeExecute(Thread thread, Runnable runnable) {
+				isDaemonThread.set(true);
+				Context.openSession();
+			}
+			
+			@Override
+			protected void afterExecute(Runnable runnable, Throwable throwable) {
+				try {
+					Context.closeSession();
+				}
+				finally {
+					isDaemonThread.remove();
+					daemonThreadUser.remove();
+				}
+			}
+		};
+	}
+	
 	/**
 	 * This method should not be called directly, only {@link ContextDAO#createUser(User, String, List)} can
 	 * legally invoke this method.
@@ -0,0 +1,138 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.context;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openmrs.Privilege;
+import org.openmrs.Role;
+import org.openmrs.util.RoleConstants;
+
+/**
+ * An immutable set of privileges flattened from a collection of roles, so that checking a privilege
+ * is a single bit test instead of walking the role graph.
+ * <p>
+ * Privilege names are interned into dense integer ids shared by all instances. Privilege names are
+ * matched case insensitively just like in {@link Role#hasPrivilege(String)}.
+ * <p>
+ * Instances are stamped with a global generation, which is incremented by {@link #invalidateAll()}
+ * whenever roles, privileges or user role membership change through the mutators of {@link Role} and
+ * {@link org.openmrs.User} or the {@link org.openmrs.api.UserService}. Changes made directly to the
+ * collections returned by the getters invalidate the sets once they are flushed, see
+ * {@link org.openmrs.api.db.hibernate.PrivilegeCollectionEventListener}. Callers must rebuild a set
+ * once {@link #isCurrent()} returns false.
+ *
+ * @see UserContext#hasPrivilege(String)
+ * @since 3.0.0
+ */
+public final class PrivilegeBitSet {
+	
+	private static final Map<String, Integer> idsByName = new ConcurrentHashMap<>();
+	
+	private static final Map<String, Integer> idsByLowerCaseName = new ConcurrentHashMap<>();
+	
+	private static final AtomicInteger nextId = new AtomicInteger();
+	
+	private static final AtomicLong generation = new AtomicLong();
+	
+	private final BitSet privileges;
+	
+	private final boolean superUser;
+	
+	private final long createdInGeneration;
+	
+	private PrivilegeBitSet(BitSet privileges, boolean superUser, long createdInGeneration) {
+		this.privileges = privileges;
+		this.superUser = superUser;
+		this.createdInGeneration = createdInGeneration;
+	}
+	
+	/**
+	 * Flattens the privileges of the given roles. The roles are expected to already include inherited
+	 * roles e.g. as returned by {@link org.openmrs.User#getAllRoles()}.
+	 * 
+	 * @param roles the roles
+	 * @param superUser true if all privileges should be granted regardless of the roles
+	 * @return the privilege set
+	 */
+	public static PrivilegeBitSet of(Collection<Role> roles, boolean superUser) {
+		// read the generation first so that changes made while building invalidate the result
+		long currentGeneration = generation.get();
+		BitSet privileges = new BitSet();
+		for (Role role : roles) {
+			if (role == null) {
+				continue;
+			}
+			if (RoleConstants.SUPERUSER.equals(role.getRole())) {
+				superUser = true;
+			}
+			if (role.getPrivileges() != null) {
+				for (Privilege privilege : role.getPrivileges()) {
+					if (privilege != null && privilege.getPrivilege() != null) {
+						privileges.set(intern(privilege.getPrivilege()));
+					}
+				}
+			}
+		}
+		return new PrivilegeBitSet(privileges, superUser, currentGeneration);
+	}
+	
+	/**
+	 * @param privilege the privilege name
+	 * @return true if the privilege is in this set or the set is for a super user
+	 */
+	public boolean contains(String privilege) {
+		if (superUser) {
+			return true;
+		}
+		if (privilege == null) {
+			return false;
+		}
+		Integer id = idsByName.get(privilege);
+		if (id == null) {
+			id = idsByLowerCaseName.get(privilege.toLowerCase(Locale.ROOT));
+			if (id == null) {
+				// never interned so no role can have it
+				return false;
+			}
+			idsByName.putIfAbsent(privilege, id);
+		}
+		return privileges.get(id);
+	}
+	
+	/**
+	 * @return true if no roles or privileges have changed since this set was built
+	 */
+	public boolean isCurrent() {
+		return createdInGeneration == generation.get();
+	}
+	
+	/**
+	 * Marks all existing privilege sets as outdated.
+	 */
+	public static void invalidateAll() {
+		generation.incrementAndGet();
+	}
+	
+	private static int intern(String privilege) {
+		Integer id = idsByName.get(privilege);
+		if (id == null) {
+			id = idsByLowerCaseName.computeIfAbsent(privilege.toLowerCase(Locale.ROOT), name -> nextId.getAndIncrement());
+			idsByName.putIfAbsent(privilege, id);
+		}
+		return id;
+	}
+}
@@ -17,6 +17,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.aopalliance.aop.Advice;
 import org.openmrs.api.APIException;
@@ -81,7 +82,11 @@ public class ServiceContext implements ApplicationContextAware {
 
 	private ApplicationContext applicationContext;
 	
-	private static boolean refreshingContext = false;
+	/**
+	 * Only written while holding the refreshingContextLock, but read without it so that getting a
+	 * service only blocks while the context is actually being refreshed.
+	 */
+	private static volatile boolean refreshingContext = false;
 	
 	private static final Object refreshingContextLock = new Object();
 	
@@ -91,8 +96,8 @@ public class ServiceContext implements ApplicationContextAware {
 	 */
 	private boolean useSystemClassLoader = false;
 	
-	// Cached service objects
-	Map<Class, Object> services = new HashMap<>();
+	// Cached service objects, read concurrently by all threads getting a service
+	Map<Class, Object> services = new ConcurrentHashMap<>();
 	
 	// Advisors added to services by this service
 	Map<Class, Set<Advisor>> addedAdvisors = new HashMap<>();
@@ -675,6 +680,25 @@ public class ServiceContext implements ApplicationContextAware {
 		
 		// if the context is refreshing, wait until it is
 		// done -- otherwise a null service might be returned
+		if (refreshingContext) {
+			waitForRefreshingContext(cls);
+		}
+		
+		Object service = services.get(cls);
+		if (service == null) {
+			throw new ServiceNotFoundException(cls);
+		}
+		
+		return (T) service;
+	}
+	
+	/**
+	 * Blocks until the context is done refreshing, only called once a refresh is seen to be in
+	 * progress so that getting a service does not contend on the lock otherwise.
+	 *
+	 * @param cls the service being got
+	 */
+	private void waitForRefreshingContext(Class<?> cls) {
 		synchronized (refreshingContextLock) {
 			try {
 				while (refreshingContext) {
@@ -690,13 +714,6 @@ public class ServiceContext implements ApplicationContextAware {
 				log.warn("Refresh lock was interrupted", e);
 			}
 		}
-		
-		Object service = services.get(cls);
-		if (service == null) {
-			throw new ServiceNotFoundException(cls);
-		}
-		
-		return (T) service;
 	}
 	
 	/**
@@ -864,9 +881,7 @@ public class ServiceContext implements ApplicationContextAware {
 	 *         doneRefreshingContext()
 	 */
 	public boolean isRefreshingContext() {
-		synchronized (refreshingContextLock) {
-			return refreshingContext;
-		}
+		return refreshingContext;
 	}
 	
 	/**
@@ -78,6 +78,16 @@ public class UserContext implements Serializable {
 	 */
 	private Role anonymousRole = null;
 	
+	/**
+	 * Cached privileges of the authenticated user including the Authenticated role
+	 */
+	private transient volatile PrivilegeBitSet userPrivileges = null;
+	
+	/**
+	 * Cached privileges of the Anonymous role
+	 */
+	private transient volatile PrivilegeBitSet anonymousPrivileges = null;
+	
 	/**
 	 * User's defined location
 	 */
@@ -116,6 +126,7 @@ public class UserContext implements Serializable {
 		try {
 			authenticated = authenticationScheme.authenticate(credentials);
 			this.user = authenticated.getUser();
+			this.userPrivileges = null;
 			notifyUserSessionListener(this.user, Event.LOGIN, Status.SUCCESS);
 		}
 		catch (ContextAuthenticationException e) {
@@ -145,6 +156,7 @@ public class UserContext implements Serializable {
 		
 		if (user != null) {
 			user = Context.getUserService().getUser(user.getUserId());
+			userPrivileges = null;
 			//update the stored location in the user's session
 			setUserLocation(false);
 			setUserLocale(false);
@@ -186,6 +198,7 @@ public class UserContext implements Serializable {
 		}
 		
 		this.user = userToBecome;
+		this.userPrivileges = null;
 		
 		//update the user's location and locale
 		setUserLocation(false);
@@ -219,6 +232,7 @@ public class UserContext implements Serializable {
 		log.debug("setting user to null on logout");
 		notifyUserSessionListener(user, Event.LOGOUT, Status.SUCCESS);
 		user = null;
+		userPrivileges = null;
 		locationId = null;
 		locale = null;
 		proxies.clear();
@@ -385,16 +399,13 @@ public class UserContext implements Serializable {
 	public boolean hasPrivilege(String privilege) {
 		log.debug("Checking '{}' against proxies: {}", privilege, proxies);
 		// check proxied privileges
-		for (String s : new ArrayList<>(proxies)) {
-			if (s.equals(privilege)) {
-				notifyPrivilegeListeners(getAuthenticatedUser(), privilege, true);
-				return true;
-			}
+		if (proxies.contains(privilege)) {
+			notifyPrivilegeListeners(getAuthenticatedUser(), privilege, true);
+			return true;
 		}
 		
-		// if a user has logged in, check their privileges
-		if (isAuthenticated()
-			&& (getAuthenticatedUser().hasPrivilege(privilege) || getAuthenticatedRole().hasPrivilege(privilege))) {
+		// if a user has logged in, check their privileges (all authenticated users have the "" (empty) privilege)
+		if (isAuthenticated() && (StringUtils.isEmpty(privilege) || getUserPrivileges().contains(privilege))) {
 			
 			// check user's privileges
 			notifyPrivilegeListeners(getAuthenticatedUser(), privilege, true);
@@ -402,7 +413,7 @@ public class UserContext implements Serializable {
 			
 		}
 		
-		if (getAnonymousRole().hasPrivilege(privilege)) {
+		if (getAnonymousPrivileges().contains(privilege)) {
 			notifyPrivilegeListeners(getAuthenticatedUser(), privilege, true);
 			return true;
 		}
@@ -412,6 +423,38 @@ public class UserContext implements Serializable {
 		return false;
 	}
 	
+	/**
+	 * Gets the flattened privileges of the authenticated user and the Authenticated role, rebuilding
+	 * them if roles or privileges have changed.
+	 *
+	 * @return the privileges
+	 */
+	private PrivilegeBitSet getUserPrivileges() {
+		PrivilegeBitSet privileges = userPrivileges;
+		if (privileges == null || !privileges.isCurrent()) {
+			Set<Role> roles = new HashSet<>(user.getAllRoles());
+			roles.add(getAuthenticatedRole());
+			privileges = PrivilegeBitSet.of(roles, user.isSuperUser());
+			userPrivileges = privileges;
+		}
+		return privileges;
+	}
+	
+	/**
+	 * Gets the flattened privileges of the Anonymous role, rebuilding them if roles or privileges
+	 * have changed.
+	 *
+	 * @return the privileges
+	 */
+	private PrivilegeBitSet getAnonymousPrivileges() {
+		PrivilegeBitSet privileges = anonymousPrivileges;
+		if (privileges == null || !privileges.isCurrent()) {
+			privileges = PrivilegeBitSet.of(Collections.singleton(getAnonymousRole()), false);
+			anonymousPrivileges = privileges;
+		}
+		return privileges;
+	}
+	
 	/**
 	 * Convenience method to get the Role in the system designed to be given to all users
 	 *
@@ -113,4 +113,11 @@ public interface CohortDAO {
 	 * @since 2.1.0
 	 */
 	CohortMembership saveCohortMembership(CohortMembership cohortMembership);
+	
+	/**
+	 * @param cohortId the id of a saved cohort
+	 * @return the patient ids of the non voided memberships of the cohort
+	 * @since 3.0.0
+	 */
+	List<Integer> getMemberPatientIds(Integer cohortId);
 }
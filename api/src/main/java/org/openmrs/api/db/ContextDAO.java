@@ -10,6 +10,7 @@
 package org.openmrs.api.db;
 
 import java.sql.Connection;
+import java.util.Date;
 import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.Future;
@@ -19,6 +20,7 @@ import org.openmrs.OpenmrsObject;
 import org.openmrs.User;
 import org.openmrs.api.context.Context;
 import org.openmrs.api.context.ContextAuthenticationException;
+import org.openmrs.api.db.hibernate.search.SearchIndexProgress;
 import org.openmrs.util.OpenmrsConstants;
 
 /**
@@ -208,6 +210,30 @@ public interface ContextDAO {
 	 * @see Context#updateSearchIndex(Class[])
 	 */
 	public void updateSearchIndex(Class<?>... types);
+	
+	/**
+	 * @see Context#updateSearchIndexForType(Class, String, Object)
+	 * @since 3.0.0
+	 */
+	public void updateSearchIndexForType(Class<?> type, String property, Object value);
+	
+	/**
+	 * @see Context#rebuildSearchIndex(Date, Class[])
+	 * @since 3.0.0
+	 */
+	public Future<SearchIndexProgress> rebuildSearchIndex(Date changedSince, Class<?>... types);
+	
+	/**
+	 * @see Context#resumeSearchIndexRebuild()
+	 * @since 3.0.0
+	 */
+	public Future<SearchIndexProgress> resumeSearchIndexRebuild();
+	
+	/**
+	 * @see Context#getSearchIndexProgress()
+	 * @since 3.0.0
+	 */
+	public SearchIndexProgress getSearchIndexProgress();
 
 	/**
 	 * @return a Connection from the OpenMRS database connection pool
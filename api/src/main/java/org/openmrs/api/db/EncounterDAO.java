@@ -12,6 +12,7 @@ package org.openmrs.api.db;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 import org.openmrs.Cohort;
 import org.openmrs.Encounter;
@@ -19,6 +20,7 @@ import org.openmrs.EncounterRole;
 import org.openmrs.EncounterType;
 import org.openmrs.Location;
 import org.openmrs.Patient;
+import org.openmrs.PatientIdSet;
 import org.openmrs.Visit;
 import org.openmrs.api.EncounterService;
 import org.openmrs.parameter.EncounterSearchCriteria;
@@ -168,6 +170,13 @@ public interface EncounterDAO {
 	 */
 	public Map<Integer, List<Encounter>> getAllEncounters(Cohort patients);
 	
+	/**
+	 * @see EncounterService#forEachPatientEncounters(Cohort, int, BiConsumer)
+	 * @since 3.0.0
+	 */
+	public void forEachPatientEncounters(PatientIdSet patientIds, int batchSize,
+	        BiConsumer<Integer, List<Encounter>> callback);
+	
 	/**
 	 * Return the number of encounters matching a patient name or patient identifier
 	 * 
@@ -9,8 +9,10 @@
  */
 package org.openmrs.api.db;
 
+import java.sql.Savepoint;
 import java.util.Date;
 import java.util.List;
+import java.util.function.BiConsumer;
 
 import org.openmrs.Concept;
 import org.openmrs.ConceptName;
@@ -18,6 +20,7 @@ import org.openmrs.Encounter;
 import org.openmrs.Location;
 import org.openmrs.Obs;
 import org.openmrs.ObsReferenceRange;
+import org.openmrs.PatientIdSet;
 import org.openmrs.Person;
 import org.openmrs.Visit;
 import org.openmrs.api.ObsService;
@@ -35,6 +38,48 @@ public interface ObsDAO {
 	 */
 	public Obs saveObs(Obs obs) throws DAOException;
 	
+	/**
+	 * Sets a savepoint in the current transaction so that the statements of a single obs of a batch
+	 * can be rolled back, see {@link ObsService#saveObsBatch(java.util.Collection, String)}
+	 * 
+	 * @return the new savepoint
+	 * @since 3.0.0
+	 */
+	public Savepoint setSavepoint() throws DAOException;
+	
+	/**
+	 * Rolls back the statements executed since the given savepoint was set and releases it
+	 * 
+	 * @param savepoint the savepoint returned by {@link #setSavepoint()}
+	 * @since 3.0.0
+	 */
+	public void rollbackToSavepoint(Savepoint savepoint) throws DAOException;
+	
+	/**
+	 * Releases the given savepoint, keeping the statements executed since it was set
+	 * 
+	 * @param savepoint the savepoint returned by {@link #setSavepoint()}
+	 * @since 3.0.0
+	 */
+	public void releaseSavepoint(Savepoint savepoint) throws DAOException;
+	
+	/**
+	 * Inserts the given new obs and their new group members in a session of their own which shares
+	 * the connection of the current session and is flushed and closed before returning. The pending
+	 * changes of the current session are flushed first. A failure leaves the current session as it
+	 * was, the statements executed until then have to be rolled back to a savepoint.
+	 * 
+	 * @param obs the new obs to insert
+	 * @since 3.0.0
+	 */
+	public void saveNewObs(List<Obs> obs) throws DAOException;
+	
+	/**
+	 * @return the number of statements sent to the database in one JDBC batch, at least 1
+	 * @since 3.0.0
+	 */
+	public int getJdbcBatchSize() throws DAOException;
+	
 	/**
 	 * @see org.openmrs.api.ObsService#getObs(java.lang.Integer)
 	 */
@@ -110,4 +155,10 @@ public interface ObsDAO {
 			List<Concept> answers, List<PERSON_TYPE> personTypes, List<Location> locations, Integer obsGroupId,
 			Date fromDate, Date toDate, List<ConceptName> valueCodedNameAnswers, List<Visit> visits,
 			boolean includeVoidedObs, String accessionNumber) throws DAOException;
+	
+	/**
+	 * @see org.openmrs.api.ObsService#forEachPatientObs(org.openmrs.Cohort, int, BiConsumer)
+	 * @since 3.0.0
+	 */
+	public void forEachPatientObs(PatientIdSet patientIds, int batchSize, BiConsumer<Integer, List<Obs>> callback);
 }
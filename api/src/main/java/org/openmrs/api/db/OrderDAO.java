@@ -105,6 +105,15 @@ public interface OrderDAO {
 	 */
 	public Long getNextOrderNumberSeedSequenceValue();
 	
+	/**
+	 * Reserves a block of consecutive order number seeds
+	 * 
+	 * @param count the number of seeds to reserve
+	 * @return the first seed of the block
+	 * @since 3.0.0
+	 */
+	public Long getNextOrderNumberSeedSequenceValues(int count);
+	
 	/**
 	 * @see org.openmrs.api.OrderService#getActiveOrders(org.openmrs.Patient, org.openmrs.OrderType,
 	 *      org.openmrs.CareSetting, java.util.Date)
@@ -19,6 +19,8 @@ import org.openmrs.PatientIdentifier;
 import org.openmrs.PatientIdentifierType;
 import org.openmrs.PatientProgram;
 import org.openmrs.api.PatientService;
+import org.openmrs.person.PersonMatch;
+import org.openmrs.person.PersonMergeLogData;
 
 /**
  * Database methods for the PatientService
@@ -186,6 +188,26 @@ public interface PatientDAO {
 	 */
 	public List<Patient> getDuplicatePatientsByAttributes(List<String> attributes) throws DAOException;
 	
+	/**
+	 * @see org.openmrs.api.PatientService#getProbableDuplicatePatients(double, int)
+	 * @since 3.0.0
+	 */
+	public List<PersonMatch> getProbableDuplicatePatients(double minimumScore, int maxResults) throws DAOException;
+	
+	/**
+	 * Moves the visits, the encounters with their obs, orders and diagnoses, the non-voided program
+	 * enrollments and the non-voided obs outside of encounters of a patient to another patient, with
+	 * one update statement per table.
+	 * 
+	 * @param preferred the patient to move the data to
+	 * @param notPreferred the patient to move the data from
+	 * @param mergedData the audit of the merge, to which the uuids of the moved data are added
+	 * @see org.openmrs.api.PatientService#mergePatients(Patient, Patient)
+	 * @since 3.0.0
+	 */
+	public void mergePatientDataInBulk(Patient preferred, Patient notPreferred, PersonMergeLogData mergedData)
+	        throws DAOException;
+	
 	/**
 	 * @see org.openmrs.api.PatientService#isIdentifierInUseByAnotherPatient(PatientIdentifier)
 	 */
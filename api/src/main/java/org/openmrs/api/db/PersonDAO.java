@@ -278,4 +278,10 @@ public interface PersonDAO {
 	 */
 	public PersonAddress savePersonAddress(PersonAddress personAddress);
 	
+	/**
+	 * @see org.openmrs.api.PersonService#rebuildPersonMatchKeys()
+	 * @since 3.0.0
+	 */
+	public int rebuildPersonMatchKeys() throws DAOException;
+	
 }
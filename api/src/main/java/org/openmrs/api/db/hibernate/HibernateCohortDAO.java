@@ -204,4 +204,20 @@ public class HibernateCohortDAO implements CohortDAO {
 	public CohortMembership saveCohortMembership(CohortMembership cohortMembership) {
 		return HibernateUtil.saveOrUpdate(sessionFactory.getCurrentSession(), cohortMembership);
 	}
+	
+	/**
+	 * @see org.openmrs.api.db.CohortDAO#getMemberPatientIds(Integer)
+	 */
+	@Override
+	public List<Integer> getMemberPatientIds(Integer cohortId) {
+		Session session = sessionFactory.getCurrentSession();
+		CriteriaBuilder cb = session.getCriteriaBuilder();
+		CriteriaQuery<Integer> cq = cb.createQuery(Integer.class);
+		Root<CohortMembership> root = cq.from(CohortMembership.class);
+		
+		cq.select(root.get("patientId")).where(cb.equal(root.get("cohort").get("cohortId"), cohortId),
+		    cb.isFalse(root.get(VOIDED)));
+		
+		return session.createQuery(cq).getResultList();
+	}
 }
@@ -985,7 +985,7 @@ public class HibernateConceptDAO implements ConceptDAO {
 			cq.where(cb.isFalse(root.get("retired")));
 		}
 
-		return session.createQuery(cq).getResultList();
+		return session.createQuery(cq).setCacheable(true).getResultList();
 	}
 	
 	/**
@@ -1609,7 +1609,7 @@ public class HibernateConceptDAO implements ConceptDAO {
 
 		cq.where(predicates.toArray(new Predicate[]{}));
 
-		List<ConceptMapType> conceptMapTypes = session.createQuery(cq).getResultList();
+		List<ConceptMapType> conceptMapTypes = session.createQuery(cq).setCacheable(true).getResultList();
 		conceptMapTypes.sort(new ConceptMapTypeComparator());
 
 		return conceptMapTypes;
@@ -12,6 +12,8 @@ package org.openmrs.api.db.hibernate;
 import java.io.File;
 import java.net.URL;
 import java.sql.Connection;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -19,10 +21,15 @@ import java.util.Properties;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Root;
 import org.apache.commons.lang3.StringUtils;
 import org.hibernate.CacheMode;
 import org.hibernate.FlushMode;
 import org.hibernate.HibernateException;
+import org.hibernate.ScrollMode;
 import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
@@ -41,6 +48,8 @@ import org.openmrs.api.context.ContextAuthenticationException;
 import org.openmrs.api.context.Daemon;
 import org.openmrs.api.db.ContextDAO;
 import org.openmrs.api.db.UserDAO;
+import org.openmrs.api.db.hibernate.search.SearchIndexProgress;
+import org.openmrs.api.db.hibernate.search.SearchIndexRebuilder;
 import org.openmrs.api.db.hibernate.search.session.SearchSessionFactory;
 import org.openmrs.util.OpenmrsConstants;
 import org.openmrs.util.OpenmrsUtil;
@@ -66,6 +75,8 @@ public class HibernateContextDAO implements ContextDAO {
 	
 	private static final Logger log = LoggerFactory.getLogger(HibernateContextDAO.class);
 	
+	private static final String SEARCH_INDEX_REBUILD_CHECKPOINT_FILE = "index-rebuild.checkpoint";
+	
 	private static final Long DEFAULT_UNLOCK_ACCOUNT_WAITING_TIME = TimeUnit.MILLISECONDS.convert(5L, TimeUnit.MINUTES);
 	
 	/**
@@ -77,6 +88,8 @@ public class HibernateContextDAO implements ContextDAO {
 	
 	private final UserDAO userDao;
 	
+	private SearchIndexRebuilder searchIndexRebuilder;
+	
 	@Autowired
 	public HibernateContextDAO(SessionFactory sessionFactory, SearchSessionFactory searchSessionFactory, UserDAO userDao) {
 		this.sessionFactory = sessionFactory;
@@ -538,23 +551,7 @@ public class HibernateContextDAO implements ContextDAO {
 
 			//Scrollable results will avoid loading too many objects in memory
 			try (ScrollableResults results = HibernateUtil.getScrollableResult(sessionFactory, type, 1000)) {
-				int index = 0;
-				while (results.next()) {
-					index++;
-					//index each element
-					indexingPlan.addOrUpdate(results.get());
-					if (index % 1000 == 0) {
-						//apply changes to search indexes
-						indexingPlan.execute();
-						//free memory since the queue is processed
-						session.clear();
-						// reset index to avoid overflows
-						index = 0;
-					}
-				}
-			} finally {
-				indexingPlan.execute();
-				session.clear();
+				index(session, indexingPlan, results);
 			}
 		}
 		finally {
@@ -562,6 +559,70 @@ public class HibernateContextDAO implements ContextDAO {
 			session.setCacheMode(cacheMode);
 		}
 	}
+	
+	/**
+	 * @see org.openmrs.api.db.ContextDAO#updateSearchIndexForType(Class, String, Object)
+	 */
+	@Override
+	@Transactional
+	public void updateSearchIndexForType(Class<?> type, String property, Object value) {
+		Session session = sessionFactory.getCurrentSession();
+		SearchIndexingPlan indexingPlan = searchSessionFactory.getSearchSession().indexingPlan();
+		
+		//Prepare session for batch work, the pending changes are what the documents are rebuilt from
+		session.flush();
+		indexingPlan.execute();
+		session.clear();
+		
+		CriteriaBuilder cb = session.getCriteriaBuilder();
+		CriteriaQuery<Object> cq = cb.createQuery(Object.class);
+		Root<?> root = cq.from(type);
+		// the leading parts of a path are joined, e.g. the attributes of "attributes.attributeType"
+		String[] path = property.split("\\.");
+		From<?, ?> from = root;
+		for (int i = 0; i < path.length - 1; i++) {
+			from = from.join(path[i]);
+		}
+		cq.select(root).distinct(path.length > 1).where(cb.equal(from.get(path[path.length - 1]), value));
+		
+		FlushMode flushMode = session.getHibernateFlushMode();
+		CacheMode cacheMode = session.getCacheMode();
+		try {
+			session.setHibernateFlushMode(FlushMode.MANUAL);
+			session.setCacheMode(CacheMode.IGNORE);
+			try (ScrollableResults<Object> results = session.createQuery(cq).setFetchSize(1000)
+			        .scroll(ScrollMode.FORWARD_ONLY)) {
+				index(session, indexingPlan, results);
+			}
+		}
+		finally {
+			session.setHibernateFlushMode(flushMode);
+			session.setCacheMode(cacheMode);
+		}
+	}
+	
+	private void index(Session session, SearchIndexingPlan indexingPlan, ScrollableResults<?> results) {
+		try {
+			int index = 0;
+			while (results.next()) {
+				index++;
+				//index each element
+				indexingPlan.addOrUpdate(results.get());
+				if (index % 1000 == 0) {
+					//apply changes to search indexes
+					indexingPlan.execute();
+					//free memory since the queue is processed
+					session.clear();
+					// reset index to avoid overflows
+					index = 0;
+				}
+			}
+		}
+		finally {
+			indexingPlan.execute();
+			session.clear();
+		}
+	}
 
 	@Override
 	@Transactional
@@ -595,6 +656,9 @@ public class HibernateContextDAO implements ContextDAO {
 
 			if (!OpenmrsConstants.SEARCH_INDEX_VERSION.toString().equals(gp)) {
 				updateSearchIndex();
+			} else if (getSearchIndexRebuilder().hasCheckpoint()) {
+				log.warn("Resuming the interrupted search index rebuild...");
+				resumeSearchIndexRebuild();
 			}
 		}
 		finally {
@@ -635,12 +699,70 @@ public class HibernateContextDAO implements ContextDAO {
 	public Future<?> updateSearchIndexAsync() {
 		try {
 			log.info("Started asynchronously updating the search index...");
-			return searchSessionFactory.getSearchSession().massIndexer().start().toCompletableFuture();
+			return rebuildSearchIndex(null);
 		}
 		catch (Exception e) {
 			throw new RuntimeException("Failed to start asynchronous search index update", e);
 		}
 	}
+	
+	/**
+	 * @see ContextDAO#rebuildSearchIndex(Date, Class[])
+	 */
+	@Override
+	public Future<SearchIndexProgress> rebuildSearchIndex(Date changedSince, Class<?>... types) {
+		return getSearchIndexRebuilder().start(Arrays.asList(types), changedSince, getSearchIndexRebuildThreads(),
+		    getSearchIndexRebuildPartitionSize());
+	}
+	
+	/**
+	 * @see ContextDAO#resumeSearchIndexRebuild()
+	 */
+	@Override
+	public Future<SearchIndexProgress> resumeSearchIndexRebuild() {
+		return getSearchIndexRebuilder().resume(getSearchIndexRebuildThreads(), getSearchIndexRebuildPartitionSize());
+	}
+	
+	/**
+	 * @see ContextDAO#getSearchIndexProgress()
+	 */
+	@Override
+	public SearchIndexProgress getSearchIndexProgress() {
+		return getSearchIndexRebuilder().getProgress();
+	}
+	
+	private synchronized SearchIndexRebuilder getSearchIndexRebuilder() {
+		if (searchIndexRebuilder == null) {
+			File checkpointFile = new File(OpenmrsUtil.getDirectoryInApplicationDataDirectory("search"),
+			        SEARCH_INDEX_REBUILD_CHECKPOINT_FILE);
+			searchIndexRebuilder = new SearchIndexRebuilder(sessionFactory, checkpointFile);
+		}
+		return searchIndexRebuilder;
+	}
+	
+	private int getSearchIndexRebuildThreads() {
+		return getPositiveIntegerGlobalProperty(OpenmrsConstants.GP_SEARCH_INDEX_REBUILD_THREADS, 2);
+	}
+	
+	private int getSearchIndexRebuildPartitionSize() {
+		return getPositiveIntegerGlobalProperty(OpenmrsConstants.GP_SEARCH_INDEX_REBUILD_PARTITION_SIZE, 10000);
+	}
+	
+	private int getPositiveIntegerGlobalProperty(String property, int defaultValue) {
+		try {
+			Context.addProxyPrivilege(PrivilegeConstants.GET_GLOBAL_PROPERTIES);
+			String value = Context.getAdministrationService().getGlobalProperty(property);
+			int parsed = StringUtils.isBlank(value) ? defaultValue : Integer.parseInt(value.trim());
+			return parsed > 0 ? parsed : defaultValue;
+		}
+		catch (NumberFormatException e) {
+			log.warn("Ignoring the invalid value of the global property " + property, e);
+			return defaultValue;
+		}
+		finally {
+			Context.removeProxyPrivilege(PrivilegeConstants.GET_GLOBAL_PROPERTIES);
+		}
+	}
 
 	/**
 	 * @see ContextDAO#getDatabaseConnection() 
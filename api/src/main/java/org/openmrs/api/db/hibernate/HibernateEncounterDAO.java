@@ -24,6 +24,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
@@ -39,6 +40,7 @@ import org.openmrs.EncounterType;
 import org.openmrs.Form;
 import org.openmrs.Location;
 import org.openmrs.Patient;
+import org.openmrs.PatientIdSet;
 import org.openmrs.Person;
 import org.openmrs.PersonName;
 import org.openmrs.Provider;
@@ -61,6 +63,11 @@ import org.springframework.stereotype.Repository;
  */
 @Repository("encounterDAO")
 public class HibernateEncounterDAO implements EncounterDAO {
+	
+	/**
+	 * Maximum number of patients whose encounters are fetched with a single query
+	 */
+	private static final int COHORT_QUERY_BATCH_SIZE = 1000;
 
 	/**
 	 * Hibernate session factory
@@ -231,7 +238,7 @@ public class HibernateEncounterDAO implements EncounterDAO {
 			cq.where(cb.isFalse(root.get("retired")));
 		}
 
-		return session.createQuery(cq).getResultList();
+		return session.createQuery(cq).setCacheable(true).getResultList();
 	}
 
 	/**
@@ -347,12 +354,43 @@ public class HibernateEncounterDAO implements EncounterDAO {
 	 */
 	@Override
 	public Map<Integer, List<Encounter>> getAllEncounters(Cohort patients) {
+		Map<Integer, List<Encounter>> encountersBypatient = new HashMap<>();
+		if (patients == null) {
+			addEncountersByPatient(encountersBypatient, null);
+			return encountersBypatient;
+		}
+		
+		// include every membership like before, but query the patients in batches of id ranges
+		// instead of one IN list with all members of the cohort
+		List<Integer> memberIds = new ArrayList<>();
+		patients.getMemberships().forEach(m -> memberIds.add(m.getPatientId()));
+		for (PatientIdSet batch : PatientIdSet.of(memberIds).partition(COHORT_QUERY_BATCH_SIZE)) {
+			addEncountersByPatient(encountersBypatient, batch);
+		}
+		return encountersBypatient;
+	}
+	
+	/**
+	 * @see EncounterDAO#forEachPatientEncounters(PatientIdSet, int, BiConsumer)
+	 */
+	@Override
+	public void forEachPatientEncounters(PatientIdSet patientIds, int batchSize,
+	        BiConsumer<Integer, List<Encounter>> callback) {
+		HibernateUtil.forEachPatient(sessionFactory, Encounter.class, "patient", "encounterDatetime", patientIds, batchSize,
+		    callback);
+	}
+	
+	/**
+	 * Fetches all non voided encounters of the given patients, or of all patients if null, and adds
+	 * them to the given map keyed by patient id, most recent first
+	 */
+	private void addEncountersByPatient(Map<Integer, List<Encounter>> encountersBypatient, PatientIdSet patientIds) {
 		Session session = sessionFactory.getCurrentSession();
 		CriteriaBuilder cb = session.getCriteriaBuilder();
 		CriteriaQuery<Encounter> cq = cb.createQuery(Encounter.class);
 		Root<Encounter> root = cq.from(Encounter.class);
 
-		List<Predicate> predicates = createEncounterPredicates(cb, root, patients);
+		List<Predicate> predicates = createEncounterPredicates(cb, root, patientIds);
 		cq.where(predicates.toArray(new Predicate[]{}));
 
 		cq.orderBy(
@@ -364,40 +402,26 @@ public class HibernateEncounterDAO implements EncounterDAO {
 		query.setHint("jakarta.persistence.cache.retrieveMode", CacheRetrieveMode.BYPASS);
 		query.setHint("jakarta.persistence.cache.storeMode", CacheStoreMode.BYPASS);
 
-		Map<Integer, List<Encounter>> encountersBypatient = new HashMap<>();
-		List<Encounter> allEncounters = query.getResultList();
-		for (Encounter encounter : allEncounters) {
+		for (Encounter encounter : query.getResultList()) {
 			Integer patientId = encounter.getPatient().getPersonId();
-			List<Encounter> encounters = encountersBypatient.get(patientId);
-
-			if (encounters == null) {
-				encounters = new ArrayList<>();
-			}
-
-			encounters.add(encounter);
-			if (!encountersBypatient.containsKey(patientId)) {
-				encountersBypatient.put(patientId, encounters);
-			}
+			encountersBypatient.computeIfAbsent(patientId, id -> new ArrayList<>()).add(encounter);
 		}
-		return encountersBypatient;
 	}
 
 
 	/**
 	 * Create the criteria for fetching all encounters based on cohort
 	 *
-	 * @param patients
+	 * @param patientIds the ids of the patients, null for all patients
 	 * @return a map of patient with their encounters
 	 */
-	private List<Predicate> createEncounterPredicates(CriteriaBuilder cb, Root<Encounter> root, Cohort patients) {
+	private List<Predicate> createEncounterPredicates(CriteriaBuilder cb, Root<Encounter> root, PatientIdSet patientIds) {
 		List<Predicate> predicates = new ArrayList<>();
 		predicates.add(cb.isFalse(root.get("voided")));
 
 		// only include this where clause if patients were passed in
-		if (patients != null) {
-			ArrayList<Integer> patientIds = new ArrayList<>();
-			patients.getMemberships().forEach(m -> patientIds.add(m.getPatientId()));
-			predicates.add(root.get("patient").get("personId").in(patientIds));
+		if (patientIds != null) {
+			predicates.add(HibernateUtil.getPatientIdPredicate(cb, root.get("patient").get("personId"), patientIds));
 		}
 
 		return predicates;
@@ -574,7 +598,7 @@ public class HibernateEncounterDAO implements EncounterDAO {
 			cq.where(cb.equal(root.get("retired"), includeRetired));
 		}
 
-		return session.createQuery(cq).getResultList();
+		return session.createQuery(cq).setCacheable(true).getResultList();
 	}
 
 	/**
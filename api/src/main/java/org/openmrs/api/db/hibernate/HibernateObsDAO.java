@@ -9,9 +9,12 @@
  */
 package org.openmrs.api.db.hibernate;
 
+import java.sql.Connection;
+import java.sql.Savepoint;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.function.BiConsumer;
 
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
@@ -26,6 +29,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.hibernate.FlushMode;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.query.NativeQuery;
 import org.openmrs.Concept;
 import org.openmrs.ConceptName;
@@ -33,6 +37,7 @@ import org.openmrs.Encounter;
 import org.openmrs.Location;
 import org.openmrs.Obs;
 import org.openmrs.Patient;
+import org.openmrs.PatientIdSet;
 import org.openmrs.Person;
 import org.openmrs.User;
 import org.openmrs.Visit;
@@ -96,6 +101,70 @@ public class HibernateObsDAO implements ObsDAO {
 		return obs;
 	}
 	
+	/**
+	 * @see org.openmrs.api.db.ObsDAO#setSavepoint()
+	 */
+	@Override
+	public Savepoint setSavepoint() throws DAOException {
+		return sessionFactory.getCurrentSession().doReturningWork(Connection::setSavepoint);
+	}
+	
+	/**
+	 * @see org.openmrs.api.db.ObsDAO#rollbackToSavepoint(Savepoint)
+	 */
+	@Override
+	public void rollbackToSavepoint(Savepoint savepoint) throws DAOException {
+		sessionFactory.getCurrentSession().doWork(connection -> {
+			connection.rollback(savepoint);
+			connection.releaseSavepoint(savepoint);
+		});
+	}
+	
+	/**
+	 * @see org.openmrs.api.db.ObsDAO#releaseSavepoint(Savepoint)
+	 */
+	@Override
+	public void releaseSavepoint(Savepoint savepoint) throws DAOException {
+		sessionFactory.getCurrentSession().doWork(connection -> connection.releaseSavepoint(savepoint));
+	}
+	
+	/**
+	 * @see org.openmrs.api.db.ObsDAO#saveNewObs(List)
+	 */
+	@Override
+	public void saveNewObs(List<Obs> obs) throws DAOException {
+		Session currentSession = sessionFactory.getCurrentSession();
+		currentSession.flush();
+		// a session which failed to flush can't be used any further, a session of their own is
+		// discarded with the obs instead of the session of the caller
+		try (Session session = currentSession.sessionWithOptions().connection().openSession()) {
+			for (Obs o : obs) {
+				persistWithNewGroupMembers(session, o);
+			}
+			session.flush();
+		}
+	}
+	
+	private void persistWithNewGroupMembers(Session session, Obs obs) {
+		session.persist(obs);
+		if (obs.hasGroupMembers(true)) {
+			for (Obs member : obs.getGroupMembers(true)) {
+				if (member.getObsId() == null) {
+					persistWithNewGroupMembers(session, member);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * @see org.openmrs.api.db.ObsDAO#getJdbcBatchSize()
+	 */
+	@Override
+	public int getJdbcBatchSize() throws DAOException {
+		return Math.max(1, sessionFactory.unwrap(SessionFactoryImplementor.class).getSessionFactoryOptions()
+		        .getJdbcBatchSize());
+	}
+	
 	/**
 	 * @see org.openmrs.api.db.ObsDAO#getObservations(List, List, List, List, List, List, List,
 	 *      Integer, Integer, Date, Date, boolean, String)
@@ -351,4 +420,12 @@ public class HibernateObsDAO implements ObsDAO {
 			session.setHibernateFlushMode(flushMode);
 		}
 	}
+	
+	/**
+	 * @see org.openmrs.api.db.ObsDAO#forEachPatientObs(PatientIdSet, int, BiConsumer)
+	 */
+	@Override
+	public void forEachPatientObs(PatientIdSet patientIds, int batchSize, BiConsumer<Integer, List<Obs>> callback) {
+		HibernateUtil.forEachPatient(sessionFactory, Obs.class, "person", "obsDatetime", patientIds, batchSize, callback);
+	}
 }
@@ -418,6 +418,14 @@ public class HibernateOrderDAO implements OrderDAO {
 	 */
 	@Override
 	public Long getNextOrderNumberSeedSequenceValue() {
+		return getNextOrderNumberSeedSequenceValues(1);
+	}
+	
+	/**
+	 * @see org.openmrs.api.db.OrderDAO#getNextOrderNumberSeedSequenceValues(int)
+	 */
+	@Override
+	public Long getNextOrderNumberSeedSequenceValues(int count) {
 		GlobalProperty globalProperty = sessionFactory.getCurrentSession().get(GlobalProperty.class,
 		    OpenmrsConstants.GP_NEXT_ORDER_NUMBER_SEED, LockOptions.UPGRADE);
 		
@@ -440,7 +448,7 @@ public class HibernateOrderDAO implements OrderDAO {
 			        new Object[] { OpenmrsConstants.GP_NEXT_ORDER_NUMBER_SEED });
 		}
 		
-		globalProperty.setPropertyValue(String.valueOf(gpNumericValue + 1));
+		globalProperty.setPropertyValue(String.valueOf(gpNumericValue + count));
 		
 		sessionFactory.getCurrentSession().persist(globalProperty);
 		
@@ -568,7 +576,7 @@ public class HibernateOrderDAO implements OrderDAO {
 			cq.where(cb.isFalse(root.get("retired")));
 		}
 
-		return session.createQuery(cq).getResultList();
+		return session.createQuery(cq).setCacheable(true).getResultList();
 	}
 	
 	/**
@@ -616,7 +624,7 @@ public class HibernateOrderDAO implements OrderDAO {
 			cq.where(cb.isFalse(root.get("retired")));
 		}
 
-		return session.createQuery(cq).getResultList();
+		return session.createQuery(cq).setCacheable(true).getResultList();
 	}
 	
 	/**
@@ -762,7 +770,7 @@ public class HibernateOrderDAO implements OrderDAO {
 			cq.where(cb.isFalse(root.get("retired")));
 		}
 
-		return session.createQuery(cq).getResultList();
+		return session.createQuery(cq).setCacheable(true).getResultList();
 	}
 	
 	/**
@@ -15,11 +15,16 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import jakarta.persistence.TemporalType;
 import jakarta.persistence.criteria.CriteriaBuilder;
@@ -30,18 +35,27 @@ import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.hibernate.CacheMode;
+import org.hibernate.FlushMode;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.EntityEntry;
 import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
 import org.hibernate.persister.entity.AbstractEntityPersister;
 import org.hibernate.query.MutationQuery;
 import org.hibernate.query.NativeQuery;
 import org.hibernate.query.Query;
 import org.hibernate.search.engine.search.predicate.SearchPredicate;
 import org.hibernate.search.engine.search.predicate.dsl.SearchPredicateFactory;
+import org.hibernate.search.engine.search.query.SearchQuery;
+import org.hibernate.search.mapper.orm.work.SearchIndexingPlan;
 import org.openmrs.Allergies;
 import org.openmrs.Allergy;
+import org.openmrs.Diagnosis;
+import org.openmrs.Encounter;
 import org.openmrs.Location;
+import org.openmrs.Obs;
 import org.openmrs.Patient;
 import org.openmrs.PatientIdentifier;
 import org.openmrs.PatientIdentifierType;
@@ -50,11 +64,17 @@ import org.openmrs.PatientProgram;
 import org.openmrs.Person;
 import org.openmrs.PersonAttribute;
 import org.openmrs.PersonName;
+import org.openmrs.User;
+import org.openmrs.Visit;
 import org.openmrs.api.context.Context;
 import org.openmrs.api.db.DAOException;
 import org.openmrs.api.db.PatientDAO;
 import org.openmrs.api.db.hibernate.search.SearchQueryUnique;
 import org.openmrs.api.db.hibernate.search.session.SearchSessionFactory;
+import org.openmrs.person.PersonMatch;
+import org.openmrs.person.PersonMatchKey;
+import org.openmrs.person.PersonMatchProfile;
+import org.openmrs.person.PersonMergeLogData;
 import org.openmrs.util.OpenmrsConstants;
 import org.openmrs.util.OpenmrsUtil;
 import org.slf4j.Logger;
@@ -74,6 +94,11 @@ public class HibernatePatientDAO implements PatientDAO {
 	
 	private static final Logger log = LoggerFactory.getLogger(HibernatePatientDAO.class);
 	
+	/**
+	 * The number of patients paired and scored at once while looking for probable duplicates
+	 */
+	private static final int DUPLICATE_BLOCK_SIZE = 100;
+	
 	/**
 	 * Hibernate session factory
 	 */
@@ -105,6 +130,14 @@ public class HibernatePatientDAO implements PatientDAO {
         @Override
 	public Patient savePatient(Patient patient) throws DAOException {
 		Session session = sessionFactory.getCurrentSession();
+		Patient savedPatient = savePatientAndPerson(session, patient);
+		if (HibernatePersonDAO.isPersonMatchKeysEnabled()) {
+			HibernatePersonDAO.updatePersonMatchKeys(sessionFactory, savedPatient);
+		}
+		return savedPatient;
+	}
+	
+	private Patient savePatientAndPerson(Session session, Patient patient) {
 		if (patient.getPatientId() == null) {
 			// if we're saving a new patient, just do the normal thing
 			// and rows in the person and patient table will be created by
@@ -367,7 +400,7 @@ public class HibernatePatientDAO implements PatientDAO {
 		orders.add(builder.asc(root.get("patientIdentifierTypeId")));
 
 		query.orderBy(orders);
-		return session.createQuery(query).getResultList();
+		return session.createQuery(query).setCacheable(true).getResultList();
 	}
 	
 	/**
@@ -459,6 +492,229 @@ public class HibernatePatientDAO implements PatientDAO {
 		sortDuplicatePatients(patients, patientIds);
 		return patients;
 	}
+	
+	/**
+	 * Reassigns the data with bulk updates, which do not run the save handlers, the validation or the
+	 * interceptors of each entity. Obs are moved as they are instead of being voided and copied. The
+	 * bulk updates invalidate the second-level cache regions of the updated entities, the instances
+	 * of the moved data in the session are evicted as they are stale, and the search documents of
+	 * both patients are updated.
+	 * 
+	 * @see org.openmrs.api.db.PatientDAO#mergePatientDataInBulk(Patient, Patient, PersonMergeLogData)
+	 */
+	@Override
+	public void mergePatientDataInBulk(Patient preferred, Patient notPreferred, PersonMergeLogData mergedData) {
+		Session session = sessionFactory.getCurrentSession();
+		session.flush();
+		User user = Context.getAuthenticatedUser();
+		Date now = new Date();
+		
+		getUuids(session, "select v.uuid from Visit v where v.patient = :notPreferred", notPreferred).forEach(
+		    mergedData::addMovedVisit);
+		session.createMutationQuery(
+		    "update Visit v set v.patient = :preferred, v.changedBy = :user, v.dateChanged = :now "
+		            + "where v.patient = :notPreferred").setParameter("preferred", preferred)
+		        .setParameter("notPreferred", notPreferred).setParameter("user", user).setParameter("now", now)
+		        .executeUpdate();
+		
+		// the obs, orders and diagnoses of an encounter always belong to the patient of the encounter
+		getUuids(session, "select e.uuid from Encounter e where e.patient = :notPreferred", notPreferred).forEach(
+		    mergedData::addMovedEncounter);
+		String encountersOfNotPreferred = "(select e from Encounter e where e.patient = :notPreferred)";
+		session.createMutationQuery("update Obs o set o.person = :preferred where o.encounter in " + encountersOfNotPreferred)
+		        .setParameter("preferred", preferred).setParameter("notPreferred", notPreferred).executeUpdate();
+		session.createMutationQuery(
+		    "update org.openmrs.Order o set o.patient = :preferred where o.encounter in " + encountersOfNotPreferred)
+		        .setParameter("preferred", preferred).setParameter("notPreferred", notPreferred).executeUpdate();
+		session.createMutationQuery(
+		    "update Diagnosis d set d.patient = :preferred where d.encounter in " + encountersOfNotPreferred)
+		        .setParameter("preferred", preferred).setParameter("notPreferred", notPreferred).executeUpdate();
+		session.createMutationQuery(
+		    "update Encounter e set e.patient = :preferred, e.changedBy = :user, e.dateChanged = :now "
+		            + "where e.patient = :notPreferred").setParameter("preferred", preferred)
+		        .setParameter("notPreferred", notPreferred).setParameter("user", user).setParameter("now", now)
+		        .executeUpdate();
+		
+		getUuids(session, "select pp.uuid from PatientProgram pp where pp.patient = :notPreferred and pp.voided = false",
+		    notPreferred).forEach(mergedData::addMovedProgram);
+		session.createMutationQuery(
+		    "update PatientProgram pp set pp.patient = :preferred, pp.changedBy = :user, pp.dateChanged = :now "
+		            + "where pp.patient = :notPreferred and pp.voided = false").setParameter("preferred", preferred)
+		        .setParameter("notPreferred", notPreferred).setParameter("user", user).setParameter("now", now)
+		        .executeUpdate();
+		
+		getUuids(session,
+		    "select o.uuid from Obs o where o.person = :notPreferred and o.encounter is null and o.voided = false",
+		    notPreferred).forEach(mergedData::addMovedIndependentObservation);
+		session.createMutationQuery(
+		    "update Obs o set o.person = :preferred where o.person = :notPreferred and o.encounter is null "
+		            + "and o.voided = false").setParameter("preferred", preferred)
+		        .setParameter("notPreferred", notPreferred).executeUpdate();
+		
+		evictMovedData(session, notPreferred);
+		
+		SearchIndexingPlan indexingPlan = searchSessionFactory.getSearchSession().indexingPlan();
+		indexingPlan.addOrUpdate(preferred);
+		indexingPlan.addOrUpdate(notPreferred);
+	}
+	
+	private List<String> getUuids(Session session, String query, Patient notPreferred) {
+		return session.createQuery(query, String.class).setParameter("notPreferred", notPreferred).getResultList();
+	}
+	
+	/**
+	 * Evicts the instances in the session which still reference the patient their data was moved from,
+	 * so that they are loaded again with the patient it was moved to.
+	 */
+	private void evictMovedData(Session session, Patient notPreferred) {
+		List<Object> stale = new ArrayList<>();
+		for (Map.Entry<Object, EntityEntry> entry : session.unwrap(SessionImplementor.class)
+		        .getPersistenceContextInternal().reentrantSafeEntityEntries()) {
+			Object entity = entry.getKey();
+			Person owner = null;
+			if (entity instanceof Visit) {
+				owner = ((Visit) entity).getPatient();
+			} else if (entity instanceof Encounter) {
+				owner = ((Encounter) entity).getPatient();
+			} else if (entity instanceof org.openmrs.Order) {
+				owner = ((org.openmrs.Order) entity).getPatient();
+			} else if (entity instanceof Diagnosis) {
+				owner = ((Diagnosis) entity).getPatient();
+			} else if (entity instanceof PatientProgram) {
+				owner = ((PatientProgram) entity).getPatient();
+			} else if (entity instanceof Obs) {
+				owner = ((Obs) entity).getPerson();
+			}
+			if (notPreferred.equals(owner)) {
+				stale.add(entity);
+			}
+		}
+		for (Object entity : stale) {
+			// evicting an encounter also evicts its obs and orders
+			if (session.contains(entity)) {
+				session.evict(entity);
+			}
+		}
+	}
+	
+	/**
+	 * Pairs the patients sharing a double metaphone code of a name part, the gender and, within the
+	 * tolerance, the year of birth. The patients are walked in blocks of ascending ids, each block
+	 * paired with the patients of higher ids and its pairs scored in parallel from their match
+	 * profiles, keeping only the best pairs so far. So the database never pairs or sorts more than a
+	 * block's patients at once, and memory use is bounded by the block size and the maximum number of
+	 * results rather than the number of pairs. The keys are loaded read-only in a session of their own
+	 * which shares the connection of the current session and is cleared after each block.
+	 * 
+	 * @see org.openmrs.api.db.PatientDAO#getProbableDuplicatePatients(double, int)
+	 */
+	@Override
+	public List<PersonMatch> getProbableDuplicatePatients(double minimumScore, int maxResults) {
+		Comparator<ScoredPair> bestFirst = Comparator.comparingDouble((ScoredPair pair) -> pair.score).reversed()
+		        .thenComparing(pair -> pair.patientId).thenComparing(pair -> pair.matchId);
+		// the worst of the best pairs so far is at the head, to be dropped by a better pair
+		PriorityQueue<ScoredPair> bestPairs = new PriorityQueue<>(bestFirst.reversed());
+		
+		Session currentSession = sessionFactory.getCurrentSession();
+		currentSession.flush();
+		try (Session session = currentSession.sessionWithOptions().connection().openSession()) {
+			session.setDefaultReadOnly(true);
+			session.setHibernateFlushMode(FlushMode.MANUAL);
+			session.setCacheMode(CacheMode.IGNORE);
+			
+			Integer lastPatientId = 0;
+			List<Integer> block;
+			do {
+				block = getDuplicateCandidateBlock(session, lastPatientId);
+				if (!block.isEmpty()) {
+					lastPatientId = block.get(block.size() - 1);
+					for (ScoredPair pair : scoreDuplicateCandidateBlock(session, block, minimumScore)) {
+						bestPairs.add(pair);
+						if (bestPairs.size() > maxResults) {
+							bestPairs.poll();
+						}
+					}
+				}
+				session.clear();
+			} while (block.size() == DUPLICATE_BLOCK_SIZE);
+		}
+		if (bestPairs.isEmpty()) {
+			return new ArrayList<>();
+		}
+		
+		List<ScoredPair> scoredPairs = new ArrayList<>(bestPairs);
+		scoredPairs.sort(bestFirst);
+		Set<Integer> matchedIds = new HashSet<>();
+		for (ScoredPair pair : scoredPairs) {
+			matchedIds.add(pair.patientId);
+			matchedIds.add(pair.matchId);
+		}
+		Map<Integer, Patient> patients = new HashMap<>();
+		for (Patient patient : currentSession.createQuery("from Patient p where p.patientId in (:ids)", Patient.class)
+		        .setParameterList("ids", matchedIds).getResultList()) {
+			patients.put(patient.getPatientId(), patient);
+		}
+		
+		List<PersonMatch> matches = new ArrayList<>(scoredPairs.size());
+		for (ScoredPair pair : scoredPairs) {
+			matches.add(new PersonMatch(patients.get(pair.patientId), patients.get(pair.matchId), pair.score));
+		}
+		return matches;
+	}
+	
+	/**
+	 * Gets the next block of ids of non voided patients with double metaphone codes, in ascending
+	 * order after the given id.
+	 */
+	private List<Integer> getDuplicateCandidateBlock(Session session, Integer lastPatientId) {
+		return session.createQuery(
+		    "select distinct k.person.personId from PersonMatchKey k, Patient p where k.type = :type "
+		            + "and p.patientId = k.person.personId and p.voided = false and k.person.personId > :lastId "
+		            + "order by k.person.personId", Integer.class)
+		        .setParameter("type", PersonMatchKey.Type.METAPHONE).setParameter("lastId", lastPatientId)
+		        .setMaxResults(DUPLICATE_BLOCK_SIZE).getResultList();
+	}
+	
+	/**
+	 * Pairs the given patients with the patients of higher ids sharing a double metaphone code, the
+	 * gender and, within the tolerance, the year of birth, and scores the pairs in parallel.
+	 * 
+	 * @return the pairs scoring at least the minimum score
+	 */
+	private List<ScoredPair> scoreDuplicateCandidateBlock(Session session, List<Integer> block, double minimumScore) {
+		List<Object[]> rows = session.createQuery(
+		    "select k1.person.personId, k2.person.personId from PersonMatchKey k1, PersonMatchKey k2, Patient p2 "
+		            + "where k1.type = :type and k1.person.personId in (:ids) and k2.type = :type "
+		            + "and k2.value = k1.value and k2.person.personId > k1.person.personId and k2.gender = k1.gender "
+		            + "and k2.birthYear between k1.birthYear - :tolerance and k1.birthYear + :tolerance "
+		            + "and p2.patientId = k2.person.personId and p2.voided = false", Object[].class)
+		        .setParameter("type", PersonMatchKey.Type.METAPHONE).setParameterList("ids", block)
+		        .setParameter("tolerance", PersonMatchProfile.BIRTH_YEAR_TOLERANCE).getResultList();
+		if (rows.isEmpty()) {
+			return new ArrayList<>();
+		}
+		
+		// pairs sharing several codes are returned once for each of them
+		Map<Integer, Set<Integer>> matchIdsByPatient = new LinkedHashMap<>();
+		Set<Integer> patientIds = new HashSet<>();
+		for (Object[] row : rows) {
+			matchIdsByPatient.computeIfAbsent((Integer) row[0], id -> new LinkedHashSet<>()).add((Integer) row[1]);
+			patientIds.add((Integer) row[0]);
+			patientIds.add((Integer) row[1]);
+		}
+		List<Integer[]> pairs = new ArrayList<>();
+		matchIdsByPatient.forEach((patientId, matchIds) -> {
+			for (Integer matchId : matchIds) {
+				pairs.add(new Integer[] { patientId, matchId });
+			}
+		});
+		Map<Integer, PersonMatchProfile> profiles = HibernatePersonDAO.getPersonMatchProfiles(session, patientIds);
+		
+		// the profiles do not reference the session, so they can be scored in parallel
+		return pairs.parallelStream()
+		        .map(pair -> new ScoredPair(pair[0], pair[1], profiles.get(pair[0]).score(profiles.get(pair[1]))))
+		        .filter(pair -> pair.score >= minimumScore).collect(Collectors.toList());
+	}
 
 	private String getDuplicatePatientsSQLString(List<String> attributes) {
 		StringBuilder outerSelect = new StringBuilder("select distinct t1.patient_id from patient t1 ");
@@ -747,6 +1003,10 @@ public class HibernatePatientDAO implements PatientDAO {
 		if (StringUtils.isBlank(query)) {
 			return 0L;
 		}
+		
+		if (usePatientSearchDocument()) {
+			return newPatientDocumentQuery(query, includeVoided, 1).fetchTotalHitCount();
+		}
 
 		PersonQuery personQuery = new PersonQuery();
 
@@ -781,12 +1041,7 @@ public class HibernatePatientDAO implements PatientDAO {
 		}
 		List<Patient> patients = new LinkedList<>();
 		
-		String minChars = Context.getAdministrationService().getGlobalProperty(OpenmrsConstants.GLOBAL_PROPERTY_MIN_SEARCH_CHARACTERS);
-		
-		if (!StringUtils.isNumeric(minChars)) {
-			minChars = "" + OpenmrsConstants.GLOBAL_PROPERTY_DEFAULT_MIN_SEARCH_CHARACTERS;
-		}
-		if (query.length() < Integer.parseInt(minChars)) {
+		if (query.length() < getMinSearchCharacters()) {
 			return patients;
 		}
 		
@@ -816,15 +1071,14 @@ public class HibernatePatientDAO implements PatientDAO {
 
 		List<Patient> patients = new LinkedList<>();
 
-		String minChars = Context.getAdministrationService().getGlobalProperty(
-			OpenmrsConstants.GLOBAL_PROPERTY_MIN_SEARCH_CHARACTERS);
-
-		if (!StringUtils.isNumeric(minChars)) {
-			minChars = "" + OpenmrsConstants.GLOBAL_PROPERTY_DEFAULT_MIN_SEARCH_CHARACTERS;
-		}
-		if (query.length() < Integer.parseInt(minChars)) {
+		if (query.length() < getMinSearchCharacters()) {
 			return patients;
 		}
+		
+		if (usePatientSearchDocument()) {
+			// one document per patient, so the page is fetched directly and its patients loaded in one query
+			return newPatientDocumentQuery(query, includeVoided, tmpLength).fetchHits(tmpStart, tmpLength);
+		}
 
 		PersonQuery personQuery = new PersonQuery();
 
@@ -843,24 +1097,67 @@ public class HibernatePatientDAO implements PatientDAO {
 		return patients;
 	}
 	
+	private int getMinSearchCharacters() {
+		return Context.getAdministrationService().getGlobalPropertyAsInt(
+		    OpenmrsConstants.GLOBAL_PROPERTY_MIN_SEARCH_CHARACTERS,
+		    OpenmrsConstants.GLOBAL_PROPERTY_DEFAULT_MIN_SEARCH_CHARACTERS);
+	}
+	
+	private boolean usePatientSearchDocument() {
+		return Context.getAdministrationService().getGlobalPropertyAsBoolean(
+		    OpenmrsConstants.GLOBAL_PROPERTY_PATIENT_SEARCH_USE_PATIENT_DOCUMENT, false);
+	}
+	
+	/**
+	 * Creates a query over the patient search documents matching the identifiers, names and searchable
+	 * attributes of each patient at once.
+	 * 
+	 * @param fetchSize the number of matching patients to load from the database in one query
+	 * @see org.openmrs.api.db.hibernate.search.PatientSearchMappingConfigurer
+	 */
+	private SearchQuery<Patient> newPatientDocumentQuery(String query, boolean includeVoided, int fetchSize) {
+		PersonQuery personQuery = new PersonQuery();
+		return searchSessionFactory.getSearchSession().search(Patient.class).where(f -> f.bool().with(b -> {
+			b.minimumShouldMatchNumber(1);
+			b.should(f.nested("identifiers").add(f.bool().with(ib -> {
+				ib.must(getPatientIdentifierSearchPredicate(f, query, false, "identifiers."));
+				if (!includeVoided) {
+					ib.filter(f.match().field("identifiers.voided").matching(false));
+				}
+			})).toPredicate());
+			b.should(personQuery.getPatientDocumentNameQuery(f, query, includeVoided));
+			b.should(personQuery.getPatientDocumentAttributeQuery(f, query, includeVoided));
+			
+			if (!includeVoided) {
+				b.filter(f.match().field("voided").matching(false));
+			}
+			b.filter(f.match().field("isPatient").matching(true));
+		})).loading(o -> o.fetchSize(fetchSize)).toQuery();
+	}
+	
 	private SearchPredicate getPatientIdentifierSearchPredicate(SearchPredicateFactory f, String paramQuery, boolean matchExactly) {
+		return getPatientIdentifierSearchPredicate(f, paramQuery, matchExactly, "");
+	}
+	
+	private SearchPredicate getPatientIdentifierSearchPredicate(SearchPredicateFactory f, String paramQuery,
+	        boolean matchExactly, String fieldPrefix) {
 		List<String> tokens = tokenizeIdentifierQuery(removeIdentifierPadding(paramQuery));
 		final String query = StringUtils.join(tokens, " | ");
 		//TODO: hibernate search identifierType?
 		//fields.add("identifierType");
 		return f.bool().with(b -> {
 			b.minimumShouldMatchNumber(1);
-			b.should(f.simpleQueryString().field("identifierPhrase").matching(query).boost(8f));
+			b.should(f.simpleQueryString().field(fieldPrefix + "identifierPhrase").matching(query).boost(8f));
 			String matchMode = Context.getAdministrationService()
 				.getGlobalProperty(OpenmrsConstants.GLOBAL_PROPERTY_PATIENT_IDENTIFIER_SEARCH_MATCH_MODE);
 			if (matchExactly) {
-				b.should(f.simpleQueryString().field("identifierExact").matching(query).boost(4f));
+				b.should(f.simpleQueryString().field(fieldPrefix + "identifierExact").matching(query).boost(4f));
 			}
 			else if (OpenmrsConstants.GLOBAL_PROPERTY_PATIENT_SEARCH_MATCH_START.equals(matchMode)) {
-				b.should(f.simpleQueryString().field("identifierStart").matching(query).boost(2f));
+				b.should(f.simpleQueryString().field(fieldPrefix + "identifierStart").matching(query).boost(2f));
 			}
 			else  {
-				b.should(f.simpleQueryString().field("identifierAnywhere").matching(query));
+				b.should(f.simpleQueryString().field(fieldPrefix + "identifierAnywhere").matching(query));
 			}
 		}).toPredicate();
 	
@@ -1040,4 +1337,22 @@ public class HibernatePatientDAO implements PatientDAO {
 		
         return session.createQuery(query).getResultList();
     }
+	
+	/**
+	 * Two candidate patients with their score.
+	 */
+	private static class ScoredPair {
+		
+		private final Integer patientId;
+		
+		private final Integer matchId;
+		
+		private final double score;
+		
+		ScoredPair(Integer patientId, Integer matchId, double score) {
+			this.patientId = patientId;
+			this.matchId = matchId;
+			this.score = score;
+		}
+	}
 }
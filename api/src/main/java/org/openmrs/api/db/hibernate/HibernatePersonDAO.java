@@ -12,13 +12,20 @@ package org.openmrs.api.db.hibernate;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
 import org.hibernate.Session;
@@ -36,6 +43,8 @@ import org.openmrs.api.db.DAOException;
 import org.openmrs.api.db.PersonDAO;
 import org.openmrs.api.db.hibernate.search.SearchQueryUnique;
 import org.openmrs.api.db.hibernate.search.session.SearchSessionFactory;
+import org.openmrs.person.PersonMatchKey;
+import org.openmrs.person.PersonMatchProfile;
 import org.openmrs.person.PersonMergeLog;
 import org.openmrs.util.OpenmrsConstants;
 import org.slf4j.Logger;
@@ -61,6 +70,16 @@ public class HibernatePersonDAO implements PersonDAO {
 	
 	private static final Logger log = LoggerFactory.getLogger(HibernatePersonDAO.class);
 	
+	/**
+	 * The number of people loaded at once while rebuilding the match keys or building match profiles
+	 */
+	private static final int MATCH_KEY_BATCH_SIZE = 1000;
+	
+	/**
+	 * The number of candidates scored for each similar person returned
+	 */
+	private static final int CANDIDATES_PER_RESULT = 10;
+	
 	/**
 	 * Hibernate session factory
 	 */
@@ -169,6 +188,10 @@ public class HibernatePersonDAO implements PersonDAO {
 	@Override
 	@SuppressWarnings("unchecked")
 	public Set<Person> getSimilarPeople(String name, Integer birthyear, String gender) throws DAOException {
+		if (isPersonMatchKeysEnabled()) {
+			return getSimilarPeopleByMatchKeys(name, birthyear, gender);
+		}
+		
 		if (birthyear == null) {
 			birthyear = 0;
 		}
@@ -190,6 +213,120 @@ public class HibernatePersonDAO implements PersonDAO {
 		return new LinkedHashSet<>();
 	}
 	
+	/**
+	 * Finds the candidates through the match keys they share with the searched person, and ranks
+	 * them by their score against the searched person.
+	 */
+	private Set<Person> getSimilarPeopleByMatchKeys(String name, Integer birthyear, String gender) {
+		PersonMatchProfile profile = PersonMatchProfile.of(name, birthyear, gender);
+		int maxResults = getMaximumSearchResults();
+		List<Integer> candidateIds = getPersonMatchCandidates(profile, maxResults * CANDIDATES_PER_RESULT);
+		
+		// the profiles do not reference the session, so they can be scored in parallel
+		List<Integer> personIds = getPersonMatchProfiles(sessionFactory, candidateIds).values().parallelStream()
+		        .map(candidate -> new ScoredProfile(candidate, profile.score(candidate)))
+		        .sorted(Comparator.comparingDouble(ScoredProfile::getScore).reversed()
+		                .thenComparing(scored -> scored.getProfile().getPersonId()))
+		        .limit(maxResults).map(scored -> scored.getProfile().getPersonId()).collect(Collectors.toList());
+		
+		if (personIds.isEmpty()) {
+			return new LinkedHashSet<>();
+		}
+		Map<Integer, Person> people = new HashMap<>();
+		for (Person person : sessionFactory.getCurrentSession().createQuery(
+		    "from Person p where p.personId in (:personIds)", Person.class).setParameterList("personIds", personIds)
+		        .getResultList()) {
+			people.put(person.getPersonId(), person);
+		}
+		return personIds.stream().map(people::get).collect(Collectors.toCollection(LinkedHashSet::new));
+	}
+	
+	/**
+	 * Gets the ids of the people sharing a name part or a phonetic code with the given profile, whose
+	 * gender and year of birth do not contradict those of the profile. The people sharing the most
+	 * keys with the profile come first, so that the limit drops the least likely candidates.
+	 */
+	private List<Integer> getPersonMatchCandidates(PersonMatchProfile profile, int maxResults) {
+		List<String> names = profile.getNames();
+		Set<String> metaphoneCodes = profile.getMetaphoneCodes();
+		Set<String> soundexCodes = profile.getSoundexCodes();
+		if (names.isEmpty()) {
+			return new ArrayList<>();
+		}
+		
+		Session session = sessionFactory.getCurrentSession();
+		CriteriaBuilder cb = session.getCriteriaBuilder();
+		CriteriaQuery<Integer> cq = cb.createQuery(Integer.class);
+		Root<PersonMatchKey> root = cq.from(PersonMatchKey.class);
+		
+		List<Predicate> codes = new ArrayList<>();
+		codes.add(cb.and(cb.equal(root.get("type"), PersonMatchKey.Type.NAME), root.get("value").in(names)));
+		if (!metaphoneCodes.isEmpty()) {
+			codes.add(cb.and(cb.equal(root.get("type"), PersonMatchKey.Type.METAPHONE), root.get("value").in(
+			    metaphoneCodes)));
+		}
+		if (!soundexCodes.isEmpty()) {
+			codes.add(cb.and(cb.equal(root.get("type"), PersonMatchKey.Type.SOUNDEX), root.get("value").in(
+			    soundexCodes)));
+		}
+		
+		List<Predicate> predicates = new ArrayList<>();
+		predicates.add(cb.or(codes.toArray(new Predicate[] {})));
+		if (profile.getGender() != null) {
+			predicates.add(cb.or(cb.isNull(root.get("gender")), cb.equal(root.get("gender"), profile.getGender())));
+		}
+		if (profile.getBirthYear() != null) {
+			predicates.add(cb.or(cb.isNull(root.get("birthYear")), cb.between(root.get("birthYear"), profile
+			        .getBirthYear() - PersonMatchProfile.BIRTH_YEAR_TOLERANCE, profile.getBirthYear()
+			        + PersonMatchProfile.BIRTH_YEAR_TOLERANCE)));
+		}
+		
+		Path<Integer> personId = root.get("person").get("personId");
+		cq.select(personId).where(predicates.toArray(new Predicate[] {})).groupBy(personId)
+		        .orderBy(cb.desc(cb.count(root)), cb.asc(personId));
+		return session.createQuery(cq).setMaxResults(maxResults).getResultList();
+	}
+	
+	/**
+	 * Builds the match profiles of people from their stored match keys, without loading the people.
+	 * 
+	 * @param sessionFactory the session factory from which to pull the current session
+	 * @param personIds the ids of the people
+	 * @return the profiles by person id, for the people who have match keys
+	 * @since 3.0.0
+	 */
+	public static Map<Integer, PersonMatchProfile> getPersonMatchProfiles(SessionFactory sessionFactory,
+	        Collection<Integer> personIds) {
+		return getPersonMatchProfiles(sessionFactory.getCurrentSession(), personIds);
+	}
+	
+	/**
+	 * Builds the match profiles of people from their stored match keys loaded in the given session.
+	 * 
+	 * @param session the session to load the match keys in
+	 * @param personIds the ids of the people
+	 * @return the profiles by person id, for the people who have match keys
+	 */
+	static Map<Integer, PersonMatchProfile> getPersonMatchProfiles(Session session, Collection<Integer> personIds) {
+		Map<Integer, List<PersonMatchKey>> keysByPerson = new LinkedHashMap<>();
+		List<Integer> ids = new ArrayList<>(personIds);
+		for (int from = 0; from < ids.size(); from += MATCH_KEY_BATCH_SIZE) {
+			List<PersonMatchKey> keys = session
+			        .createQuery("from PersonMatchKey k where k.type = :type and k.person.personId in (:ids)",
+			            PersonMatchKey.class)
+			        .setParameter("type", PersonMatchKey.Type.NAME)
+			        .setParameterList("ids", ids.subList(from, Math.min(from + MATCH_KEY_BATCH_SIZE, ids.size())))
+			        .getResultList();
+			for (PersonMatchKey key : keys) {
+				keysByPerson.computeIfAbsent(key.getPerson().getPersonId(), id -> new ArrayList<>()).add(key);
+			}
+		}
+		
+		Map<Integer, PersonMatchProfile> profiles = new LinkedHashMap<>();
+		keysByPerson.forEach((personId, keys) -> profiles.put(personId, PersonMatchProfile.of(personId, keys)));
+		return profiles;
+	}
+	
 	/**
 	 * @see org.openmrs.api.db.PersonDAO#getPeople(java.lang.String, java.lang.Boolean)
 	 * <strong>Should</strong> get no one by null
@@ -295,6 +432,16 @@ public class HibernatePersonDAO implements PersonDAO {
 		return OpenmrsConstants.GLOBAL_PROPERTY_PERSON_SEARCH_MAX_RESULTS_DEFAULT_VALUE;
 	}
 	
+	/**
+	 * @return true if the match keys of people are maintained when they are saved and used to find
+	 *         similar people
+	 * @since 3.0.0
+	 */
+	public static boolean isPersonMatchKeysEnabled() {
+		return Context.getAdministrationService().getGlobalPropertyAsBoolean(
+		    OpenmrsConstants.GLOBAL_PROPERTY_PERSON_MATCH_KEYS_ENABLED, false);
+	}
+	
 	/**
 	 * @see org.openmrs.api.PersonService#getPerson(java.lang.Integer)
 	 * @see org.openmrs.api.db.PersonDAO#getPerson(java.lang.Integer)
@@ -584,7 +731,11 @@ public class HibernatePersonDAO implements PersonDAO {
 	 */
 	@Override
 	public Person savePerson(Person person) throws DAOException {
-		return HibernateUtil.saveOrUpdate(sessionFactory.getCurrentSession(), person);
+		Person savedPerson = HibernateUtil.saveOrUpdate(sessionFactory.getCurrentSession(), person);
+		if (isPersonMatchKeysEnabled()) {
+			updatePersonMatchKeys(sessionFactory, savedPerson);
+		}
+		return savedPerson;
 	}
 	
 	/**
@@ -641,10 +792,71 @@ public class HibernatePersonDAO implements PersonDAO {
 		}
 		person.setNames(null);
 		
+		if (person.getPersonId() != null) {
+			sessionFactory.getCurrentSession().createMutationQuery(
+			    "delete from PersonMatchKey k where k.person.personId = :personId").setParameter("personId",
+			    person.getPersonId()).executeUpdate();
+		}
+		
 		// finally, just tell hibernate to delete our object
 		sessionFactory.getCurrentSession().remove(person);
 	}
 	
+	/**
+	 * Replaces the stored match keys of a person with the keys derived from the current names,
+	 * gender and birthdate of the person. The keys which did not change are kept as they are, and a
+	 * voided person has no keys.
+	 * 
+	 * @param sessionFactory the session factory from which to pull the current session
+	 * @param person the saved person
+	 * @since 3.0.0
+	 */
+	public static void updatePersonMatchKeys(SessionFactory sessionFactory, Person person) {
+		Session session = sessionFactory.getCurrentSession();
+		Map<String, PersonMatchKey> oldKeys = new HashMap<>();
+		for (PersonMatchKey key : session.createQuery("from PersonMatchKey k where k.person.personId = :personId",
+		    PersonMatchKey.class).setParameter("personId", person.getPersonId()).getResultList()) {
+			if (oldKeys.putIfAbsent(key.getSignature(), key) != null) {
+				session.remove(key);
+			}
+		}
+		
+		if (!Boolean.TRUE.equals(person.getPersonVoided())) {
+			for (PersonMatchKey key : PersonMatchProfile.of(person).toKeys(person)) {
+				if (oldKeys.remove(key.getSignature()) == null) {
+					session.persist(key);
+				}
+			}
+		}
+		oldKeys.values().forEach(session::remove);
+	}
+	
+	/**
+	 * @see org.openmrs.api.db.PersonDAO#rebuildPersonMatchKeys()
+	 */
+	@Override
+	public int rebuildPersonMatchKeys() throws DAOException {
+		Session session = sessionFactory.getCurrentSession();
+		int count = 0;
+		Integer lastPersonId = 0;
+		List<Integer> personIds;
+		do {
+			personIds = session.createQuery(
+			    "select p.personId from Person p where p.personId > :lastPersonId order by p.personId", Integer.class)
+			        .setParameter("lastPersonId", lastPersonId).setMaxResults(MATCH_KEY_BATCH_SIZE).getResultList();
+			for (Integer personId : personIds) {
+				updatePersonMatchKeys(sessionFactory, session.get(Person.class, personId));
+				lastPersonId = personId;
+			}
+			count += personIds.size();
+			// keeps the session small while going over all people
+			session.flush();
+			session.clear();
+			log.debug("Rebuilt the match keys of {} people", count);
+		} while (personIds.size() == MATCH_KEY_BATCH_SIZE);
+		return count;
+	}
+	
 	/**
 	 * @see org.openmrs.api.db.PersonDAO#getPersonAttributeTypeByUuid(java.lang.String)
 	 */
@@ -801,7 +1013,11 @@ public class HibernatePersonDAO implements PersonDAO {
 	 */
 	@Override
 	public PersonName savePersonName(PersonName personName) {
-		return HibernateUtil.saveOrUpdate(sessionFactory.getCurrentSession(), personName);
+		PersonName savedName = HibernateUtil.saveOrUpdate(sessionFactory.getCurrentSession(), personName);
+		if (savedName.getPerson() != null && savedName.getPerson().getPersonId() != null && isPersonMatchKeysEnabled()) {
+			updatePersonMatchKeys(sessionFactory, savedName.getPerson());
+		}
+		return savedName;
 	}
 	
 	/**
@@ -813,4 +1029,27 @@ public class HibernatePersonDAO implements PersonDAO {
 		return HibernateUtil.saveOrUpdate(sessionFactory.getCurrentSession(), personAddress);
 	}
 	
+	/**
+	 * A match profile with its score against the searched person.
+	 */
+	private static class ScoredProfile {
+		
+		private final PersonMatchProfile profile;
+		
+		private final double score;
+		
+		ScoredProfile(PersonMatchProfile profile, double score) {
+			this.profile = profile;
+			this.score = score;
+		}
+		
+		PersonMatchProfile getProfile() {
+			return profile;
+		}
+		
+		double getScore() {
+			return score;
+		}
+	}
+	
 }
@@ -171,6 +171,9 @@ public class HibernateSessionFactoryBean extends LocalSessionFactoryBean impleme
 			props.put("hibernate.cache.infinispan.cfg", 
 				"org/infinispan/hibernate/cache/commons/builder/infinispan-configs" + local + ".xml");
 			
+			// Size the cache regions as configured in cache-hibernate.yaml files
+			props.putAll(cacheConfig.getHibernateCacheProperties());
+			
 			// Only load in the default properties if they don't exist
 			for (Entry<Object, Object> prop : props.entrySet()) {
 				if (!config.containsKey(prop.getKey())) {
@@ -14,15 +14,20 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
+import jakarta.persistence.Tuple;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import jakarta.persistence.criteria.Subquery;
 
 import org.apache.commons.lang3.StringUtils;
+import org.hibernate.CacheMode;
+import org.hibernate.FlushMode;
 import org.hibernate.Hibernate;
 import org.hibernate.ScrollMode;
 import org.hibernate.ScrollableResults;
@@ -35,6 +40,7 @@ import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.proxy.HibernateProxy;
 import org.openmrs.Location;
 import org.openmrs.LocationAttribute;
+import org.openmrs.PatientIdSet;
 import org.openmrs.api.db.DAOException;
 import org.openmrs.attribute.AttributeType;
 import org.slf4j.Logger;
@@ -50,6 +56,11 @@ public class HibernateUtil {
 	
 	private static final Logger log = LoggerFactory.getLogger(HibernateUtil.class);
 	
+	/**
+	 * Minimum length minus one of a run of consecutive ids to be queried with BETWEEN instead of IN
+	 */
+	private static final int PATIENT_ID_RANGE_THRESHOLD = 3;
+	
 	/**
 	 * Persists a new entity or merges a detached entity, emulating the old Hibernate
 	 * {@code saveOrUpdate()} behavior. For entities that are already managed, this is a no-op.
@@ -271,4 +282,98 @@ public class HibernateUtil {
 			.setFetchSize(fetchSize)
 			.scroll(ScrollMode.FORWARD_ONLY);
 	}
+
+	/**
+	 * Creates a predicate restricting the given id path to the ids in the given set. Runs of
+	 * consecutive ids are expressed as BETWEEN clauses and the remaining ids as a single IN list, which
+	 * keeps the statement small for the dense id ranges cohorts usually consist of. Callers should
+	 * query large sets in batches, see {@link PatientIdSet#partition(int)}.
+	 *
+	 * @param cb the CriteriaBuilder used to construct the query
+	 * @param idPath the path of the patient id to restrict
+	 * @param patientIds the ids to match
+	 * @return the predicate, which never matches anything for an empty set
+	 * @since 3.0.0
+	 */
+	public static Predicate getPatientIdPredicate(CriteriaBuilder cb, Path<Integer> idPath, PatientIdSet patientIds) {
+		List<Predicate> predicates = new ArrayList<>();
+		List<Integer> singleIds = new ArrayList<>();
+		for (int[] range : patientIds.getRanges()) {
+			if (range[1] - range[0] >= PATIENT_ID_RANGE_THRESHOLD) {
+				predicates.add(cb.between(idPath, range[0], range[1]));
+			} else {
+				for (int id = range[0]; id <= range[1]; id++) {
+					singleIds.add(id);
+				}
+			}
+		}
+		if (!singleIds.isEmpty()) {
+			predicates.add(idPath.in(singleIds));
+		}
+		return cb.or(predicates.toArray(new Predicate[0]));
+	}
+
+	/**
+	 * Walks the non voided rows of the given patient data type for the given patients in batches of
+	 * patient ids and passes each patient's rows to the callback, most recent first. The rows are
+	 * loaded read-only in a session of their own which shares the connection, and so the
+	 * transaction, of the current session. That session is cleared after each batch, so memory use is
+	 * bounded by the batch size rather than the number of patients, including the entities the rows
+	 * reference and the ones loaded by the callback through them. The current session is left as it
+	 * was, apart from its pending changes being flushed before the first batch so that the walk sees
+	 * them.
+	 *
+	 * @param sessionFactory the session factory
+	 * @param type the patient data type, e.g. Encounter or Obs
+	 * @param patientProperty the property of the type referencing the patient or person
+	 * @param datetimeProperty the date property to sort each patient's rows by
+	 * @param patientIds the ids of the patients to walk
+	 * @param batchSize the maximum number of patients per query
+	 * @param callback receives the patient id and that patient's rows
+	 * @since 3.0.0
+	 */
+	public static <T> void forEachPatient(SessionFactory sessionFactory, Class<T> type, String patientProperty,
+	        String datetimeProperty, PatientIdSet patientIds, int batchSize, BiConsumer<Integer, List<T>> callback) {
+		Session currentSession = sessionFactory.getCurrentSession();
+		currentSession.flush();
+		
+		try (Session session = currentSession.sessionWithOptions().connection().openSession()) {
+			session.setDefaultReadOnly(true);
+			session.setHibernateFlushMode(FlushMode.MANUAL);
+			session.setCacheMode(CacheMode.IGNORE);
+			
+			for (PatientIdSet batch : patientIds.partition(batchSize)) {
+				CriteriaBuilder cb = session.getCriteriaBuilder();
+				CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+				Root<T> root = cq.from(type);
+				Path<Integer> patientId = root.get(patientProperty).get("personId");
+				
+				cq.multiselect(patientId, root)
+				        .where(cb.isFalse(root.get("voided")), getPatientIdPredicate(cb, patientId, batch))
+				        .orderBy(cb.asc(patientId), cb.desc(root.get(datetimeProperty)));
+				
+				try (ScrollableResults<Tuple> results = session.createQuery(cq).setFetchSize(batchSize)
+				        .scroll(ScrollMode.FORWARD_ONLY)) {
+					Integer currentPatientId = null;
+					List<T> rows = new ArrayList<>();
+					while (results.next()) {
+						Tuple row = results.get();
+						Integer rowPatientId = row.get(0, Integer.class);
+						if (currentPatientId != null && !currentPatientId.equals(rowPatientId)) {
+							callback.accept(currentPatientId, rows);
+							rows = new ArrayList<>();
+						}
+						currentPatientId = rowPatientId;
+						rows.add(row.get(1, type));
+					}
+					if (currentPatientId != null) {
+						callback.accept(currentPatientId, rows);
+					}
+				}
+				finally {
+					session.clear();
+				}
+			}
+		}
+	}
 }
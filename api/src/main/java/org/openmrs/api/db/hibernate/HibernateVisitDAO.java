@@ -67,7 +67,7 @@ public class HibernateVisitDAO implements VisitDAO {
 		CriteriaQuery<VisitType> cq = cb.createQuery(VisitType.class);
 		cq.from(VisitType.class);
 		
-		return session.createQuery(cq).getResultList();
+		return session.createQuery(cq).setCacheable(true).getResultList();
 	}
 	
 	/**
@@ -84,7 +84,7 @@ public class HibernateVisitDAO implements VisitDAO {
 			cq.where(cb.equal(root.get("retired"), includeRetired));
 		}
 
-		return session.createQuery(cq).getResultList();
+		return session.createQuery(cq).setCacheable(true).getResultList();
 	}
 	
 	/**
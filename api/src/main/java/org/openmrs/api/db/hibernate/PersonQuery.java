@@ -161,8 +161,52 @@ public class PersonQuery {
 		    includeVoided, null, null, birthyear, gender);
 	}
 	
-	private SearchPredicate getPersonNameQuery(SearchPredicateFactory predicateFactory, String query, boolean orQueryParser,
-	        boolean includeVoided, boolean patientsOnly, Boolean dead) {
+	/**
+	 * Creates a query matching the names embedded in a patient search document.
+	 * 
+	 * @param query the names to search for
+	 * @param includeVoided is true if voided names should be matched
+	 * @return the nested query over the names of the patient
+	 * @see org.openmrs.api.db.hibernate.search.PatientSearchMappingConfigurer
+	 * @since 3.0.0
+	 */
+	public SearchPredicate getPatientDocumentNameQuery(SearchPredicateFactory predicateFactory, String query,
+	        boolean includeVoided) {
+		return predicateFactory.nested("names").add(predicateFactory.bool().with(b -> {
+			b.must(predicateFactory.simpleQueryString().fields(withPrefix("names.", getNameFields()))
+			        .matching(query).defaultOperator(BooleanOperator.AND));
+			if (!includeVoided) {
+				b.filter(predicateFactory.match().field("names.voided").matching(false));
+			}
+		})).toPredicate();
+	}
+	
+	/**
+	 * Creates a query matching the searchable attributes embedded in a patient search document.
+	 * 
+	 * @param query the attribute value to search for
+	 * @param includeVoided is true if voided attributes should be matched
+	 * @return the nested query over the attributes of the patient
+	 * @see org.openmrs.api.db.hibernate.search.PatientSearchMappingConfigurer
+	 * @since 3.0.0
+	 */
+	public SearchPredicate getPatientDocumentAttributeQuery(SearchPredicateFactory predicateFactory, String query,
+	        boolean includeVoided) {
+		return predicateFactory.nested("attributes").add(predicateFactory.bool().with(b -> {
+			b.must(predicateFactory.simpleQueryString().fields(withPrefix("attributes.", getAttributeFields()))
+			        .matching(query).defaultOperator(BooleanOperator.AND));
+			if (!includeVoided) {
+				b.filter(predicateFactory.match().field("attributes.voided").matching(false));
+			}
+			b.filter(predicateFactory.match().field("attributes.attributeType.searchable").matching(true));
+		})).toPredicate();
+	}
+	
+	private String[] withPrefix(String prefix, List<String> fields) {
+		return fields.stream().map(field -> prefix + field).toArray(String[]::new);
+	}
+	
+	private List<String> getNameFields() {
 		List<String> fields = new ArrayList<>(Arrays.asList("givenNameExact", "middleNameExact", "familyNameExact",
 		    "familyName2Exact", "givenNameStart", "middleNameStart", "familyNameStart", "familyName2Start"));
 		
@@ -172,9 +216,13 @@ public class PersonQuery {
 			fields.addAll(
 			    Arrays.asList("givenNameAnywhere", "middleNameAnywhere", "familyNameAnywhere", "familyName2Anywhere"));
 		}
-		
-		return newPersonNameSearchQuery(predicateFactory, fields, query, orQueryParser, includeVoided, patientsOnly, dead,
-		    null, null);
+		return fields;
+	}
+	
+	private SearchPredicate getPersonNameQuery(SearchPredicateFactory predicateFactory, String query, boolean orQueryParser,
+	        boolean includeVoided, boolean patientsOnly, Boolean dead) {
+		return newPersonNameSearchQuery(predicateFactory, getNameFields(), query, orQueryParser, includeVoided,
+		    patientsOnly, dead, null, null);
 	}
 	
 	private SearchPredicate newPersonNameSearchQuery(SearchPredicateFactory predicateFactory, List<String> fields,
@@ -226,8 +274,7 @@ public class PersonQuery {
 		return getPersonAttributeQuery(predicateFactory, query, true, includeVoided, false);
 	}
 	
-	private SearchPredicate getPersonAttributeQuery(SearchPredicateFactory predicateFactory, String query,
-	        boolean orQueryParser, boolean includeVoided, boolean patientsOnly) {
+	private List<String> getAttributeFields() {
 		List<String> fields = new ArrayList<>();
 		fields.add("valuePhrase"); //will position whole phrase match higher
 		fields.add("valueExact");
@@ -237,6 +284,12 @@ public class PersonQuery {
 			fields.add("valueStart"); //will position "starts with" match higher
 			fields.add("valueAnywhere");
 		}
+		return fields;
+	}
+	
+	private SearchPredicate getPersonAttributeQuery(SearchPredicateFactory predicateFactory, String query,
+	        boolean orQueryParser, boolean includeVoided, boolean patientsOnly) {
+		List<String> fields = getAttributeFields();
 		
 		return predicateFactory.bool().with(b -> {
 			b.must(predicateFactory.simpleQueryString().fields(fields.toArray(new String[0])).matching(query)
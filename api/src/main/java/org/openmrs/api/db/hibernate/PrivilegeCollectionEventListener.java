@@ -0,0 +1,76 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db.hibernate;
+
+import jakarta.annotation.PostConstruct;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.internal.SessionFactoryImpl;
+import org.openmrs.Role;
+import org.openmrs.User;
+import org.openmrs.api.context.PrivilegeBitSet;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Invalidates the cached {@link PrivilegeBitSet}s whenever the privileges or inherited roles of a
+ * {@link Role} or the roles of a {@link User} are flushed to the database, this covers the changes
+ * made directly to the collections returned by the getters which bypass the methods of
+ * {@link Role} and {@link User} that invalidate the sets.
+ *
+ * @see org.openmrs.ObsPostLoadEventListener
+ * @since 3.0.0
+ */
+@Component
+public class PrivilegeCollectionEventListener implements PostCollectionRecreateEventListener, PostCollectionRemoveEventListener, PostCollectionUpdateEventListener {
+	
+	@Autowired
+	private SessionFactory sessionFactory;
+	
+	@PostConstruct
+	public void registerListener() {
+		EventListenerRegistry registry = ((SessionFactoryImpl) sessionFactory).getServiceRegistry().getService(
+		    EventListenerRegistry.class);
+		registry.getEventListenerGroup(EventType.POST_COLLECTION_RECREATE).appendListener(this);
+		registry.getEventListenerGroup(EventType.POST_COLLECTION_REMOVE).appendListener(this);
+		registry.getEventListenerGroup(EventType.POST_COLLECTION_UPDATE).appendListener(this);
+	}
+	
+	@Override
+	public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+		invalidateIfPrivilegesChanged(event);
+	}
+	
+	@Override
+	public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+		invalidateIfPrivilegesChanged(event);
+	}
+	
+	@Override
+	public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+		invalidateIfPrivilegesChanged(event);
+	}
+	
+	private void invalidateIfPrivilegesChanged(AbstractCollectionEvent event) {
+		Object owner = event.getAffectedOwnerOrNull();
+		if (owner instanceof Role || owner instanceof User) {
+			PrivilegeBitSet.invalidateAll();
+		}
+	}
+}
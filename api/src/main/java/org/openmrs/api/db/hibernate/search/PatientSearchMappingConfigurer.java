@@ -0,0 +1,52 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db.hibernate.search;
+
+import org.hibernate.search.engine.backend.types.ObjectStructure;
+import org.hibernate.search.mapper.orm.mapping.HibernateOrmMappingConfigurationContext;
+import org.hibernate.search.mapper.orm.mapping.HibernateOrmSearchMappingConfigurer;
+import org.hibernate.search.mapper.pojo.mapping.definition.programmatic.TypeMappingStep;
+import org.openmrs.Patient;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps {@link Patient} to a search document of its own, which embeds the names, identifiers and
+ * attributes of the patient as nested objects next to the fields of the person, so that a patient
+ * search is a single query over one document per patient.
+ * <p>
+ * The mapping is programmatic, because annotating the names and attributes of {@link org.openmrs.Person}
+ * would also embed them everywhere a person is embedded. Only the fields the patient search uses are
+ * embedded.
+ * 
+ * @see org.openmrs.api.db.hibernate.HibernatePatientDAO
+ * @since 3.0.0
+ */
+@Component("patientSearchMappingConfigurer")
+public class PatientSearchMappingConfigurer implements HibernateOrmSearchMappingConfigurer {
+	
+	public static final String PATIENT_INDEX = "patient";
+	
+	@Override
+	public void configure(HibernateOrmMappingConfigurationContext context) {
+		TypeMappingStep patient = context.programmaticMapping().type(Patient.class);
+		patient.indexed().index(PATIENT_INDEX);
+		
+		patient.property("identifiers").indexedEmbedded().structure(ObjectStructure.NESTED).includePaths("identifierPhrase",
+		    "identifierExact", "identifierStart", "identifierAnywhere", "identifierType.patientIdentifierTypeId", "voided");
+		
+		patient.property("names").indexedEmbedded().structure(ObjectStructure.NESTED).includePaths("givenNameExact",
+		    "givenNameStart", "givenNameAnywhere", "middleNameExact", "middleNameStart", "middleNameAnywhere",
+		    "familyNameExact", "familyNameStart", "familyNameAnywhere", "familyName2Exact", "familyName2Start",
+		    "familyName2Anywhere", "voided");
+		
+		patient.property("attributes").indexedEmbedded().structure(ObjectStructure.NESTED).includePaths("valuePhrase",
+		    "valueExact", "valueStart", "valueAnywhere", "attributeType.searchable", "voided");
+	}
+}
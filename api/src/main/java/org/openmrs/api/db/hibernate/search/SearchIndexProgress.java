@@ -0,0 +1,199 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db.hibernate.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live progress of a search index rebuild started by {@link SearchIndexRebuilder}. The counters are
+ * updated by the indexing threads while the rebuild runs, so the values returned by the getters
+ * may change between calls.
+ *
+ * @since 3.0.0
+ */
+public class SearchIndexProgress {
+
+	public enum State {
+		RUNNING,
+		COMPLETED,
+		FAILED,
+		CANCELLED
+	}
+
+	private final Date changedSince;
+
+	private final boolean resumed;
+
+	private final Date startTime = new Date();
+
+	private final Map<Class<?>, TypeProgress> types = new LinkedHashMap<>();
+
+	private volatile Date endTime;
+
+	private volatile State state = State.RUNNING;
+
+	private volatile Throwable failure;
+
+	SearchIndexProgress(Date changedSince, boolean resumed) {
+		this.changedSince = changedSince;
+		this.resumed = resumed;
+	}
+
+	/**
+	 * @return the timestamp rows had to be changed after to be reindexed, or null for a full rebuild
+	 */
+	public Date getChangedSince() {
+		return changedSince;
+	}
+
+	/**
+	 * @return true if the rebuild continues from the checkpoint of an interrupted one
+	 */
+	public boolean isResumed() {
+		return resumed;
+	}
+
+	public Date getStartTime() {
+		return startTime;
+	}
+
+	/**
+	 * @return the time the rebuild finished, or null while it is running
+	 */
+	public Date getEndTime() {
+		return endTime;
+	}
+
+	public State getState() {
+		return state;
+	}
+
+	/**
+	 * @return true if the rebuild is no longer running
+	 */
+	public boolean isDone() {
+		return state != State.RUNNING;
+	}
+
+	/**
+	 * @return the exception the rebuild failed with, or null
+	 */
+	public Throwable getFailure() {
+		return failure;
+	}
+
+	/**
+	 * @return the types being reindexed, in the order they are processed
+	 */
+	public List<Class<?>> getTypes() {
+		return Collections.unmodifiableList(new ArrayList<>(types.keySet()));
+	}
+
+	/**
+	 * @return the number of id range partitions to index across all types
+	 */
+	public int getTotalPartitions() {
+		return types.values().stream().mapToInt(p -> p.totalPartitions).sum();
+	}
+
+	/**
+	 * @return the number of id range partitions indexed so far across all types
+	 */
+	public int getCompletedPartitions() {
+		return types.values().stream().mapToInt(p -> p.completedPartitions.get()).sum();
+	}
+
+	/**
+	 * @return the number of entities indexed so far across all types
+	 */
+	public long getIndexedCount() {
+		return types.values().stream().mapToLong(p -> p.indexedCount.get()).sum();
+	}
+
+	/**
+	 * @param type an indexed type
+	 * @return the number of id range partitions to index for the given type
+	 */
+	public int getTotalPartitions(Class<?> type) {
+		TypeProgress progress = types.get(type);
+		return progress == null ? 0 : progress.totalPartitions;
+	}
+
+	/**
+	 * @param type an indexed type
+	 * @return the number of id range partitions indexed so far for the given type
+	 */
+	public int getCompletedPartitions(Class<?> type) {
+		TypeProgress progress = types.get(type);
+		return progress == null ? 0 : progress.completedPartitions.get();
+	}
+
+	/**
+	 * @param type an indexed type
+	 * @return the number of entities of the given type indexed so far
+	 */
+	public long getIndexedCount(Class<?> type) {
+		TypeProgress progress = types.get(type);
+		return progress == null ? 0 : progress.indexedCount.get();
+	}
+
+	/**
+	 * @return the share of partitions indexed so far between 0 and 100
+	 */
+	public double getPercentComplete() {
+		int total = getTotalPartitions();
+		if (total == 0) {
+			return isDone() ? 100 : 0;
+		}
+		return 100.0 * getCompletedPartitions() / total;
+	}
+
+	void addType(Class<?> type, int totalPartitions) {
+		types.put(type, new TypeProgress(totalPartitions));
+	}
+
+	void recordPartition(Class<?> type, long indexed) {
+		TypeProgress progress = types.get(type);
+		progress.completedPartitions.incrementAndGet();
+		progress.indexedCount.addAndGet(indexed);
+	}
+
+	void finish(State state, Throwable failure) {
+		this.failure = failure;
+		this.endTime = new Date();
+		this.state = state;
+	}
+
+	@Override
+	public String toString() {
+		return "SearchIndexProgress[state=" + state + ", partitions=" + getCompletedPartitions() + "/"
+		        + getTotalPartitions() + ", indexed=" + getIndexedCount() + "]";
+	}
+
+	private static class TypeProgress {
+
+		private final int totalPartitions;
+
+		private final AtomicInteger completedPartitions = new AtomicInteger();
+
+		private final AtomicLong indexedCount = new AtomicLong();
+
+		TypeProgress(int totalPartitions) {
+			this.totalPartitions = totalPartitions;
+		}
+	}
+}
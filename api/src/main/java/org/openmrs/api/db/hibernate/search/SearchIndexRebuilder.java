@@ -0,0 +1,469 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db.hibernate.search;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import org.apache.commons.lang3.StringUtils;
+import org.hibernate.CacheMode;
+import org.hibernate.FlushMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.search.mapper.orm.Search;
+import org.hibernate.search.mapper.orm.entity.SearchIndexedEntity;
+import org.hibernate.search.mapper.orm.work.SearchIndexingPlan;
+import org.openmrs.api.db.hibernate.search.SearchIndexProgress.State;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Rebuilds the search index by splitting each indexed type into ranges of primary keys, which are
+ * indexed in parallel, each in its own session. The highest id up to which all ranges of a type are
+ * indexed is written to a checkpoint file after every range, so a rebuild that was interrupted, for
+ * example by a restart, can be resumed without starting over. A rebuild may also be restricted to
+ * the rows created, changed, voided or retired since a given date, in which case the existing
+ * documents are updated in place rather than purged first.
+ * <p>
+ * Only one rebuild can run at a time.
+ *
+ * @since 3.0.0
+ */
+public class SearchIndexRebuilder {
+
+	private static final Logger log = LoggerFactory.getLogger(SearchIndexRebuilder.class);
+
+	static final String TYPES_KEY = "types";
+
+	static final String CHANGED_SINCE_KEY = "changedSince";
+
+	/**
+	 * Audit properties compared against the date passed to an incremental rebuild, where present
+	 */
+	private static final List<String> AUDIT_PROPERTIES = Arrays.asList("dateCreated", "dateChanged", "dateVoided",
+	    "dateRetired");
+
+	private static final int BATCH_SIZE = 1000;
+
+	private final SessionFactory sessionFactory;
+
+	private final File checkpointFile;
+
+	private volatile SearchIndexProgress progress;
+
+	private ExecutorService executor;
+
+	public SearchIndexRebuilder(SessionFactory sessionFactory, File checkpointFile) {
+		this.sessionFactory = sessionFactory;
+		this.checkpointFile = checkpointFile;
+	}
+
+	/**
+	 * Starts rebuilding the index of the given types, discarding the checkpoint of any previous
+	 * rebuild.
+	 *
+	 * @param types the indexed types to rebuild, all indexed types if empty
+	 * @param changedSince if not null, only rows created or changed since this date are reindexed
+	 *            and the index is not purged
+	 * @param threads the number of ranges indexed in parallel
+	 * @param partitionSize the number of ids in each range
+	 * @return a future completed with the progress once the rebuild finished
+	 * @throws IllegalStateException if a rebuild is already running
+	 */
+	public synchronized CompletableFuture<SearchIndexProgress> start(Collection<Class<?>> types, Date changedSince,
+	        int threads, int partitionSize) {
+		checkNotRunning();
+		List<Class<?>> indexedTypes = types == null || types.isEmpty() ? getIndexedTypes() : new ArrayList<>(types);
+		Checkpoint checkpoint = new Checkpoint(indexedTypes, changedSince);
+		checkpoint.store(checkpointFile);
+
+		if (changedSince == null) {
+			for (Class<?> type : indexedTypes) {
+				Search.mapping(sessionFactory).scope(type).workspace().purge();
+			}
+		}
+		return run(checkpoint, false, threads, partitionSize);
+	}
+
+	/**
+	 * Resumes the rebuild recorded in the checkpoint file, skipping the id ranges that were already
+	 * indexed.
+	 *
+	 * @param threads the number of ranges indexed in parallel
+	 * @param partitionSize the number of ids in each range
+	 * @return a future completed with the progress once the rebuild finished, or null if there is
+	 *         no interrupted rebuild to resume
+	 * @throws IllegalStateException if a rebuild is already running
+	 */
+	public synchronized CompletableFuture<SearchIndexProgress> resume(int threads, int partitionSize) {
+		checkNotRunning();
+		Checkpoint checkpoint = Checkpoint.load(checkpointFile, getIndexedTypes());
+		if (checkpoint == null) {
+			return null;
+		}
+		return run(checkpoint, true, threads, partitionSize);
+	}
+
+	/**
+	 * @return true if an interrupted rebuild left a checkpoint to resume from
+	 */
+	public boolean hasCheckpoint() {
+		return checkpointFile.isFile();
+	}
+
+	/**
+	 * @return the progress of the running or last rebuild, or null if none was started
+	 */
+	public SearchIndexProgress getProgress() {
+		return progress;
+	}
+
+	/**
+	 * Stops the running rebuild, if any. The checkpoint is kept so the rebuild can be resumed.
+	 */
+	public synchronized void cancel() {
+		if (executor != null) {
+			executor.shutdownNow();
+		}
+	}
+
+	private void checkNotRunning() {
+		if (progress != null && !progress.isDone()) {
+			throw new IllegalStateException("A search index rebuild is already running");
+		}
+	}
+
+	private List<Class<?>> getIndexedTypes() {
+		return Search.mapping(sessionFactory).allIndexedEntities().stream().<Class<?>> map(SearchIndexedEntity::javaClass)
+		        .collect(Collectors.toList());
+	}
+
+	private CompletableFuture<SearchIndexProgress> run(Checkpoint checkpoint, boolean resumed, int threads,
+	        int partitionSize) {
+		SearchIndexProgress newProgress = new SearchIndexProgress(checkpoint.changedSince, resumed);
+		List<Partition> partitions = new ArrayList<>();
+		for (Class<?> type : checkpoint.types) {
+			List<Partition> typePartitions = plan(type, checkpoint.changedSince, checkpoint.watermarks.get(type),
+			    Math.max(1, partitionSize));
+			newProgress.addType(type, typePartitions.size());
+			partitions.addAll(typePartitions);
+		}
+		log.info("Rebuilding the search index of {} in {} partitions on {} threads{}", checkpoint.types,
+		    partitions.size(), threads, resumed ? " resuming from a checkpoint" : "");
+
+		CompletableFuture<SearchIndexProgress> result = new CompletableFuture<>();
+		AtomicInteger threadCount = new AtomicInteger();
+		ExecutorService newExecutor = Executors.newFixedThreadPool(Math.max(1, threads) + 1, r -> {
+			Thread thread = new Thread(r, "search-index-rebuild-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		progress = newProgress;
+		executor = newExecutor;
+		newExecutor.execute(() -> coordinate(newProgress, checkpoint, partitions, newExecutor, result));
+		return result;
+	}
+
+	/**
+	 * Submits all partitions and waits for them in submission order, so that the checkpoint of a
+	 * type only ever advances over ranges which are indexed completely.
+	 */
+	private void coordinate(SearchIndexProgress progress, Checkpoint checkpoint, List<Partition> partitions,
+	        ExecutorService executor, CompletableFuture<SearchIndexProgress> result) {
+		List<Future<?>> futures = new ArrayList<>(partitions.size());
+		try {
+			for (Partition partition : partitions) {
+				futures.add(executor.submit(
+				    () -> progress.recordPartition(partition.type, indexPartition(partition, checkpoint.changedSince))));
+			}
+			for (int i = 0; i < partitions.size(); i++) {
+				futures.get(i).get();
+				checkpoint.watermarks.put(partitions.get(i).type, partitions.get(i).to);
+				checkpoint.store(checkpointFile);
+			}
+
+			checkpoint.delete(checkpointFile);
+			progress.finish(State.COMPLETED, null);
+			log.info("Finished rebuilding the search index, indexed {} entities", progress.getIndexedCount());
+			result.complete(progress);
+		}
+		catch (InterruptedException | CancellationException | RejectedExecutionException e) {
+			futures.forEach(f -> f.cancel(true));
+			progress.finish(State.CANCELLED, null);
+			log.warn("The search index rebuild was cancelled, it can be resumed from the checkpoint");
+			result.cancel(false);
+		}
+		catch (ExecutionException e) {
+			futures.forEach(f -> f.cancel(true));
+			if (e.getCause() instanceof CancellationException) {
+				progress.finish(State.CANCELLED, null);
+				result.cancel(false);
+				return;
+			}
+			progress.finish(State.FAILED, e.getCause());
+			log.error("The search index rebuild failed, it can be resumed from the checkpoint", e.getCause());
+			result.completeExceptionally(e.getCause());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Splits the ids of the given type above the watermark into ranges. Types without an integer
+	 * primary key are indexed as a single partition.
+	 */
+	private List<Partition> plan(Class<?> type, Date changedSince, Integer watermark, int partitionSize) {
+		List<Partition> partitions = new ArrayList<>();
+		if (watermark != null && watermark == Integer.MAX_VALUE) {
+			return partitions;
+		}
+		String idName = getIntegerIdName(type);
+		if (idName == null) {
+			partitions.add(new Partition(type, null, null, Integer.MAX_VALUE));
+			return partitions;
+		}
+
+		Object[] range;
+		try (Session session = sessionFactory.openSession()) {
+			CriteriaBuilder cb = session.getCriteriaBuilder();
+			CriteriaQuery<Object[]> cq = cb.createQuery(Object[].class);
+			Root<?> root = cq.from(type);
+			Path<Integer> id = root.get(idName);
+			cq.multiselect(cb.min(id), cb.max(id));
+			List<Predicate> predicates = getPredicates(cb, root, changedSince);
+			if (watermark != null) {
+				predicates.add(cb.greaterThan(id, watermark));
+			}
+			cq.where(predicates.toArray(new Predicate[0]));
+			range = session.createQuery(cq).getSingleResult();
+		}
+		if (range[0] == null) {
+			return partitions;
+		}
+
+		int min = (Integer) range[0];
+		int max = (Integer) range[1];
+		for (long from = min; from <= max; from += partitionSize) {
+			int to = (int) Math.min(max, from + partitionSize - 1);
+			partitions.add(new Partition(type, idName, (int) from, to));
+		}
+		// the last partition covers everything above it, so rows added meanwhile are not left behind
+		Partition last = partitions.get(partitions.size() - 1);
+		partitions.set(partitions.size() - 1, new Partition(type, idName, last.from, Integer.MAX_VALUE));
+		return partitions;
+	}
+
+	private long indexPartition(Partition partition, Date changedSince) {
+		try (Session session = sessionFactory.openSession()) {
+			session.setDefaultReadOnly(true);
+			session.setCacheMode(CacheMode.IGNORE);
+			session.setHibernateFlushMode(FlushMode.MANUAL);
+			Transaction transaction = session.beginTransaction();
+			try {
+				long indexed = index(session, partition.type, partition, changedSince);
+				transaction.commit();
+				return indexed;
+			}
+			catch (RuntimeException e) {
+				transaction.rollback();
+				throw e;
+			}
+		}
+	}
+
+	private <T> long index(Session session, Class<T> type, Partition partition, Date changedSince) {
+		SearchIndexingPlan indexingPlan = Search.session(session).indexingPlan();
+		CriteriaBuilder cb = session.getCriteriaBuilder();
+		CriteriaQuery<T> cq = cb.createQuery(type);
+		Root<T> root = cq.from(type);
+		List<Predicate> predicates = getPredicates(cb, root, changedSince);
+		if (partition.idName != null) {
+			predicates.add(cb.between(root.<Integer> get(partition.idName), partition.from, partition.to));
+			cq.orderBy(cb.asc(root.get(partition.idName)));
+		}
+		cq.select(root).where(predicates.toArray(new Predicate[0]));
+
+		long indexed = 0;
+		try (ScrollableResults<T> results = session.createQuery(cq).setFetchSize(BATCH_SIZE)
+		        .scroll(ScrollMode.FORWARD_ONLY)) {
+			while (results.next()) {
+				indexingPlan.addOrUpdate(results.get());
+				if (++indexed % BATCH_SIZE == 0) {
+					indexingPlan.execute();
+					session.clear();
+					if (Thread.currentThread().isInterrupted()) {
+						throw new CancellationException("The search index rebuild was cancelled");
+					}
+				}
+			}
+		}
+		indexingPlan.execute();
+		return indexed;
+	}
+
+	private List<Predicate> getPredicates(CriteriaBuilder cb, Root<?> root, Date changedSince) {
+		List<Predicate> predicates = new ArrayList<>();
+		if (changedSince != null) {
+			List<Predicate> changed = new ArrayList<>();
+			for (String property : getAuditProperties(root.getJavaType())) {
+				changed.add(cb.greaterThanOrEqualTo(root.<Date> get(property), changedSince));
+			}
+			if (!changed.isEmpty()) {
+				predicates.add(cb.or(changed.toArray(new Predicate[0])));
+			}
+		}
+		return predicates;
+	}
+
+	private List<String> getAuditProperties(Class<?> type) {
+		EntityType<?> entity = sessionFactory.getMetamodel().entity(type);
+		return entity.getAttributes().stream().map(Attribute::getName).filter(AUDIT_PROPERTIES::contains)
+		        .collect(Collectors.toList());
+	}
+
+	private String getIntegerIdName(Class<?> type) {
+		EntityType<?> entity = sessionFactory.getMetamodel().entity(type);
+		if (!entity.hasSingleIdAttribute() || !Integer.class.equals(entity.getIdType().getJavaType())) {
+			return null;
+		}
+		return entity.getId(Integer.class).getName();
+	}
+
+	private static class Partition {
+
+		private final Class<?> type;
+
+		private final String idName;
+
+		private final Integer from;
+
+		private final Integer to;
+
+		Partition(Class<?> type, String idName, Integer from, Integer to) {
+			this.type = type;
+			this.idName = idName;
+			this.from = from;
+			this.to = to;
+		}
+	}
+
+	/**
+	 * The parameters of a rebuild and, for each type, the id up to which it is indexed completely.
+	 */
+	private static class Checkpoint {
+
+		private final List<Class<?>> types;
+
+		private final Date changedSince;
+
+		private final Map<Class<?>, Integer> watermarks = new LinkedHashMap<>();
+
+		Checkpoint(List<Class<?>> types, Date changedSince) {
+			this.types = types;
+			this.changedSince = changedSince;
+		}
+
+		static Checkpoint load(File file, List<Class<?>> indexedTypes) {
+			if (!file.isFile()) {
+				return null;
+			}
+			Properties props = new Properties();
+			try (InputStream in = Files.newInputStream(file.toPath())) {
+				props.load(in);
+			}
+			catch (IOException e) {
+				log.warn("Unable to read the search index rebuild checkpoint " + file, e);
+				return null;
+			}
+
+			Map<String, Class<?>> typesByName = new LinkedHashMap<>();
+			indexedTypes.forEach(type -> typesByName.put(type.getName(), type));
+			List<Class<?>> types = new ArrayList<>();
+			for (String name : StringUtils.split(props.getProperty(TYPES_KEY, ""), ',')) {
+				Class<?> type = typesByName.get(name.trim());
+				if (type == null) {
+					log.warn("Ignoring {} in the search index rebuild checkpoint as it is not indexed", name);
+				} else {
+					types.add(type);
+				}
+			}
+			String changedSince = props.getProperty(CHANGED_SINCE_KEY);
+			Checkpoint checkpoint = new Checkpoint(types,
+			        StringUtils.isBlank(changedSince) ? null : new Date(Long.parseLong(changedSince)));
+			for (Class<?> type : types) {
+				String watermark = props.getProperty(type.getName());
+				if (StringUtils.isNotBlank(watermark)) {
+					checkpoint.watermarks.put(type, Integer.valueOf(watermark));
+				}
+			}
+			return checkpoint;
+		}
+
+		void store(File file) {
+			Properties props = new Properties();
+			props.setProperty(TYPES_KEY, types.stream().map(Class::getName).collect(Collectors.joining(",")));
+			props.setProperty(CHANGED_SINCE_KEY, changedSince == null ? "" : String.valueOf(changedSince.getTime()));
+			watermarks.forEach((type, watermark) -> props.setProperty(type.getName(), watermark.toString()));
+
+			File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+			try {
+				try (OutputStream out = Files.newOutputStream(temp.toPath())) {
+					props.store(out, "Search index rebuild checkpoint");
+				}
+				Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+				    StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (IOException e) {
+				log.warn("Unable to write the search index rebuild checkpoint " + file, e);
+			}
+		}
+
+		void delete(File file) {
+			try {
+				Files.deleteIfExists(file.toPath());
+			}
+			catch (IOException e) {
+				log.warn("Unable to delete the search index rebuild checkpoint " + file, e);
+			}
+		}
+	}
+}
@@ -45,6 +45,7 @@ import org.openmrs.api.AdministrationService;
 import org.openmrs.api.EventListeners;
 import org.openmrs.api.GlobalPropertyListener;
 import org.openmrs.api.RefByUuid;
+import org.openmrs.api.cache.GlobalPropertyCache;
 import org.openmrs.api.context.Context;
 import org.openmrs.api.db.AdministrationDAO;
 import org.openmrs.customdatatype.CustomDatatype;
@@ -106,6 +107,9 @@ public class AdministrationServiceImpl extends BaseOpenmrsService implements Adm
 	@Qualifier("implementationIdHttpClient")
 	private HttpClient implementationIdHttpClient;
 	
+	@Autowired
+	private GlobalPropertyCache globalPropertyCache;
+	
 	/**
 	 * Default empty constructor
 	 */
@@ -179,17 +183,43 @@ public class AdministrationServiceImpl extends BaseOpenmrsService implements Adm
 			return null;
 		}
 		
-		GlobalProperty gp = dao.getGlobalPropertyObject(propertyName);
-		if (gp != null) {
-			if (canViewGlobalProperty(gp)) {
-				return gp.getPropertyValue();
-			} else {
-				throw new APIException("GlobalProperty.error.privilege.required.view", new Object[] {
-					gp.getViewPrivilege().getPrivilege(), propertyName });
-			}
-		} else {
-			return null;
+		return getCachedGlobalProperty(propertyName).getValue();
+	}
+	
+	/**
+	 * @see org.openmrs.api.AdministrationService#getGlobalPropertyAsInt(java.lang.String, int)
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public int getGlobalPropertyAsInt(String propertyName, int defaultValue) {
+		return getCachedGlobalProperty(propertyName).getIntValue(defaultValue);
+	}
+	
+	/**
+	 * @see org.openmrs.api.AdministrationService#getGlobalPropertyAsBoolean(java.lang.String, boolean)
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public boolean getGlobalPropertyAsBoolean(String propertyName, boolean defaultValue) {
+		return getCachedGlobalProperty(propertyName).getBooleanValue(defaultValue);
+	}
+	
+	/**
+	 * @see org.openmrs.api.AdministrationService#getGlobalPropertyAsList(java.lang.String)
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public List<String> getGlobalPropertyAsList(String propertyName) {
+		return getCachedGlobalProperty(propertyName).getListValue();
+	}
+	
+	private GlobalPropertyCache.Entry getCachedGlobalProperty(String propertyName) {
+		GlobalPropertyCache.Entry gp = globalPropertyCache.get(propertyName, dao::getGlobalPropertyObject);
+		if (gp.getViewPrivilege() != null && !Context.getAuthenticatedUser().hasPrivilege(gp.getViewPrivilege())) {
+			throw new APIException("GlobalProperty.error.privilege.required.view", new Object[] { gp.getViewPrivilege(),
+			        propertyName });
 		}
+		return gp;
 	}
 	
 	private boolean canViewGlobalProperty(GlobalProperty property) {
@@ -295,6 +325,7 @@ public class AdministrationServiceImpl extends BaseOpenmrsService implements Adm
 		
 		gp.setPropertyValue(propertyValue);
 		dao.saveGlobalProperty(gp);
+		globalPropertyCache.evict(propertyName);
 	}
 	
 	/**
@@ -334,6 +365,7 @@ public class AdministrationServiceImpl extends BaseOpenmrsService implements Adm
 				globalProperty.getDeletePrivilege().getPrivilege(), globalProperty.getProperty() });
 		}
 		
+		globalPropertyCache.evict(globalProperty.getProperty());
 		notifyGlobalPropertyDelete(globalProperty.getProperty());
 		dao.deleteGlobalProperty(globalProperty);
 	}
@@ -399,6 +431,8 @@ public class AdministrationServiceImpl extends BaseOpenmrsService implements Adm
 			
 			CustomDatatypeUtil.saveIfDirty(gp);
 			dao.saveGlobalProperty(gp);
+			// evicted before the listeners are notified so that they read the new value
+			globalPropertyCache.evict(gp.getProperty());
 			notifyGlobalPropertyChange(gp);
 			return gp;
 		}
@@ -415,7 +449,15 @@ public class AdministrationServiceImpl extends BaseOpenmrsService implements Adm
 			return null;
 		}
 		
-		return dao.executeSQL(sql, selectOnly);
+		try {
+			return dao.executeSQL(sql, selectOnly);
+		}
+		finally {
+			if (!selectOnly) {
+				// the statement may have changed global properties, e.g. in the sqldiff of a module
+				globalPropertyCache.clear();
+			}
+		}
 	}
 	
 	/**
@@ -1086,6 +1128,7 @@ public class AdministrationServiceImpl extends BaseOpenmrsService implements Adm
 		}
 		
 		DatabaseUpdater.executeChangelog();
+		globalPropertyCache.clear();
 		
 		storeCoreVersion();
 	}
@@ -1104,8 +1147,15 @@ public class AdministrationServiceImpl extends BaseOpenmrsService implements Adm
 		String prevCoreVersion = getStoredCoreVersion();
 		String prevModuleVersion = getStoredModuleVersion(moduleId);
 		
-		ModuleFactory.runLiquibaseForModule(module);
-		module.getModuleActivator().setupOnVersionChange(prevCoreVersion, prevModuleVersion);
+		try {
+			ModuleFactory.runLiquibaseForModule(module);
+			globalPropertyCache.clear();
+			module.getModuleActivator().setupOnVersionChange(prevCoreVersion, prevModuleVersion);
+		}
+		finally {
+			// the changesets and the setup of the module may have changed global properties directly
+			globalPropertyCache.clear();
+		}
 		
 		storeModuleVersion(moduleId, module.getVersion());
 	}
@@ -1123,11 +1173,13 @@ public class AdministrationServiceImpl extends BaseOpenmrsService implements Adm
 		GlobalProperty gp = new GlobalProperty(propertyName, OpenmrsConstants.OPENMRS_VERSION_SHORT, 
 			"Saved core version for future restarts");
 		dao.saveGlobalProperty(gp);
+		globalPropertyCache.evict(propertyName);
 	}
 
 	protected void storeModuleVersion(String moduleId, String version) {
 		String propertyName = "module." + moduleId + ".version";
 		GlobalProperty gp = new GlobalProperty(propertyName, version, "Saved module version for future restarts");
 		dao.saveGlobalProperty(gp);
+		globalPropertyCache.evict(propertyName);
 	}
 }
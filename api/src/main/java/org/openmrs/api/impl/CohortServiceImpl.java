@@ -20,6 +20,7 @@ import java.util.stream.Collectors;
 import org.openmrs.Cohort;
 import org.openmrs.CohortMembership;
 import org.openmrs.Patient;
+import org.openmrs.PatientIdSet;
 import org.openmrs.User;
 import org.openmrs.api.APIException;
 import org.openmrs.api.CohortService;
@@ -287,6 +288,21 @@ public class CohortServiceImpl extends BaseOpenmrsService implements CohortServi
 		return dao.getCohortMemberships(patientId, activeOnDate, includeVoided);
 	}
 	
+	/**
+	 * @see org.openmrs.api.CohortService#getPatientIdSet(Cohort)
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public PatientIdSet getPatientIdSet(Cohort cohort) {
+		if (cohort == null) {
+			return PatientIdSet.empty();
+		}
+		if (cohort.getCohortId() == null) {
+			return cohort.getPatientIdSet();
+		}
+		return PatientIdSet.of(dao.getMemberPatientIds(cohort.getCohortId()));
+	}
+	
     @Override
     @SuppressWarnings("unchecked")
     public <T> T getRefByUuid(Class<T> type, String uuid) {
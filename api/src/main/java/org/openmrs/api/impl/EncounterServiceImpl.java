@@ -18,6 +18,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiConsumer;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -48,6 +49,7 @@ import org.openmrs.api.db.EncounterDAO;
 import org.openmrs.api.handler.EncounterVisitHandler;
 import org.openmrs.parameter.EncounterSearchCriteria;
 import org.openmrs.parameter.EncounterSearchCriteriaBuilder;
+import org.openmrs.util.ConceptReferenceRangeUtility;
 import org.openmrs.util.HandlerUtil;
 import org.openmrs.util.OpenmrsClassLoader;
 import org.openmrs.util.OpenmrsConstants;
@@ -194,19 +196,22 @@ public class EncounterServiceImpl extends BaseOpenmrsService implements Encounte
 		ObsService os = Context.getObsService();
 		List<Obs> obsToRemove = new ArrayList<>();
 		List<Obs> obsToAdd = new ArrayList<>();
-		for (Obs o : encounter.getObsAtTopLevel(true)) {
-			if (o.getId() == null) {
-				os.saveObs(o, null);
-			} else {
-				Obs newObs = os.saveObs(o, changeMessage);
-				//The logic in saveObs evicts the old obs instance, so we need to update the collection
-				//with the newly loaded and voided instance, apparently reloading the encounter
-				//didn't do the tick
-				obsToRemove.add(o);
-				obsToAdd.add(os.getObs(o.getId()));
-				obsToAdd.add(newObs);
+		// the reference range lookups of the obs are shared by the whole encounter
+		ConceptReferenceRangeUtility.runWithSharedInstance(() -> {
+			for (Obs o : encounter.getObsAtTopLevel(true)) {
+				if (o.getId() == null) {
+					os.saveObs(o, null);
+				} else {
+					Obs newObs = os.saveObs(o, changeMessage);
+					//The logic in saveObs evicts the old obs instance, so we need to update the collection
+					//with the newly loaded and voided instance, apparently reloading the encounter
+					//didn't do the tick
+					obsToRemove.add(o);
+					obsToAdd.add(os.getObs(o.getId()));
+					obsToAdd.add(newObs);
+				}
 			}
-		}
+		});
 
 		removeGivenObsAndTheirGroupMembersFromEncounter(obsToRemove, encounter);
 		addGivenObsAndTheirGroupMembersToEncounter(obsToAdd, encounter);
@@ -662,6 +667,21 @@ public class EncounterServiceImpl extends BaseOpenmrsService implements Encounte
 		return dao.getAllEncounters(patients);
 	}
 	
+	/**
+	 * @see org.openmrs.api.EncounterService#forEachPatientEncounters(Cohort, int, BiConsumer)
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public void forEachPatientEncounters(Cohort patients, int batchSize, BiConsumer<Integer, List<Encounter>> callback) {
+		if (patients == null || callback == null) {
+			throw new IllegalArgumentException("patients and callback are required");
+		}
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("batchSize must be positive");
+		}
+		dao.forEachPatientEncounters(Context.getCohortService().getPatientIdSet(patients), batchSize, callback);
+	}
+	
 	/**
 	 * @see org.openmrs.api.EncounterService#getEncounters(java.lang.String, java.lang.Integer,
 	 *      java.lang.Integer, boolean)
@@ -10,13 +10,18 @@
 package org.openmrs.api.impl;
 
 
+import java.sql.Savepoint;
 import java.util.Arrays;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
+import org.openmrs.Cohort;
 import org.openmrs.Concept;
 import org.openmrs.ConceptName;
 import org.openmrs.Encounter;
@@ -27,6 +32,7 @@ import org.openmrs.Person;
 import org.openmrs.Visit;
 import org.openmrs.aop.RequiredDataAdvice;
 import org.openmrs.api.APIException;
+import org.openmrs.api.BatchSaveResult;
 import org.openmrs.api.EncounterService;
 import org.openmrs.api.ObsService;
 import org.openmrs.api.PatientService;
@@ -36,10 +42,12 @@ import org.openmrs.api.db.ObsDAO;
 import org.openmrs.api.handler.SaveHandler;
 import org.openmrs.obs.ComplexData;
 import org.openmrs.obs.ComplexObsHandler;
+import org.openmrs.util.ConceptReferenceRangeUtility;
 import org.openmrs.util.OpenmrsClassLoader;
 import org.openmrs.util.OpenmrsConstants.PERSON_TYPE;
 import org.openmrs.util.OpenmrsUtil;
 import org.openmrs.util.PrivilegeConstants;
+import org.openmrs.validator.ValidateUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -57,6 +65,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class ObsServiceImpl extends BaseOpenmrsService implements ObsService, RefByUuid {
 
 	private static final Logger log = LoggerFactory.getLogger(ObsServiceImpl.class);
+	
 	/**
 	 * The data access object for the obs service
 	 */
@@ -124,6 +133,187 @@ public class ObsServiceImpl extends BaseOpenmrsService implements ObsService, Re
 		}
 	}
 
+	/**
+	 * @see org.openmrs.api.ObsService#saveObsBatch(Collection, String)
+	 */
+	@Override
+	public BatchSaveResult<Obs> saveObsBatch(Collection<Obs> obsToSave, String changeMessage) throws APIException {
+		// the reference range lookups of the obs are shared by the whole batch
+		return ConceptReferenceRangeUtility.callWithSharedInstance(() -> saveObsBatchWithSharedLookups(obsToSave,
+		    changeMessage));
+	}
+	
+	private BatchSaveResult<Obs> saveObsBatchWithSharedLookups(Collection<Obs> obsToSave, String changeMessage) {
+		BatchSaveResult<Obs> result = new BatchSaveResult<>();
+		if (obsToSave == null) {
+			return result;
+		}
+		
+		// handle and validate the whole batch before anything is written, the failures are reported
+		// rather than thrown so that they don't roll back the rest of the batch
+		Map<Integer, Obs> newObs = new LinkedHashMap<>();
+		Map<Integer, Obs> existingObs = new LinkedHashMap<>();
+		int index = 0;
+		for (Obs obs : obsToSave) {
+			try {
+				if (obs == null) {
+					throw new APIException("Obs.error.cannot.be.null", (Object[]) null);
+				}
+				if (obs.getId() != null && changeMessage == null) {
+					throw new APIException("Obs.error.ChangeMessage.required", (Object[]) null);
+				}
+				ensureRequirePrivilege(obs);
+				if (obs.getObsId() != null && !obs.getVoided()) {
+					setPersonFromEncounter(obs);
+				}
+				RequiredDataAdvice.recursivelyHandle(SaveHandler.class, obs, changeMessage);
+				ValidateUtil.validate(obs);
+				if (obs.getObsId() == null) {
+					newObs.put(index, obs);
+				} else {
+					existingObs.put(index, obs);
+				}
+			}
+			catch (APIException e) {
+				result.addError(index, e);
+			}
+			index++;
+		}
+		
+		// revisions void and replace the obs, the call doesn't go through the service proxy so that
+		// a failure doesn't mark the whole transaction as rollback only
+		for (Map.Entry<Integer, Obs> entry : existingObs.entrySet()) {
+			saveRevisionWithinSavepoint(entry.getKey(), entry.getValue(), changeMessage, result);
+		}
+		
+		// the new obs are written in chunks of the jdbc batch size with one flush per chunk, in a
+		// session of their own so that the session of the caller doesn't grow with the batch
+		int chunkSize = dao.getJdbcBatchSize();
+		Map<Integer, Obs> chunk = new LinkedHashMap<>();
+		for (Map.Entry<Integer, Obs> entry : newObs.entrySet()) {
+			try {
+				handleComplexObsAndGroupMembers(entry.getValue());
+				chunk.put(entry.getKey(), entry.getValue());
+			}
+			catch (RuntimeException e) {
+				log.debug("Failed to handle the complex obs at index {} of the batch", entry.getKey(), e);
+				result.addError(entry.getKey(), toAPIException(e));
+			}
+			if (chunk.size() == chunkSize) {
+				saveNewObsChunk(chunk, result);
+				chunk.clear();
+			}
+		}
+		if (!chunk.isEmpty()) {
+			saveNewObsChunk(chunk, result);
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Saves a revision of an existing obs of a batch and flushes it within a savepoint, any failure
+	 * only rolls back that obs and is reported at its index. The session is flushed before each
+	 * revision, so the entities of a failed revision are the only changes the session holds and
+	 * they are evicted with it.
+	 */
+	private void saveRevisionWithinSavepoint(int index, Obs obs, String changeMessage, BatchSaveResult<Obs> result) {
+		Savepoint savepoint = dao.setSavepoint();
+		Obs revision = null;
+		try {
+			revision = saveObs(obs, changeMessage);
+			Context.flushSession();
+			dao.releaseSavepoint(savepoint);
+			result.addSaved(revision);
+		}
+		catch (RuntimeException e) {
+			log.debug("Failed to save obs at index {} of the batch", index, e);
+			dao.rollbackToSavepoint(savepoint);
+			evictObsAndGroupMembers(obs);
+			if (revision != null) {
+				evictObsAndGroupMembers(revision);
+			}
+			result.addError(index, toAPIException(e));
+		}
+	}
+	
+	/**
+	 * Writes a chunk of new obs of a batch within a savepoint. Only if that fails, the chunk is
+	 * rolled back and written again obs by obs, so that the obs failing are reported at their index
+	 * and the others are saved.
+	 */
+	private void saveNewObsChunk(Map<Integer, Obs> chunk, BatchSaveResult<Obs> result) {
+		RuntimeException failure = saveNewObsWithinSavepoint(new ArrayList<>(chunk.values()));
+		for (Map.Entry<Integer, Obs> entry : chunk.entrySet()) {
+			if (failure != null && chunk.size() > 1) {
+				failure = saveNewObsWithinSavepoint(Collections.singletonList(entry.getValue()));
+			}
+			if (failure == null) {
+				result.addSaved(entry.getValue());
+			} else {
+				log.debug("Failed to save obs at index {} of the batch", entry.getKey(), failure);
+				result.addError(entry.getKey(), toAPIException(failure));
+			}
+		}
+	}
+	
+	/**
+	 * @return the failure of writing the given new obs, or null if they were written
+	 */
+	private RuntimeException saveNewObsWithinSavepoint(List<Obs> obs) {
+		Savepoint savepoint = dao.setSavepoint();
+		try {
+			dao.saveNewObs(obs);
+			dao.releaseSavepoint(savepoint);
+			return null;
+		}
+		catch (RuntimeException e) {
+			dao.rollbackToSavepoint(savepoint);
+			obs.forEach(this::clearObsIds);
+			return e;
+		}
+	}
+	
+	private static APIException toAPIException(RuntimeException e) {
+		return e instanceof APIException ? (APIException) e : new APIException(e.getMessage(), e);
+	}
+	
+	/**
+	 * Clears the ids the database assigned before the insert of a new obs was rolled back, so that
+	 * it can be written again
+	 */
+	private void clearObsIds(Obs obs) {
+		obs.setObsId(null);
+		if (obs.getReferenceRange() != null) {
+			obs.getReferenceRange().setObsReferenceRangeId(null);
+		}
+		if (obs.hasGroupMembers(true)) {
+			for (Obs member : obs.getGroupMembers(true)) {
+				clearObsIds(member);
+			}
+		}
+	}
+	
+	private void evictObsAndGroupMembers(Obs obs) {
+		if (obs.hasGroupMembers(true)) {
+			for (Obs member : obs.getGroupMembers(true)) {
+				evictObsAndGroupMembers(member);
+			}
+		}
+		Context.evictFromSession(obs);
+	}
+	
+	private void handleComplexObsAndGroupMembers(Obs obs) {
+		handleObsWithComplexConcept(obs);
+		if (obs.hasGroupMembers(true)) {
+			for (Obs member : obs.getGroupMembers(true)) {
+				if (member.getObsId() == null) {
+					handleComplexObsAndGroupMembers(member);
+				}
+			}
+		}
+	}
+	
 	private void setPersonFromEncounter(Obs obs) {
 		Encounter encounter = obs.getEncounter();
 		if (encounter != null) {
@@ -292,6 +482,12 @@ public class ObsServiceImpl extends BaseOpenmrsService implements ObsService, Re
 	 */
 	@Override
 	public Obs voidObs(Obs obs, String reason) throws APIException {
+		if (obs.isComplex() && obs.getValueComplex() != null) {
+			ComplexObsHandler handler = getHandler(obs);
+			if (handler != null) {
+				handler.purgeDerivedData(obs);
+			}
+		}
 		return dao.saveObs(obs);
 	}
 	
@@ -448,6 +644,21 @@ public class ObsServiceImpl extends BaseOpenmrsService implements ObsService, Re
 		    locations, obsGroupId, fromDate, toDate, null, visits, includeVoidedObs, accessionNumber));
 	}
 	
+	/**
+	 * @see org.openmrs.api.ObsService#forEachPatientObs(Cohort, int, BiConsumer)
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public void forEachPatientObs(Cohort patients, int batchSize, BiConsumer<Integer, List<Obs>> callback) {
+		if (patients == null || callback == null) {
+			throw new IllegalArgumentException("patients and callback are required");
+		}
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("batchSize must be positive");
+		}
+		dao.forEachPatientObs(Context.getCohortService().getPatientIdSet(patients), batchSize, callback);
+	}
+	
 	/**
 	 * This implementation queries the obs table comparing the given <code>searchString</code> with
 	 * the patient's identifier, encounterId, and obsId
@@ -577,6 +788,18 @@ public class ObsServiceImpl extends BaseOpenmrsService implements ObsService, Re
 		return true;
 	}
 	
+	/**
+	 * @see org.openmrs.api.ObsService#getComplexDataRange(Obs, long, Long)
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public ComplexData getComplexDataRange(Obs obs, long offset, Long length) throws APIException {
+		if (!obs.isComplex()) {
+			return null;
+		}
+		return getHandler(obs).getComplexDataRange(obs, offset, length);
+	}
+	
 	/**
 	 * @see org.openmrs.api.ObsService#getHandler(org.openmrs.Obs)
 	 */
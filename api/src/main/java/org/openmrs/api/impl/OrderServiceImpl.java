@@ -62,6 +62,8 @@ import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import com.google.common.util.concurrent.Striped;
+
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -71,6 +73,7 @@ import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
+import java.util.concurrent.locks.Lock;
 
 import static org.openmrs.Order.Action.DISCONTINUE;
 import static org.openmrs.Order.Action.NEW;
@@ -95,7 +98,18 @@ public class OrderServiceImpl extends BaseOpenmrsService implements OrderService
 	@Autowired
 	protected OrderDAO dao;
 	
-	private static OrderNumberGenerator orderNumberGenerator = null;
+	private static volatile OrderNumberGenerator orderNumberGenerator = null;
+	
+	private static final Object orderNumberGeneratorLock = new Object();
+	
+	private static final int PATIENT_LOCK_STRIPES = 64;
+	
+	/**
+	 * Orders are checked against the active orders of their patient before they are saved, so
+	 * orders for the same patient are saved one at a time while orders for different patients are
+	 * saved concurrently.
+	 */
+	private final Striped<Lock> patientLocks = Striped.lock(PATIENT_LOCK_STRIPES);
 
 	public OrderServiceImpl() {
 	}
@@ -112,8 +126,8 @@ public class OrderServiceImpl extends BaseOpenmrsService implements OrderService
 	 * @see org.openmrs.api.OrderService#saveOrder(org.openmrs.Order, org.openmrs.api.OrderContext)
 	 */
 	@Override
-	public synchronized Order saveOrder(Order order, OrderContext orderContext) throws APIException {
-		return saveOrder(order, orderContext, false);
+	public Order saveOrder(Order order, OrderContext orderContext) throws APIException {
+		return saveOrderWithPatientLock(order, orderContext, false);
 	}
 	
 	/**
@@ -157,8 +171,20 @@ public class OrderServiceImpl extends BaseOpenmrsService implements OrderService
 	 * @see org.openmrs.api.OrderService#saveOrder(org.openmrs.Order, org.openmrs.api.OrderContext)
 	 */
 	@Override
-	public synchronized Order saveRetrospectiveOrder(Order order, OrderContext orderContext) {
-		return saveOrder(order, orderContext, true);
+	public Order saveRetrospectiveOrder(Order order, OrderContext orderContext) {
+		return saveOrderWithPatientLock(order, orderContext, true);
+	}
+	
+	private Order saveOrderWithPatientLock(Order order, OrderContext orderContext, boolean isRetrospective) {
+		Patient patient = order.getPatient();
+		Lock lock = patientLocks.get(patient == null ? "" : patient.getUuid());
+		lock.lock();
+		try {
+			return saveOrder(order, orderContext, isRetrospective);
+		}
+		finally {
+			lock.unlock();
+		}
 	}
 
 	private Order saveOrder(Order order, OrderContext orderContext, boolean isRetrospective) {
@@ -403,19 +429,27 @@ public class OrderServiceImpl extends BaseOpenmrsService implements OrderService
 	 * @return
 	 */
 	private OrderNumberGenerator getOrderNumberGenerator() {
-		if (orderNumberGenerator == null) {
-			String generatorBeanId = Context.getAdministrationService().getGlobalProperty(
-			    OpenmrsConstants.GP_ORDER_NUMBER_GENERATOR_BEAN_ID);
-			if (StringUtils.hasText(generatorBeanId)) {
-				orderNumberGenerator = Context.getRegisteredComponent(generatorBeanId, OrderNumberGenerator.class);
-				log.info("Successfully set the configured order number generator");
-			} else {
-				orderNumberGenerator = this;
-				log.info("Setting default order number generator");
+		// orders are saved concurrently, so the generator is looked up once under a lock
+		OrderNumberGenerator generator = orderNumberGenerator;
+		if (generator == null) {
+			synchronized (orderNumberGeneratorLock) {
+				generator = orderNumberGenerator;
+				if (generator == null) {
+					String generatorBeanId = Context.getAdministrationService().getGlobalProperty(
+					    OpenmrsConstants.GP_ORDER_NUMBER_GENERATOR_BEAN_ID);
+					if (StringUtils.hasText(generatorBeanId)) {
+						generator = Context.getRegisteredComponent(generatorBeanId, OrderNumberGenerator.class);
+						log.info("Successfully set the configured order number generator");
+					} else {
+						generator = this;
+						log.info("Setting default order number generator");
+					}
+					orderNumberGenerator = generator;
+				}
 			}
 		}
 		
-		return orderNumberGenerator;
+		return generator;
 	}
 	
 	/**
@@ -699,6 +733,18 @@ public class OrderServiceImpl extends BaseOpenmrsService implements OrderService
 		return dao.getNextOrderNumberSeedSequenceValue();
 	}
 	
+	/**
+	 * @see org.openmrs.api.OrderService#getNextOrderNumberSeedSequenceValues(int)
+	 */
+	@Override
+	@Transactional(propagation = Propagation.REQUIRES_NEW)
+	public Long getNextOrderNumberSeedSequenceValues(int count) {
+		if (count < 1) {
+			throw new IllegalArgumentException("The number of order number seeds to reserve must be at least 1");
+		}
+		return dao.getNextOrderNumberSeedSequenceValues(count);
+	}
+	
 	/**
 	 * @see org.openmrs.api.OrderService#getOrderHistoryByOrderNumber(java.lang.String)
 	 */
@@ -972,7 +1018,9 @@ public class OrderServiceImpl extends BaseOpenmrsService implements OrderService
 	 * Helper method to deter instance methods from setting static fields
 	 */
 	private static void setOrderNumberGenerator(OrderNumberGenerator orderNumberGenerator) {
-		OrderServiceImpl.orderNumberGenerator = orderNumberGenerator;
+		synchronized (orderNumberGeneratorLock) {
+			OrderServiceImpl.orderNumberGenerator = orderNumberGenerator;
+		}
 	}
 	
 	/**
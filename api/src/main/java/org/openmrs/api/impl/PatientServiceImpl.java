@@ -66,6 +66,7 @@ import org.openmrs.parameter.EncounterSearchCriteria;
 import org.openmrs.parameter.EncounterSearchCriteriaBuilder;
 import org.openmrs.patient.IdentifierValidator;
 import org.openmrs.patient.impl.LuhnIdentifierValidator;
+import org.openmrs.person.PersonMatch;
 import org.openmrs.person.PersonMergeLog;
 import org.openmrs.person.PersonMergeLogData;
 import org.openmrs.serialization.SerializationException;
@@ -548,6 +549,15 @@ public class PatientServiceImpl extends BaseOpenmrsService implements PatientSer
 		return dao.getDuplicatePatientsByAttributes(attributes);
 	}
 	
+	/**
+	 * @see org.openmrs.api.PatientService#getProbableDuplicatePatients(double, int)
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public List<PersonMatch> getProbableDuplicatePatients(double minimumScore, int maxResults) throws APIException {
+		return dao.getProbableDuplicatePatients(minimumScore, maxResults);
+	}
+	
 	/**
 	 * generate a relationship hash for use in mergePatients; follows the convention:
 	 * [relationshipType][A|B][relativeId]
@@ -583,11 +593,16 @@ public class PatientServiceImpl extends BaseOpenmrsService implements PatientSer
 		}
 		requireNoActiveOrderOfSameType(preferred,notPreferred);
 		PersonMergeLogData mergedData = new PersonMergeLogData();
-		mergeVisits(preferred, notPreferred, mergedData);
-		mergeEncounters(preferred, notPreferred, mergedData);
-		mergeProgramEnrolments(preferred, notPreferred, mergedData);
-		mergeRelationships(preferred, notPreferred, mergedData);
-		mergeObservationsNotContainedInEncounters(preferred, notPreferred, mergedData);
+		if (useBulkUpdatesToMerge()) {
+			dao.mergePatientDataInBulk(preferred, notPreferred, mergedData);
+			mergeRelationships(preferred, notPreferred, mergedData);
+		} else {
+			mergeVisits(preferred, notPreferred, mergedData);
+			mergeEncounters(preferred, notPreferred, mergedData);
+			mergeProgramEnrolments(preferred, notPreferred, mergedData);
+			mergeRelationships(preferred, notPreferred, mergedData);
+			mergeObservationsNotContainedInEncounters(preferred, notPreferred, mergedData);
+		}
 		mergeIdentifiers(preferred, notPreferred, mergedData);
 		
 		mergeNames(preferred, notPreferred, mergedData);
@@ -620,6 +635,11 @@ public class PatientServiceImpl extends BaseOpenmrsService implements PatientSer
 		Context.getPersonService().savePersonMergeLog(personMergeLog);
 	}
 	
+	private boolean useBulkUpdatesToMerge() {
+		return Context.getAdministrationService().getGlobalPropertyAsBoolean(
+		    OpenmrsConstants.GLOBAL_PROPERTY_PATIENT_MERGE_USE_BULK_UPDATES, false);
+	}
+	
 	private void requireNoActiveOrderOfSameType(Patient patient1, Patient patient2) {
 		String messageKey = "Patient.merge.cannotHaveSameTypeActiveOrders";
 		List<Order> ordersByPatient1 = Context.getOrderService().getAllOrdersByPatient(patient1);
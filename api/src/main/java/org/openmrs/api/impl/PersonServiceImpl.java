@@ -13,6 +13,7 @@ package org.openmrs.api.impl;
 import java.util.Arrays;
 import org.apache.commons.lang3.StringUtils;
 import org.openmrs.GlobalProperty;
+import org.openmrs.Patient;
 import org.openmrs.Person;
 import org.openmrs.PersonAddress;
 import org.openmrs.PersonAttribute;
@@ -192,8 +193,13 @@ public class PersonServiceImpl extends BaseOpenmrsService implements PersonServi
 		if (updateExisting ) {
 			Boolean oldSearchable = dao.getSavedPersonAttributeTypeSearchable(type);
 			if (oldSearchable == null || !oldSearchable.equals(type.getSearchable())) {
-				//we need to update index searchable property has changed
-				Context.updateSearchIndexForType(PersonAttribute.class);
+				//we need to update index searchable property has changed, the attributes of this type embed
+				//it and so do the documents of the patients having such attributes, if they are used
+				Context.updateSearchIndexForType(PersonAttribute.class, "attributeType", attributeType);
+				if (Context.getAdministrationService().getGlobalPropertyAsBoolean(
+				    OpenmrsConstants.GLOBAL_PROPERTY_PATIENT_SEARCH_USE_PATIENT_DOCUMENT, false)) {
+					Context.updateSearchIndexForType(Patient.class, "attributes.attributeType", attributeType);
+				}
 			}
 		}
 		
@@ -997,6 +1003,14 @@ public class PersonServiceImpl extends BaseOpenmrsService implements PersonServi
 		return dao.savePersonAddress(personAddress);
 	}
 	
+	/**
+	 * @see org.openmrs.api.PersonService#rebuildPersonMatchKeys()
+	 */
+	@Override
+	public int rebuildPersonMatchKeys() throws APIException {
+		return dao.rebuildPersonMatchKeys();
+	}
+	
 	@Override
 	public void checkIfPersonAttributeTypesAreLocked() {
 		String locked = Context.getAdministrationService()
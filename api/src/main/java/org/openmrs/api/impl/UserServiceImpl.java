@@ -38,6 +38,7 @@ import org.openmrs.api.InvalidActivationKeyException;
 import org.openmrs.api.RefByUuid;
 import org.openmrs.api.UserService;
 import org.openmrs.api.context.Context;
+import org.openmrs.api.context.PrivilegeBitSet;
 import org.openmrs.api.db.DAOException;
 import org.openmrs.api.db.LoginCredential;
 import org.openmrs.api.db.UserDAO;
@@ -184,6 +185,7 @@ public class UserServiceImpl extends BaseOpenmrsService implements UserService,
 				+ " is already in use.");
 		}
 		
+		PrivilegeBitSet.invalidateAll();
 		return dao.saveUser(user, null);
 	}
 	
@@ -258,6 +260,7 @@ public class UserServiceImpl extends BaseOpenmrsService implements UserService,
 		}
 		
 		dao.deletePrivilege(privilege);
+		PrivilegeBitSet.invalidateAll();
 	}
 	
 	/**
@@ -265,6 +268,7 @@ public class UserServiceImpl extends BaseOpenmrsService implements UserService,
 	 */
 	@Override
 	public Privilege savePrivilege(Privilege privilege) throws APIException {
+		PrivilegeBitSet.invalidateAll();
 		return dao.savePrivilege(privilege);
 	}
 	
@@ -304,6 +308,7 @@ public class UserServiceImpl extends BaseOpenmrsService implements UserService,
 		}
 		
 		dao.deleteRole(role);
+		PrivilegeBitSet.invalidateAll();
 	}
 	
 	/**
@@ -319,6 +324,7 @@ public class UserServiceImpl extends BaseOpenmrsService implements UserService,
 		
 		checkPrivileges(role);
 		
+		PrivilegeBitSet.invalidateAll();
 		return dao.saveRole(role);
 	}
 	
@@ -22,6 +22,8 @@ import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.openmrs.api.StorageService;
 import org.openmrs.api.impl.BaseOpenmrsService;
@@ -45,6 +47,35 @@ public abstract class BaseStorageService extends BaseOpenmrsService implements S
 		this.streamService = streamService;
 	}
 
+	/**
+	 * Skips to the offset of the data, implementations should override it if their storage can seek.
+	 * 
+	 * @see StorageService#getData(String, long, Long)
+	 */
+	@Override
+	public InputStream getData(String key, long offset, Long length) throws IOException {
+		validateRange(offset, length);
+		InputStream in = getData(key);
+		try {
+			IOUtils.skipFully(in, offset);
+		}
+		catch (IOException e) {
+			in.close();
+			throw e;
+		}
+		return limit(in, length);
+	}
+
+	protected void validateRange(long offset, Long length) {
+		if (offset < 0 || (length != null && length < 0)) {
+			throw new IllegalArgumentException("Invalid range offset " + offset + " and length " + length);
+		}
+	}
+
+	protected InputStream limit(InputStream in, Long length) throws IOException {
+		return length == null ? in : BoundedInputStream.builder().setInputStream(in).setMaxCount(length).get();
+	}
+
 	@Override
 	public InputStream getTempData(String key) throws IOException {
 		Path tempFile = tempDir.resolve(key);
@@ -10,9 +10,12 @@
 package org.openmrs.api.storage;
 
 import jakarta.activation.MimetypesFileTypeMap;
+import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -63,6 +66,23 @@ public class LocalStorageService extends BaseStorageService implements StorageSe
 		return Files.newInputStream(getPath(key));
 	}
 
+	@Override
+	public InputStream getData(final String key, long offset, Long length) throws IOException {
+		validateRange(offset, length);
+		SeekableByteChannel channel = Files.newByteChannel(getPath(key));
+		try {
+			if (offset > channel.size()) {
+				throw new EOFException("Offset " + offset + " is past the end of " + key);
+			}
+			channel.position(offset);
+		}
+		catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+		return limit(Channels.newInputStream(channel), length);
+	}
+
 	/**
 	 * It needs to be evaluated each time as it changes over time in tests...
 	 * <p>
@@ -136,6 +136,19 @@ public class S3StorageService extends BaseStorageService implements StorageServi
 		return waitForResponse(object);
     }
 
+	public InputStream getData(String key, long offset, Long length) throws IOException {
+		validateRange(offset, length);
+		if (length != null && length == 0) {
+			return InputStream.nullInputStream();
+		}
+		// the range is served by S3 so only the requested bytes are transferred
+		String range = "bytes=" + offset + "-" + (length != null ? String.valueOf(offset + length - 1) : "");
+		CompletableFuture<ResponseInputStream<GetObjectResponse>> object = s3AsyncClient.getObject(
+			GetObjectRequest.builder().bucket(bucketName).key(encodeKey(key)).range(range).build(),
+			AsyncResponseTransformer.toBlockingInputStream());
+		return waitForResponse(object);
+	}
+
 	private <T> T waitForResponse(CompletableFuture<T> object) throws IOException {
 		T result;
 		try {
@@ -15,12 +15,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InterruptedIOException;
 import java.io.OutputStream;
-import java.io.UncheckedIOException;
 import java.time.Duration;
 import java.util.Objects;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
@@ -37,7 +35,7 @@ import org.springframework.util.unit.DataSize;
  * separate thread using {@link TaskExecutor}.
  * <p>
  * It's providing the {@link java.io.PipedInputStream}/{@link java.io.PipedOutputStream} mechanism in a thread safe way 
- * with the use of {@link BlockingQueue}.
+ * with the use of a bounded ring buffer of {@link #BUFFER_SIZE} bytes, which is filled and drained in bulk.
  * 
  * @since 2.8.0, 2.7.5, 2.6.16, 2.5.15
  */
@@ -52,53 +50,112 @@ public class StreamDataService {
 		this.taskExecutor = taskExecutor;
 	}
 	
-	private static class QueueInputStream extends InputStream {
-		private final BlockingQueue<Integer> blockingQueue;
+	/**
+	 * A bounded ring buffer of bytes shared between a single writing and a single reading thread. Data is copied in
+	 * bulk with {@link System#arraycopy(Object, int, Object, int, int)} and the writer blocks when the buffer is full
+	 * so that memory usage stays bounded by {@link #BUFFER_SIZE} regardless of the size of the streamed data.
+	 */
+	private static class RingBufferInputStream extends InputStream {
+		private final byte[] buffer;
 		private final long timeoutNanos;
+		private final ReentrantLock lock = new ReentrantLock();
+		private final Condition notEmpty = lock.newCondition();
+		private final Condition notFull = lock.newCondition();
+		private int readIndex;
+		private int count;
+		private boolean writerClosed;
 		private volatile IOException streamException;
 
-		public QueueInputStream() {
-			this.blockingQueue = new LinkedBlockingQueue<>(BUFFER_SIZE);
+		public RingBufferInputStream() {
+			this.buffer = new byte[BUFFER_SIZE];
 			this.timeoutNanos = Duration.ofSeconds(30).toNanos();
 		}
 
-		public QueueOutputStream newQueueOutputStream() {
-			return new QueueOutputStream(this);
+		public RingBufferOutputStream newRingBufferOutputStream() {
+			return new RingBufferOutputStream(this);
 		}
 
 		@Override
 		public int read() throws IOException {
+			checkStreamException();
+			lock.lock();
 			try {
+				if (!awaitData()) {
+					return -1;
+				}
+				int result = 255 & buffer[readIndex];
+				readIndex = (readIndex + 1) % buffer.length;
+				count--;
+				notFull.signal();
+				return result;
+			} finally {
+				lock.unlock();
+				checkStreamException();
+			}
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			Objects.checkFromIndexSize(off, len, b.length);
+			if (len == 0) {
+				return 0;
+			}
+			
+			checkStreamException();
+			lock.lock();
+			try {
+				if (!awaitData()) {
+					return -1;
+				}
+				int toRead = Math.min(len, count);
+				int firstChunk = Math.min(toRead, buffer.length - readIndex);
+				System.arraycopy(buffer, readIndex, b, off, firstChunk);
+				if (firstChunk < toRead) {
+					System.arraycopy(buffer, 0, b, off + firstChunk, toRead - firstChunk);
+				}
+				readIndex = (readIndex + toRead) % buffer.length;
+				count -= toRead;
+				notFull.signal();
+				return toRead;
+			} finally {
+				lock.unlock();
 				checkStreamException();
-				
-				int result;
-				Integer peek = this.blockingQueue.peek();
-				if (Integer.valueOf(-1).equals(peek)) {
-					result = -1;
-				} else {
-					Integer value = this.blockingQueue.poll(this.timeoutNanos, TimeUnit.NANOSECONDS);
-					if (value == null) {
+			}
+		}
+
+		@Override
+		public int available() throws IOException {
+			checkStreamException();
+			lock.lock();
+			try {
+				return count;
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		/**
+		 * Waits until there is data in the buffer. Must be called while holding the lock.
+		 * 
+		 * @return true if data is available, false on the end of stream or timeout
+		 * @throws InterruptedIOException when interrupted
+		 */
+		private boolean awaitData() throws IOException {
+			long nanos = timeoutNanos;
+			try {
+				while (count == 0) {
+					if (writerClosed || streamException != null) {
+						return false;
+					}
+					if (nanos <= 0) {
 						// Timeout
-						result = -1;
-					} else if (value == -1) {
-						// End of stream. Put the end of stream back in the queue for consistency.
-						this.blockingQueue.clear();
-						if (!this.blockingQueue.offer(-1, timeoutNanos, TimeUnit.NANOSECONDS)) {
-							throw new IOException("Failed to write to full queue");
-						}
-						result = -1;
-					} else {
-						result = 255 & value;
+						return false;
 					}
+					nanos = notEmpty.awaitNanos(nanos);
 				}
-
-				checkStreamException();
-				return result;
+				return true;
 			} catch (InterruptedException e) {
-				Thread.currentThread().interrupt();
-				InterruptedIOException interruptedIoException = new InterruptedIOException();
-				interruptedIoException.initCause(e);
-				throw interruptedIoException;
+				throw newInterruptedIOException(e);
 			}
 		}
 
@@ -112,10 +169,16 @@ public class StreamDataService {
 		 * Propagate exception from a writing thread to a reading thread so that processing is stopped.
 		 * 
 		 * @param streamException exception
-		 * @throws UncheckedIOException rethrows e
 		 */
 		public void propagateStreamException(IOException streamException) {
 			this.streamException = streamException;
+			lock.lock();
+			try {
+				notEmpty.signalAll();
+				notFull.signalAll();
+			} finally {
+				lock.unlock();
+			}
 		}
 		
 		public void checkStreamException() throws IOException {
@@ -125,31 +188,89 @@ public class StreamDataService {
 		}
 	}
 	
-	private static class QueueOutputStream extends OutputStream {
-		private final QueueInputStream queueInputStream;
+	private static class RingBufferOutputStream extends OutputStream {
+		private final RingBufferInputStream in;
 		
-		public QueueOutputStream(QueueInputStream queueInputStream) {
-			this.queueInputStream = queueInputStream;
+		public RingBufferOutputStream(RingBufferInputStream in) {
+			this.in = in;
 		}
 
 		/**
 		 * @param b   the <code>byte</code>.
-		 * @throws IOException when queue full or interrupted
+		 * @throws IOException when buffer full or interrupted
 		 */
 		@Override
 		public void write(int b) throws IOException {
+			in.checkStreamException();
+			in.lock.lock();
 			try {
-				queueInputStream.checkStreamException();
-				
-				if (!queueInputStream.blockingQueue.offer(255 & b, queueInputStream.timeoutNanos, TimeUnit.NANOSECONDS)) {
-					IOException streamException = new IOException("Failed to write to full queue");
-					queueInputStream.propagateStreamException(streamException);
+				if (in.writerClosed) {
+					return;
 				}
+				awaitSpace();
+				byte[] buffer = in.buffer;
+				buffer[(in.readIndex + in.count) % buffer.length] = (byte) b;
+				in.count++;
+				in.notEmpty.signal();
+			} finally {
+				in.lock.unlock();
+			}
+		}
+
+		/**
+		 * Copies bytes in chunks of up to the free space in the buffer, blocking until the reader frees space.
+		 * 
+		 * @throws IOException when buffer full or interrupted
+		 */
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			Objects.checkFromIndexSize(off, len, b.length);
+			in.checkStreamException();
+			byte[] buffer = in.buffer;
+			in.lock.lock();
+			try {
+				while (len > 0) {
+					if (in.writerClosed) {
+						return;
+					}
+					awaitSpace();
+					int writeIndex = (in.readIndex + in.count) % buffer.length;
+					int toWrite = Math.min(len, buffer.length - in.count);
+					int firstChunk = Math.min(toWrite, buffer.length - writeIndex);
+					System.arraycopy(b, off, buffer, writeIndex, firstChunk);
+					if (firstChunk < toWrite) {
+						System.arraycopy(b, off + firstChunk, buffer, 0, toWrite - firstChunk);
+					}
+					in.count += toWrite;
+					off += toWrite;
+					len -= toWrite;
+					in.notEmpty.signal();
+				}
+			} finally {
+				in.lock.unlock();
+			}
+		}
+
+		/**
+		 * Waits until there is free space in the buffer. Must be called while holding the lock.
+		 * 
+		 * @throws IOException when the stream failed, timed out waiting for the reader or interrupted
+		 */
+		private void awaitSpace() throws IOException {
+			long nanos = in.timeoutNanos;
+			try {
+				while (in.count == in.buffer.length) {
+					in.checkStreamException();
+					if (nanos <= 0) {
+						IOException streamException = new IOException("Failed to write to full buffer");
+						in.propagateStreamException(streamException);
+						throw streamException;
+					}
+					nanos = in.notFull.awaitNanos(nanos);
+				}
+				in.checkStreamException();
 			} catch (InterruptedException e) {
-				Thread.currentThread().interrupt();
-				InterruptedIOException interruptedIoException = new InterruptedIOException();
-				interruptedIoException.initCause(e);
-				throw interruptedIoException;
+				throw newInterruptedIOException(e);
 			}
 		}
 
@@ -157,26 +278,28 @@ public class StreamDataService {
 		 * Closing the stream doesn't fail any following writes, but effectively only data up to closing the stream
 		 * is read.
 		 * 
-		 * @throws IOException when queue full or interrupted
+		 * @throws IOException when the stream failed
 		 */
 		@Override
 		public void close() throws IOException {
+			in.checkStreamException();
+			in.lock.lock();
 			try {
-				queueInputStream.checkStreamException();
-				
 				// Indicate the end of stream
-				if (!this.queueInputStream.blockingQueue.offer(-1, queueInputStream.timeoutNanos, TimeUnit.NANOSECONDS)) {
-					IOException streamException = new IOException("Failed to write to full queue");
-					queueInputStream.propagateStreamException(streamException);
-				}
-			} catch (InterruptedException e) {
-				Thread.currentThread().interrupt();
-				InterruptedIOException interruptedIoException = new InterruptedIOException();
-				interruptedIoException.initCause(e);
-				throw interruptedIoException;
+				in.writerClosed = true;
+				in.notEmpty.signalAll();
+			} finally {
+				in.lock.unlock();
 			}
 		}
 	}
+	
+	private static InterruptedIOException newInterruptedIOException(InterruptedException e) {
+		Thread.currentThread().interrupt();
+		InterruptedIOException interruptedIoException = new InterruptedIOException();
+		interruptedIoException.initCause(e);
+		return interruptedIoException;
+	}
 
 	/**
 	 * Runs {@link StreamDataWriter#write(OutputStream)} in a separate thread using {@link TaskExecutor} or copies 
@@ -200,17 +323,17 @@ public class StreamDataService {
 			}
 			return new ByteArrayInputStream(out.toByteArray());
 		} else {
-			QueueInputStream in = new QueueInputStream();
+			RingBufferInputStream in = new RingBufferInputStream();
 
 			taskExecutor.execute(() -> {
-				QueueOutputStream out = in.newQueueOutputStream();
+				RingBufferOutputStream out = in.newRingBufferOutputStream();
 				try {
 					writer.write(out);
 				} catch (Exception e) {
 					log.error("Failed to write data in parallel", e);
 					in.propagateStreamException(new IOException("Failed to write data in parallel", e));
 				} finally {
-					// Closing quietly as any exceptions in QueueOutputStream.close() are propagated
+					// Closing quietly as any exceptions in RingBufferOutputStream.close() are propagated
 					IOUtils.closeQuietly(out);
 				}
 			});
@@ -75,6 +75,16 @@ public class HL7Constants {
 	 */
 	public static final Integer HL7_STATUS_MIGRATED = 5;
 	
+	/**
+	 * State of pending queue entries that have been claimed by a processor node for parallel
+	 * processing, see {@link HL7Service#claimHL7InQueueBatch(int)}. Entries left in this state by a
+	 * node that stopped abnormally are put back into the pending state once their claim expires,
+	 * see {@link HL7Service#releaseExpiredHL7InQueueClaims(java.util.Date)}.
+	 * 
+	 * @since 3.0.0
+	 */
+	public static final Integer HL7_STATUS_CLAIMED = 6;
+	
 	/**
 	 * default name for HL7_archives destination directory
 	 * 
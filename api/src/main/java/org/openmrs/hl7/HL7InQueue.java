@@ -9,6 +9,8 @@
  */
 package org.openmrs.hl7;
 
+import java.util.Date;
+
 import org.hibernate.envers.Audited;
 
 /**
@@ -27,6 +29,10 @@ public class HL7InQueue extends HL7QueueItem {
 	
 	private Integer messageState;
 	
+	private Date dateClaimed;
+	
+	private String patientKey;
+	
 	/**
 	 * Default constructor
 	 */
@@ -109,6 +115,40 @@ public class HL7InQueue extends HL7QueueItem {
 		this.messageState = messageState;
 	}
 	
+	/**
+	 * @return the date the entry was claimed by a processor node, null unless the entry is
+	 *         {@link HL7Constants#HL7_STATUS_CLAIMED}
+	 * @since 3.0.0
+	 */
+	public Date getDateClaimed() {
+		return dateClaimed;
+	}
+	
+	/**
+	 * @param dateClaimed the date the entry was claimed by a processor node
+	 * @since 3.0.0
+	 */
+	public void setDateClaimed(Date dateClaimed) {
+		this.dateClaimed = dateClaimed;
+	}
+	
+	/**
+	 * @return the patient identifier of the PID segment of the message, which keeps the entries of a
+	 *         patient in order when they are claimed, null if the message has none
+	 * @since 3.0.0
+	 */
+	public String getPatientKey() {
+		return patientKey;
+	}
+	
+	/**
+	 * @param patientKey the patient identifier of the PID segment of the message
+	 * @since 3.0.0
+	 */
+	public void setPatientKey(String patientKey) {
+		this.patientKey = patientKey;
+	}
+	
 	/**
 	 * @see org.openmrs.OpenmrsObject#getId()
 	 * @since 1.5
@@ -9,7 +9,19 @@
  */
 package org.openmrs.hl7;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.commons.lang3.time.DateUtils;
 import org.openmrs.api.context.Context;
+import org.openmrs.api.context.Daemon;
+import org.openmrs.util.OpenmrsConstants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,6 +33,15 @@ import ca.uhn.hl7v2.HL7Exception;
  * table depending on success or failure of the processing. You may, however, set a global property
  * that causes the processor to ignore messages regarding unknown patients from a non-local HL7
  * source. (i.e. those messages neither go to the archive or the error table.)
+ * <p>
+ * If the {@link OpenmrsConstants#GLOBAL_PROPERTY_HL7_PROCESSOR_WORKER_THREADS} global property is
+ * greater than 1, pending entries are claimed in batches and processed by that many daemon threads.
+ * Entries are partitioned by the patient identifier of their PID segment, so the messages of a
+ * patient are still processed in queue order. The entries of a patient are claimed by one node at
+ * a time, which allows several nodes to drain the same queue, even the entries of a single source.
+ * Entries a failed worker didn't get to are put back into the pending state. Claims older than
+ * {@link OpenmrsConstants#GLOBAL_PROPERTY_HL7_PROCESSOR_CLAIM_TIMEOUT} are released before
+ * claiming, so the entries of a node that stopped while processing them are picked up again.
  *
  * @version 1.0
  */
@@ -35,6 +56,8 @@ public class HL7InQueueProcessor /* implements Runnable */{
 	
 	private static Integer count = 0;
 	
+	private static final HL7InQueueProcessorMetrics metrics = new HL7InQueueProcessorMetrics();
+	
 	// processor per JVM
 	
 	/**
@@ -48,6 +71,14 @@ public class HL7InQueueProcessor /* implements Runnable */{
 		HL7InQueueProcessor.count = count;
 	}
 	
+	/**
+	 * @return the throughput and lag figures of the processor in this JVM
+	 * @since 3.0.0
+	 */
+	public static HL7InQueueProcessorMetrics getMetrics() {
+		return metrics;
+	}
+	
 	/**
 	 * Process a single queue entry from the inbound HL7 queue
 	 *
@@ -58,12 +89,8 @@ public class HL7InQueueProcessor /* implements Runnable */{
 		log.debug("Processing HL7 inbound queue (id={} ,key={})", hl7InQueue.getHL7InQueueId(),
 		    hl7InQueue.getHL7SourceKey());
 		
-		try {
-			Context.getHL7Service().processHL7InQueue(hl7InQueue);
-		}
-		catch (HL7Exception e) {
-			log.error("Unable to process hl7 in queue", e);
-		}
+		metrics.recordPickedUp(Collections.singletonList(hl7InQueue));
+		metrics.recordProcessed(!process(Context.getHL7Service(), hl7InQueue));
 		setCount(count + 1);
 		if (count > 25) {
 			// clean up memory after processing each queue entry (otherwise, the
@@ -108,8 +135,22 @@ public class HL7InQueueProcessor /* implements Runnable */{
 		}
 		try {
 			log.debug("Start processing hl7 in queue");
-			while (processNextHL7InQueue()) {
-				// loop until queue is empty
+			int workerThreads = getIntegerGlobalProperty(OpenmrsConstants.GLOBAL_PROPERTY_HL7_PROCESSOR_WORKER_THREADS, 1);
+			if (workerThreads > 1 && Daemon.isDaemonThread()) {
+				int batchSize = getIntegerGlobalProperty(OpenmrsConstants.GLOBAL_PROPERTY_HL7_PROCESSOR_BATCH_SIZE, 100);
+				int claimTimeout = getIntegerGlobalProperty(OpenmrsConstants.GLOBAL_PROPERTY_HL7_PROCESSOR_CLAIM_TIMEOUT, 30);
+				int released = Context.getHL7Service().releaseExpiredHL7InQueueClaims(
+				    DateUtils.addMinutes(new Date(), -claimTimeout));
+				if (released > 0) {
+					log.warn("Released {} hl7 inbound queue entries claimed more than {} minutes ago", released, claimTimeout);
+				}
+				while (processNextHL7InQueueBatch(workerThreads, batchSize)) {
+					// loop until queue is empty
+				}
+			} else {
+				while (processNextHL7InQueue()) {
+					// loop until queue is empty
+				}
 			}
 			log.debug("Done processing hl7 in queue");
 		}
@@ -118,4 +159,170 @@ public class HL7InQueueProcessor /* implements Runnable */{
 		}
 	}
 	
+	/**
+	 * Claims the next batch of pending queue entries and processes them in parallel, partitioned by
+	 * patient so that the entries of a patient are processed in order by the same thread. Must be
+	 * called from a daemon thread.
+	 * 
+	 * @param workerThreads the number of threads to process the batch with
+	 * @param batchSize the maximum number of entries to claim
+	 * @return true if a batch was processed, false if the queue was empty
+	 * @since 3.0.0
+	 */
+	public boolean processNextHL7InQueueBatch(int workerThreads, int batchSize) {
+		List<HL7InQueue> batch = Context.getHL7Service().claimHL7InQueueBatch(batchSize);
+		if (batch.isEmpty()) {
+			return false;
+		}
+		
+		long start = System.nanoTime();
+		metrics.recordPickedUp(batch);
+		List<List<Integer>> partitions = new ArrayList<>();
+		List<Future<?>> workers = new ArrayList<>();
+		for (List<Integer> partition : partition(batch, workerThreads)) {
+			if (!partition.isEmpty()) {
+				partitions.add(partition);
+				workers.add(Daemon.runNewDaemonTask(() -> processClaimedHL7InQueues(partition)));
+			}
+		}
+		// the claimed entries are reloaded by the workers
+		Context.clearSession();
+		
+		for (int i = 0; i < workers.size(); i++) {
+			try {
+				workers.get(i).get();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				workers.forEach(w -> w.cancel(true));
+				return false;
+			}
+			catch (ExecutionException e) {
+				log.error("Error in hl7 inbound queue worker", e.getCause());
+				releaseClaims(partitions.get(i));
+			}
+		}
+		metrics.recordBatch(batch.size(), System.nanoTime() - start);
+		return true;
+	}
+	
+	/**
+	 * Processes the given claimed queue entries in order, putting back the remaining entries into
+	 * the pending state if the thread gets interrupted.
+	 */
+	private void processClaimedHL7InQueues(List<Integer> hl7InQueueIds) {
+		HL7Service hl7Service = Context.getHL7Service();
+		for (int i = 0; i < hl7InQueueIds.size(); i++) {
+			HL7InQueue hl7InQueue = hl7Service.getHL7InQueue(hl7InQueueIds.get(i));
+			if (hl7InQueue == null) {
+				continue;
+			}
+			if (Thread.currentThread().isInterrupted()) {
+				releaseClaims(hl7InQueueIds.subList(i, hl7InQueueIds.size()));
+				return;
+			}
+			
+			metrics.recordProcessed(!process(hl7Service, hl7InQueue));
+			// keep the session small, each entry is processed in its own transaction
+			Context.clearSession();
+		}
+	}
+	
+	/**
+	 * Puts the given queue entries which are still claimed back into the pending state, so that they
+	 * are claimed again by the next batch instead of waiting for their claim to expire.
+	 */
+	private static void releaseClaims(List<Integer> hl7InQueueIds) {
+		HL7Service hl7Service = Context.getHL7Service();
+		for (Integer hl7InQueueId : hl7InQueueIds) {
+			try {
+				HL7InQueue hl7InQueue = hl7Service.getHL7InQueue(hl7InQueueId);
+				if (hl7InQueue != null && HL7Constants.HL7_STATUS_CLAIMED.equals(hl7InQueue.getMessageState())) {
+					hl7InQueue.setMessageState(HL7Constants.HL7_STATUS_PENDING);
+					hl7InQueue.setDateClaimed(null);
+					hl7Service.saveHL7InQueue(hl7InQueue);
+				}
+			}
+			catch (Exception e) {
+				log.error("Unable to release the claim of hl7 in queue entry {}", hl7InQueueId, e);
+			}
+		}
+		Context.clearSession();
+	}
+	
+	/**
+	 * Processes the given queue entry, entries which end up in the error table and exceptions count
+	 * as failures.
+	 * 
+	 * @return true if the entry was processed successfully
+	 */
+	private static boolean process(HL7Service hl7Service, HL7InQueue hl7InQueue) {
+		try {
+			HL7InQueue processed = hl7Service.processHL7InQueue(hl7InQueue);
+			return processed == null || !HL7Constants.HL7_STATUS_ERROR.equals(processed.getMessageState());
+		}
+		catch (HL7Exception e) {
+			log.error("Unable to process hl7 in queue", e);
+		}
+		catch (Exception e) {
+			log.error("Error while processing hl7 in queue entry {}", hl7InQueue.getHL7InQueueId(), e);
+		}
+		return false;
+	}
+	
+	/**
+	 * Splits the given queue entries into the given number of partitions, keeping the entries of a
+	 * patient in the same partition and in their original order. Entries without a patient
+	 * identifier all go to the first partition.
+	 * 
+	 * @param hl7InQueues the queue entries
+	 * @param partitionCount the number of partitions
+	 * @return the ids of the queue entries of each partition
+	 */
+	static List<List<Integer>> partition(List<HL7InQueue> hl7InQueues, int partitionCount) {
+		List<List<Integer>> partitions = new ArrayList<>(partitionCount);
+		for (int i = 0; i < partitionCount; i++) {
+			partitions.add(new ArrayList<>());
+		}
+		for (HL7InQueue hl7InQueue : hl7InQueues) {
+			String patientIdentifier = getPatientIdentifier(hl7InQueue.getHL7Data());
+			int partition = patientIdentifier == null ? 0 : Math.floorMod(patientIdentifier.hashCode(), partitionCount);
+			partitions.get(partition).add(hl7InQueue.getHL7InQueueId());
+		}
+		return partitions;
+	}
+	
+	/**
+	 * Extracts the first patient identifier (PID-3) from a raw HL7 message without parsing it.
+	 * 
+	 * @param hl7Data the pipe delimited message
+	 * @return the identifier or null if the message has no PID segment with an identifier
+	 * @since 3.0.0
+	 */
+	public static String getPatientIdentifier(String hl7Data) {
+		if (hl7Data == null || hl7Data.length() < 8 || !hl7Data.startsWith("MSH")) {
+			return null;
+		}
+		char fieldSeparator = hl7Data.charAt(3);
+		String componentSeparator = String.valueOf(hl7Data.charAt(4));
+		String repetitionSeparator = String.valueOf(hl7Data.charAt(5));
+		for (String segment : hl7Data.split("[\\r\\n]+")) {
+			if (segment.startsWith("PID" + fieldSeparator)) {
+				String[] fields = StringUtils.splitPreserveAllTokens(segment, fieldSeparator);
+				if (fields.length < 4) {
+					return null;
+				}
+				String identifier = StringUtils.substringBefore(
+				    StringUtils.substringBefore(fields[3], repetitionSeparator), componentSeparator);
+				return StringUtils.isBlank(identifier) ? null : identifier.trim();
+			}
+		}
+		return null;
+	}
+	
+	private static int getIntegerGlobalProperty(String propertyName, int defaultValue) {
+		String value = Context.getAdministrationService().getGlobalProperty(propertyName);
+		return NumberUtils.toInt(StringUtils.trim(value), defaultValue);
+	}
+	
 }
@@ -0,0 +1,86 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.hl7;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput and lag figures of the {@link HL7InQueueProcessor} in this JVM.
+ * 
+ * @since 3.0.0
+ */
+public class HL7InQueueProcessorMetrics {
+	
+	private final AtomicLong processedCount = new AtomicLong();
+	
+	private final AtomicLong failedCount = new AtomicLong();
+	
+	private volatile double messagesPerSecond;
+	
+	private volatile long lagMillis;
+	
+	HL7InQueueProcessorMetrics() {
+	}
+	
+	/**
+	 * @return the number of queue entries processed since startup, including failed ones
+	 */
+	public long getProcessedCount() {
+		return processedCount.get();
+	}
+	
+	/**
+	 * @return the number of queue entries whose processing threw an exception since startup
+	 */
+	public long getFailedCount() {
+		return failedCount.get();
+	}
+	
+	/**
+	 * @return the throughput of the last processed batch
+	 */
+	public double getMessagesPerSecond() {
+		return messagesPerSecond;
+	}
+	
+	/**
+	 * @return the age in milliseconds of the oldest entry of the last batch picked up for processing
+	 */
+	public long getLagMillis() {
+		return lagMillis;
+	}
+	
+	void recordProcessed(boolean failed) {
+		processedCount.incrementAndGet();
+		if (failed) {
+			failedCount.incrementAndGet();
+		}
+	}
+	
+	void recordBatch(int size, long durationNanos) {
+		if (durationNanos > 0) {
+			messagesPerSecond = size * (double) TimeUnit.SECONDS.toNanos(1) / durationNanos;
+		}
+	}
+	
+	void recordPickedUp(Collection<HL7InQueue> hl7InQueues) {
+		Date oldest = null;
+		for (HL7InQueue hl7InQueue : hl7InQueues) {
+			Date dateCreated = hl7InQueue.getDateCreated();
+			if (dateCreated != null && (oldest == null || dateCreated.before(oldest))) {
+				oldest = dateCreated;
+			}
+		}
+		lagMillis = oldest == null ? 0 : Math.max(0, System.currentTimeMillis() - oldest.getTime());
+	}
+}
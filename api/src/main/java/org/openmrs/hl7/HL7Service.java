@@ -9,6 +9,7 @@
  */
 package org.openmrs.hl7;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
@@ -94,11 +95,13 @@ public interface HL7Service extends OpenmrsService {
 	public void purgeHL7Source(HL7Source hl7Source) throws APIException;
 	
 	/**
-	 * Save the given <code>hl7InQueue</code> to the database
+	 * Save the given <code>hl7InQueue</code> to the database, setting its patient key from the PID
+	 * segment of the message if it doesn't have one
 	 * 
 	 * @param hl7InQueue the queue item to save
 	 * @return the saved queue item
 	 * <strong>Should</strong> add generated uuid if uuid is null
+	 * <strong>Should</strong> set the patient key from the PID segment
 	 */
 	@Authorized(value = { PrivilegeConstants.PRIV_UPDATE_HL7_IN_QUEUE, PrivilegeConstants.PRIV_ADD_HL7_IN_QUEUE }, requireAll = false)
 	public HL7InQueue saveHL7InQueue(HL7InQueue hl7InQueue) throws APIException;
@@ -218,6 +221,41 @@ public interface HL7Service extends OpenmrsService {
 	@Authorized(PrivilegeConstants.GET_HL7_IN_QUEUE)
 	public HL7InQueue getNextHL7InQueue() throws APIException;
 	
+	/**
+	 * Claims the oldest pending queue items by marking them as {@link HL7Constants#HL7_STATUS_CLAIMED}
+	 * and stamping their claim date. The pending items are locked with a lock that skips the items
+	 * locked by other transactions, so several nodes can claim items of the same source at once.
+	 * The items of a patient, identified by {@link HL7InQueue#getPatientKey()}, are claimed together
+	 * and only if none of its earlier items are still claimed or locked by another node. This way
+	 * the items of a patient are processed in queue order by a single node. Items without a patient
+	 * key are claimed like the items of a single patient.
+	 * 
+	 * @param batchSize the maximum number of items to look at, the pending items of the patients of
+	 *            these are claimed as well
+	 * @return the claimed items ordered by id, empty if there are no pending items of an unclaimed
+	 *         patient
+	 * @throws APIException
+	 * <strong>Should</strong> claim the oldest pending items
+	 * <strong>Should</strong> claim the pending items of other patients of a source which has claimed items
+	 * <strong>Should</strong> not claim the items of a patient which has claimed items
+	 * @since 3.0.0
+	 */
+	@Authorized(PrivilegeConstants.PRIV_UPDATE_HL7_IN_QUEUE)
+	public List<HL7InQueue> claimHL7InQueueBatch(int batchSize) throws APIException;
+	
+	/**
+	 * Puts the queue items which were claimed before the given date back into the pending state,
+	 * e.g. the items left claimed by a node that stopped while processing them.
+	 * 
+	 * @param claimedBefore the date before which claims have expired
+	 * @return the number of released items
+	 * @throws APIException
+	 * <strong>Should</strong> release the items claimed before the given date
+	 * @since 3.0.0
+	 */
+	@Authorized(PrivilegeConstants.PRIV_UPDATE_HL7_IN_QUEUE)
+	public int releaseExpiredHL7InQueueClaims(Date claimedBefore) throws APIException;
+	
 	/**
 	 * Completely delete the hl7 in queue item from the database.
 	 * 
@@ -410,12 +448,14 @@ public interface HL7Service extends OpenmrsService {
 	 * If an error occurs while processing, a new {@link HL7InError} is created and saved. <br>
 	 * If no error occurs, a new {@link HL7InArchive} is created and saved.<br>
 	 * The given {@link HL7InQueue} is removed from the hl7 in queue table regardless of success or
-	 * failure of the processing.
+	 * failure of the processing, failed entries are returned in the
+	 * {@link HL7Constants#HL7_STATUS_ERROR} state.
 	 * 
 	 * @param inQueue the {@link HL7InQueue} to parse and save all encounters/obs to the db
 	 * @return the processed {@link HL7InQueue}
 	 * <strong>Should</strong> create HL7InArchive after successful parsing
 	 * <strong>Should</strong> create HL7InError after failed parsing
+	 * <strong>Should</strong> mark the queue item as error after failed parsing
 	 * <strong>Should</strong> fail if given inQueue is already marked as processing
 	 * <strong>Should</strong> parse oru r01 message using overridden parser provided by a module
 	 */
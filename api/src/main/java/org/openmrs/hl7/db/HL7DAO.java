@@ -9,6 +9,7 @@
  */
 package org.openmrs.hl7.db;
 
+import java.util.Date;
 import java.util.List;
 
 import org.openmrs.api.db.DAOException;
@@ -80,6 +81,18 @@ public interface HL7DAO {
 	 */
 	public HL7InQueue getNextHL7InQueue() throws DAOException;
 	
+	/**
+	 * @see org.openmrs.hl7.HL7Service#claimHL7InQueueBatch(int)
+	 * @since 3.0.0
+	 */
+	public List<HL7InQueue> claimHL7InQueueBatch(int batchSize) throws DAOException;
+	
+	/**
+	 * @see org.openmrs.hl7.HL7Service#releaseExpiredHL7InQueueClaims(java.util.Date)
+	 * @since 3.0.0
+	 */
+	public int releaseExpiredHL7InQueueClaims(Date claimedBefore) throws DAOException;
+	
 	/**
 	 * @see org.openmrs.hl7.HL7Service#purgeHL7InQueue(org.openmrs.hl7.HL7InQueue)
 	 */
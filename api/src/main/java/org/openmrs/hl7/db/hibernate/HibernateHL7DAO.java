@@ -9,6 +9,7 @@
  */
 package org.openmrs.hl7.db.hibernate;
 
+import jakarta.persistence.LockModeType;
 import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
@@ -16,8 +17,15 @@ import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
@@ -46,6 +54,13 @@ import org.springframework.stereotype.Repository;
  */
 @Repository("hl7DAO")
 public class HibernateHL7DAO implements HL7DAO {
+	
+	private static final String LOCK_TIMEOUT_HINT = "jakarta.persistence.lock.timeout";
+	
+	/**
+	 * Lock timeout value telling Hibernate to skip rows locked by other transactions (SKIP LOCKED)
+	 */
+	private static final int SKIP_LOCKED = -2;
 
 	private final SessionFactory sessionFactory;
 	
@@ -228,6 +243,98 @@ public class HibernateHL7DAO implements HL7DAO {
 		return JpaUtils.getSingleResultOrNull(query);
 	}
 	
+	/**
+	 * @see org.openmrs.hl7.db.HL7DAO#claimHL7InQueueBatch(int)
+	 */
+	@Override
+	public List<HL7InQueue> claimHL7InQueueBatch(int batchSize) throws DAOException {
+		Session session = sessionFactory.getCurrentSession();
+		// rows locked by the claims of other nodes are skipped, so several nodes can claim at once
+		List<HL7InQueue> candidates = session.createQuery(
+		    "from HL7InQueue as hiq where hiq.messageState = :pending order by hiq.HL7InQueueId", HL7InQueue.class)
+		        .setParameter("pending", HL7Constants.HL7_STATUS_PENDING).setMaxResults(batchSize)
+		        .setLockMode(LockModeType.PESSIMISTIC_WRITE).setHint(LOCK_TIMEOUT_HINT, SKIP_LOCKED).getResultList();
+		
+		// a patient is claimed by the node which locked its first unprocessed entry, the other nodes
+		// skip the patient until all its claimed entries are processed
+		Map<String, Integer> firstCandidateIds = new LinkedHashMap<>();
+		for (HL7InQueue candidate : candidates) {
+			firstCandidateIds.putIfAbsent(getPatientKey(candidate), candidate.getHL7InQueueId());
+		}
+		if (firstCandidateIds.isEmpty()) {
+			return new ArrayList<>();
+		}
+		List<Object[]> firstUnprocessedIds = session.createQuery(
+		    "select coalesce(hiq.patientKey, ''), min(hiq.HL7InQueueId) from HL7InQueue as hiq "
+		            + "where coalesce(hiq.patientKey, '') in (:patientKeys) and hiq.messageState in (:unprocessed) "
+		            + "group by coalesce(hiq.patientKey, '')",
+		    Object[].class).setParameterList("patientKeys", firstCandidateIds.keySet())
+		        .setParameterList("unprocessed", Arrays.asList(HL7Constants.HL7_STATUS_PENDING,
+		            HL7Constants.HL7_STATUS_CLAIMED, HL7Constants.HL7_STATUS_PROCESSING))
+		        .getResultList();
+		Set<String> patientKeys = new HashSet<>();
+		for (Object[] row : firstUnprocessedIds) {
+			if (row[1].equals(firstCandidateIds.get(row[0]))) {
+				patientKeys.add((String) row[0]);
+			}
+		}
+		if (patientKeys.isEmpty()) {
+			return new ArrayList<>();
+		}
+		
+		// all the pending entries of the claimed patients are claimed together, up to the first one
+		// another node holds a lock on, so that no entry of a patient is claimed before an earlier one
+		Map<Integer, HL7InQueue> locked = new HashMap<>();
+		for (HL7InQueue hl7InQueue : session.createQuery(
+		    "from HL7InQueue as hiq where coalesce(hiq.patientKey, '') in (:patientKeys) and hiq.messageState = :pending",
+		    HL7InQueue.class).setParameterList("patientKeys", patientKeys)
+		        .setParameter("pending", HL7Constants.HL7_STATUS_PENDING).setLockMode(LockModeType.PESSIMISTIC_WRITE)
+		        .setHint(LOCK_TIMEOUT_HINT, SKIP_LOCKED).getResultList()) {
+			locked.put(hl7InQueue.getHL7InQueueId(), hl7InQueue);
+		}
+		List<Object[]> pendingIds = session.createQuery(
+		    "select hiq.HL7InQueueId, coalesce(hiq.patientKey, '') from HL7InQueue as hiq "
+		            + "where coalesce(hiq.patientKey, '') in (:patientKeys) and hiq.messageState = :pending "
+		            + "order by hiq.HL7InQueueId",
+		    Object[].class).setParameterList("patientKeys", patientKeys)
+		        .setParameter("pending", HL7Constants.HL7_STATUS_PENDING).getResultList();
+		
+		List<HL7InQueue> claimed = new ArrayList<>();
+		Date dateClaimed = new Date();
+		for (Object[] row : pendingIds) {
+			HL7InQueue hl7InQueue = locked.get(row[0]);
+			if (hl7InQueue == null) {
+				patientKeys.remove(row[1]);
+			} else if (patientKeys.contains(row[1])) {
+				hl7InQueue.setMessageState(HL7Constants.HL7_STATUS_CLAIMED);
+				hl7InQueue.setDateClaimed(dateClaimed);
+				claimed.add(hl7InQueue);
+			}
+		}
+		return claimed;
+	}
+	
+	/**
+	 * @return the patient key of the given entry, entries without one are claimed like the entries
+	 *         of a single patient
+	 */
+	private static String getPatientKey(HL7InQueue hl7InQueue) {
+		return hl7InQueue.getPatientKey() == null ? "" : hl7InQueue.getPatientKey();
+	}
+	
+	/**
+	 * @see org.openmrs.hl7.db.HL7DAO#releaseExpiredHL7InQueueClaims(Date)
+	 */
+	@Override
+	public int releaseExpiredHL7InQueueClaims(Date claimedBefore) throws DAOException {
+		return sessionFactory.getCurrentSession().createMutationQuery(
+		    "update HL7InQueue set messageState = :pending, dateClaimed = null where messageState = :claimed "
+		            + "and (dateClaimed is null or dateClaimed < :claimedBefore)")
+		        .setParameter("pending", HL7Constants.HL7_STATUS_PENDING)
+		        .setParameter("claimed", HL7Constants.HL7_STATUS_CLAIMED).setParameter("claimedBefore", claimedBefore)
+		        .executeUpdate();
+	}
+	
 	/**
 	 * @see org.openmrs.hl7.db.HL7DAO#deleteHL7InQueue(org.openmrs.hl7.HL7InQueue)
 	 */
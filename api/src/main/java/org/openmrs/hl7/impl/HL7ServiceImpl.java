@@ -63,6 +63,7 @@ import org.openmrs.hl7.HL7Constants;
 import org.openmrs.hl7.HL7InArchive;
 import org.openmrs.hl7.HL7InError;
 import org.openmrs.hl7.HL7InQueue;
+import org.openmrs.hl7.HL7InQueueProcessor;
 import org.openmrs.hl7.HL7QueueItem;
 import org.openmrs.hl7.HL7Service;
 import org.openmrs.hl7.HL7Source;
@@ -280,6 +281,11 @@ public class HL7ServiceImpl extends BaseOpenmrsService implements HL7Service, Re
 			hl7InQueue.setMessageState(HL7Constants.HL7_STATUS_PENDING);
 		}
 		
+		if (hl7InQueue.getPatientKey() == null) {
+			hl7InQueue.setPatientKey(StringUtils.left(HL7InQueueProcessor.getPatientIdentifier(hl7InQueue.getHL7Data()),
+			    255));
+		}
+		
 		return dao.saveHL7InQueue(hl7InQueue);
 	}
 	
@@ -307,6 +313,25 @@ public class HL7ServiceImpl extends BaseOpenmrsService implements HL7Service, Re
 		return dao.getNextHL7InQueue();
 	}
 	
+	/**
+	 * @see org.openmrs.hl7.HL7Service#claimHL7InQueueBatch(int)
+	 */
+	@Override
+	public List<HL7InQueue> claimHL7InQueueBatch(int batchSize) throws APIException {
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("batchSize must be positive");
+		}
+		return dao.claimHL7InQueueBatch(batchSize);
+	}
+	
+	/**
+	 * @see org.openmrs.hl7.HL7Service#releaseExpiredHL7InQueueClaims(Date)
+	 */
+	@Override
+	public int releaseExpiredHL7InQueueClaims(Date claimedBefore) throws APIException {
+		return dao.releaseExpiredHL7InQueueClaims(claimedBefore);
+	}
+	
 	/**
 	 * @see org.openmrs.hl7.HL7Service#getHL7InArchiveByState(java.lang.Integer)
 	 */
@@ -775,6 +800,8 @@ public class HL7ServiceImpl extends BaseOpenmrsService implements HL7Service, Re
 			hl7InError.setErrorDetails(ExceptionUtils.getStackTrace(cause));
 		}
 		Context.getHL7Service().saveHL7InError(hl7InError);
+		// lets the caller tell a failed entry from an archived one
+		hl7InQueue.setMessageState(HL7Constants.HL7_STATUS_ERROR);
 		Context.getHL7Service().purgeHL7InQueue(hl7InQueue);
 		log.info(error, cause);
 	}
@@ -0,0 +1,200 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.messagesource.impl;
+
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openmrs.module.ModuleFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+
+/**
+ * A MutableResourceBundleMessageSource which compiles the message bundles of the core and of all
+ * started modules into one immutable table per locale, in which the fallback to the less specific
+ * locales, the default locale and the base bundles is already resolved. Looking up a message is a
+ * single map lookup, and the MessageFormat of each message is created only once.
+ * <p>
+ * A locale is compiled the first time a message is looked up in it. All the tables are compiled
+ * again once the modules change, which also picks up the bundles of newly started modules. Changes
+ * to the properties files themselves are not picked up until then or until {@link #clearCache()} is
+ * called.
+ *
+ * @since 3.0.0
+ */
+public class CompiledResourceBundleMessageSource extends MutableResourceBundleMessageSource {
+
+	private static final Logger log = LoggerFactory.getLogger(CompiledResourceBundleMessageSource.class);
+
+	/**
+	 * The basenames as configured, without those of the modules.
+	 */
+	private String[] configuredBasenames = new String[0];
+
+	private volatile CompiledMessages compiledMessages = new CompiledMessages(ModuleFactory
+	        .getModuleClassLoadersRevision());
+
+	/**
+	 * @see MutableResourceBundleMessageSource#setBasenames(java.lang.String[])
+	 */
+	@Override
+	public void setBasenames(String... basenames) {
+		synchronized (this) {
+			configuredBasenames = basenames == null ? new String[0] : Arrays.copyOf(basenames, basenames.length);
+			super.setBasenames(basenames);
+			compiledMessages = new CompiledMessages(ModuleFactory.getModuleClassLoadersRevision());
+		}
+	}
+
+	/**
+	 * Also discards the compiled messages, so that they are compiled again from the properties files.
+	 *
+	 * @see org.springframework.context.support.ReloadableResourceBundleMessageSource#clearCache()
+	 */
+	@Override
+	public void clearCache() {
+		synchronized (this) {
+			super.clearCache();
+			compiledMessages = new CompiledMessages(ModuleFactory.getModuleClassLoadersRevision());
+		}
+	}
+
+	/**
+	 * @see org.springframework.context.support.ReloadableResourceBundleMessageSource#resolveCodeWithoutArguments(java.lang.String,
+	 *      java.util.Locale)
+	 */
+	@Override
+	protected String resolveCodeWithoutArguments(String code, Locale locale) {
+		return getLocaleMessages(locale).messages.get(code);
+	}
+
+	/**
+	 * @see org.springframework.context.support.ReloadableResourceBundleMessageSource#resolveCode(java.lang.String,
+	 *      java.util.Locale)
+	 */
+	@Override
+	protected MessageFormat resolveCode(String code, Locale locale) {
+		LocaleMessages localeMessages = getLocaleMessages(locale);
+		MessageFormat messageFormat = localeMessages.messageFormats.get(code);
+		if (messageFormat == null) {
+			String message = localeMessages.messages.get(code);
+			if (message == null) {
+				return null;
+			}
+			messageFormat = localeMessages.messageFormats.computeIfAbsent(code, c -> createMessageFormat(message, locale));
+		}
+		return messageFormat;
+	}
+
+	private LocaleMessages getLocaleMessages(Locale locale) {
+		CompiledMessages compiled = getCompiledMessages();
+		LocaleMessages localeMessages = compiled.locales.get(locale);
+		if (localeMessages == null) {
+			synchronized (this) {
+				localeMessages = compiled.locales.computeIfAbsent(locale, l -> compile(compiled, l));
+			}
+		}
+		return localeMessages;
+	}
+
+	/**
+	 * Gets the compiled messages, starting over if the modules changed since they were compiled.
+	 */
+	private CompiledMessages getCompiledMessages() {
+		CompiledMessages compiled = compiledMessages;
+		int revision = ModuleFactory.getModuleClassLoadersRevision();
+		if (compiled.revision != revision) {
+			synchronized (this) {
+				compiled = compiledMessages;
+				if (compiled.revision != revision) {
+					log.debug("Modules changed, compiling the messages again");
+					// picks up the bundles of the modules which are started now
+					super.setBasenames(configuredBasenames);
+					super.clearCache();
+					compiled = new CompiledMessages(revision);
+					compiledMessages = compiled;
+				}
+			}
+		}
+		return compiled;
+	}
+
+	/**
+	 * Merges the bundles of all basenames for the given locale, in the same order of precedence in
+	 * which the ReloadableResourceBundleMessageSource looks them up: the first basename wins, and
+	 * within a basename the most specific locale wins.
+	 */
+	private LocaleMessages compile(CompiledMessages compiled, Locale locale) {
+		long start = System.currentTimeMillis();
+		Map<String, String> messages = new HashMap<>();
+		String[] basenames = StringUtils.toStringArray(getBasenameSet());
+		for (int i = basenames.length - 1; i >= 0; i--) {
+			List<String> filenames = calculateAllFilenames(basenames[i], locale);
+			for (int j = filenames.size() - 1; j >= 0; j--) {
+				Properties properties = getProperties(filenames.get(j)).getProperties();
+				if (properties != null) {
+					for (String code : properties.stringPropertyNames()) {
+						messages.put(compiled.intern(code), compiled.intern(properties.getProperty(code)));
+					}
+				}
+			}
+		}
+		log.debug("Compiled {} messages for locale {} in {}ms", messages.size(), locale,
+		    System.currentTimeMillis() - start);
+		return new LocaleMessages(Map.copyOf(messages));
+	}
+
+	/**
+	 * The messages compiled for a revision of the modules.
+	 */
+	private static class CompiledMessages {
+
+		private final int revision;
+
+		private final Map<Locale, LocaleMessages> locales = new ConcurrentHashMap<>();
+
+		/**
+		 * Shares the codes and the untranslated messages between the locales.
+		 */
+		private final Map<String, String> strings = new HashMap<>();
+
+		CompiledMessages(int revision) {
+			this.revision = revision;
+		}
+
+		/**
+		 * Only called while compiling, which holds the lock of the message source.
+		 */
+		String intern(String string) {
+			return strings.computeIfAbsent(string, s -> s);
+		}
+	}
+
+	/**
+	 * The compiled messages of a locale.
+	 */
+	private static class LocaleMessages {
+
+		private final Map<String, String> messages;
+
+		private final Map<String, MessageFormat> messageFormats = new ConcurrentHashMap<>();
+
+		LocaleMessages(Map<String, String> messages) {
+			this.messages = messages;
+		}
+	}
+}
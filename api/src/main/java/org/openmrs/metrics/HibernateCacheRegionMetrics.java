@@ -0,0 +1,70 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+/**
+ * Binds the Hibernate statistics of a second-level cache region to the standard cache metrics.
+ *
+ * @since 3.0.0
+ */
+class HibernateCacheRegionMetrics extends CacheMeterBinder<Statistics> {
+	
+	private final String regionName;
+	
+	HibernateCacheRegionMetrics(Statistics statistics, String regionName, Iterable<Tag> tags) {
+		super(statistics, regionName, tags);
+		this.regionName = regionName;
+	}
+	
+	@Override
+	protected Long size() {
+		CacheRegionStatistics region = getRegionStatistics();
+		// regions which cannot count their elements return a negative count
+		return region == null || region.getElementCountInMemory() < 0 ? null : region.getElementCountInMemory();
+	}
+	
+	@Override
+	protected long hitCount() {
+		CacheRegionStatistics region = getRegionStatistics();
+		return region == null ? 0 : region.getHitCount();
+	}
+	
+	@Override
+	protected Long missCount() {
+		CacheRegionStatistics region = getRegionStatistics();
+		return region == null ? null : region.getMissCount();
+	}
+	
+	@Override
+	protected Long evictionCount() {
+		return null;
+	}
+	
+	@Override
+	protected long putCount() {
+		CacheRegionStatistics region = getRegionStatistics();
+		return region == null ? 0 : region.getPutCount();
+	}
+	
+	@Override
+	protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+	}
+	
+	private CacheRegionStatistics getRegionStatistics() {
+		Statistics statistics = getCache();
+		return statistics == null ? null : statistics.getCacheRegionStatistics(regionName);
+	}
+}
@@ -0,0 +1,68 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+import org.infinispan.Cache;
+import org.infinispan.stats.Stats;
+
+/**
+ * Binds the statistics of an Infinispan cache to the standard cache metrics. The statistics must be
+ * enabled in the configuration of the cache, otherwise the metrics stay at zero.
+ *
+ * @since 3.0.0
+ */
+class InfinispanCacheMetrics extends CacheMeterBinder<Cache<?, ?>> {
+	
+	InfinispanCacheMetrics(Cache<?, ?> cache, Iterable<Tag> tags) {
+		super(cache, cache.getName(), tags);
+	}
+	
+	@Override
+	protected Long size() {
+		Stats stats = getStats();
+		return stats == null ? null : stats.getApproximateEntries();
+	}
+	
+	@Override
+	protected long hitCount() {
+		Stats stats = getStats();
+		return stats == null ? 0 : stats.getHits();
+	}
+	
+	@Override
+	protected Long missCount() {
+		Stats stats = getStats();
+		return stats == null ? null : stats.getMisses();
+	}
+	
+	@Override
+	protected Long evictionCount() {
+		Stats stats = getStats();
+		return stats == null ? null : stats.getEvictions();
+	}
+	
+	@Override
+	protected long putCount() {
+		Stats stats = getStats();
+		return stats == null ? 0 : stats.getStores();
+	}
+	
+	@Override
+	protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+	}
+	
+	private Stats getStats() {
+		Cache<?, ?> cache = getCache();
+		return cache == null ? null : cache.getAdvancedCache().getStats();
+	}
+}
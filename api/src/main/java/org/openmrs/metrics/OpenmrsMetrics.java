@@ -0,0 +1,237 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.metrics;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+import com.mchange.v2.c3p0.C3P0Registry;
+import com.mchange.v2.c3p0.PooledDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PostConstruct;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.infinispan.Cache;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.spring.embedded.provider.SpringEmbeddedCacheManager;
+import org.openmrs.api.context.Context;
+import org.openmrs.hl7.HL7Constants;
+import org.openmrs.hl7.HL7InQueueProcessor;
+import org.openmrs.hl7.HL7InQueueProcessorMetrics;
+import org.openmrs.scheduler.SchedulerService;
+import org.openmrs.scheduler.TaskDefinition;
+import org.openmrs.scheduler.executor.ExecutorSchedulerServiceImpl;
+import org.openmrs.scheduler.executor.TaskRunMetrics;
+import org.openmrs.util.PrivilegeConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exports the internal statistics of the API as metrics:
+ * <ul>
+ * <li>the Hibernate statistics: sessions, transactions, queries, entity and collection loads and
+ * the second-level and query cache requests, also per second-level cache region</li>
+ * <li>the usage of the c3p0 connection pools</li>
+ * <li>the statistics of the Infinispan caches behind the @Cacheable annotation</li>
+ * <li>the run durations and lag of the tasks of the executor based scheduler</li>
+ * <li>the throughput, lag and depth of the inbound HL7 queue</li>
+ * </ul>
+ * The Hibernate statistics and the HL7 processor are bound at startup. Connection pools, caches and
+ * scheduler tasks may be added later on, so they are bound by {@link #refresh()}, which the scrape
+ * endpoint calls before each scrape.
+ *
+ * @since 3.0.0
+ */
+@Component("openmrsMetrics")
+public class OpenmrsMetrics {
+
+	private static final Logger log = LoggerFactory.getLogger(OpenmrsMetrics.class);
+
+	private final MeterRegistry registry;
+
+	private final SessionFactory sessionFactory;
+
+	private final SpringEmbeddedCacheManager apiCacheManager;
+
+	private final AtomicLong hl7InQueueDepth = new AtomicLong();
+
+	private final Set<String> boundConnectionPools = ConcurrentHashMap.newKeySet();
+
+	private final Set<String> boundCaches = ConcurrentHashMap.newKeySet();
+
+	private final Set<Integer> boundTasks = ConcurrentHashMap.newKeySet();
+
+	@Autowired
+	public OpenmrsMetrics(MeterRegistry registry, @Qualifier("sessionFactory") SessionFactory sessionFactory,
+	    @Qualifier("apiCacheManager") SpringEmbeddedCacheManager apiCacheManager) {
+		this.registry = registry;
+		this.sessionFactory = sessionFactory;
+		this.apiCacheManager = apiCacheManager;
+	}
+
+	@PostConstruct
+	public void bindMetrics() {
+		bindHibernateStatistics();
+		bindHL7InQueueProcessor();
+	}
+
+	/**
+	 * Binds the connection pools, caches and scheduler tasks which were added since the last call
+	 * and updates the depth of the inbound HL7 queue. Must be called with an open session.
+	 */
+	public void refresh() {
+		bindConnectionPools();
+		bindApiCaches();
+		try {
+			Context.addProxyPrivilege(PrivilegeConstants.MANAGE_SCHEDULER);
+			Context.addProxyPrivilege(PrivilegeConstants.GET_HL7_IN_QUEUE);
+			bindSchedulerTasks();
+			hl7InQueueDepth.set(Context.getHL7Service().countHL7InQueue(HL7Constants.HL7_STATUS_PENDING, null));
+		}
+		finally {
+			Context.removeProxyPrivilege(PrivilegeConstants.MANAGE_SCHEDULER);
+			Context.removeProxyPrivilege(PrivilegeConstants.GET_HL7_IN_QUEUE);
+		}
+	}
+
+	private void bindHibernateStatistics() {
+		Statistics statistics = sessionFactory.getStatistics();
+		if (!statistics.isStatisticsEnabled()) {
+			log.info("Not exporting the Hibernate statistics as hibernate.generate_statistics is false");
+			return;
+		}
+
+		counter("hibernate.sessions.open", statistics, Statistics::getSessionOpenCount, Tags.empty());
+		counter("hibernate.transactions", statistics, Statistics::getTransactionCount, Tags.empty());
+		counter("hibernate.connections.obtained", statistics, Statistics::getConnectCount, Tags.empty());
+		counter("hibernate.statements.prepared", statistics, Statistics::getPrepareStatementCount, Tags.empty());
+		counter("hibernate.flushes", statistics, Statistics::getFlushCount, Tags.empty());
+		counter("hibernate.optimistic.failures", statistics, Statistics::getOptimisticFailureCount, Tags.empty());
+
+		counter("hibernate.query.executions", statistics, Statistics::getQueryExecutionCount, Tags.empty());
+		TimeGauge.builder("hibernate.query.executions.max", statistics, TimeUnit.MILLISECONDS,
+		    Statistics::getQueryExecutionMaxTime).description("The time of the slowest query").register(registry);
+
+		counter("hibernate.entities", statistics, Statistics::getEntityLoadCount, Tags.of("operation", "load"));
+		counter("hibernate.entities", statistics, Statistics::getEntityFetchCount, Tags.of("operation", "fetch"));
+		counter("hibernate.entities", statistics, Statistics::getEntityInsertCount, Tags.of("operation", "insert"));
+		counter("hibernate.entities", statistics, Statistics::getEntityUpdateCount, Tags.of("operation", "update"));
+		counter("hibernate.entities", statistics, Statistics::getEntityDeleteCount, Tags.of("operation", "delete"));
+		counter("hibernate.collections", statistics, Statistics::getCollectionLoadCount, Tags.of("operation", "load"));
+		counter("hibernate.collections", statistics, Statistics::getCollectionFetchCount, Tags.of("operation", "fetch"));
+
+		counter("hibernate.second.level.cache.requests", statistics, Statistics::getSecondLevelCacheHitCount,
+		    Tags.of("result", "hit"));
+		counter("hibernate.second.level.cache.requests", statistics, Statistics::getSecondLevelCacheMissCount,
+		    Tags.of("result", "miss"));
+		counter("hibernate.second.level.cache.puts", statistics, Statistics::getSecondLevelCachePutCount, Tags.empty());
+		counter("hibernate.query.cache.requests", statistics, Statistics::getQueryCacheHitCount, Tags.of("result", "hit"));
+		counter("hibernate.query.cache.requests", statistics, Statistics::getQueryCacheMissCount,
+		    Tags.of("result", "miss"));
+
+		for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+			new HibernateCacheRegionMetrics(statistics, regionName, Tags.of("cacheManager", "hibernate")).bindTo(registry);
+		}
+	}
+
+	private void bindHL7InQueueProcessor() {
+		HL7InQueueProcessorMetrics metrics = HL7InQueueProcessor.getMetrics();
+		counter("openmrs.hl7.in.queue.processed", metrics, HL7InQueueProcessorMetrics::getProcessedCount, Tags.empty());
+		counter("openmrs.hl7.in.queue.failed", metrics, HL7InQueueProcessorMetrics::getFailedCount, Tags.empty());
+		gauge("openmrs.hl7.in.queue.throughput", metrics, HL7InQueueProcessorMetrics::getMessagesPerSecond, Tags.empty());
+		TimeGauge.builder("openmrs.hl7.in.queue.lag", metrics, TimeUnit.MILLISECONDS, HL7InQueueProcessorMetrics::getLagMillis)
+		        .description("The age of the oldest entry when it was last picked up for processing").register(registry);
+		gauge("openmrs.hl7.in.queue.pending", hl7InQueueDepth, AtomicLong::get, Tags.empty());
+	}
+
+	private void bindConnectionPools() {
+		for (Object source : C3P0Registry.getPooledDataSources()) {
+			PooledDataSource pool = (PooledDataSource) source;
+			if (boundConnectionPools.add(pool.getIdentityToken())) {
+				Tags tags = Tags.of("pool", pool.getDataSourceName());
+				gauge("c3p0.connections", pool, p -> getPoolSize(p::getNumConnectionsDefaultUser), tags);
+				gauge("c3p0.connections.busy", pool, p -> getPoolSize(p::getNumBusyConnectionsDefaultUser), tags);
+				gauge("c3p0.connections.idle", pool, p -> getPoolSize(p::getNumIdleConnectionsDefaultUser), tags);
+				gauge("c3p0.threads.awaiting", pool, p -> getPoolSize(p::getNumThreadsAwaitingCheckoutDefaultUser), tags);
+			}
+		}
+	}
+
+	private void bindApiCaches() {
+		EmbeddedCacheManager cacheManager = apiCacheManager.getNativeCacheManager();
+		for (String cacheName : cacheManager.getCacheNames()) {
+			if (cacheManager.isRunning(cacheName) && boundCaches.add(cacheName)) {
+				Cache<?, ?> cache = cacheManager.getCache(cacheName);
+				new InfinispanCacheMetrics(cache, Tags.of("cacheManager", "api")).bindTo(registry);
+			}
+		}
+	}
+
+	private void bindSchedulerTasks() {
+		SchedulerService schedulerService = Context.getSchedulerService();
+		if (!(schedulerService instanceof ExecutorSchedulerServiceImpl)) {
+			return;
+		}
+
+		Map<Integer, TaskRunMetrics> taskRunMetrics = ((ExecutorSchedulerServiceImpl) schedulerService).getTaskRunMetrics();
+		for (Map.Entry<Integer, TaskRunMetrics> entry : taskRunMetrics.entrySet()) {
+			if (boundTasks.add(entry.getKey())) {
+				TaskDefinition task = schedulerService.getTask(entry.getKey());
+				Tags tags = Tags.of("task", task == null ? String.valueOf(entry.getKey()) : task.getName());
+				TaskRunMetrics metrics = entry.getValue();
+				FunctionTimer.builder("openmrs.scheduler.task.runs", metrics, TaskRunMetrics::getRunCount,
+				    TaskRunMetrics::getTotalDurationMillis, TimeUnit.MILLISECONDS).tags(tags).register(registry);
+				TimeGauge.builder("openmrs.scheduler.task.runs.max", metrics, TimeUnit.MILLISECONDS,
+				    TaskRunMetrics::getMaxDurationMillis).tags(tags).register(registry);
+				TimeGauge.builder("openmrs.scheduler.task.lag", metrics, TimeUnit.MILLISECONDS,
+				    TaskRunMetrics::getLastLagMillis).tags(tags).register(registry);
+				counter("openmrs.scheduler.task.misfires", metrics, TaskRunMetrics::getMisfireCount, tags);
+				counter("openmrs.scheduler.task.leases.lost", metrics, TaskRunMetrics::getLeaseLostCount, tags);
+			}
+		}
+	}
+
+	private <T> void counter(String name, T obj, ToLongFunction<T> count, Tags tags) {
+		FunctionCounter.builder(name, obj, o -> count.applyAsLong(o)).tags(tags).register(registry);
+	}
+
+	private <T> void gauge(String name, T obj, ToDoubleFunction<T> value, Tags tags) {
+		Gauge.builder(name, obj, value).tags(tags).register(registry);
+	}
+
+	private static double getPoolSize(PoolSize size) {
+		try {
+			return size.get();
+		}
+		catch (SQLException e) {
+			return Double.NaN;
+		}
+	}
+
+	@FunctionalInterface
+	private interface PoolSize {
+
+		int get() throws SQLException;
+	}
+}
@@ -0,0 +1,67 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Remembers the classes and resources which the module class loaders did not find, so that looking
+ * them up again does not search the modules again. All the misses are forgotten as soon as a module
+ * class loader is added or removed.
+ * <p>
+ * A miss is recorded with the revision of the module class loaders at the time the lookup started,
+ * so a lookup racing with a module starting or stopping does not leave a stale miss behind.
+ */
+class ClassLoaderMissCache {
+
+	private static final int MAX_SIZE = 10000;
+
+	private static final AtomicInteger revision = new AtomicInteger();
+
+	private final Map<String, Integer> misses = new ConcurrentHashMap<>();
+
+	/**
+	 * Forgets the misses of all the caches, to be called whenever a module class loader is added or
+	 * removed.
+	 */
+	static void invalidateAll() {
+		revision.incrementAndGet();
+	}
+
+	/**
+	 * @return the current revision of the module class loaders, to be passed to
+	 *         {@link #addMiss(String, int)} if the lookup started now misses
+	 */
+	static int getRevision() {
+		return revision.get();
+	}
+
+	/**
+	 * @param name the name of the class or resource
+	 * @return true if the name was not found since the module class loaders last changed
+	 */
+	boolean isMissing(String name) {
+		Integer missRevision = misses.get(name);
+		return missRevision != null && missRevision == revision.get();
+	}
+
+	/**
+	 * @param name the name of the class or resource which was not found
+	 * @param lookupRevision the revision when the lookup started
+	 */
+	void addMiss(String name, int lookupRevision) {
+		if (misses.size() >= MAX_SIZE) {
+			misses.clear();
+		}
+		misses.put(name, lookupRevision);
+	}
+}
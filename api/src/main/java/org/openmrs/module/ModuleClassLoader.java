@@ -64,6 +64,10 @@ public class ModuleClassLoader extends URLClassLoader {
 	
 	private static final Logger log = LoggerFactory.getLogger(ModuleClassLoader.class);
 	
+	static {
+		ClassLoader.registerAsParallelCapable();
+	}
+	
 	private final Module module;
 	
 	private Module[] requiredModules;
@@ -74,6 +78,11 @@ public class ModuleClassLoader extends URLClassLoader {
 	
 	private final Set<String> providedPackages = new LinkedHashSet<>();
 	
+	// whether the provided packages include the packages of all classes of this module
+	private volatile boolean providedPackagesComplete = false;
+	
+	private final ClassLoaderMissCache missingClasses = new ClassLoaderMissCache();
+	
 	private boolean disposed = false;
 	
 	private static final Map<String, File> libCacheFolders = new ConcurrentHashMap<>();
@@ -131,6 +140,7 @@ public class ModuleClassLoader extends URLClassLoader {
 			for (URL url : urls) {
 				providedPackages.addAll(ModuleUtil.getPackagesFromFile(OpenmrsUtil.url2file(url)));
 			}
+			providedPackagesComplete = true;
 		}
 	}
 	
@@ -584,6 +594,9 @@ public class ModuleClassLoader extends URLClassLoader {
 		}
 		requiredModules = collectRequiredModuleImports(getModule());
 		awareOfModules = collectAwareOfModuleImports(getModule());
+		
+		// the packages of the new urls are not known
+		providedPackagesComplete = false;
 	}
 	
 	/**
@@ -618,7 +631,7 @@ public class ModuleClassLoader extends URLClassLoader {
 		if (result == null) {
 			if (probeParentLoaderLast) {
 				try {
-					result = loadClass(name, resolve, this, null);
+					result = loadClassFromModules(name, resolve);
 				}
 				catch (ClassNotFoundException cnfe) {
 					// Continue trying...
@@ -638,7 +651,7 @@ public class ModuleClassLoader extends URLClassLoader {
 				}
 				
 				if (result == null) {
-					result = loadClass(name, resolve, this, null);
+					result = loadClassFromModules(name, resolve);
 				}
 			}
 		}
@@ -650,6 +663,25 @@ public class ModuleClassLoader extends URLClassLoader {
 		return result;
 	}
 	
+	/**
+	 * Loads the class from this module or the modules it imports, remembering the classes which
+	 * none of them has, e.g. the core and library classes which the module loads from its parent.
+	 */
+	private Class<?> loadClassFromModules(final String name, final boolean resolve) throws ClassNotFoundException {
+		if (missingClasses.isMissing(name)) {
+			throw new ClassNotFoundException(name);
+		}
+		
+		int revision = ClassLoaderMissCache.getRevision();
+		try {
+			return loadClass(name, resolve, this, null);
+		}
+		catch (ClassNotFoundException e) {
+			missingClasses.addMiss(name, revision);
+			throw e;
+		}
+	}
+	
 	/**
 	 * Custom loadClass implementation to allow for loading from a given ModuleClassLoader and skip
 	 * the modules that have been tried already
@@ -661,7 +693,7 @@ public class ModuleClassLoader extends URLClassLoader {
 	 * @return Class that has been loaded
 	 * @throws ClassNotFoundException if no class found
 	 */
-	protected synchronized Class<?> loadClass(final String name, final boolean resolve, final ModuleClassLoader requestor,
+	protected Class<?> loadClass(final String name, final boolean resolve, final ModuleClassLoader requestor,
 	        Set<String> seenModules) throws ClassNotFoundException {
 		
 		if (log.isTraceEnabled()) {
@@ -693,16 +725,24 @@ public class ModuleClassLoader extends URLClassLoader {
 			throw new ClassNotFoundException(msg);
 		}
 		
-		// Check if the class has already been loaded by this class loader
-		Class<?> result = findLoadedClass(name);
+		Class<?> result = null;
 		
-		// Try loading the class with this class loader 
-		if (result == null) {
-			try {
-				result = findClass(name);
-			}
-			catch (ClassNotFoundException e) {
-				// Continue trying...
+		// Only look in this module if it may have the class, the lock is per class and only held
+		// while this module looks for it, not while the imported modules do
+		if (mayProvidePackage(name)) {
+			synchronized (getClassLoadingLock(name)) {
+				// Check if the class has already been loaded by this class loader
+				result = findLoadedClass(name);
+				
+				// Try loading the class with this class loader 
+				if (result == null) {
+					try {
+						result = findClass(name);
+					}
+					catch (ClassNotFoundException e) {
+						// Continue trying...
+					}
+				}
 			}
 		}
 		
@@ -754,6 +794,15 @@ public class ModuleClassLoader extends URLClassLoader {
 		throw new ClassNotFoundException(name);
 	}
 	
+	/**
+	 * @param className the fully qualified name of a class
+	 * @return false if the class is not in any of the packages of this module
+	 */
+	private boolean mayProvidePackage(String className) {
+		int lastDot = className.lastIndexOf('.');
+		return !providedPackagesComplete || lastDot < 0 || providedPackages.contains(className.substring(0, lastDot));
+	}
+	
 	/**
 	 * Checking the given class's visibility in this module
 	 *
@@ -838,6 +887,30 @@ public class ModuleClassLoader extends URLClassLoader {
 		return Collections.enumeration(result);
 	}
 	
+	/**
+	 * Finds a resource in this module only, not in the modules it imports.
+	 *
+	 * @param name the path and name of the resource
+	 * @return the url of the resource, expanded if it is in a jar, or null if this module does not
+	 *         have it
+	 * @since 3.0.0
+	 */
+	public URL findResourceInModule(final String name) {
+		return expandIfNecessary(super.findResource(name));
+	}
+	
+	/**
+	 * Finds all occurrences of a resource in this module only, not in the modules it imports.
+	 *
+	 * @param name the path and name of the resource
+	 * @return the urls of the resource
+	 * @throws IOException if the module files cannot be read
+	 * @since 3.0.0
+	 */
+	public Enumeration<URL> findResourcesInModule(final String name) throws IOException {
+		return super.findResources(name);
+	}
+	
 	/**
 	 * Find a resource (image, file, etc) in the module structure
 	 *
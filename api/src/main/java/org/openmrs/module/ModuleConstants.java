@@ -62,6 +62,14 @@ public class ModuleConstants {
 	 */
 	public static final String REPOSITORY_FOLDER_RUNTIME_PROPERTY = "module.repository_folder";
 	
+	/**
+	 * Name of the runtime property with the maximum number of modules to start at the same time on
+	 * startup. Modules are started one after another if it is not set.
+	 * 
+	 * @since 3.0.0
+	 */
+	public static final String STARTUP_PARALLELISM_RUNTIME_PROPERTY = "module.startup_parallelism";
+	
 	/**
 	 * A module message.properties file containing this key mapped to "true" will be allowed to
 	 * define messages outside of the module's namespace.
@@ -27,8 +27,11 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.SortedMap;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
@@ -81,12 +84,19 @@ public class ModuleFactory {
 	
 	private static final Map<String, Set<ModuleClassLoader>> providedPackages = new ConcurrentHashMap<>();
 	
+	private static final ClassLoaderMissCache missingResources = new ClassLoaderMissCache();
+	
 	// the name of the file within a module file
 	private static final String MODULE_CHANGELOG_FILENAME = "liquibase.xml";
 	
 	private static final Cache<String, DaemonToken> daemonTokens = CacheBuilder.newBuilder().softValues().build();
 	
-	private static final Set<String> actualStartupOrder = new LinkedHashSet<>();
+	private static final Set<String> actualStartupOrder = Collections.synchronizedSet(new LinkedHashSet<>());
+	
+	private static final Map<String, Long> startupTimes = new ConcurrentHashMap<>();
+	
+	// serializes the database changes of modules starting in parallel
+	private static final Object databaseUpdateLock = new Object();
 	
 	/**
 	 * Add a module (in the form of a jar file) to the list of openmrs modules Returns null if an error
@@ -229,6 +239,23 @@ public class ModuleFactory {
 	 * Modules that are already started will be skipped.
 	 */
 	public static void startModules() {
+		startModules(1);
+	}
+	
+	/**
+	 * Try to start all of the loaded modules like {@link #startModules()}, starting up to the given
+	 * number of modules at the same time. A module starts once the modules it requires or is aware of
+	 * have started, so modules which do not depend on each other set up their classloader, parse their
+	 * configuration and check or run their database changes concurrently. The database changes
+	 * themselves are still applied one module at a time.
+	 * <p>
+	 * The time each module took to start is logged and available from {@link #getStartupTimes()}.
+	 *
+	 * @param parallelism the maximum number of modules to start at the same time, 1 to start them one
+	 *            after another
+	 * @since 3.0.0
+	 */
+	public static void startModules(int parallelism) {
 		
 		// loop over and try starting each of the loaded modules
 		if (!getLoadedModules().isEmpty()) {
@@ -245,36 +272,109 @@ public class ModuleFactory {
 				modules = (List<Module>) ex.getExtraData();
 			}
 			
+			long start = System.currentTimeMillis();
+			
 			// try and start the modules that should be started
+			if (parallelism > 1 && modules.size() > 1) {
+				startModulesInParallel(modules, parallelism);
+			} else {
+				modules.forEach(ModuleFactory::startModuleOnStartup);
+			}
+			
+			log.info("Started {} module(s) in {} ms", getStartedModules().size(), System.currentTimeMillis() - start);
+		}
+	}
+	
+	/**
+	 * Starts each module in a pool of the given size as soon as the modules it depends on are done
+	 * starting, whether they started or not. The threads of the pool are named daemon threads running
+	 * as the daemon user, so that the failures of the modules can be reported to the super users.
+	 *
+	 * @param modules the modules to start, in startup order
+	 * @param parallelism the size of the pool
+	 */
+	private static void startModulesInParallel(List<Module> modules, int parallelism) {
+		log.info("Starting {} module(s), up to {} at a time", modules.size(), parallelism);
+		
+		ExecutorService executor = Daemon.newModuleStartupExecutor(parallelism);
+		try {
+			Map<String, CompletableFuture<Void>> started = new HashMap<>();
 			for (Module mod : modules) {
-				
-				if (mod.isStarted()) {
-					// skip over modules that are already started
-					continue;
-				}
-				
-				// Skip module if required ones are not started
-				if (!requiredModulesStarted(mod)) {
-					String message = getFailedToStartModuleMessage(mod);
-					log.error(message);
-					mod.setStartupErrorMessage(message);
-					notifySuperUsersAboutModuleFailure(mod);
-					continue;
+				// modules are in startup order, so the modules this one depends on are already
+				// scheduled unless they are part of a dependency cycle
+				List<CompletableFuture<Void>> dependencies = new ArrayList<>();
+				for (String modulePackage : getDependencyPackages(mod)) {
+					CompletableFuture<Void> dependency = started.get(modulePackage);
+					if (dependency != null) {
+						dependencies.add(dependency);
+					}
 				}
 				
-				try {
-					log.debug("starting module: {}", mod.getModuleId());
-					startModule(mod);
-				}
-				catch (Exception e) {
-					log.error("Error while starting module: " + mod.getName(), e);
-					mod.setStartupErrorMessage("Error while starting module", e);
-					notifySuperUsersAboutModuleFailure(mod);
-				}
+				started.put(mod.getPackageName(), CompletableFuture.allOf(dependencies.toArray(new CompletableFuture[0]))
+					.exceptionally(e -> null).thenRunAsync(() -> startModuleOnStartup(mod), executor));
+			}
+			
+			CompletableFuture.allOf(started.values().toArray(new CompletableFuture[0])).join();
+		}
+		finally {
+			executor.shutdown();
+			try {
+				executor.awaitTermination(1, TimeUnit.MINUTES);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
 			}
 		}
 	}
 	
+	private static Set<String> getDependencyPackages(Module module) {
+		Set<String> packages = new HashSet<>(module.getRequiredModules());
+		packages.addAll(module.getAwareOfModules());
+		return packages;
+	}
+	
+	/**
+	 * Starts the given module unless it is already started or a module it requires is not.
+	 *
+	 * @param mod the module to start
+	 */
+	private static void startModuleOnStartup(Module mod) {
+		if (mod.isStarted()) {
+			// skip over modules that are already started
+			return;
+		}
+		
+		// Skip module if required ones are not started
+		if (!requiredModulesStarted(mod)) {
+			String message = getFailedToStartModuleMessage(mod);
+			log.error(message);
+			mod.setStartupErrorMessage(message);
+			notifySuperUsersAboutModuleFailure(mod);
+			return;
+		}
+		
+		try {
+			log.debug("starting module: {}", mod.getModuleId());
+			startModule(mod);
+		}
+		catch (Exception e) {
+			log.error("Error while starting module: " + mod.getName(), e);
+			mod.setStartupErrorMessage("Error while starting module", e);
+			notifySuperUsersAboutModuleFailure(mod);
+		}
+	}
+	
+	/**
+	 * Gets how long the modules took to start the last time they were started, not counting the
+	 * refresh of the application context.
+	 *
+	 * @return the startup time in milliseconds by module id
+	 * @since 3.0.0
+	 */
+	public static Map<String, Long> getStartupTimes() {
+		return Collections.unmodifiableMap(startupTimes);
+	}
+	
 	/**
 	 * Obtain the list of modules that should be started
 	 *
@@ -472,8 +572,10 @@ public class ModuleFactory {
 	public static List<Module> getStartedModulesInOrder() {
 		List<Module> modules = new ArrayList<>();
 		if (actualStartupOrder != null) {
-			for (String moduleId : actualStartupOrder) {
-				modules.add(getStartedModulesMap().get(moduleId));
+			synchronized (actualStartupOrder) {
+				for (String moduleId : actualStartupOrder) {
+					modules.add(getStartedModulesMap().get(moduleId));
+				}
 			}
 		} else {
 			modules.addAll(getStartedModules());
@@ -613,6 +715,7 @@ public class ModuleFactory {
 		
 		if (module != null) {
 			String moduleId = module.getModuleId();
+			long start = System.currentTimeMillis();
 			
 			try {
 				
@@ -659,11 +762,13 @@ public class ModuleFactory {
 					sortedModuleExtensions.sort(sortOrder);
 					
 					// Get existing extensions, and append the ones from the new module
-					List<Extension> extensions = getExtensionMap().computeIfAbsent(moduleExtensionEntry.getKey(),
-						k -> new ArrayList<>());
-					for (Extension ext : sortedModuleExtensions) {
-						log.debug("Adding to mapping ext: " + ext.getExtensionId() + " ext.class: " + ext.getClass());
-						extensions.add(ext);
+					synchronized (extensionMap) {
+						List<Extension> extensions = getExtensionMap().computeIfAbsent(moduleExtensionEntry.getKey(),
+							k -> new ArrayList<>());
+						for (Extension ext : sortedModuleExtensions) {
+							log.debug("Adding to mapping ext: " + ext.getExtensionId() + " ext.class: " + ext.getClass());
+							extensions.add(ext);
+						}
 					}
 				}
 				
@@ -685,7 +790,9 @@ public class ModuleFactory {
 						String version = entry.getKey();
 						String sql = entry.getValue();
 						if (StringUtils.hasText(sql)) {
-							runDiff(module, version, sql);
+							synchronized (databaseUpdateLock) {
+								runDiff(module, version, sql);
+							}
 						}
 					}
 				}
@@ -697,11 +804,15 @@ public class ModuleFactory {
 				// run module's optional liquibase.xml immediately after sqldiff.xml
 				if (Context.getAdministrationService().isModuleSetupOnVersionChangeNeeded(module.getModuleId())) {
 					log.info("Module {} changed, running setup.", module.getModuleId());
-					Context.getAdministrationService().runModuleSetupOnVersionChange(module);
+					synchronized (databaseUpdateLock) {
+						Context.getAdministrationService().runModuleSetupOnVersionChange(module);
+					}
 				}
 				
 				// effectively mark this module as started successfully
 				getStartedModulesMap().put(moduleId, module);
+				// the classes of this module are visible to the other modules from now on
+				ClassLoaderMissCache.invalidateAll();
 
 				actualStartupOrder.add(moduleId);
 				
@@ -728,7 +839,9 @@ public class ModuleFactory {
 				// done at initial app startup)
 				if (!module.getPrivileges().isEmpty() || !module.getGlobalProperties().isEmpty()) {
 					log.debug("Updating core dataset");
-					Context.checkCoreDataset();
+					synchronized (databaseUpdateLock) {
+						Context.checkCoreDataset();
+					}
 					// checkCoreDataset() currently doesn't throw an error. If
 					// it did, it needs to be
 					// caught and the module needs to be stopped and given a
@@ -755,6 +868,10 @@ public class ModuleFactory {
 				
 				// erase any previous startup error
 				module.clearStartupError();
+				
+				long startupTime = System.currentTimeMillis() - start;
+				startupTimes.put(moduleId, startupTime);
+				log.info("Started module {} in {} ms", moduleId, startupTime);
 			}
 			catch (Exception e) {
 				log.error("Error while trying to start module: {}", moduleId, e);
@@ -789,30 +906,31 @@ public class ModuleFactory {
 	
 	private static void registerProvidedPackages(ModuleClassLoader moduleClassLoader) {
 		for (String providedPackage : moduleClassLoader.getProvidedPackages()) {
-			Set<ModuleClassLoader> newSet = new HashSet<>();
-			
-			Set<ModuleClassLoader> set = providedPackages.get(providedPackage);
-			if (set != null) {
-				newSet.addAll(set);
-			}
-			
-			newSet.add(moduleClassLoader);
-			providedPackages.put(providedPackage, newSet);
+			providedPackages.compute(providedPackage, (k, set) -> {
+				Set<ModuleClassLoader> newSet = new HashSet<>();
+				if (set != null) {
+					newSet.addAll(set);
+				}
+				
+				newSet.add(moduleClassLoader);
+				return newSet;
+			});
 		}
+		ClassLoaderMissCache.invalidateAll();
 	}
 	
 	private static void unregisterProvidedPackages(ModuleClassLoader moduleClassLoader) {
 		for (String providedPackage : moduleClassLoader.getProvidedPackages()) {
-			Set<ModuleClassLoader> newSet = new HashSet<>();
-			
-			Set<ModuleClassLoader> set = providedPackages.get(providedPackage);
-			if (set != null) {
-				newSet.addAll(set);
-			}
-			newSet.remove(moduleClassLoader);
-			
-			providedPackages.put(providedPackage, newSet);
+			providedPackages.compute(providedPackage, (k, set) -> {
+				Set<ModuleClassLoader> newSet = new HashSet<>();
+				if (set != null) {
+					newSet.addAll(set);
+				}
+				newSet.remove(moduleClassLoader);
+				return newSet;
+			});
 		}
+		ClassLoaderMissCache.invalidateAll();
 	}
 	
 	public static Set<ModuleClassLoader> getModuleClassLoadersForPackage(String packageName) {
@@ -820,8 +938,50 @@ public class ModuleFactory {
 		if (set == null) {
 			return Collections.emptySet();
 		} else {
-			return new HashSet<>(set);
+			// the sets are replaced rather than changed, so they can be read without copying them
+			return Collections.unmodifiableSet(set);
+		}
+	}
+	
+	/**
+	 * Finds a resource in the module class loaders. The modules which provide the package matching
+	 * the folder of the resource are searched first, then the others. Resources which none of the
+	 * modules has are remembered until a module is started or stopped.
+	 *
+	 * @param name the path and name of the resource
+	 * @return the url of the resource or null if no module has it
+	 * @since 3.0.0
+	 */
+	public static URL findModuleResource(String name) {
+		if (missingResources.isMissing(name)) {
+			return null;
+		}
+		
+		int revision = ClassLoaderMissCache.getRevision();
+		Set<ModuleClassLoader> candidates = Collections.emptySet();
+		int lastSlash = name.lastIndexOf('/');
+		if (lastSlash > 0) {
+			candidates = getModuleClassLoadersForPackage(name.substring(0, lastSlash).replace('/', '.'));
+			for (ModuleClassLoader classLoader : candidates) {
+				URL result = classLoader.findResourceInModule(name);
+				if (result != null) {
+					return result;
+				}
+			}
+		}
+		
+		// the package index does not cover all resources, e.g. the ones at the root of the module
+		for (ModuleClassLoader classLoader : getModuleClassLoaders()) {
+			if (!candidates.contains(classLoader)) {
+				URL result = classLoader.findResourceInModule(name);
+				if (result != null) {
+					return result;
+				}
+			}
 		}
+		
+		missingResources.addMiss(name, revision);
+		return null;
 	}
 	
 	/**
@@ -1384,7 +1544,18 @@ public class ModuleFactory {
 		
 		return Collections.emptyList();
 	}
-	
+
+	/**
+	 * Returns a number which changes whenever a module class loader is added or removed or a module
+	 * is started, so that anything compiled from the resources of the modules can tell it is stale.
+	 *
+	 * @return the current revision of the module class loaders
+	 * @since 3.0.0
+	 */
+	public static int getModuleClassLoadersRevision() {
+		return ClassLoaderMissCache.getRevision();
+	}
+
 	/**
 	 * Return all current classloaders keyed on module object
 	 *
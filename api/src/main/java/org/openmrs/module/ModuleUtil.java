@@ -137,7 +137,7 @@ public class ModuleUtil {
 		}
 		
 		// start all of the modules we just loaded
-		ModuleFactory.startModules();
+		ModuleFactory.startModules(getStartupParallelism(props));
 		
 		// some debugging info
 		if (log.isDebugEnabled()) {
@@ -153,6 +153,29 @@ public class ModuleUtil {
 		checkMandatoryModulesStarted();
 	}
 	
+	/**
+	 * Gets the number of modules to start at the same time from the runtime properties.
+	 *
+	 * @param props Properties (OpenMRS runtime properties)
+	 * @return the value of {@link ModuleConstants#STARTUP_PARALLELISM_RUNTIME_PROPERTY}, 1 if it is
+	 *         missing or invalid
+	 */
+	private static int getStartupParallelism(Properties props) {
+		String parallelism = props.getProperty(ModuleConstants.STARTUP_PARALLELISM_RUNTIME_PROPERTY);
+		if (parallelism == null || parallelism.isBlank()) {
+			return 1;
+		}
+		
+		try {
+			return Math.max(1, Integer.parseInt(parallelism.trim()));
+		}
+		catch (NumberFormatException e) {
+			log.warn("Invalid value {} of the runtime property {}, starting the modules one after another", parallelism,
+			    ModuleConstants.STARTUP_PARALLELISM_RUNTIME_PROPERTY);
+			return 1;
+		}
+	}
+	
 	/**
 	 * Stops the module system by calling stopModule for all modules that are currently started
 	 */
@@ -9,7 +9,10 @@
  */
 package org.openmrs.obs;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 
 /**
  * ComplexObs is a transient Object that extends Obs but is not itself persisted in the database. It
@@ -33,6 +36,8 @@ public class ComplexData implements java.io.Serializable {
 	
 	private Long length;
 	
+	private long offset;
+	
 	/**
 	 * Default constructor requires title and data.
 	 * 
@@ -121,4 +126,51 @@ public class ComplexData implements java.io.Serializable {
 		return this.length;
 	}
 	
+	/**
+	 * Set the position of the first byte of the data within the stored complex data
+	 * 
+	 * @param offset
+	 * @since 3.0.0
+	 */
+	public void setOffset(long offset) {
+		this.offset = offset;
+	}
+	
+	/**
+	 * Get the position of the first byte of the data within the stored complex data, which is not 0
+	 * if the data is a range of it. The length is always the length of the whole stored data.
+	 * 
+	 * @return data offset
+	 * @since 3.0.0
+	 */
+	public long getOffset() {
+		return this.offset;
+	}
+	
+	/**
+	 * Get the data as a stream without copying it. The caller is responsible for closing it.
+	 * 
+	 * @return the data as an <code>InputStream</code> or null if the data is not binary
+	 * @since 3.0.0
+	 */
+	public InputStream getInputStream() {
+		if (data instanceof InputStream) {
+			return (InputStream) data;
+		} else if (data instanceof byte[]) {
+			return new ByteArrayInputStream((byte[]) data);
+		}
+		return null;
+	}
+	
+	/**
+	 * Get the data as a channel without copying it. The caller is responsible for closing it.
+	 * 
+	 * @return the data as a <code>ReadableByteChannel</code> or null if the data is not binary
+	 * @since 3.0.0
+	 */
+	public ReadableByteChannel getChannel() {
+		InputStream in = getInputStream();
+		return in != null ? Channels.newChannel(in) : null;
+	}
+	
 }
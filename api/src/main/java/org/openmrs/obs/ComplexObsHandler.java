@@ -9,6 +9,11 @@
  */
 package org.openmrs.obs;
 
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.google.common.io.ByteStreams;
+import org.apache.commons.io.IOUtils;
 import org.openmrs.Obs;
 import org.openmrs.api.APIException;
 
@@ -44,6 +49,19 @@ public interface ComplexObsHandler {
 	
 	public static final String URI_VIEW = "URI_VIEW";
 	
+	/**
+	 * The raw data as an {@link java.io.InputStream} read from the storage as it is consumed, which
+	 * the caller must close.
+	 * 
+	 * @since 3.0.0
+	 */
+	public static final String STREAM_VIEW = "STREAM_VIEW";
+	
+	/**
+	 * @since 3.0.0
+	 */
+	public static final String THUMBNAIL_VIEW = "THUMBNAIL_VIEW";
+	
 	/**
 	 * Save a complex obs. This extracts the ComplexData from an Obs, stores it to a location
 	 * determined by the handler, and returns the Obs with the ComplexData nullified.
@@ -67,6 +85,49 @@ public interface ComplexObsHandler {
 	 */
 	public Obs getObs(Obs obs, String view);
 	
+	/**
+	 * Fetches a range of the raw ComplexData as a stream read from the storage as it is consumed, so
+	 * that large data can be served in parts, e.g. for HTTP range requests, without being loaded on
+	 * the heap. <br>
+	 * The data of the returned ComplexData is an {@link java.io.InputStream} which the caller must
+	 * close, its offset is the given offset and its length the length of the whole stored data.
+	 * 
+	 * The default implementation skips to the offset of the data of the {@link #STREAM_VIEW}, handlers
+	 * which can seek in their storage should override it.
+	 * 
+	 * @param obs a complex obs
+	 * @param offset position of the first byte to read
+	 * @param length maximum number of bytes to read or null to read up to the end
+	 * @return the range of the complex data
+	 * @throws APIException if the handler doesn't support the {@link #STREAM_VIEW}, if the data
+	 *             cannot be read or if the offset is past its end
+	 * @since 3.0.0
+	 */
+	public default ComplexData getComplexDataRange(Obs obs, long offset, Long length) throws APIException {
+		if (!supportsView(STREAM_VIEW)) {
+			throw new APIException("Obs.error.range.not.supported", new Object[] { getClass().getSimpleName(),
+			        obs.getObsId() });
+		}
+		ComplexData complexData = getObs(obs, STREAM_VIEW).getComplexData();
+		InputStream in = complexData == null ? null : complexData.getInputStream();
+		if (in == null) {
+			throw new APIException("Obs.error.while.trying.get.binary.complex", (Object[]) null);
+		}
+		try {
+			ByteStreams.skipFully(in, offset);
+		}
+		catch (IOException e) {
+			IOUtils.closeQuietly(in);
+			throw new APIException("Obs.error.while.trying.get.binary.complex", null, e);
+		}
+		
+		ComplexData range = new ComplexData(complexData.getTitle(), length == null ? in : ByteStreams.limit(in, length));
+		range.setMimeType(complexData.getMimeType());
+		range.setLength(complexData.getLength());
+		range.setOffset(offset);
+		return range;
+	}
+	
 	/**
 	 * Completely removes the ComplexData Object from its storage location. <br>
 	 * <br>
@@ -77,6 +138,16 @@ public interface ComplexObsHandler {
 	 */
 	public boolean purgeComplexData(Obs obs);
 	
+	/**
+	 * Removes data derived from the ComplexData, e.g. image previews, which should not be kept once
+	 * the obs is voided. The ComplexData itself is kept.
+	 * 
+	 * @param obs a complex obs
+	 * @since 3.0.0
+	 */
+	public default void purgeDerivedData(Obs obs) {
+	}
+	
 	/**
 	 * Supported views getter
 	 * 
@@ -80,16 +80,65 @@ public class AbstractHandler {
 		return obs;
 	}
 
+	/**
+	 * @see org.openmrs.obs.ComplexObsHandler#getComplexDataRange(Obs, long, Long)
+	 * @since 3.0.0
+	 */
+	public ComplexData getComplexDataRange(Obs obs, long offset, Long length) {
+		return getComplexDataRange(obs, parseDataTitle(obs), offset, length);
+	}
+	
+	/**
+	 * Opens a stream over a range of the stored data without reading it.
+	 * 
+	 * @param obs complex obs
+	 * @param title the title of the returned complex data
+	 * @param offset position of the first byte to read
+	 * @param length maximum number of bytes to read or null to read up to the end
+	 * @return the range of the complex data
+	 * @since 3.0.0
+	 */
+	protected ComplexData getComplexDataRange(Obs obs, String title, long offset, Long length) {
+		String key = parseDataKey(obs);
+		try {
+			ObjectMetadata metadata = storageService.getMetadata(key);
+			ComplexData complexData = new ComplexData(title, storageService.getData(key, offset, length));
+			complexData.setMimeType(metadata.getMimeType());
+			complexData.setLength(metadata.getLength());
+			complexData.setOffset(offset);
+			return complexData;
+		}
+		catch (IOException e) {
+			throw new APIException("Obs.error.while.trying.get.binary.complex", null, e);
+		}
+	}
+
 	/**
 	 * @see org.openmrs.obs.ComplexObsHandler#saveObs(Obs) 
 	 */
 	public Obs saveObs(Obs obs) throws APIException {
+		Object data = obs.getComplexData().getData();
+		if (!(data instanceof byte[]) && !(data instanceof InputStream)) {
+			throw new APIException("Obs.error.unsupported.complex.data.type", new Object[] {
+			        data == null ? null : data.getClass().getName(), getClass().getSimpleName() });
+		}
+		
 		try {
-			byte[] data = (byte[]) obs.getComplexData().getData();
+			ObjectMetadata metadata = new ObjectMetadata();
+			if (data instanceof byte[]) {
+				metadata.setLength((long) ((byte[]) data).length);
+			}
 			
 			String key = storageService.saveData(outputStream -> {
-				IOUtils.write( data, outputStream);
-			}, ObjectMetadata.builder().setLength((long) data.length).build(), getObsDir());
+				if (data instanceof byte[]) {
+					IOUtils.write((byte[]) data, outputStream);
+				} else {
+					// copied through the storage pipe so that large data is never held on the heap
+					try (InputStream in = (InputStream) data) {
+						IOUtils.copy(in, outputStream);
+					}
+				}
+			}, metadata, getObsDir());
 			// Store the filename in the Obs
 			obs.setValueComplex(StringUtils.defaultIfBlank(obs.getComplexData().getTitle(), key) + "|" + key);
 			obs.setComplexData(null);
@@ -35,7 +35,7 @@ import org.springframework.util.Assert;
 public class BinaryDataHandler extends AbstractHandler implements ComplexObsHandler {
 	
 	/** Views supported by this handler */
-	private static final String[] supportedViews = { ComplexObsHandler.RAW_VIEW, };
+	private static final String[] supportedViews = { ComplexObsHandler.RAW_VIEW, ComplexObsHandler.STREAM_VIEW };
 	
 	private static final Logger log = LoggerFactory.getLogger(BinaryDataHandler.class);
 	
@@ -48,7 +48,8 @@ public class BinaryDataHandler extends AbstractHandler implements ComplexObsHand
 	}
 	
 	/**
-	 * Currently supports the following views: org.openmrs.obs.ComplexObsHandler#RAW_VIEW
+	 * Currently supports the following views: org.openmrs.obs.ComplexObsHandler#RAW_VIEW and
+	 * org.openmrs.obs.ComplexObsHandler#STREAM_VIEW
 	 * 
 	 * @see org.openmrs.obs.ComplexObsHandler#getObs(org.openmrs.Obs, java.lang.String)
 	 */
@@ -68,6 +69,9 @@ public class BinaryDataHandler extends AbstractHandler implements ComplexObsHand
 			catch (IOException e) {
 				log.error("Trying to read file: {}", key, e);
 			}
+		} else if (ComplexObsHandler.STREAM_VIEW.equals(view)) {
+			obs.setComplexData(getComplexDataRange(obs, 0, null));
+			return obs;
 		} else {
 			// No other view supported
 			// NOTE: if adding support for another view, don't forget to update supportedViews list above
@@ -82,6 +86,14 @@ public class BinaryDataHandler extends AbstractHandler implements ComplexObsHand
 		return obs;
 	}
 	
+	/**
+	 * @see org.openmrs.obs.ComplexObsHandler#getComplexDataRange(Obs, long, Long)
+	 */
+	@Override
+	public ComplexData getComplexDataRange(Obs obs, long offset, Long length) {
+		return getComplexDataRange(obs, parseFilename(obs, "file"), offset, length);
+	}
+	
 	/**
 	 * @see org.openmrs.obs.ComplexObsHandler#getSupportedViews()
 	 */
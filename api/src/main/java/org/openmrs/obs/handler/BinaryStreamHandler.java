@@ -34,7 +34,7 @@ import org.springframework.util.Assert;
 public class BinaryStreamHandler extends AbstractHandler implements ComplexObsHandler {
 	
 	/** Views supported by this handler */
-	private static final String[] supportedViews = { ComplexObsHandler.RAW_VIEW, };
+	private static final String[] supportedViews = { ComplexObsHandler.RAW_VIEW, ComplexObsHandler.STREAM_VIEW };
 	
 	private static final Logger log = LoggerFactory.getLogger(BinaryStreamHandler.class);
 	
@@ -77,6 +77,9 @@ public class BinaryStreamHandler extends AbstractHandler implements ComplexObsHa
 			catch (Exception e) {
 				throw new APIException("Obs.error.while.trying.get.binary.complex", null, e);
 			}
+		} else if (ComplexObsHandler.STREAM_VIEW.equals(view)) {
+			obs.setComplexData(getComplexDataRange(obs, 0, null));
+			return obs;
 		} else {
 			// No other view supported
 			// NOTE: if adding support for another view, don't forget to update supportedViews list above
@@ -91,6 +94,14 @@ public class BinaryStreamHandler extends AbstractHandler implements ComplexObsHa
 		return obs;
 	}
 
+	/**
+	 * @see org.openmrs.obs.ComplexObsHandler#getComplexDataRange(Obs, long, Long)
+	 */
+	@Override
+	public ComplexData getComplexDataRange(Obs obs, long offset, Long length) {
+		return getComplexDataRange(obs, parseFilename(obs, ""), offset, length);
+	}
+	
 	/**
 	 * @see org.openmrs.obs.ComplexObsHandler#getSupportedViews()
 	 */
@@ -12,16 +12,30 @@ package org.openmrs.obs.handler;
 import javax.imageio.ImageIO;
 import javax.imageio.ImageReadParam;
 import javax.imageio.ImageReader;
+import javax.imageio.spi.ImageReaderSpi;
 import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import jakarta.annotation.PreDestroy;
 
 import org.apache.commons.io.FilenameUtils;
 import org.openmrs.Obs;
@@ -29,15 +43,29 @@ import org.openmrs.api.APIException;
 import org.openmrs.api.storage.ObjectMetadata;
 import org.openmrs.obs.ComplexData;
 import org.openmrs.obs.ComplexObsHandler;
+import org.openmrs.util.OpenmrsConstants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * Handler for storing basic images for complex obs to the file system. The image mime type used is
  * taken from the image name. if the .* image name suffix matches
  * {@link javax.imageio.ImageIO#getWriterFormatNames()} then that mime type will be used to save the
  * image. Images are stored in the location specified by the global property: "obs.complex_obs_dir"
+ * <p>
+ * An image which is already in the format of its name is stored as it was given, without being
+ * decoded and encoded again, so its metadata such as the EXIF tags of a photo, e.g. the location it
+ * was taken at and the device, is stored with it. Only images converted to the format of their name
+ * lose their metadata.
+ * <p>
+ * Thumbnails and previews of the images are generated in the background once and stored next to
+ * them, their sizes are set by the global properties "obs.complex_obs_thumbnail_size" and
+ * "obs.complex_obs_preview_size". Until a thumbnail or preview is generated the original image is
+ * returned instead. They are not generated for voided obs, nor for a saved image before its
+ * transaction commits.
  * 
  * @see org.openmrs.util.OpenmrsConstants#GLOBAL_PROPERTY_COMPLEX_OBS_DIR
  * @since 1.5
@@ -46,12 +74,29 @@ import org.springframework.stereotype.Component;
 public class ImageHandler extends AbstractHandler implements ComplexObsHandler {
 	
 	/** Views supported by this handler */
-	private static final String[] supportedViews = { ComplexObsHandler.RAW_VIEW };
+	private static final String[] supportedViews = { ComplexObsHandler.RAW_VIEW, ComplexObsHandler.STREAM_VIEW,
+	        ComplexObsHandler.THUMBNAIL_VIEW, ComplexObsHandler.PREVIEW_VIEW };
+	
+	/** Storage key prefix of the thumbnails and previews, followed by the key of their image */
+	public static final String DERIVATIVES_KEY_PREFIX = "image-derivatives/";
+	
+	private static final int DEFAULT_THUMBNAIL_SIZE = 128;
+	
+	private static final int DEFAULT_PREVIEW_SIZE = 1024;
+	
+	private static final int DERIVATIVE_THREADS = 2;
+	
+	private static final int MAX_QUEUED_DERIVATIVES = 100;
 	
 	private static final Logger log = LoggerFactory.getLogger(ImageHandler.class);
 	
 	private Set<String> extensions;
 	
+	/** Keys of the derivatives being generated so that concurrent requests generate them once */
+	private final Set<String> pendingDerivatives = ConcurrentHashMap.newKeySet();
+	
+	private final ThreadPoolExecutor derivativeExecutor;
+	
 	/**
 	 * Constructor initializes formats for alternative file names to protect from unintentionally
 	 * overwriting existing files.
@@ -62,6 +107,55 @@ public class ImageHandler extends AbstractHandler implements ComplexObsHandler {
 		// Create a HashSet to quickly check for supported extensions.
 		extensions = new HashSet<>();
 		Collections.addAll(extensions, ImageIO.getWriterFormatNames());
+		
+		// derivatives which do not fit in the queue are generated when they are requested again
+		derivativeExecutor = new ThreadPoolExecutor(DERIVATIVE_THREADS, DERIVATIVE_THREADS, 1, TimeUnit.MINUTES,
+		        new ArrayBlockingQueue<>(MAX_QUEUED_DERIVATIVES), runnable -> {
+			        Thread thread = new Thread(runnable, "OpenMRS Image Derivatives");
+			        thread.setDaemon(true);
+			        return thread;
+		        });
+		derivativeExecutor.allowCoreThreadTimeOut(true);
+	}
+	
+	/**
+	 * Stops the generation of derivatives when the application context is closed or refreshed, e.g.
+	 * when modules are reloaded, so that the threads of the previous handler do not outlive it.
+	 */
+	@PreDestroy
+	public void shutdown() {
+		derivativeExecutor.shutdownNow();
+		pendingDerivatives.clear();
+		derivativesGenerated();
+	}
+	
+	/**
+	 * Waits until the thumbnails and previews queued so far are generated.
+	 * 
+	 * @param timeout the maximum time to wait
+	 * @param unit the unit of the timeout
+	 * @return true if they are generated, false if the timeout elapsed before
+	 * @throws InterruptedException if interrupted while waiting
+	 * @since 3.0.0
+	 */
+	public boolean awaitDerivatives(long timeout, TimeUnit unit) throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		synchronized (pendingDerivatives) {
+			while (!pendingDerivatives.isEmpty()) {
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) {
+					return false;
+				}
+				TimeUnit.NANOSECONDS.timedWait(pendingDerivatives, remaining);
+			}
+		}
+		return true;
+	}
+	
+	private void derivativesGenerated() {
+		synchronized (pendingDerivatives) {
+			pendingDerivatives.notifyAll();
+		}
 	}
 	
 	/**
@@ -112,6 +206,11 @@ public class ImageHandler extends AbstractHandler implements ComplexObsHandler {
 			complexData.setLength(null); // Reset as loaded image size is not equal to file size
 			
 			obs.setComplexData(complexData);
+		} else if (ComplexObsHandler.STREAM_VIEW.equals(view)) {
+			// the encoded image as stored, without decoding it
+			obs.setComplexData(getComplexDataRange(obs, 0, null));
+		} else if (ComplexObsHandler.THUMBNAIL_VIEW.equals(view) || ComplexObsHandler.PREVIEW_VIEW.equals(view)) {
+			obs.setComplexData(getDerivative(obs, key, getDerivativeSize(view)));
 		} else {
 			// No other view supported
 			// NOTE: if adding support for another view, don't forget to update supportedViews list above
@@ -121,6 +220,14 @@ public class ImageHandler extends AbstractHandler implements ComplexObsHandler {
 		return obs;
 	}
 	
+	/**
+	 * @see org.openmrs.obs.ComplexObsHandler#getComplexDataRange(Obs, long, Long)
+	 */
+	@Override
+	public ComplexData getComplexDataRange(Obs obs, long offset, Long length) {
+		return getComplexDataRange(obs, parseFilename(obs, "image"), offset, length);
+	}
+	
 	/**
 	 * @see org.openmrs.obs.ComplexObsHandler#getSupportedViews()
 	 */
@@ -150,7 +257,23 @@ public class ImageHandler extends AbstractHandler implements ComplexObsHandler {
 				
 				BufferedImage img = null;
 				if (in != null) {
-					img = ImageIO.read(in);
+					// the image input stream caches what is read, so it can be read again from the start
+					// after the format was detected however long the header is
+					try (ImageInputStream imageIn = ImageIO.createImageInputStream(in)) {
+						if (imageIn == null) {
+							throw new APIException("Obs.error.cannot.save.complex", new Object[] { obs.getObsId() });
+						}
+						boolean encodedAsExtension = isEncodedAs(imageIn, extension);
+						imageIn.seek(0);
+						if (encodedAsExtension) {
+							// already in the format of its name, so it is copied as is instead of being decoded
+							// on the heap, which also keeps its metadata
+							copy(imageIn, out);
+							out.flush();
+							return;
+						}
+						img = read(imageIn);
+					}
 				} else if (data instanceof BufferedImage) {
 					img = (BufferedImage) data;
 				}
@@ -164,6 +287,8 @@ public class ImageHandler extends AbstractHandler implements ComplexObsHandler {
 
 			// Set the Title and URI for the valueComplex
 			obs.setValueComplex(filename + " image |" + assignedKey);
+			
+			generateDerivativesAfterCommit(assignedKey);
 
 			// Remove the ComlexData from the Obs
 			obs.setComplexData(null);
@@ -174,4 +299,227 @@ public class ImageHandler extends AbstractHandler implements ComplexObsHandler {
 		return obs;
 	}
 	
+	/**
+	 * Also purges the thumbnails and previews of the image.
+	 * 
+	 * @see org.openmrs.obs.ComplexObsHandler#purgeComplexData(Obs)
+	 */
+	@Override
+	public boolean purgeComplexData(Obs obs) {
+		purgeDerivedData(obs);
+		return super.purgeComplexData(obs);
+	}
+	
+	/**
+	 * Purges the thumbnails and previews of the image.
+	 * 
+	 * @see org.openmrs.obs.ComplexObsHandler#purgeDerivedData(Obs)
+	 */
+	@Override
+	public void purgeDerivedData(Obs obs) {
+		String key = parseDataKey(obs);
+		try (Stream<String> derivativeKeys = storageService.getKeys(null, DERIVATIVES_KEY_PREFIX + key + "/")) {
+			for (String derivativeKey : (Iterable<String>) derivativeKeys::iterator) {
+				storageService.purgeData(derivativeKey);
+			}
+		}
+		catch (IOException e) {
+			log.warn("Could not delete the thumbnails and previews of the image located at {}", key, e);
+		}
+	}
+	
+	private int getDerivativeSize(String view) {
+		if (ComplexObsHandler.THUMBNAIL_VIEW.equals(view)) {
+			return adminService.getGlobalPropertyValue(OpenmrsConstants.GLOBAL_PROPERTY_COMPLEX_OBS_THUMBNAIL_SIZE,
+			    DEFAULT_THUMBNAIL_SIZE);
+		}
+		return adminService.getGlobalPropertyValue(OpenmrsConstants.GLOBAL_PROPERTY_COMPLEX_OBS_PREVIEW_SIZE,
+		    DEFAULT_PREVIEW_SIZE);
+	}
+	
+	/**
+	 * @param key the key of the image
+	 * @param size the maximum width and height of the derivative
+	 * @return the key of the derivative, in the format of the image if it can be written
+	 */
+	private String getDerivativeKey(String key, int size) {
+		String extension = FilenameUtils.getExtension(key).toLowerCase();
+		return DERIVATIVES_KEY_PREFIX + key + "/" + size + "." + (extensions.contains(extension) ? extension : "png");
+	}
+	
+	/**
+	 * Returns the stored derivative of the image, or the image while the derivative is generated.
+	 */
+	private ComplexData getDerivative(Obs obs, String key, int size) {
+		String derivativeKey = getDerivativeKey(key, size);
+		if (storageService.exists(derivativeKey)) {
+			try {
+				ObjectMetadata metadata = storageService.getMetadata(derivativeKey);
+				ComplexData complexData = new ComplexData(parseFilename(obs, "image"),
+				        storageService.getData(derivativeKey));
+				complexData.setMimeType(metadata.getMimeType());
+				complexData.setLength(metadata.getLength());
+				return complexData;
+			}
+			catch (IOException e) {
+				log.warn("Could not read the derivative {} of the image, returning the image", derivativeKey, e);
+			}
+		} else if (!obs.getVoided()) {
+			generateDerivative(key, size);
+		}
+		return getComplexDataRange(obs, 0, null);
+	}
+	
+	/**
+	 * Queues the generation of the thumbnail and preview of a saved image once its transaction
+	 * commits, so that none are generated for an image whose obs is rolled back.
+	 */
+	private void generateDerivativesAfterCommit(String key) {
+		int thumbnailSize = getDerivativeSize(ComplexObsHandler.THUMBNAIL_VIEW);
+		int previewSize = getDerivativeSize(ComplexObsHandler.PREVIEW_VIEW);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				
+				@Override
+				public void afterCommit() {
+					generateDerivative(key, thumbnailSize);
+					generateDerivative(key, previewSize);
+				}
+			});
+		} else {
+			generateDerivative(key, thumbnailSize);
+			generateDerivative(key, previewSize);
+		}
+	}
+	
+	/**
+	 * Queues the generation of a derivative of the image unless it is already queued or the queue
+	 * is full.
+	 */
+	private void generateDerivative(String key, int size) {
+		String derivativeKey = getDerivativeKey(key, size);
+		if (!pendingDerivatives.add(derivativeKey)) {
+			return;
+		}
+		try {
+			derivativeExecutor.execute(() -> {
+				try {
+					if (!storageService.exists(derivativeKey)) {
+						writeDerivative(key, derivativeKey, size);
+					}
+				}
+				catch (Exception e) {
+					log.warn("Could not generate the derivative {} of the image", derivativeKey, e);
+				}
+				finally {
+					pendingDerivatives.remove(derivativeKey);
+					derivativesGenerated();
+				}
+			});
+		}
+		catch (RejectedExecutionException e) {
+			pendingDerivatives.remove(derivativeKey);
+			derivativesGenerated();
+			log.debug("Too many image derivatives are queued, skipping {}", derivativeKey);
+		}
+	}
+	
+	private void writeDerivative(String key, String derivativeKey, int size) throws IOException {
+		BufferedImage img;
+		try (InputStream in = storageService.getData(key); ImageInputStream imageIn = ImageIO.createImageInputStream(in)) {
+			Iterator<ImageReader> imageReaders = ImageIO.getImageReaders(imageIn);
+			if (!imageReaders.hasNext()) {
+				return;
+			}
+			ImageReader imgReader = imageReaders.next();
+			try {
+				imgReader.setInput(imageIn, true, true);
+				// only every n-th pixel is decoded so a large image is never fully loaded for a small derivative
+				int subsampling = Math.max(1, Math.max(imgReader.getWidth(0), imgReader.getHeight(0)) / (size * 2));
+				ImageReadParam param = imgReader.getDefaultReadParam();
+				param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+				img = imgReader.read(0, param);
+			}
+			finally {
+				imgReader.dispose();
+			}
+		}
+		
+		BufferedImage derivative = scale(img, size);
+		String format = FilenameUtils.getExtension(derivativeKey);
+		try {
+			storageService.saveData(out -> {
+				if (!ImageIO.write(derivative, format, out)) {
+					throw new IOException("No image writer for " + format);
+				}
+				out.flush();
+			}, null, null, derivativeKey);
+		}
+		catch (FileAlreadyExistsException e) {
+			// generated concurrently on another node
+		}
+	}
+	
+	private BufferedImage scale(BufferedImage img, int size) {
+		double ratio = Math.min(1.0, (double) size / Math.max(img.getWidth(), img.getHeight()));
+		int width = Math.max(1, (int) Math.round(img.getWidth() * ratio));
+		int height = Math.max(1, (int) Math.round(img.getHeight() * ratio));
+		BufferedImage scaled = new BufferedImage(width, height,
+		        img.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = scaled.createGraphics();
+		try {
+			graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			graphics.drawImage(img, 0, 0, width, height, null);
+		}
+		finally {
+			graphics.dispose();
+		}
+		return scaled;
+	}
+	
+	/**
+	 * Detects the format of an image from its first bytes.
+	 * 
+	 * @param imageIn the image data, it may be read ahead
+	 * @param extension the file extension
+	 * @return true if the image is in a format using the given file extension
+	 */
+	private boolean isEncodedAs(ImageInputStream imageIn, String extension) {
+		Iterator<ImageReader> imageReaders = ImageIO.getImageReaders(imageIn);
+		if (!imageReaders.hasNext()) {
+			return false;
+		}
+		ImageReaderSpi provider = imageReaders.next().getOriginatingProvider();
+		return provider != null && provider.getFileSuffixes() != null
+		        && Arrays.stream(provider.getFileSuffixes()).anyMatch(extension::equalsIgnoreCase);
+	}
+	
+	/**
+	 * Decodes an image without closing the given stream.
+	 * 
+	 * @return the image or null if no reader can decode it
+	 */
+	private BufferedImage read(ImageInputStream imageIn) throws IOException {
+		Iterator<ImageReader> imageReaders = ImageIO.getImageReaders(imageIn);
+		if (!imageReaders.hasNext()) {
+			return null;
+		}
+		ImageReader imgReader = imageReaders.next();
+		try {
+			imgReader.setInput(imageIn, true, true);
+			return imgReader.read(0, imgReader.getDefaultReadParam());
+		}
+		finally {
+			imgReader.dispose();
+		}
+	}
+	
+	private void copy(ImageInputStream imageIn, OutputStream out) throws IOException {
+		byte[] buffer = new byte[8192];
+		int read;
+		while ((read = imageIn.read(buffer)) != -1) {
+			out.write(buffer, 0, read);
+		}
+	}
+	
 }
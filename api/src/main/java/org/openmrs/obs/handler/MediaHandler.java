@@ -35,7 +35,7 @@ import org.springframework.stereotype.Component;
 public class MediaHandler extends AbstractHandler implements ComplexObsHandler {
 	
 	/** Views supported by this handler */
-	private static final String[] supportedViews = { ComplexObsHandler.RAW_VIEW, };
+	private static final String[] supportedViews = { ComplexObsHandler.RAW_VIEW, ComplexObsHandler.STREAM_VIEW };
 	
 	private static final Logger log = LoggerFactory.getLogger(MediaHandler.class);
 
@@ -71,6 +71,8 @@ public class MediaHandler extends AbstractHandler implements ComplexObsHandler {
 			catch (IOException e) {
 				log.error("Trying to create media file stream from {}", key, e);
 			}
+		} else if (ComplexObsHandler.STREAM_VIEW.equals(view)) {
+			obs.setComplexData(getComplexDataRange(obs, 0, null));
 		}
 		// No other view supported
 		// NOTE: if adding support for another view, don't forget to update supportedViews list above
@@ -81,6 +83,17 @@ public class MediaHandler extends AbstractHandler implements ComplexObsHandler {
 		return obs;
 	}
 	
+	/**
+	 * @see org.openmrs.obs.ComplexObsHandler#getComplexDataRange(Obs, long, Long)
+	 */
+	@Override
+	public ComplexData getComplexDataRange(Obs obs, long offset, Long length) {
+		String filename = parseFilename(obs, "");
+		ComplexData complexData = getComplexDataRange(obs, filename, offset, length);
+		complexData.setMimeType(mimetypes.getContentType(filename));
+		return complexData;
+	}
+	
 	/**
 	 * @see org.openmrs.obs.ComplexObsHandler#getSupportedViews()
 	 */
@@ -41,7 +41,7 @@ public class TextHandler extends AbstractHandler implements ComplexObsHandler {
 	
 	/** Views supported by this handler */
 	private static final String[] supportedViews = { ComplexObsHandler.TEXT_VIEW, ComplexObsHandler.RAW_VIEW,
-	        ComplexObsHandler.URI_VIEW };
+	        ComplexObsHandler.URI_VIEW, ComplexObsHandler.STREAM_VIEW };
 	
 	private static final Logger log = LoggerFactory.getLogger(TextHandler.class);
 	
@@ -79,6 +79,9 @@ public class TextHandler extends AbstractHandler implements ComplexObsHandler {
 			}
 		} else if (ComplexObsHandler.URI_VIEW.equals(view)) {
 			complexData = new ComplexData(parseDataTitle(obs), key);
+		} else if (ComplexObsHandler.STREAM_VIEW.equals(view)) {
+			obs.setComplexData(getComplexDataRange(obs, 0, null));
+			return obs;
 		} else {
 			// No other view supported
 			// NOTE: if adding support for another view, don't forget to update supportedViews list above
@@ -102,6 +105,19 @@ public class TextHandler extends AbstractHandler implements ComplexObsHandler {
 		return obs;
 	}
 	
+	/**
+	 * @see org.openmrs.obs.ComplexObsHandler#getComplexDataRange(Obs, long, Long)
+	 */
+	@Override
+	public ComplexData getComplexDataRange(Obs obs, long offset, Long length) {
+		ComplexData complexData = getComplexDataRange(obs, parseFilename(obs, "file"), offset, length);
+		String mimeType = complexData.getMimeType();
+		if (mimeType == null || mimeType.equals("application/octet-stream")) {
+			complexData.setMimeType("text/plain");
+		}
+		return complexData;
+	}
+	
 	/**
 	 * @see org.openmrs.obs.ComplexObsHandler#getSupportedViews()
 	 */
@@ -0,0 +1,109 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.order;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openmrs.api.OrderContext;
+import org.openmrs.api.OrderNumberGenerator;
+import org.openmrs.api.context.Context;
+import org.openmrs.util.OpenmrsConstants;
+import org.openmrs.util.PrivilegeConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * An {@link OrderNumberGenerator} which reserves blocks of order number seeds and hands them out
+ * from memory, so that the global property holding the next seed is only locked once per block
+ * instead of once per order. Each node of a cluster reserves its own blocks, hence order numbers
+ * are unique but not in the order the orders were placed, and the unused numbers of a block are
+ * skipped when the application is restarted.
+ * <p>
+ * It is enabled by setting the {@link OpenmrsConstants#GP_ORDER_NUMBER_GENERATOR_BEAN_ID} global
+ * property to {@value #BEAN_ID}, the size of the blocks is set by the
+ * {@link OpenmrsConstants#GP_ORDER_NUMBER_BLOCK_SIZE} global property.
+ * 
+ * @since 3.0.0
+ */
+@Component(BlockOrderNumberGenerator.BEAN_ID)
+public class BlockOrderNumberGenerator implements OrderNumberGenerator {
+	
+	private static final Logger log = LoggerFactory.getLogger(BlockOrderNumberGenerator.class);
+	
+	public static final String BEAN_ID = "blockOrderNumberGenerator";
+	
+	public static final String ORDER_NUMBER_PREFIX = "ORD-";
+	
+	public static final int DEFAULT_BLOCK_SIZE = 100;
+	
+	private volatile Block block = new Block(0, 0);
+	
+	/**
+	 * @see org.openmrs.api.OrderNumberGenerator#getNewOrderNumber(org.openmrs.api.OrderContext)
+	 */
+	@Override
+	public String getNewOrderNumber(OrderContext orderContext) {
+		while (true) {
+			Block current = block;
+			long seed = current.next.getAndIncrement();
+			if (seed < current.end) {
+				return ORDER_NUMBER_PREFIX + seed;
+			}
+			
+			synchronized (this) {
+				if (block == current) {
+					block = reserveBlock();
+				}
+			}
+		}
+	}
+	
+	private Block reserveBlock() {
+		int blockSize = getBlockSize();
+		long first = Context.getOrderService().getNextOrderNumberSeedSequenceValues(blockSize);
+		log.debug("Reserved order number seeds {} to {}", first, first + blockSize - 1);
+		return new Block(first, first + blockSize);
+	}
+	
+	private int getBlockSize() {
+		Integer blockSize;
+		try {
+			Context.addProxyPrivilege(PrivilegeConstants.GET_GLOBAL_PROPERTIES);
+			blockSize = Context.getAdministrationService().getGlobalPropertyValue(
+			    OpenmrsConstants.GP_ORDER_NUMBER_BLOCK_SIZE, DEFAULT_BLOCK_SIZE);
+		}
+		finally {
+			Context.removeProxyPrivilege(PrivilegeConstants.GET_GLOBAL_PROPERTIES);
+		}
+		
+		if (blockSize < 1) {
+			log.warn("Invalid value for the {} global property, using {}", OpenmrsConstants.GP_ORDER_NUMBER_BLOCK_SIZE,
+			    DEFAULT_BLOCK_SIZE);
+			return DEFAULT_BLOCK_SIZE;
+		}
+		return blockSize;
+	}
+	
+	/**
+	 * A range of reserved seeds from next (inclusive) to end (exclusive)
+	 */
+	private static class Block {
+		
+		private final AtomicLong next;
+		
+		private final long end;
+		
+		Block(long first, long end) {
+			this.next = new AtomicLong(first);
+			this.end = end;
+		}
+	}
+}
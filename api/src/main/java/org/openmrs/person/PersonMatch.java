@@ -0,0 +1,54 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.person;
+
+import org.openmrs.Person;
+
+/**
+ * Two people who might be the same person, with the score of how similar they are.
+ *
+ * @see PersonMatchProfile#score(PersonMatchProfile)
+ * @since 3.0.0
+ */
+public class PersonMatch {
+
+	private final Person person;
+
+	private final Person match;
+
+	private final double score;
+
+	public PersonMatch(Person person, Person match, double score) {
+		this.person = person;
+		this.match = match;
+		this.score = score;
+	}
+
+	/**
+	 * @return the person with the lower id
+	 */
+	public Person getPerson() {
+		return person;
+	}
+
+	/**
+	 * @return the person who might be the same person as {@link #getPerson()}
+	 */
+	public Person getMatch() {
+		return match;
+	}
+
+	/**
+	 * @return the score between 0 and 1 of how similar the two people are
+	 */
+	public double getScore() {
+		return score;
+	}
+}
@@ -0,0 +1,156 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.person;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import org.openmrs.Person;
+
+/**
+ * A blocking key of a person, derived from the names, gender and birthdate of the person whenever
+ * the person is saved. People who might be the same person share at least one key, so the
+ * candidates for matching a person are found through an index lookup instead of comparing the
+ * person with everybody else.
+ *
+ * @see PersonMatchProfile
+ * @since 3.0.0
+ */
+@Entity
+@Table(name = "person_match_key", indexes = {
+        @Index(name = "person_match_key_value", columnList = "key_value, key_type"),
+        @Index(name = "person_match_key_person", columnList = "person_id") })
+public class PersonMatchKey implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The kinds of keys derived from each name part of a person.
+	 */
+	public enum Type {
+		/**
+		 * The name part in lower case without accents, spaces or punctuation
+		 */
+		NAME,
+		/**
+		 * The soundex code of the name part
+		 */
+		SOUNDEX,
+		/**
+		 * The primary and alternate double metaphone codes of the name part
+		 */
+		METAPHONE
+	}
+
+	@Id
+	@Column(name = "person_match_key_id")
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Integer personMatchKeyId;
+
+	@ManyToOne(fetch = FetchType.LAZY, optional = false)
+	@JoinColumn(name = "person_id", nullable = false)
+	private Person person;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "key_type", length = 20, nullable = false)
+	private Type type;
+
+	@Column(name = "key_value", length = 50, nullable = false)
+	private String value;
+
+	@Column(name = "gender", length = 50)
+	private String gender;
+
+	@Column(name = "birth_year")
+	private Integer birthYear;
+
+	public PersonMatchKey() {
+	}
+
+	public PersonMatchKey(Person person, Type type, String value, String gender, Integer birthYear) {
+		this.person = person;
+		this.type = type;
+		this.value = value;
+		this.gender = gender;
+		this.birthYear = birthYear;
+	}
+
+	public Integer getPersonMatchKeyId() {
+		return personMatchKeyId;
+	}
+
+	public void setPersonMatchKeyId(Integer personMatchKeyId) {
+		this.personMatchKeyId = personMatchKeyId;
+	}
+
+	public Person getPerson() {
+		return person;
+	}
+
+	public void setPerson(Person person) {
+		this.person = person;
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	public void setType(Type type) {
+		this.type = type;
+	}
+
+	public String getValue() {
+		return value;
+	}
+
+	public void setValue(String value) {
+		this.value = value;
+	}
+
+	/**
+	 * @return the gender of the person when the key was derived
+	 */
+	public String getGender() {
+		return gender;
+	}
+
+	public void setGender(String gender) {
+		this.gender = gender;
+	}
+
+	/**
+	 * @return the year of the birthdate of the person when the key was derived, null if unknown
+	 */
+	public Integer getBirthYear() {
+		return birthYear;
+	}
+
+	public void setBirthYear(Integer birthYear) {
+		this.birthYear = birthYear;
+	}
+
+	/**
+	 * @return a string which is equal for keys with the same type, value, gender and birth year
+	 */
+	public String getSignature() {
+		return type + "|" + value + "|" + gender + "|" + birthYear;
+	}
+}
@@ -0,0 +1,337 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.person;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.apache.commons.codec.language.DoubleMetaphone;
+import org.apache.commons.codec.language.Soundex;
+import org.apache.commons.lang3.StringUtils;
+import org.openmrs.Person;
+import org.openmrs.PersonName;
+
+/**
+ * The normalized names, phonetic codes, gender and year of birth of a person, used to find the
+ * people who might be the same person and to score how similar two people are. A profile does not
+ * reference any persistent object, so profiles can be scored in parallel outside of the session.
+ *
+ * @see PersonMatchKey
+ * @since 3.0.0
+ */
+public class PersonMatchProfile {
+
+	/**
+	 * The number of years by which the years of birth of two people may differ for them to still be
+	 * considered as possibly the same person.
+	 */
+	public static final int BIRTH_YEAR_TOLERANCE = 2;
+
+	private static final int MAX_KEY_LENGTH = 50;
+
+	private static final double NAME_WEIGHT = 0.6;
+
+	private static final double BIRTH_YEAR_WEIGHT = 0.25;
+
+	private static final double GENDER_WEIGHT = 0.15;
+
+	private static final Soundex SOUNDEX = Soundex.US_ENGLISH;
+
+	private static final DoubleMetaphone DOUBLE_METAPHONE = new DoubleMetaphone();
+
+	private static final Pattern NOT_A_LETTER = Pattern.compile("[^\\p{L}]");
+
+	private static final Pattern COMBINING_MARK = Pattern.compile("\\p{M}");
+
+	private static final Pattern NOT_A_LATIN_LETTER = Pattern.compile("[^a-z]");
+
+	private final Integer personId;
+
+	private final List<String> names;
+
+	private final String[] soundexCodes;
+
+	private final String[] metaphoneCodes;
+
+	private final String[] alternateMetaphoneCodes;
+
+	private final String gender;
+
+	private final Integer birthYear;
+
+	private PersonMatchProfile(Integer personId, Collection<String> names, String gender, Integer birthYear) {
+		this.personId = personId;
+		this.names = Collections.unmodifiableList(new ArrayList<>(names));
+		this.gender = StringUtils.isBlank(gender) ? null : gender.trim().toUpperCase();
+		this.birthYear = birthYear;
+
+		int size = this.names.size();
+		soundexCodes = new String[size];
+		metaphoneCodes = new String[size];
+		alternateMetaphoneCodes = new String[size];
+		for (int i = 0; i < size; i++) {
+			// the phonetic encoders only handle the latin letters, the others are left out
+			String name = NOT_A_LATIN_LETTER.matcher(this.names.get(i)).replaceAll("");
+			if (name.isEmpty()) {
+				soundexCodes[i] = "";
+				metaphoneCodes[i] = "";
+				alternateMetaphoneCodes[i] = "";
+			} else {
+				soundexCodes[i] = SOUNDEX.encode(name);
+				metaphoneCodes[i] = DOUBLE_METAPHONE.doubleMetaphone(name);
+				alternateMetaphoneCodes[i] = DOUBLE_METAPHONE.doubleMetaphone(name, true);
+			}
+		}
+	}
+
+	/**
+	 * Creates the profile of a person from the parts of the non-voided names of the person.
+	 *
+	 * @param person the person
+	 * @return the profile of the person
+	 */
+	public static PersonMatchProfile of(Person person) {
+		Set<String> names = new LinkedHashSet<>();
+		for (PersonName personName : person.getNames()) {
+			if (!personName.getVoided()) {
+				addNames(names, personName.getGivenName());
+				addNames(names, personName.getMiddleName());
+				addNames(names, personName.getFamilyName());
+				addNames(names, personName.getFamilyName2());
+			}
+		}
+		return new PersonMatchProfile(person.getPersonId(), names, person.getGender(), getYear(person.getBirthdate()));
+	}
+
+	/**
+	 * Creates the profile of a person who is searched for.
+	 *
+	 * @param name the name of the person, which may consist of several name parts
+	 * @param birthYear the year of birth of the person, null if unknown
+	 * @param gender the gender of the person, null if unknown
+	 * @return the profile of the person
+	 */
+	public static PersonMatchProfile of(String name, Integer birthYear, String gender) {
+		Set<String> names = new LinkedHashSet<>();
+		addNames(names, name);
+		return new PersonMatchProfile(null, names, gender, birthYear);
+	}
+
+	/**
+	 * Creates the profile of a person from the stored match keys of the person, without loading the
+	 * person.
+	 *
+	 * @param personId the id of the person
+	 * @param keys the match keys of the person, of which only the {@link PersonMatchKey.Type#NAME}
+	 *            keys are used
+	 * @return the profile of the person
+	 */
+	public static PersonMatchProfile of(Integer personId, Collection<PersonMatchKey> keys) {
+		Set<String> names = new LinkedHashSet<>();
+		String gender = null;
+		Integer birthYear = null;
+		for (PersonMatchKey key : keys) {
+			if (key.getType() == PersonMatchKey.Type.NAME) {
+				names.add(key.getValue());
+				gender = key.getGender();
+				birthYear = key.getBirthYear();
+			}
+		}
+		return new PersonMatchProfile(personId, names, gender, birthYear);
+	}
+
+	/**
+	 * Normalizes a name part for matching: accents, spaces, punctuation and digits are removed and
+	 * the remaining letters are converted to lower case. Letters of other scripts than latin are kept
+	 * as they are, not transliterated, so such names only match when they are spelled the same. Their
+	 * phonetic codes are computed from their latin letters only, so a name without any has none.
+	 *
+	 * @param name the name part
+	 * @return the normalized name part, an empty string if nothing remains
+	 */
+	public static String normalize(String name) {
+		if (name == null) {
+			return "";
+		}
+		String decomposed = Normalizer.normalize(name, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+		String normalized = NOT_A_LETTER.matcher(COMBINING_MARK.matcher(decomposed).replaceAll("")).replaceAll("");
+		return StringUtils.left(Normalizer.normalize(normalized, Normalizer.Form.NFC), MAX_KEY_LENGTH);
+	}
+
+	private static void addNames(Set<String> names, String name) {
+		if (StringUtils.isNotBlank(name)) {
+			for (String part : name.split("[\\s,\\-]+")) {
+				String normalized = normalize(part);
+				if (!normalized.isEmpty()) {
+					names.add(normalized);
+				}
+			}
+		}
+	}
+
+	private static Integer getYear(Date date) {
+		if (date == null) {
+			return null;
+		}
+		Calendar calendar = Calendar.getInstance();
+		calendar.setTime(date);
+		return calendar.get(Calendar.YEAR);
+	}
+
+	/**
+	 * @return the id of the person, null if this is the profile of a person who is searched for
+	 */
+	public Integer getPersonId() {
+		return personId;
+	}
+
+	/**
+	 * @return the normalized name parts
+	 */
+	public List<String> getNames() {
+		return names;
+	}
+
+	/**
+	 * @return the gender in upper case, null if unknown
+	 */
+	public String getGender() {
+		return gender;
+	}
+
+	/**
+	 * @return the year of birth, null if unknown
+	 */
+	public Integer getBirthYear() {
+		return birthYear;
+	}
+
+	/**
+	 * @return the distinct soundex codes of the name parts
+	 */
+	public Set<String> getSoundexCodes() {
+		return toSet(soundexCodes);
+	}
+
+	/**
+	 * @return the distinct primary and alternate double metaphone codes of the name parts
+	 */
+	public Set<String> getMetaphoneCodes() {
+		Set<String> codes = toSet(metaphoneCodes);
+		codes.addAll(toSet(alternateMetaphoneCodes));
+		return codes;
+	}
+
+	private static Set<String> toSet(String[] codes) {
+		Set<String> set = new LinkedHashSet<>();
+		for (String code : codes) {
+			if (StringUtils.isNotEmpty(code)) {
+				set.add(code);
+			}
+		}
+		return set;
+	}
+
+	/**
+	 * Creates the match keys to store for the person of this profile.
+	 *
+	 * @param person the person of this profile
+	 * @return the keys of all types of the person
+	 */
+	public List<PersonMatchKey> toKeys(Person person) {
+		List<PersonMatchKey> keys = new ArrayList<>();
+		for (String name : names) {
+			keys.add(new PersonMatchKey(person, PersonMatchKey.Type.NAME, name, gender, birthYear));
+		}
+		for (String code : getSoundexCodes()) {
+			keys.add(new PersonMatchKey(person, PersonMatchKey.Type.SOUNDEX, code, gender, birthYear));
+		}
+		for (String code : getMetaphoneCodes()) {
+			keys.add(new PersonMatchKey(person, PersonMatchKey.Type.METAPHONE, code, gender, birthYear));
+		}
+		return keys;
+	}
+
+	/**
+	 * Scores how similar the person of this profile is to the person of another profile. The name
+	 * parts of the profile with fewer name parts are each matched to the best matching name part of
+	 * the other profile, where an equal name part scores 1, an equal double metaphone code 0.8 and an
+	 * equal soundex code 0.6, and the sum is divided by the average number of name parts of both
+	 * profiles. The year of birth and the gender score 1 when equal and 0.5 when unknown, and a year
+	 * of birth within {@link #BIRTH_YEAR_TOLERANCE} years scores 0.5 as well.
+	 *
+	 * @param other the profile to compare with
+	 * @return a score between 0 for no similarity and 1 for equal profiles
+	 */
+	public double score(PersonMatchProfile other) {
+		return NAME_WEIGHT * scoreNames(other) + BIRTH_YEAR_WEIGHT * scoreBirthYear(other) + GENDER_WEIGHT
+		        * scoreGender(other);
+	}
+
+	private double scoreNames(PersonMatchProfile other) {
+		if (names.isEmpty() || other.names.isEmpty()) {
+			return 0;
+		}
+		PersonMatchProfile fewer = names.size() <= other.names.size() ? this : other;
+		PersonMatchProfile more = fewer == this ? other : this;
+		double total = 0;
+		for (int i = 0; i < fewer.names.size(); i++) {
+			double best = 0;
+			for (int j = 0; j < more.names.size() && best < 1; j++) {
+				best = Math.max(best, scoreName(fewer, i, more, j));
+			}
+			total += best;
+		}
+		return 2 * total / (fewer.names.size() + more.names.size());
+	}
+
+	private static double scoreName(PersonMatchProfile a, int i, PersonMatchProfile b, int j) {
+		if (a.names.get(i).equals(b.names.get(j))) {
+			return 1;
+		}
+		if (StringUtils.isNotEmpty(a.metaphoneCodes[i])
+		        && (a.metaphoneCodes[i].equals(b.metaphoneCodes[j])
+		                || a.metaphoneCodes[i].equals(b.alternateMetaphoneCodes[j])
+		                || a.alternateMetaphoneCodes[i].equals(b.metaphoneCodes[j]))) {
+			return 0.8;
+		}
+		if (StringUtils.isNotEmpty(a.soundexCodes[i]) && a.soundexCodes[i].equals(b.soundexCodes[j])) {
+			return 0.6;
+		}
+		return 0;
+	}
+
+	private double scoreBirthYear(PersonMatchProfile other) {
+		if (birthYear == null || other.birthYear == null) {
+			return 0.5;
+		}
+		int difference = Math.abs(birthYear - other.birthYear);
+		if (difference == 0) {
+			return 1;
+		}
+		return difference <= BIRTH_YEAR_TOLERANCE ? 0.5 : 0;
+	}
+
+	private double scoreGender(PersonMatchProfile other) {
+		if (gender == null || other.gender == null) {
+			return 0.5;
+		}
+		return gender.equals(other.gender) ? 1 : 0;
+	}
+}
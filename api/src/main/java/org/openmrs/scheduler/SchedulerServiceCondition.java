@@ -0,0 +1,45 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.scheduler;
+
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+/**
+ * Allows to conditionally enable a scheduler service implementation based on the "scheduler.type"
+ * property.
+ * <p>
+ * It enables the "timer" scheduler by default.
+ * 
+ * @since 3.0.0
+ */
+public class SchedulerServiceCondition implements Condition {
+	
+	private static final Logger log = LoggerFactory.getLogger(SchedulerServiceCondition.class);
+	
+	@Override
+	public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+		Map<String, Object> annotationAttributes = metadata.getAnnotationAttributes(Qualifier.class.getName());
+		Object value = annotationAttributes != null ? annotationAttributes.get("value") : null;
+		
+		String schedulerType = context.getEnvironment().getProperty("scheduler.type", String.class, "timer");
+		if (value != null && schedulerType.equalsIgnoreCase(value.toString())) {
+			log.info("Selected scheduler type: {}", schedulerType);
+			return true;
+		}
+		return false;
+	}
+}
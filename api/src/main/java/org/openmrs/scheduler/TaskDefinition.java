@@ -60,6 +60,11 @@ public class TaskDefinition extends BaseChangeableOpenmrsMetadata {
 	@Column(name = "last_execution_time")
 	private Date lastExecutionTime;
 
+	// only written by SchedulerDAO#acquireTaskLease so that saving a task never reopens a claimed run
+	@NotAudited
+	@Column(name = "last_claimed_slot", insertable = false, updatable = false)
+	private Date lastClaimedSlot;
+
 	@Column(name = "repeat_interval")
 	private Long repeatInterval; // NOW in seconds to give us ability to
 	
@@ -202,6 +207,18 @@ public class TaskDefinition extends BaseChangeableOpenmrsMetadata {
 		this.lastExecutionTime = lastExecutionTime;
 	}
 	
+	/**
+	 * Gets the scheduled time of the last run claimed by a node of a cluster, see
+	 * {@link org.openmrs.scheduler.db.SchedulerDAO#acquireTaskLease(Integer, Date)}. Unlike
+	 * {@link #getLastExecutionTime()} it is never written when the task definition is saved.
+	 * 
+	 * @return the scheduled time of the last claimed run
+	 * @since 3.0.0
+	 */
+	public Date getLastClaimedSlot() {
+		return lastClaimedSlot;
+	}
+	
 	/**
 	 * Gets the number of seconds until task is executed again.
 	 * 
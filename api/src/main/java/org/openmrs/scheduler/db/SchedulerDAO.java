@@ -9,6 +9,7 @@
  */
 package org.openmrs.scheduler.db;
 
+import java.util.Date;
 import java.util.List;
 
 import org.openmrs.api.db.DAOException;
@@ -85,4 +86,17 @@ public interface SchedulerDAO {
 	 * @throws DAOException
 	 */
 	public TaskDefinition getTaskByName(String name) throws DAOException;
+	
+	/**
+	 * Acquires the cluster wide lease for the run of a task scheduled at the given time by setting
+	 * its last claimed slot, unless another node already did so for this or a later run. The slot is
+	 * kept apart from the last execution time which tasks update when they run.
+	 * 
+	 * @param taskId identifier of the task
+	 * @param scheduledTime the time the run was scheduled for
+	 * @return true if the lease was acquired and the task should run on this node
+	 * @throws DAOException
+	 * @since 3.0.0
+	 */
+	public boolean acquireTaskLease(Integer taskId, Date scheduledTime) throws DAOException;
 }
@@ -12,6 +12,7 @@ package org.openmrs.scheduler.db.hibernate;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Root;
+import java.util.Date;
 import java.util.List;
 
 import org.hibernate.Session;
@@ -159,4 +160,19 @@ public class HibernateSchedulerDAO implements SchedulerDAO {
 	public TaskDefinition getTaskByUuid(String uuid) throws DAOException {
 		return HibernateUtil.getUniqueEntityByUUID(sessionFactory, TaskDefinition.class, uuid);
 	}
+	
+	/**
+	 * @see org.openmrs.scheduler.db.SchedulerDAO#acquireTaskLease(Integer, Date)
+	 */
+	@Override
+	public boolean acquireTaskLease(Integer taskId, Date scheduledTime) throws DAOException {
+		// the column may not store fractions of seconds, so compare whole seconds only
+		Date leaseTime = new Date(scheduledTime.getTime() / 1000 * 1000);
+		// the slot column is not updatable through the entity, so it is written with plain sql
+		int updated = sessionFactory.getCurrentSession()
+		        .createNativeMutationQuery("update scheduler_task_config set last_claimed_slot = :scheduledTime "
+		                + "where task_config_id = :id and (last_claimed_slot is null or last_claimed_slot < :scheduledTime)")
+		        .setParameter("scheduledTime", leaseTime).setParameter("id", taskId).executeUpdate();
+		return updated == 1;
+	}
 }
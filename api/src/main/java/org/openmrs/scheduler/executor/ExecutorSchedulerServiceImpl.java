@@ -0,0 +1,278 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.scheduler.executor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openmrs.scheduler.SchedulerException;
+import org.openmrs.scheduler.SchedulerServiceCondition;
+import org.openmrs.scheduler.Task;
+import org.openmrs.scheduler.TaskDefinition;
+import org.openmrs.scheduler.TaskFactory;
+import org.openmrs.scheduler.timer.TimerSchedulerServiceImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Scheduler service that runs all tasks on one bounded {@link ScheduledThreadPoolExecutor} instead
+ * of a {@link java.util.Timer} thread per task. Enable it by setting the "scheduler.type" runtime
+ * property to "executor".
+ * <p>
+ * In addition to the start time and repeat interval, tasks may define a <code>cronExpression</code>
+ * and a <code>misfirePolicy</code> (see {@link MisfirePolicy}) property. Before each run of a
+ * repeating task a lease is taken on its row in the scheduler_task_config table, so that a task
+ * scheduled on several nodes of a cluster runs on only one of them. Run durations and lag are
+ * available from {@link #getTaskRunMetrics()}.
+ * <p>
+ * Supported runtime properties:
+ * <ul>
+ * <li>scheduler.executor.threads - size of the thread pool, 4 by default</li>
+ * <li>scheduler.executor.virtual_threads - run tasks on virtual threads, false by default</li>
+ * <li>scheduler.executor.lease - take the cluster lease before each run, true by default</li>
+ * <li>scheduler.executor.misfire_threshold - seconds a run may start late before the misfire policy
+ * applies, 60 by default</li>
+ * </ul>
+ * 
+ * @since 3.0.0
+ */
+@Service("schedulerService")
+@Conditional(SchedulerServiceCondition.class)
+@Qualifier("executor")
+@Transactional
+public class ExecutorSchedulerServiceImpl extends TimerSchedulerServiceImpl {
+	
+	private static final Logger log = LoggerFactory.getLogger(ExecutorSchedulerServiceImpl.class);
+	
+	private final Map<Integer, ExecutorSchedulerTask> scheduledTasks = new ConcurrentHashMap<>();
+	
+	private final Map<Integer, TaskRunMetrics> taskRunMetrics = new ConcurrentHashMap<>();
+	
+	private final int threads;
+	
+	private final boolean virtualThreads;
+	
+	private final boolean leaseEnabled;
+	
+	private final long misfireThresholdMillis;
+	
+	private TransactionTemplate leaseTransaction;
+	
+	private ScheduledExecutorService scheduler;
+	
+	private ExecutorService virtualThreadExecutor;
+	
+	public ExecutorSchedulerServiceImpl(@Value("${scheduler.executor.threads:4}") int threads,
+	    @Value("${scheduler.executor.virtual_threads:false}") boolean virtualThreads,
+	    @Value("${scheduler.executor.lease:true}") boolean leaseEnabled,
+	    @Value("${scheduler.executor.misfire_threshold:60}") long misfireThresholdSeconds) {
+		this.threads = Math.max(1, threads);
+		this.virtualThreads = virtualThreads;
+		this.leaseEnabled = leaseEnabled;
+		this.misfireThresholdMillis = TimeUnit.SECONDS.toMillis(misfireThresholdSeconds);
+	}
+	
+	@Autowired
+	public void setTransactionManager(TransactionManager transactionManager) {
+		leaseTransaction = new TransactionTemplate((PlatformTransactionManager) transactionManager);
+		leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+	}
+	
+	/**
+	 * @see TimerSchedulerServiceImpl#onShutdown()
+	 */
+	@Override
+	public void onShutdown() {
+		super.onShutdown();
+		synchronized (this) {
+			if (scheduler != null) {
+				scheduler.shutdownNow();
+				scheduler = null;
+			}
+			if (virtualThreadExecutor != null) {
+				virtualThreadExecutor.shutdownNow();
+				virtualThreadExecutor = null;
+			}
+		}
+	}
+	
+	/**
+	 * @see org.openmrs.scheduler.SchedulerService#scheduleTask(TaskDefinition)
+	 */
+	@Override
+	public Task scheduleTask(TaskDefinition taskDefinition) throws SchedulerException {
+		Task clientTask = null;
+		if (taskDefinition != null) {
+			ExecutorSchedulerTask schedulerTask = scheduledTasks.remove(taskDefinition.getId());
+			if (schedulerTask != null) {
+				log.info("Shutting down the existing instance of this task to avoid conflicts!!");
+				schedulerTask.shutdown();
+			}
+			
+			try {
+				clientTask = TaskFactory.getInstance().createInstance(taskDefinition);
+				if (clientTask != null) {
+					TaskTrigger trigger = TaskTrigger.forTask(taskDefinition);
+					TaskRunMetrics metrics = taskRunMetrics.computeIfAbsent(taskDefinition.getId(),
+					    id -> new TaskRunMetrics());
+					schedulerTask = new ExecutorSchedulerTask(this, taskDefinition, clientTask, trigger, metrics);
+					taskDefinition.setTaskInstance(clientTask);
+					
+					scheduledTasks.put(taskDefinition.getId(), schedulerTask);
+					schedulerTask.start();
+					log.info("Starting task ... the task will execute for the first time at {}",
+					    schedulerTask.getNextExecutionTime());
+					
+					taskDefinition.setStarted(true);
+					saveTaskDefinition(taskDefinition);
+				}
+			}
+			catch (Exception e) {
+				log.error("Failed to schedule task " + taskDefinition.getName(), e);
+				throw new SchedulerException("Failed to schedule task", e);
+			}
+		}
+		return clientTask;
+	}
+	
+	/**
+	 * @see org.openmrs.scheduler.SchedulerService#shutdownTask(TaskDefinition)
+	 */
+	@Override
+	public void shutdownTask(TaskDefinition taskDefinition) throws SchedulerException {
+		if (taskDefinition != null) {
+			ExecutorSchedulerTask schedulerTask = scheduledTasks.remove(taskDefinition.getId());
+			if (schedulerTask != null) {
+				schedulerTask.shutdown();
+			}
+			
+			taskDefinition.setStarted(false);
+			saveTaskDefinition(taskDefinition);
+		}
+	}
+	
+	/**
+	 * @see org.openmrs.scheduler.SchedulerService#getScheduledTasks()
+	 */
+	@Override
+	public Collection<TaskDefinition> getScheduledTasks() {
+		List<TaskDefinition> list = new ArrayList<>();
+		for (Integer id : scheduledTasks.keySet()) {
+			list.add(getTask(id));
+		}
+		return list;
+	}
+	
+	/**
+	 * @see org.openmrs.scheduler.SchedulerService#getStatus(Integer)
+	 */
+	@Override
+	public String getStatus(Integer id) {
+		ExecutorSchedulerTask scheduledTask = scheduledTasks.get(id);
+		if (scheduledTask != null) {
+			if (scheduledTask.isExecuting()) {
+				return "Currently executing";
+			}
+			Date nextExecutionTime = scheduledTask.getNextExecutionTime();
+			if (nextExecutionTime != null) {
+				return "Scheduled to execute at " + nextExecutionTime;
+			}
+		}
+		return "Not Running";
+	}
+	
+	/**
+	 * @return the run metrics of the tasks scheduled since startup by task id
+	 */
+	public Map<Integer, TaskRunMetrics> getTaskRunMetrics() {
+		return Collections.unmodifiableMap(new HashMap<>(taskRunMetrics));
+	}
+	
+	long getMisfireThresholdMillis() {
+		return misfireThresholdMillis;
+	}
+	
+	synchronized ScheduledExecutorService getScheduler() {
+		if (scheduler == null) {
+			AtomicInteger threadNumber = new AtomicInteger();
+			ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(threads, runnable -> {
+				Thread thread = new Thread(runnable, "OpenMRS Scheduler-" + threadNumber.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+			executor.setRemoveOnCancelPolicy(true);
+			executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+			scheduler = executor;
+		}
+		return scheduler;
+	}
+	
+	/**
+	 * Runs a due task, on a virtual thread if configured so that a long running task does not hold
+	 * one of the scheduler threads
+	 */
+	void dispatch(Runnable run) {
+		if (!virtualThreads) {
+			run.run();
+			return;
+		}
+		ExecutorService executor;
+		synchronized (this) {
+			if (virtualThreadExecutor == null) {
+				virtualThreadExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual()
+				        .name("OpenMRS Scheduler-virtual-", 1).factory());
+			}
+			executor = virtualThreadExecutor;
+		}
+		executor.execute(run);
+	}
+	
+	/**
+	 * Takes the cluster wide lease for the run of the given task scheduled at the given time in a
+	 * separate transaction.
+	 * 
+	 * @return true if the task should run on this node
+	 */
+	boolean acquireLease(TaskDefinition taskDefinition, Date scheduledTime) {
+		if (!leaseEnabled || taskDefinition.getId() == null) {
+			return true;
+		}
+		try {
+			return Boolean.TRUE.equals(leaseTransaction
+			        .execute(status -> getSchedulerDAO().acquireTaskLease(taskDefinition.getId(), scheduledTime)));
+		}
+		catch (RuntimeException e) {
+			log.warn("Unable to take the lease for task " + taskDefinition.getName() + ", skipping this run", e);
+			return false;
+		}
+	}
+}
@@ -0,0 +1,159 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.scheduler.executor;
+
+import java.util.Date;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openmrs.scheduler.Task;
+import org.openmrs.scheduler.TaskDefinition;
+import org.openmrs.scheduler.timer.TimerSchedulerTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs a task on the executor of the {@link ExecutorSchedulerServiceImpl}. Each execution is
+ * scheduled as a one-shot delayed job and the next one is only scheduled once it finished, so runs
+ * of a task never overlap and a slow or failing task cannot delay any other task. It extends
+ * {@link TimerSchedulerTask} so that the task is executed as a daemon the same way as by the timer
+ * scheduler, but it is never passed to a {@link java.util.Timer}.
+ * 
+ * @since 3.0.0
+ */
+class ExecutorSchedulerTask extends TimerSchedulerTask {
+	
+	private static final Logger log = LoggerFactory.getLogger(ExecutorSchedulerTask.class);
+	
+	private final ExecutorSchedulerServiceImpl schedulerService;
+	
+	private final TaskDefinition taskDefinition;
+	
+	private final TaskTrigger trigger;
+	
+	private final MisfirePolicy misfirePolicy;
+	
+	private final TaskRunMetrics metrics;
+	
+	private volatile ScheduledFuture<?> future;
+	
+	private volatile Date nextExecutionTime;
+	
+	private volatile boolean executing;
+	
+	private volatile boolean cancelled;
+	
+	ExecutorSchedulerTask(ExecutorSchedulerServiceImpl schedulerService, TaskDefinition taskDefinition, Task task,
+	    TaskTrigger trigger, TaskRunMetrics metrics) {
+		super(task);
+		this.schedulerService = schedulerService;
+		this.taskDefinition = taskDefinition;
+		this.trigger = trigger;
+		this.misfirePolicy = MisfirePolicy.forTask(taskDefinition);
+		this.metrics = metrics;
+	}
+	
+	/**
+	 * Schedules the first execution
+	 */
+	void start() {
+		schedule(trigger.first(new Date()));
+	}
+	
+	/**
+	 * @return the time of the next execution or null if there is none
+	 */
+	Date getNextExecutionTime() {
+		return nextExecutionTime;
+	}
+	
+	boolean isExecuting() {
+		return executing;
+	}
+	
+	@Override
+	public void shutdown() {
+		cancelled = true;
+		ScheduledFuture<?> scheduled = future;
+		if (scheduled != null) {
+			scheduled.cancel(false);
+		}
+		nextExecutionTime = null;
+		super.shutdown();
+	}
+	
+	private void schedule(Date executionTime) {
+		if (cancelled) {
+			return;
+		}
+		nextExecutionTime = executionTime;
+		long delay = Math.max(0, executionTime.getTime() - System.currentTimeMillis());
+		future = schedulerService.getScheduler().schedule(() -> schedulerService.dispatch(() -> fire(executionTime)),
+		    delay, TimeUnit.MILLISECONDS);
+	}
+	
+	private void fire(Date scheduledTime) {
+		if (cancelled) {
+			return;
+		}
+		try {
+			Date startTime = new Date();
+			long lag = startTime.getTime() - scheduledTime.getTime();
+			if (lag > schedulerService.getMisfireThresholdMillis() && misfirePolicy == MisfirePolicy.SKIP) {
+				log.info("Skipping run of task {} scheduled at {} which is {} ms late", taskDefinition.getName(),
+				    scheduledTime, lag);
+				metrics.recordMisfire();
+				return;
+			}
+			if (trigger.isRepeating() && !schedulerService.acquireLease(taskDefinition, scheduledTime)) {
+				log.debug("Task {} scheduled at {} runs on another node", taskDefinition.getName(), scheduledTime);
+				metrics.recordLeaseLost();
+				return;
+			}
+			
+			executing = true;
+			long start = System.nanoTime();
+			try {
+				run();
+			}
+			finally {
+				executing = false;
+				metrics.recordRun(startTime, lag, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+			}
+		}
+		catch (RuntimeException e) {
+			log.error("Failed to run task " + taskDefinition.getName(), e);
+		}
+		finally {
+			scheduleNext(scheduledTime);
+		}
+	}
+	
+	private void scheduleNext(Date lastScheduledTime) {
+		Date next = trigger.next(lastScheduledTime);
+		if (next == null) {
+			nextExecutionTime = null;
+			return;
+		}
+		Date now = new Date();
+		if (!next.after(now)) {
+			if (misfirePolicy == MisfirePolicy.SKIP) {
+				next = trigger.next(now);
+				if (next == null) {
+					nextExecutionTime = null;
+					return;
+				}
+			} else {
+				next = trigger.latestNotAfter(next, now);
+			}
+		}
+		schedule(next);
+	}
+}
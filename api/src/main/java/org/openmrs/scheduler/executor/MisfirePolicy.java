@@ -0,0 +1,48 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.scheduler.executor;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openmrs.scheduler.TaskDefinition;
+
+/**
+ * What to do when the execution time of a task has passed by more than the misfire threshold, e.g.
+ * because the node was down, all scheduler threads were busy or the previous run took too long.
+ * Set with the <code>misfirePolicy</code> task property.
+ * 
+ * @since 3.0.0
+ */
+public enum MisfirePolicy {
+	
+	/**
+	 * Run the task once as soon as possible, skipping any further missed executions. This is the
+	 * default.
+	 */
+	FIRE_ONCE_NOW,
+	
+	/**
+	 * Skip the missed executions and wait for the next regular execution time.
+	 */
+	SKIP;
+	
+	static final String MISFIRE_POLICY_PROPERTY = "misfirePolicy";
+	
+	static MisfirePolicy forTask(TaskDefinition taskDefinition) {
+		String policy = taskDefinition.getProperty(MISFIRE_POLICY_PROPERTY);
+		if (StringUtils.isNotBlank(policy)) {
+			for (MisfirePolicy value : values()) {
+				if (value.name().equalsIgnoreCase(policy.trim())) {
+					return value;
+				}
+			}
+		}
+		return FIRE_ONCE_NOW;
+	}
+}
@@ -0,0 +1,110 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.scheduler.executor;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Run duration and lag figures of a scheduled task on this node.
+ * 
+ * @since 3.0.0
+ */
+public class TaskRunMetrics {
+	
+	private final AtomicLong runCount = new AtomicLong();
+	
+	private final AtomicLong totalDurationMillis = new AtomicLong();
+	
+	private final AtomicLong misfireCount = new AtomicLong();
+	
+	private final AtomicLong leaseLostCount = new AtomicLong();
+	
+	private volatile long lastDurationMillis;
+	
+	private volatile long maxDurationMillis;
+	
+	private volatile long lastLagMillis;
+	
+	private volatile Date lastStartTime;
+	
+	/**
+	 * @return the number of runs on this node
+	 */
+	public long getRunCount() {
+		return runCount.get();
+	}
+	
+	/**
+	 * @return the total duration of all runs on this node
+	 */
+	public long getTotalDurationMillis() {
+		return totalDurationMillis.get();
+	}
+	
+	/**
+	 * @return the duration of the last run
+	 */
+	public long getLastDurationMillis() {
+		return lastDurationMillis;
+	}
+	
+	/**
+	 * @return the duration of the longest run
+	 */
+	public long getMaxDurationMillis() {
+		return maxDurationMillis;
+	}
+	
+	/**
+	 * @return how late the last run started compared to its scheduled time
+	 */
+	public long getLastLagMillis() {
+		return lastLagMillis;
+	}
+	
+	/**
+	 * @return when the last run started or null if the task has not run yet
+	 */
+	public Date getLastStartTime() {
+		return lastStartTime;
+	}
+	
+	/**
+	 * @return the number of executions skipped because of the misfire policy
+	 */
+	public long getMisfireCount() {
+		return misfireCount.get();
+	}
+	
+	/**
+	 * @return the number of executions that ran on another node of the cluster
+	 */
+	public long getLeaseLostCount() {
+		return leaseLostCount.get();
+	}
+	
+	synchronized void recordRun(Date startTime, long lagMillis, long durationMillis) {
+		runCount.incrementAndGet();
+		totalDurationMillis.addAndGet(durationMillis);
+		lastStartTime = startTime;
+		lastLagMillis = lagMillis;
+		lastDurationMillis = durationMillis;
+		maxDurationMillis = Math.max(maxDurationMillis, durationMillis);
+	}
+	
+	void recordMisfire() {
+		misfireCount.incrementAndGet();
+	}
+	
+	void recordLeaseLost() {
+		leaseLostCount.incrementAndGet();
+	}
+}
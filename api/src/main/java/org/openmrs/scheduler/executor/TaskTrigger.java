@@ -0,0 +1,184 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.scheduler.executor;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Date;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openmrs.scheduler.SchedulerConstants;
+import org.openmrs.scheduler.SchedulerException;
+import org.openmrs.scheduler.TaskDefinition;
+import org.springframework.scheduling.support.CronExpression;
+
+/**
+ * Computes the execution times of a task. Execution times only depend on the task definition and
+ * never on when a node started, so all nodes of a cluster agree on them, which is what the
+ * database lease relies on.
+ * 
+ * @since 3.0.0
+ */
+abstract class TaskTrigger {
+	
+	/**
+	 * Task property holding a Spring cron expression, e.g. <code>0 0 2 * * *</code>, which takes
+	 * precedence over the start time and repeat interval
+	 */
+	static final String CRON_EXPRESSION_PROPERTY = "cronExpression";
+	
+	/**
+	 * @param after the reference time
+	 * @return the first execution time strictly after the given time or null if there is none
+	 */
+	abstract Date next(Date after);
+	
+	/**
+	 * @param now the current time
+	 * @return the first execution time
+	 */
+	abstract Date first(Date now);
+	
+	/**
+	 * @return true if the task runs more than once
+	 */
+	abstract boolean isRepeating();
+	
+	/**
+	 * @param missed an execution time that has passed
+	 * @param now the current time
+	 * @return the most recent execution time that is not after now, starting with missed
+	 */
+	Date latestNotAfter(Date missed, Date now) {
+		Date latest = missed;
+		Date following = next(latest);
+		while (following != null && !following.after(now)) {
+			latest = following;
+			following = next(latest);
+		}
+		return latest;
+	}
+	
+	static TaskTrigger forTask(TaskDefinition taskDefinition) throws SchedulerException {
+		String cronExpression = taskDefinition.getProperty(CRON_EXPRESSION_PROPERTY);
+		if (StringUtils.isNotBlank(cronExpression)) {
+			try {
+				return new Cron(CronExpression.parse(cronExpression.trim()), ZoneId.systemDefault());
+			}
+			catch (IllegalArgumentException e) {
+				throw new SchedulerException("Invalid cron expression '" + cronExpression + "' for task "
+				        + taskDefinition.getName(), e);
+			}
+		}
+		
+		long interval = 0;
+		if (taskDefinition.getRepeatInterval() != null) {
+			interval = taskDefinition.getRepeatInterval() * SchedulerConstants.SCHEDULER_MILLIS_PER_SECOND;
+		}
+		if (interval > 0) {
+			// tasks without a start time are aligned to multiples of the interval since the epoch
+			long anchor = taskDefinition.getStartTime() != null ? taskDefinition.getStartTime().getTime() : 0;
+			return new Interval(anchor, interval);
+		}
+		return new OneShot(taskDefinition.getStartTime());
+	}
+	
+	static class Interval extends TaskTrigger {
+		
+		private final long anchor;
+		
+		private final long interval;
+		
+		Interval(long anchor, long interval) {
+			this.anchor = anchor;
+			this.interval = interval;
+		}
+		
+		@Override
+		Date next(Date after) {
+			long elapsed = after.getTime() - anchor;
+			if (elapsed < 0) {
+				return new Date(anchor);
+			}
+			return new Date(anchor + (elapsed / interval + 1) * interval);
+		}
+		
+		@Override
+		Date first(Date now) {
+			return next(new Date(now.getTime() + SchedulerConstants.SCHEDULER_DEFAULT_DELAY - 1));
+		}
+		
+		@Override
+		Date latestNotAfter(Date missed, Date now) {
+			if (now.before(missed)) {
+				return missed;
+			}
+			long elapsed = now.getTime() - anchor;
+			return new Date(anchor + (elapsed / interval) * interval);
+		}
+		
+		@Override
+		boolean isRepeating() {
+			return true;
+		}
+	}
+	
+	static class Cron extends TaskTrigger {
+		
+		private final CronExpression expression;
+		
+		private final ZoneId zone;
+		
+		Cron(CronExpression expression, ZoneId zone) {
+			this.expression = expression;
+			this.zone = zone;
+		}
+		
+		@Override
+		Date next(Date after) {
+			ZonedDateTime next = expression.next(ZonedDateTime.ofInstant(after.toInstant(), zone));
+			return next == null ? null : Date.from(next.toInstant());
+		}
+		
+		@Override
+		Date first(Date now) {
+			return next(now);
+		}
+		
+		@Override
+		boolean isRepeating() {
+			return true;
+		}
+	}
+	
+	static class OneShot extends TaskTrigger {
+		
+		private final Date startTime;
+		
+		OneShot(Date startTime) {
+			this.startTime = startTime;
+		}
+		
+		@Override
+		Date next(Date after) {
+			return null;
+		}
+		
+		@Override
+		Date first(Date now) {
+			return startTime != null ? startTime : now;
+		}
+		
+		@Override
+		boolean isRepeating() {
+			return false;
+		}
+	}
+}
@@ -30,6 +30,7 @@ import org.openmrs.api.impl.BaseOpenmrsService;
 import org.openmrs.scheduler.SchedulerConstants;
 import org.openmrs.scheduler.SchedulerException;
 import org.openmrs.scheduler.SchedulerService;
+import org.openmrs.scheduler.SchedulerServiceCondition;
 import org.openmrs.scheduler.SchedulerUtil;
 import org.openmrs.scheduler.Task;
 import org.openmrs.scheduler.TaskDefinition;
@@ -39,14 +40,20 @@ import org.openmrs.util.OpenmrsMemento;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Conditional;
 import org.springframework.orm.ObjectRetrievalFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Simple scheduler service that uses JDK timer to trigger and execute scheduled tasks.
+ * <p>
+ * It is the default scheduler, see {@link SchedulerServiceCondition}.
  */
 @Service("schedulerService")
+@Conditional(SchedulerServiceCondition.class)
+@Qualifier("timer")
 @Transactional
 public class TimerSchedulerServiceImpl extends BaseOpenmrsService implements SchedulerService, RefByUuid {
 	
@@ -9,6 +9,7 @@
  */
 package org.openmrs.util;
 
+import java.io.StringReader;
 import java.io.StringWriter;
 import java.time.LocalDate;
 import java.time.ZoneId;
@@ -16,14 +17,20 @@ import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.velocity.Template;
 import org.apache.velocity.VelocityContext;
-import org.apache.velocity.app.VelocityEngine;
-import org.apache.velocity.exception.ParseErrorException;
+import org.apache.velocity.runtime.RuntimeInstance;
+import org.apache.velocity.runtime.parser.ParseException;
+import org.apache.velocity.runtime.parser.node.SimpleNode;
 import org.joda.time.LocalTime;
 import org.openmrs.Concept;
 import org.openmrs.Obs;
@@ -36,16 +43,89 @@ import org.openmrs.api.context.Context;
 
 /**
  * A utility class that evaluates the concept ranges
+ * <p>
+ * Criteria are parsed once into velocity templates which are cached and shared by all instances.
+ * Each instance remembers the concepts and latest observations it looked up, so an instance should
+ * only be used by one thread for the duration of a single save and then be discarded. The saves of
+ * an encounter or of a batch of obs share one instance for all their obs through
+ * {@link #callWithSharedInstance(Supplier)}, the validation of each obs gets it from
+ * {@link #getInstance()}.
  * 
  * @since 2.7.0
  */
 public class ConceptReferenceRangeUtility {
 	
+	private static final int MAX_CACHED_CRITERIA = 1000;
+	
+	private static final Map<String, Template> compiledCriteria = new ConcurrentHashMap<>();
+	
 	private final long NULL_DATE_RETURN_VALUE = -1;
 	
+	private final Map<String, Concept> conceptsByReference = new HashMap<>();
+	
+	private final Map<Person, Map<String, Obs>> latestObsByPerson = new HashMap<>();
+	
+	private static final ThreadLocal<ConceptReferenceRangeUtility> sharedInstance = new ThreadLocal<>();
+	
 	public ConceptReferenceRangeUtility() {
 	}
 	
+	/**
+	 * Calls the given work with one instance shared by everything within it asking for
+	 * {@link #getInstance()} on this thread. Nested calls use the instance of the outermost call.
+	 * 
+	 * @param work the work to call, e.g. saving all the obs of an encounter
+	 * @return the result of the work
+	 * @since 3.0.0
+	 */
+	public static <T> T callWithSharedInstance(Supplier<T> work) {
+		if (sharedInstance.get() != null) {
+			return work.get();
+		}
+		sharedInstance.set(new ConceptReferenceRangeUtility());
+		try {
+			return work.get();
+		}
+		finally {
+			sharedInstance.remove();
+		}
+	}
+	
+	/**
+	 * @see #callWithSharedInstance(Supplier)
+	 * @since 3.0.0
+	 */
+	public static void runWithSharedInstance(Runnable work) {
+		callWithSharedInstance(() -> {
+			work.run();
+			return null;
+		});
+	}
+	
+	/**
+	 * @return the instance shared within the current {@link #callWithSharedInstance(Supplier)} call,
+	 *         or a new instance outside of one
+	 * @since 3.0.0
+	 */
+	public static ConceptReferenceRangeUtility getInstance() {
+		ConceptReferenceRangeUtility instance = sharedInstance.get();
+		return instance != null ? instance : new ConceptReferenceRangeUtility();
+	}
+	
+	/**
+	 * Forgets the latest obs of the given person and concept looked up so far, so that they are looked
+	 * up again once the given obs is saved.
+	 * 
+	 * @param obs the obs about to be saved
+	 * @since 3.0.0
+	 */
+	public void forgetLatestObs(Obs obs) {
+		Map<String, Obs> latestObs = latestObsByPerson.get(obs.getPerson());
+		if (latestObs != null && obs.getConcept() != null) {
+			latestObs.keySet().removeIf(conceptRef -> obs.getConcept().equals(conceptsByReference.get(conceptRef)));
+		}
+	}
+	
 	/**
 	 * This method evaluates the given criteria against the provided {@link Obs}.
 	 * 
@@ -67,36 +147,57 @@ public class ConceptReferenceRangeUtility {
 			throw new IllegalArgumentException("Failed to evaluate criteria with reason: criteria is empty");
 		}
 		
+		Template template = getCompiledCriteria(criteria);
+		
 		VelocityContext velocityContext = new VelocityContext();
 		velocityContext.put("fn", this);
 		velocityContext.put("obs", obs);
 		
 		velocityContext.put("patient", obs.getPerson());
 		
-		VelocityEngine velocityEngine = new VelocityEngine();
+		StringWriter writer = new StringWriter();
 		try {
-			Properties props = new Properties();
-			props.put("runtime.log.logsystem.log4j.category", "velocity");
-			props.put("runtime.log.logsystem.log4j.logger", "velocity");
-			velocityEngine.init(props);
+			template.merge(velocityContext, writer);
+			return Boolean.parseBoolean(writer.toString());
 		}
 		catch (Exception e) {
-			throw new APIException("Failed to create the velocity engine: " + e.getMessage(), e);
+			throw new APIException("An error occurred while evaluating criteria: ", e);
+		}
+	}
+	
+	/**
+	 * Parses the given criteria into a template, or returns the template it was parsed into before.
+	 * 
+	 * @param criteria the criteria string
+	 * @return the initialized template which can be merged concurrently
+	 */
+	private static Template getCompiledCriteria(String criteria) {
+		Template template = compiledCriteria.get(criteria);
+		if (template != null) {
+			return template;
 		}
 		
-		StringWriter writer = new StringWriter();
-		String wrappedCriteria = "#set( $criteria = " + criteria + " )$criteria";
-		
+		RuntimeInstance runtime = EngineHolder.RUNTIME;
+		template = new Template();
+		template.setName(ConceptReferenceRangeUtility.class.getName());
+		template.setRuntimeServices(runtime);
 		try {
-			velocityEngine.evaluate(velocityContext, writer, ConceptReferenceRangeUtility.class.getName(), wrappedCriteria);
-			return Boolean.parseBoolean(writer.toString());
+			SimpleNode node = runtime.parse(new StringReader("#set( $criteria = " + criteria + " )$criteria"), template);
+			template.setData(node);
+			template.initDocument();
 		}
-		catch (ParseErrorException e) {
+		catch (ParseException e) {
 			throw new APIException("An error occurred while evaluating criteria. Invalid criteria: " + criteria, e);
 		}
 		catch (Exception e) {
 			throw new APIException("An error occurred while evaluating criteria: ", e);
 		}
+		
+		if (compiledCriteria.size() >= MAX_CACHED_CRITERIA) {
+			compiledCriteria.clear();
+		}
+		compiledCriteria.put(criteria, template);
+		return template;
 	}
 	
 	/**
@@ -108,7 +209,18 @@ public class ConceptReferenceRangeUtility {
 	 * @return Obs latest Obs
 	 */
 	public Obs getLatestObs(String conceptRef, Person person) {
-		Concept concept = Context.getConceptService().getConceptByReference(conceptRef);
+		Map<String, Obs> latestObs = latestObsByPerson.computeIfAbsent(person, p -> new HashMap<>());
+		if (latestObs.containsKey(conceptRef)) {
+			return latestObs.get(conceptRef);
+		}
+		
+		Obs obs = findLatestObs(conceptRef, person);
+		latestObs.put(conceptRef, obs);
+		return obs;
+	}
+	
+	private Obs findLatestObs(String conceptRef, Person person) {
+		Concept concept = getConceptByReference(conceptRef);
 
 		if (concept != null) {
 			List<Obs> observations = Context.getObsService().getObservations(
@@ -132,6 +244,16 @@ public class ConceptReferenceRangeUtility {
 		return null;
 	}
 	
+	private Concept getConceptByReference(String conceptRef) {
+		if (conceptsByReference.containsKey(conceptRef)) {
+			return conceptsByReference.get(conceptRef);
+		}
+		
+		Concept concept = Context.getConceptService().getConceptByReference(conceptRef);
+		conceptsByReference.put(conceptRef, concept);
+		return concept;
+	}
+	
 	/**
 	 * Gets the time of the day in hours.
 	 * 
@@ -152,7 +274,7 @@ public class ConceptReferenceRangeUtility {
 	 *         has no valid value
 	 */
 	public Obs getCurrentObs(String conceptRef, Obs currentObs) {
-		Concept concept = Context.getConceptService().getConceptByReference(conceptRef);
+		Concept concept = getConceptByReference(conceptRef);
 		
 		if (currentObs.getValueAsString(Locale.ENGLISH).isEmpty() && (concept != null && concept == currentObs.getConcept())) {
 			return currentObs;
@@ -208,7 +330,7 @@ public class ConceptReferenceRangeUtility {
 			return false;
 		}
 		
-		Concept answerConcept = Context.getConceptService().getConceptByReference(answerConceptRef);
+		Concept answerConcept = getConceptByReference(answerConceptRef);
 		if (answerConcept == null) {
 			return false;
 		}
@@ -454,4 +576,27 @@ public class ConceptReferenceRangeUtility {
 		}
 		return Context.getProgramWorkflowService().getPatientPrograms(patient, null, null, onDate, onDate, null, false);
 	}
+	
+	/**
+	 * Holds the velocity runtime shared by all instances, which is only started when the first
+	 * criteria is evaluated.
+	 */
+	private static class EngineHolder {
+		
+		private static final RuntimeInstance RUNTIME = createRuntime();
+		
+		private static RuntimeInstance createRuntime() {
+			RuntimeInstance runtime = new RuntimeInstance();
+			try {
+				Properties props = new Properties();
+				props.put("runtime.log.logsystem.log4j.category", "velocity");
+				props.put("runtime.log.logsystem.log4j.logger", "velocity");
+				runtime.init(props);
+			}
+			catch (Exception e) {
+				throw new APIException("Failed to create the velocity engine: " + e.getMessage(), e);
+			}
+			return runtime;
+		}
+	}
 }
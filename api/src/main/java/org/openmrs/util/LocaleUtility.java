@@ -9,11 +9,15 @@
  */
 package org.openmrs.util;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.MissingResourceException;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang3.LocaleUtils;
 import org.openmrs.GlobalProperty;
@@ -42,6 +46,12 @@ public class LocaleUtility implements GlobalPropertyListener {
 	 */
 	private static List<Locale> localesAllowedListCache = null;
 	
+	/**
+	 * Cached versions of {@link #getLocalesInOrder()} by the locale of the user, cleared together
+	 * with the default locale and the localeAllowedList
+	 */
+	private static final Map<Locale, List<Locale>> localesInOrderCache = new ConcurrentHashMap<>();
+	
 	/**
 	 * Gets the default locale specified as a global property.
 	 *
@@ -199,12 +209,35 @@ public class LocaleUtility implements GlobalPropertyListener {
 		return locales;
 	}
 	
+	/**
+	 * Returns the same locales as {@link #getLocalesInOrder()} as an unmodifiable list, which is
+	 * cached for the locale of the current user until the default locale or the allowed locales
+	 * change.
+	 *
+	 * @return the specified and allowed locales in order with no duplicates
+	 * @since 3.0.0
+	 */
+	public static List<Locale> getLocalesInOrderList() {
+		Locale userLocale = Context.getLocale();
+		List<Locale> locales = userLocale != null ? localesInOrderCache.get(userLocale) : null;
+		if (locales == null) {
+			locales = Collections.unmodifiableList(new ArrayList<>(getLocalesInOrder()));
+			// the default locale is not cached while no session is open
+			if (userLocale != null && defaultLocaleCache != null && localesAllowedListCache != null) {
+				localesInOrderCache.put(userLocale, locales);
+			}
+		}
+		return locales;
+	}
+	
 	public static void setDefaultLocaleCache(Locale defaultLocaleCache) {
 		LocaleUtility.defaultLocaleCache = defaultLocaleCache;
+		localesInOrderCache.clear();
 	}
 	
 	public static void setLocalesAllowedListCache(List<Locale> localesAllowedListCache) {
 		LocaleUtility.localesAllowedListCache = localesAllowedListCache;
+		localesInOrderCache.clear();
 	}
 	
 	@Override
@@ -52,6 +52,10 @@ public class OpenmrsClassLoader extends URLClassLoader {
 	
 	private static Logger log = LoggerFactory.getLogger(OpenmrsClassLoader.class);
 	
+	static {
+		ClassLoader.registerAsParallelCapable();
+	}
+	
 	private static volatile File libCacheFolder;
 	
 	private static final Object libCacheFolderLock = new Object();
@@ -137,35 +141,17 @@ public class OpenmrsClassLoader extends URLClassLoader {
 	 * <strong>Should</strong> load class if two module class loaders have same packages
 	 */
 	@Override
-	public synchronized Class<?> loadClass(String name, final boolean resolve) throws ClassNotFoundException {
+	public Class<?> loadClass(String name, final boolean resolve) throws ClassNotFoundException {
 		// Check if the class has already been requested from this class loader
 		Class<?> c = getCachedClass(name);
 		if (c == null) {
-			// We do not try to load classes using this.findClass on purpose.
-			// All classes are loaded by web container or by module class loaders.
-			
-			// First try loading from modules such that we allow modules to load
-			// different versions of the same libraries that may already be used
-			// by core or the web container. An example is the chartsearch module
-			// which uses different versions of lucene and solr from core
-			String packageName = StringUtils.substringBeforeLast(name, ".");
-			Set<ModuleClassLoader> moduleClassLoaders = ModuleFactory.getModuleClassLoadersForPackage(packageName);
-			for (ModuleClassLoader moduleClassLoader : moduleClassLoaders) {
-				try {
-					c = moduleClassLoader.loadClass(name);
-					break;
-				}
-				catch (ClassNotFoundException e) {
-					// Continue trying...
+			synchronized (getClassLoadingLock(name)) {
+				c = getCachedClass(name);
+				if (c == null) {
+					c = loadClassFromModulesOrParent(name);
+					cacheClass(name, c);
 				}
 			}
-			
-			if (c == null) {
-				// Finally try loading from web container
-				c = getParent().loadClass(name);
-			}
-			
-			cacheClass(name, c);
 		}
 		
 		if (resolve) {
@@ -175,6 +161,29 @@ public class OpenmrsClassLoader extends URLClassLoader {
 		return c;
 	}
 	
+	private Class<?> loadClassFromModulesOrParent(String name) throws ClassNotFoundException {
+		// We do not try to load classes using this.findClass on purpose.
+		// All classes are loaded by web container or by module class loaders.
+		
+		// First try loading from modules such that we allow modules to load
+		// different versions of the same libraries that may already be used
+		// by core or the web container. An example is the chartsearch module
+		// which uses different versions of lucene and solr from core
+		String packageName = StringUtils.substringBeforeLast(name, ".");
+		Set<ModuleClassLoader> moduleClassLoaders = ModuleFactory.getModuleClassLoadersForPackage(packageName);
+		for (ModuleClassLoader moduleClassLoader : moduleClassLoaders) {
+			try {
+				return moduleClassLoader.loadClass(name);
+			}
+			catch (ClassNotFoundException e) {
+				// Continue trying...
+			}
+		}
+		
+		// Finally try loading from web container
+		return getParent().loadClass(name);
+	}
+	
 	private Class<?> getCachedClass(String name) {
 		WeakReference<Class<?>> ref = cachedClasses.get(name);
 		if (ref != null) {
@@ -208,12 +217,9 @@ public class OpenmrsClassLoader extends URLClassLoader {
 	public URL findResource(final String name) {
 		log.trace("finding resource: {}", name);
 		
-		URL result;
-		for (ModuleClassLoader classLoader : ModuleFactory.getModuleClassLoaders()) {
-			result = classLoader.findResource(name);
-			if (result != null) {
-				return result;
-			}
+		URL result = ModuleFactory.findModuleResource(name);
+		if (result != null) {
+			return result;
 		}
 		
 		// look for the resource in the parent
@@ -233,8 +239,9 @@ public class OpenmrsClassLoader extends URLClassLoader {
 	@Override
 	public Enumeration<URL> findResources(final String name) throws IOException {
 		Set<URI> results = new HashSet<>();
+		// every module is searched, so there is no need to search the modules each one imports
 		for (ModuleClassLoader classLoader : ModuleFactory.getModuleClassLoaders()) {
-			Enumeration<URL> urls = classLoader.findResources(name);
+			Enumeration<URL> urls = classLoader.findResourcesInModule(name);
 			while (urls.hasMoreElements()) {
 				URL result = urls.nextElement();
 				if (result != null) {
@@ -271,16 +278,22 @@ public class OpenmrsClassLoader extends URLClassLoader {
 	}
 	
 	/**
-	 * Searches all known module classloaders first, then parent classloaders
+	 * Searches all known module classloaders first through
+	 * {@link ModuleFactory#findModuleResource(String)}, then parent classloaders
 	 *
 	 * @see java.lang.ClassLoader#getResourceAsStream(java.lang.String)
+	 * <strong>Should</strong> return the resource of a module before the one of the parent
 	 */
 	@Override
 	public InputStream getResourceAsStream(String file) {
-		for (ModuleClassLoader classLoader : ModuleFactory.getModuleClassLoaders()) {
-			InputStream result = classLoader.getResourceAsStream(file);
-			if (result != null) {
-				return result;
+		URL result = ModuleFactory.findModuleResource(file);
+		if (result != null) {
+			try {
+				return result.openStream();
+			}
+			catch (IOException e) {
+				log.debug("Could not open the module resource {}", result, e);
+				return null;
 			}
 		}
 		
@@ -288,28 +301,14 @@ public class OpenmrsClassLoader extends URLClassLoader {
 	}
 	
 	/**
-	 * Searches all known module classloaders first, then parent classloaders
+	 * Searches the parent classloaders and all known module classloaders through
+	 * {@link #findResources(String)}
 	 *
 	 * @see java.lang.ClassLoader#getResources(java.lang.String)
 	 */
 	@Override
 	public Enumeration<URL> getResources(String packageName) throws IOException {
 		Set<URI> results = new HashSet<>();
-		for (ModuleClassLoader classLoader : ModuleFactory.getModuleClassLoaders()) {
-			Enumeration<URL> urls = classLoader.getResources(packageName);
-			while (urls.hasMoreElements()) {
-				URL result = urls.nextElement();
-				if (result != null) {
-					try {
-						results.add(result.toURI());
-					}
-					catch (URISyntaxException e) {
-						throwInvalidURI(result, e);
-					}
-				}
-			}
-		}
-		
 		for (Enumeration<URL> en = super.getResources(packageName); en.hasMoreElements();) {
 			URL url = en.nextElement();
 			try {
@@ -317,6 +317,16 @@ public final class OpenmrsConstants {
 	
 	public static final String GLOBAL_PROPERTY_COMPLEX_OBS_DIR = "obs.complex_obs_dir";
 	
+	/**
+	 * @since 3.0.0
+	 */
+	public static final String GLOBAL_PROPERTY_COMPLEX_OBS_THUMBNAIL_SIZE = "obs.complex_obs_thumbnail_size";
+	
+	/**
+	 * @since 3.0.0
+	 */
+	public static final String GLOBAL_PROPERTY_COMPLEX_OBS_PREVIEW_SIZE = "obs.complex_obs_preview_size";
+	
 	public static final String GLOBAL_PROPERTY_MIN_SEARCH_CHARACTERS = "minSearchCharacters";
 	
 	public static final int GLOBAL_PROPERTY_DEFAULT_MIN_SEARCH_CHARACTERS = 2;
@@ -343,12 +353,42 @@ public final class OpenmrsConstants {
 	
 	public static final String GLOBAL_PROPERTY_PATIENT_SEARCH_MATCH_SOUNDEX = "SOUNDEX";
 	
+	/**
+	 * @since 3.0.0
+	 */
+	public static final String GLOBAL_PROPERTY_PATIENT_SEARCH_USE_PATIENT_DOCUMENT = "patientSearch.usePatientDocument";
+	
+	/**
+	 * @since 3.0.0
+	 */
+	public static final String GLOBAL_PROPERTY_PERSON_MATCH_KEYS_ENABLED = "person.matchKeys.enabled";
+	
+	/**
+	 * @since 3.0.0
+	 */
+	public static final String GLOBAL_PROPERTY_PATIENT_MERGE_USE_BULK_UPDATES = "patient.merge.useBulkUpdates";
+	
 	public static final String GLOBAL_PROPERTY_PROVIDER_SEARCH_MATCH_MODE = "providerSearch.matchMode";
 	
 	public static final String GLOBAL_PROPERTY_DEFAULT_SERIALIZER = "serialization.defaultSerializer";
 	
 	public static final String GLOBAL_PROPERTY_IGNORE_MISSING_NONLOCAL_PATIENTS = "hl7_processor.ignore_missing_patient_non_local";
 	
+	/**
+	 * @since 3.0.0
+	 */
+	public static final String GLOBAL_PROPERTY_HL7_PROCESSOR_WORKER_THREADS = "hl7_processor.worker_threads";
+	
+	/**
+	 * @since 3.0.0
+	 */
+	public static final String GLOBAL_PROPERTY_HL7_PROCESSOR_BATCH_SIZE = "hl7_processor.batch_size";
+	
+	/**
+	 * @since 3.0.0
+	 */
+	public static final String GLOBAL_PROPERTY_HL7_PROCESSOR_CLAIM_TIMEOUT = "hl7_processor.claim_timeout";
+	
 	public static final String GLOBAL_PROPERTY_TRUE_CONCEPT = "concept.true";
 	
 	public static final String GLOBAL_PROPERTY_FALSE_CONCEPT = "concept.false";
@@ -585,6 +625,11 @@ public final class OpenmrsConstants {
 	public static final String GP_NEXT_ORDER_NUMBER_SEED = "order.nextOrderNumberSeed";
 	
 	public static final String GP_ORDER_NUMBER_GENERATOR_BEAN_ID = "order.orderNumberGeneratorBeanId";
+	
+	/**
+	 * @since 3.0.0
+	 */
+	public static final String GP_ORDER_NUMBER_BLOCK_SIZE = "order.orderNumberBlockSize";
 
 	/**
 	 *  @since 2.7.8, 2.8.2
@@ -621,7 +666,17 @@ public final class OpenmrsConstants {
 	 *
 	 * @since 1.11
 	 */
-	public static final Integer SEARCH_INDEX_VERSION = 8;
+	public static final Integer SEARCH_INDEX_VERSION = 9;
+	
+	/**
+	 * @since 3.0.0
+	 */
+	public static final String GP_SEARCH_INDEX_REBUILD_THREADS = "search.indexRebuildThreads";
+	
+	/**
+	 * @since 3.0.0
+	 */
+	public static final String GP_SEARCH_INDEX_REBUILD_PARTITION_SIZE = "search.indexRebuildPartitionSize";
 
 	/**
 	 * @since 1.12
@@ -852,6 +907,12 @@ public final class OpenmrsConstants {
 		props.add(new GlobalProperty(GLOBAL_PROPERTY_COMPLEX_OBS_DIR, "complex_obs",
 		        "Default directory for storing complex obs."));
 		
+		props.add(new GlobalProperty(GLOBAL_PROPERTY_COMPLEX_OBS_THUMBNAIL_SIZE, "128",
+		        "The maximum width and height in pixels of the thumbnails of complex obs images"));
+		
+		props.add(new GlobalProperty(GLOBAL_PROPERTY_COMPLEX_OBS_PREVIEW_SIZE, "1024",
+		        "The maximum width and height in pixels of the previews of complex obs images"));
+		
 		props
 		        .add(new GlobalProperty(
 		                GLOBAL_PROPERTY_ENCOUNTER_FORM_OBS_SORT_ORDER,
@@ -907,6 +968,17 @@ public final class OpenmrsConstants {
 		        "If true, hl7 messages for patients that are not found and are non-local will silently be dropped/ignored",
 		        BooleanDatatype.class, null));
 		
+		props.add(new GlobalProperty(GLOBAL_PROPERTY_HL7_PROCESSOR_WORKER_THREADS, "1",
+		        "Number of threads processing the hl7 inbound queue. Values greater than 1 process messages of different "
+		                + "patients in parallel and allow several nodes to drain the same queue"));
+		
+		props.add(new GlobalProperty(GLOBAL_PROPERTY_HL7_PROCESSOR_BATCH_SIZE, "100",
+		        "Number of hl7 inbound queue entries claimed at a time when hl7_processor.worker_threads is greater than 1"));
+		
+		props.add(new GlobalProperty(GLOBAL_PROPERTY_HL7_PROCESSOR_CLAIM_TIMEOUT, "30",
+		        "Number of minutes after which claimed hl7 inbound queue entries that were not processed are put back "
+		                + "into the pending state"));
+		
 		props
 		        .add(new GlobalProperty(
 		                GLOBAL_PROPERTY_SHOW_PATIENT_NAME,
@@ -957,6 +1029,21 @@ public final class OpenmrsConstants {
 		                GLOBAL_PROPERTY_PATIENT_SEARCH_MATCH_START,
 		                "Specifies how patient names are matched while searching patient. Valid values are 'ANYWHERE' or 'START'. Defaults to start if missing or invalid value is present."));
 		
+		props.add(new GlobalProperty(GLOBAL_PROPERTY_PATIENT_SEARCH_USE_PATIENT_DOCUMENT, "false",
+		        "Set to true to search patients by name, identifier or attribute with a single query over the patient "
+		                + "search documents instead of separate queries over names, identifiers and attributes",
+		        BooleanDatatype.class, null));
+		
+		props.add(new GlobalProperty(GLOBAL_PROPERTY_PERSON_MATCH_KEYS_ENABLED, "false",
+		        "Set to true to maintain the phonetic match keys of people when they are saved and to find similar "
+		                + "people through them. Rebuild the match keys after enabling it.",
+		        BooleanDatatype.class, null));
+		
+		props.add(new GlobalProperty(GLOBAL_PROPERTY_PATIENT_MERGE_USE_BULK_UPDATES, "false",
+		        "Set to true to move the visits, encounters, obs, orders and program enrollments of a merged patient "
+		                + "with one update statement per table instead of saving each of them",
+		        BooleanDatatype.class, null));
+		
 		props.add(new GlobalProperty(GP_ENABLE_CONCEPT_MAP_TYPE_MANAGEMENT, "false",
 		        "Enables or disables management of concept map types", BooleanDatatype.class, null));
 		
@@ -1040,6 +1127,13 @@ public final class OpenmrsConstants {
 		props.add(new GlobalProperty(GP_SEARCH_INDEX_VERSION, "",
 		        "Indicates the index version. If it is blank, the index needs to be rebuilt."));
 		
+		props.add(new GlobalProperty(GP_SEARCH_INDEX_REBUILD_THREADS, "2",
+		        "Number of threads indexing id ranges in parallel when the search index is rebuilt"));
+		
+		props.add(new GlobalProperty(GP_SEARCH_INDEX_REBUILD_PARTITION_SIZE, "10000",
+		        "Number of ids in each range indexed by one thread when the search index is rebuilt. The rebuild is "
+		                + "checkpointed after each range"));
+		
 		props.add(new GlobalProperty(GLOBAL_PROPERTY_ALLOW_OVERLAPPING_VISITS, "true",
 		        "true/false whether or not to allow visits of a given patient to overlap", BooleanDatatype.class, null));
 		
@@ -1062,6 +1156,10 @@ public final class OpenmrsConstants {
 		
 		props.add(new GlobalProperty(GP_ORDER_NUMBER_GENERATOR_BEAN_ID, "",
 		        "Specifies spring bean id of the order generator to use when assigning order numbers"));
+		
+		props.add(new GlobalProperty(GP_ORDER_NUMBER_BLOCK_SIZE, "100",
+		        "The number of order numbers the blockOrderNumberGenerator reserves at a time, numbers of a block which "
+		                + "are not used before a restart are skipped"));
 
 		props.add(new GlobalProperty(GP_ALLOW_SETTING_ORDER_NUMBER, "false",
 			"Specifies whether the order number property on an order can be set. If false, the order number must be generated by an order number generator."));
@@ -84,7 +84,7 @@ public class ObsValidator implements Validator {
 			return;
 		}
 		List<Obs> ancestors = new ArrayList<>();
-		validateHelper(obs, errors, ancestors, true);
+		validateHelper(obs, errors, ancestors, true, ConceptReferenceRangeUtility.getInstance());
 		ValidateUtil.validateFieldLengths(errors, obj.getClass(), "accessionNumber", "valueModifier", "valueComplex",
 		    "comment", "voidReason");
 	}
@@ -98,8 +98,11 @@ public class ObsValidator implements Validator {
 	 * @param ancestors
 	 * @param atRootNode whether or not this is the obs that validate() was originally called on. If
 	 *            not then we shouldn't reject fields by name.
+	 * @param referenceRangeUtility evaluates the reference range criteria of the obs and its group
+	 *            members, sharing the lookups between them and the other obs of the same save
 	 */
-	private void validateHelper(Obs obs, Errors errors, List<Obs> ancestors, boolean atRootNode) {
+	private void validateHelper(Obs obs, Errors errors, List<Obs> ancestors, boolean atRootNode,
+	        ConceptReferenceRangeUtility referenceRangeUtility) {
 		if (obs.getPersonId() == null) {
 			errors.rejectValue("person", "error.null");
 		}
@@ -195,7 +198,7 @@ public class ObsValidator implements Validator {
 						}
 					}
 					
-					validateConceptReferenceRange(obs, errors, atRootNode);
+					validateConceptReferenceRange(obs, errors, atRootNode, referenceRangeUtility);
 				} else if (dt.isText() && obs.getValueText() == null) {
 					if (atRootNode) {
 						errors.rejectValue("valueText", "error.null");
@@ -231,7 +234,7 @@ public class ObsValidator implements Validator {
 			ancestors.add(obs);
 			for (Obs child : groupMembers) {
 				if (!child.getVoided()) {
-					validateHelper(child, errors, ancestors, false);
+					validateHelper(child, errors, ancestors, false, referenceRangeUtility);
 				}
 			}
 			ancestors.remove(ancestors.size() - 1);
@@ -258,9 +261,13 @@ public class ObsValidator implements Validator {
 	 *
 	 * @param obs Observation to validate
 	 * @param errors Errors to record validation issues
+	 * @param referenceRangeUtility evaluates the criteria of the concept's reference ranges
 	 */
-	private void validateConceptReferenceRange(Obs obs, Errors errors, boolean atRootNode) {
-		ConceptReferenceRange conceptReferenceRange = getReferenceRange(obs);
+	private void validateConceptReferenceRange(Obs obs, Errors errors, boolean atRootNode,
+	        ConceptReferenceRangeUtility referenceRangeUtility) {
+		ConceptReferenceRange conceptReferenceRange = getReferenceRange(obs, referenceRangeUtility);
+		// the obs becomes the latest one of its concept for the obs validated after it
+		referenceRangeUtility.forgetLatestObs(obs);
 
 		if (conceptReferenceRange != null) {
 			validateAbsoluteRanges(obs, conceptReferenceRange, errors, atRootNode);
@@ -285,6 +292,10 @@ public class ObsValidator implements Validator {
 	 * @since 2.7.0
 	 */
 	public ConceptReferenceRange getReferenceRange(Obs obs) {
+		return getReferenceRange(obs, ConceptReferenceRangeUtility.getInstance());
+	}
+	
+	private ConceptReferenceRange getReferenceRange(Obs obs, ConceptReferenceRangeUtility referenceRangeUtility) {
 		Concept concept = HibernateUtil.getRealObjectFromProxy(obs.getConcept());
 		if (concept == null || concept.getDatatype() == null || !concept.getDatatype().isNumeric()) {
 			return null;
@@ -299,7 +310,6 @@ public class ObsValidator implements Validator {
 			return getDefaultReferenceRange(conceptNumeric);
 		}
 
-		ConceptReferenceRangeUtility referenceRangeUtility = new ConceptReferenceRangeUtility();
 		List<ConceptReferenceRange> validRanges = new ArrayList<>();
 
 		for (ConceptReferenceRange referenceRange : referenceRanges) {
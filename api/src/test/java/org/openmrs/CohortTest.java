@@ -340,4 +340,12 @@ public class CohortTest {
 		assertFalse(cohort.hasNoActiveMemberships());
 		
 	}
+
+	@Test
+	public void getPatientIdSet_shouldExcludeVoidedMemberships() {
+		Cohort cohort = new Cohort("name", "description", ids);
+		cohort.getMemberships().stream().filter(m -> m.getPatientId().equals(2)).forEach(m -> m.setVoided(true));
+		
+		assertEquals(PatientIdSet.of(1, 3), cohort.getPatientIdSet());
+	}
 }
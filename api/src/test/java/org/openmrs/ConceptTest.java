@@ -1267,4 +1267,43 @@ public class ConceptTest extends BaseContextSensitiveTest {
 		assertThat(concept.getSetMembers(), hasItem(setMember3));
 		assertThat(concept.getSetMembers().size(), is(3));
 	}
+	
+	/**
+	 * @see Concept#getPreferredName(Locale)
+	 */
+	@Test
+	public void getPreferredName_shouldReturnTheNewPreferredNameAfterThePreferredNameChanged() {
+		Concept concept = createConcept(1, Locale.ENGLISH);
+		ConceptName aspirin = createConceptName(3, "Aspirin", Locale.ENGLISH, null, true);
+		concept.addName(aspirin);
+		assertEquals(aspirin, concept.getPreferredName(Locale.ENGLISH));
+		assertEquals(aspirin, concept.getName(Locale.ENGLISH));
+		
+		ConceptName asa = createConceptName(4, "ASA", Locale.ENGLISH, null, false);
+		concept.addName(asa);
+		concept.setPreferredName(asa);
+		
+		assertEquals(asa, concept.getPreferredName(Locale.ENGLISH));
+		assertEquals(asa, concept.getName(Locale.ENGLISH));
+	}
+	
+	/**
+	 * @see Concept#getName(Locale)
+	 */
+	@Test
+	public void getName_shouldNotReturnANameWhichWasVoidedAfterItWasResolved() {
+		Concept concept = new Concept();
+		ConceptName fullySpecifiedName = createConceptName(1, "Aspirin", Locale.ENGLISH,
+		    ConceptNameType.FULLY_SPECIFIED, false);
+		concept.addName(fullySpecifiedName);
+		ConceptName synonym = createConceptName(2, "ASA", Locale.ENGLISH, null, false);
+		concept.addName(synonym);
+		assertEquals(fullySpecifiedName, concept.getName(Locale.ENGLISH, true));
+		assertEquals(fullySpecifiedName, concept.getFullySpecifiedName(Locale.ENGLISH));
+		
+		fullySpecifiedName.setVoided(true);
+		
+		assertNull(concept.getFullySpecifiedName(Locale.ENGLISH));
+		assertEquals(synonym, concept.getName(Locale.ENGLISH, true));
+	}
 }
@@ -0,0 +1,88 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link PatientIdSet} class.
+ */
+public class PatientIdSetTest {
+	
+	@Test
+	public void of_shouldIgnoreNullsAndDuplicates() {
+		PatientIdSet patientIds = PatientIdSet.of(Arrays.asList(3, null, 1, 3));
+		
+		assertEquals(2, patientIds.size());
+		assertTrue(patientIds.contains(1));
+		assertTrue(patientIds.contains(3));
+		assertFalse(patientIds.contains(2));
+		assertFalse(patientIds.contains(null));
+	}
+	
+	@Test
+	public void of_shouldRejectNegativeIds() {
+		assertThrows(IllegalArgumentException.class, () -> PatientIdSet.of(1, -1));
+	}
+	
+	@Test
+	public void union_shouldContainIdsOfBothSets() {
+		assertEquals(PatientIdSet.of(1, 2, 3, 4), PatientIdSet.of(1, 2).union(PatientIdSet.of(3, 4)));
+	}
+	
+	@Test
+	public void intersect_shouldContainIdsInBothSets() {
+		assertEquals(PatientIdSet.of(2), PatientIdSet.of(1, 2).intersect(PatientIdSet.of(2, 3)));
+		assertTrue(PatientIdSet.of(1, 2).intersect(null).isEmpty());
+	}
+	
+	@Test
+	public void subtract_shouldRemoveIdsOfOtherSet() {
+		PatientIdSet patientIds = PatientIdSet.of(1, 2, 3);
+		
+		assertEquals(PatientIdSet.of(1, 3), patientIds.subtract(PatientIdSet.of(2, 4)));
+		assertEquals(PatientIdSet.of(1, 2, 3), patientIds);
+	}
+	
+	@Test
+	public void partition_shouldSplitIdsIntoBatchesInAscendingOrder() {
+		List<PatientIdSet> batches = PatientIdSet.of(9, 1, 5, 7, 3).partition(2);
+		
+		assertEquals(Arrays.asList(PatientIdSet.of(1, 3), PatientIdSet.of(5, 7), PatientIdSet.of(9)), batches);
+		assertTrue(PatientIdSet.empty().partition(2).isEmpty());
+	}
+	
+	@Test
+	public void getRanges_shouldCollapseConsecutiveIds() {
+		List<int[]> ranges = PatientIdSet.of(1, 2, 3, 7, 9, 10).getRanges();
+		
+		assertEquals(3, ranges.size());
+		assertArrayEquals(new int[] { 1, 3 }, ranges.get(0));
+		assertArrayEquals(new int[] { 7, 7 }, ranges.get(1));
+		assertArrayEquals(new int[] { 9, 10 }, ranges.get(2));
+	}
+	
+	@Test
+	public void toCohort_shouldCreateMembershipForEachId() {
+		Cohort cohort = PatientIdSet.of(4, 2).toCohort();
+		
+		assertEquals(2, cohort.size());
+		assertEquals(PatientIdSet.of(2, 4), cohort.getPatientIdSet());
+	}
+}
@@ -39,6 +39,9 @@ public class AOPConfigTest extends BaseContextSensitiveTest {
 	@Autowired
 	private AuthorizationAdvice authorizationAdvice;
 	
+	@Autowired
+	private MetricsAdvice metricsAdvice;
+	
 	private static Method dummyMethod;
 
 	
@@ -85,6 +88,22 @@ public class AOPConfigTest extends BaseContextSensitiveTest {
 		assertTrue(advisor.matches(dummyMethod, TestClassAnnotatedNotExtends.class));
 	}
 	
+	/**
+	 * @see org.openmrs.aop.AOPConfig#metricsAdvisor(org.openmrs.aop.MetricsAdvice)
+	 */
+	@Test
+	public void metricsAdvisor_shouldMatchOnlyAnnotatedServiceClassesBeforeOtherAdvisors() {
+		assertNotNull(metricsAdvice);
+		
+		StaticMethodMatcherPointcutAdvisor advisor = (StaticMethodMatcherPointcutAdvisor) new AOPConfig().metricsAdvisor(metricsAdvice);
+		
+		assertTrue(advisor.matches(dummyMethod, TestClassAnnotatedExtends.class));
+		assertFalse(advisor.matches(dummyMethod, TestClassNotAnnotatedExtends.class));
+		assertTrue(advisor.matches(dummyMethod, TestClassAnnotatedNotExtends.class));
+		assertTrue(advisor.getOrder() < ((StaticMethodMatcherPointcutAdvisor) new AOPConfig()
+		        .authorizationAdvisor(authorizationAdvice)).getOrder());
+	}
+	
 	/**
 	 * @see org.openmrs.aop.AOPConfig#requiredDataAdvisor(org.openmrs.aop.RequiredDataAdvice)
 	 */
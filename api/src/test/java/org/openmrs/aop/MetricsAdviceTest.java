@@ -0,0 +1,81 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.aop;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openmrs.api.APIException;
+
+/**
+ * Tests {@link MetricsAdvice}.
+ */
+public class MetricsAdviceTest {
+	
+	private MeterRegistry registry;
+	
+	private MetricsAdvice advice;
+	
+	@BeforeEach
+	public void before() {
+		registry = new SimpleMeterRegistry();
+		advice = new MetricsAdvice(registry);
+	}
+	
+	/**
+	 * @see MetricsAdvice#invoke(MethodInvocation)
+	 */
+	@Test
+	public void invoke_shouldRecordTheLatencyOfTheCall() throws Throwable {
+		MethodInvocation invocation = mockInvocation();
+		when(invocation.proceed()).thenReturn("result");
+		
+		assertEquals("result", advice.invoke(invocation));
+		assertEquals("result", advice.invoke(invocation));
+		
+		Timer timer = registry.get(MetricsAdvice.METRIC_NAME).tag("service", "TestService")
+		        .tag("method", "toString").tag("exception", "none").timer();
+		assertEquals(2, timer.count());
+	}
+	
+	/**
+	 * @see MetricsAdvice#invoke(MethodInvocation)
+	 */
+	@Test
+	public void invoke_shouldRecordTheExceptionThrownByTheCall() throws Throwable {
+		MethodInvocation invocation = mockInvocation();
+		when(invocation.proceed()).thenThrow(new APIException("failed"));
+		
+		assertThrows(APIException.class, () -> advice.invoke(invocation));
+		
+		Timer timer = registry.get(MetricsAdvice.METRIC_NAME).tag("method", "toString").tag("exception", "APIException")
+		        .timer();
+		assertEquals(1, timer.count());
+		assertNull(registry.find(MetricsAdvice.METRIC_NAME).tag("exception", "none").timer());
+	}
+	
+	private MethodInvocation mockInvocation() throws NoSuchMethodException {
+		MethodInvocation invocation = mock(MethodInvocation.class);
+		when(invocation.getMethod()).thenReturn(Object.class.getMethod("toString"));
+		when(invocation.getThis()).thenReturn(new TestService());
+		return invocation;
+	}
+	
+	private static class TestService {}
+}
@@ -10,8 +10,11 @@
 package org.openmrs.aop;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -87,6 +90,7 @@ public class RequiredDataAdviceTest extends BaseContextMockTest {
 	public void setUp() {
 		//Clear cache since handlers are updated
 		HandlerUtil.clearCachedHandlers();
+		RequiredDataAdvice.clearHandlerPlans();
 	}
 	
 	/**
@@ -640,6 +644,42 @@ public class RequiredDataAdviceTest extends BaseContextMockTest {
 		
 	}
 	
+	@Test
+	public void getHandlerPlan_shouldCachePlanUntilTheContextIsRefreshed() {
+		RequiredDataAdvice.HandlerPlan<?> plan = RequiredDataAdvice.getHandlerPlan(VoidHandler.class,
+		    ClassWithDisableHandlersAnnotation.class);
+		
+		assertSame(plan, RequiredDataAdvice.getHandlerPlan(VoidHandler.class, ClassWithDisableHandlersAnnotation.class));
+		
+		requiredDataAdvice.onApplicationEvent(null);
+		
+		assertNotSame(plan, RequiredDataAdvice.getHandlerPlan(VoidHandler.class, ClassWithDisableHandlersAnnotation.class));
+	}
+	
+	@Test
+	public void getHandlerPlan_shouldOnlyIncludeCollectionsWithEnabledHandlers() {
+		RequiredDataAdvice.HandlerPlan<?> plan = RequiredDataAdvice.getHandlerPlan(VoidHandler.class,
+		    ClassWithDisableHandlersAnnotation.class);
+		
+		List<String> fieldNames = new ArrayList<>();
+		for (RequiredDataAdvice.CollectionAccessor accessor : plan.getCollections()) {
+			fieldNames.add(accessor.getFieldName());
+		}
+		assertEquals(Arrays.asList("notAnnotatedPersons"), fieldNames);
+	}
+	
+	@Test
+	public void getHandlerPlan_shouldIncludeHandlersForType() {
+		Map<String, VoidHandler> voidHandlers = new HashMap<>();
+		voidHandlers.put("voidHandler", voidHandler);
+		when(applicationContext.getBeansOfType(VoidHandler.class)).thenReturn(voidHandlers);
+		
+		RequiredDataAdvice.HandlerPlan<?> plan = RequiredDataAdvice.getHandlerPlan(VoidHandler.class,
+		    ClassWithDisableHandlersAnnotation.class);
+		
+		assertEquals(Arrays.asList(voidHandler), plan.getHandlers());
+	}
+	
 	class SomeOpenmrsData extends BaseOpenmrsData {
 		
 		@Override
@@ -1188,4 +1188,57 @@ public class AdministrationServiceTest extends BaseContextSensitiveTest {
 		// verify hook methods must be called
 		verify(activator).setupOnVersionChange(previousCoreVersion, previousModuleVersion);
 	}
+
+	@Test
+	public void getGlobalProperty_shouldReturnTheNewValueAfterThePropertyIsSaved() {
+		adminService.setGlobalProperty("cached.gp", "old");
+		assertEquals("old", adminService.getGlobalProperty("cached.gp"));
+		
+		GlobalProperty gp = adminService.getGlobalPropertyObject("cached.gp");
+		gp.setPropertyValue("new");
+		adminService.saveGlobalProperty(gp);
+		assertEquals("new", adminService.getGlobalProperty("CACHED.gp"));
+		
+		adminService.purgeGlobalProperty(adminService.getGlobalPropertyObject("cached.gp"));
+		assertNull(adminService.getGlobalProperty("cached.gp"));
+	}
+	
+	@Test
+	public void getGlobalProperty_shouldReturnAPropertyInsertedBySqlAfterItWasMissing() {
+		assertNull(adminService.getGlobalProperty("sql.gp"));
+		
+		adminService.executeSQL("insert into global_property (property, property_value, uuid) values ('sql.gp', "
+		        + "'inserted', '1b0b5d0c-2a5c-4a3e-9a8e-3f4f1c6a7d21')", false);
+		
+		assertEquals("inserted", adminService.getGlobalProperty("sql.gp"));
+	}
+	
+	@Test
+	public void getGlobalPropertyAsInt_shouldReturnTheValueAsAnInteger() {
+		adminService.setGlobalProperty("int.gp", " 42 ");
+		assertEquals(42, adminService.getGlobalPropertyAsInt("int.gp", 7));
+	}
+	
+	@Test
+	public void getGlobalPropertyAsInt_shouldReturnTheDefaultValueIfTheValueIsMissingOrNotAnInteger() {
+		assertEquals(7, adminService.getGlobalPropertyAsInt("missing.gp", 7));
+		adminService.setGlobalProperty("int.gp", "forty two");
+		assertEquals(7, adminService.getGlobalPropertyAsInt("int.gp", 7));
+	}
+	
+	@Test
+	public void getGlobalPropertyAsBoolean_shouldReturnTheValueAsABoolean() {
+		assertTrue(adminService.getGlobalPropertyAsBoolean("boolean.gp", true));
+		adminService.setGlobalProperty("boolean.gp", "TRUE");
+		assertTrue(adminService.getGlobalPropertyAsBoolean("boolean.gp", false));
+		adminService.setGlobalProperty("boolean.gp", "false");
+		assertFalse(adminService.getGlobalPropertyAsBoolean("boolean.gp", true));
+	}
+	
+	@Test
+	public void getGlobalPropertyAsList_shouldReturnTheTrimmedElementsOfTheValue() {
+		assertThat(adminService.getGlobalPropertyAsList("list.gp"), emptyIterable());
+		adminService.setGlobalProperty("list.gp", " a, b ,,c ");
+		assertThat(adminService.getGlobalPropertyAsList("list.gp"), contains("a", "b", "c"));
+	}
 }
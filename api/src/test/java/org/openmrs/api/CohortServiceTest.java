@@ -31,6 +31,7 @@ import org.junit.jupiter.api.Test;
 import org.openmrs.Cohort;
 import org.openmrs.CohortMembership;
 import org.openmrs.Patient;
+import org.openmrs.PatientIdSet;
 import org.openmrs.User;
 import org.openmrs.api.context.Context;
 import org.openmrs.test.jupiter.BaseContextSensitiveTest;
@@ -824,4 +825,21 @@ public class CohortServiceTest extends BaseContextSensitiveTest {
 
 		assertTrue(foundVoidedCohortMembership, "Expected to find a membership from a voided cohort");
 	}
+
+	@Test
+	public void getPatientIdSet_shouldReadMemberIdsOfSavedCohort() throws Exception {
+		executeDataSet(COHORT_XML);
+		
+		PatientIdSet patientIds = service.getPatientIdSet(service.getCohort(2));
+		
+		assertEquals(PatientIdSet.of(6), patientIds);
+	}
+	
+	@Test
+	public void getPatientIdSet_shouldUseMembershipsOfUnsavedCohort() {
+		Cohort cohort = new Cohort("unsaved", "unsaved cohort", new Integer[] { 2, 7 });
+		
+		assertEquals(PatientIdSet.of(2, 7), service.getPatientIdSet(cohort));
+		assertTrue(service.getPatientIdSet(null).isEmpty());
+	}
 }
@@ -40,6 +40,9 @@ import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.lang3.time.DateUtils;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.PersistenceContext;
+import org.hibernate.engine.spi.SessionImplementor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
@@ -108,6 +111,9 @@ public class EncounterServiceTest extends BaseContextSensitiveTest {
 	@Autowired
 	AdministrationService adminService;
 	
+	@Autowired
+	SessionFactory sessionFactory;
+	
 	/**
 	 * This method is run before all of the tests in this class because it has the @Before
 	 * annotation on it. This will add the contents of {@link #ENC_INITIAL_DATA_XML} to the current
@@ -1880,6 +1886,56 @@ public class EncounterServiceTest extends BaseContextSensitiveTest {
 		assertEquals(3, allEncounters.get(7).size());
 	}
 	
+	/**
+	 * @see EncounterService#forEachPatientEncounters(Cohort, int, java.util.function.BiConsumer)
+	 */
+	@Test
+	public void forEachPatientEncounters_shouldPassTheEncountersOfEachPatientInTheCohortToTheCallback() {
+		Cohort cohort = new Cohort(Arrays.asList(2, 7));
+		Map<Integer, List<Encounter>> expected = Context.getEncounterService().getAllEncounters(cohort);
+		
+		Map<Integer, Integer> encounterCounts = new HashMap<>();
+		Context.getEncounterService().forEachPatientEncounters(cohort, 1,
+		    (patientId, encounters) -> encounterCounts.put(patientId, encounters.size()));
+		
+		assertEquals(expected.keySet(), encounterCounts.keySet());
+		expected.forEach((patientId, encounters) -> assertEquals(encounters.size(), encounterCounts.get(patientId)));
+		assertEquals(3, encounterCounts.get(7));
+	}
+	
+	/**
+	 * @see EncounterService#forEachPatientEncounters(Cohort, int, java.util.function.BiConsumer)
+	 */
+	@Test
+	public void forEachPatientEncounters_shouldSkipPatientsWithoutEncounters() {
+		Cohort cohort = new Cohort(Arrays.asList(7, 999));
+		
+		List<Integer> patientIds = new ArrayList<>();
+		Context.getEncounterService().forEachPatientEncounters(cohort, 10, (patientId, encounters) -> patientIds.add(patientId));
+		
+		assertEquals(Arrays.asList(7), patientIds);
+	}
+	
+	/**
+	 * @see EncounterService#forEachPatientEncounters(Cohort, int, java.util.function.BiConsumer)
+	 */
+	@Test
+	public void forEachPatientEncounters_shouldNotAddTheWalkedEncountersToTheSession() {
+		EncounterService encounterService = Context.getEncounterService();
+		// a walk without any encounter loads whatever the service call itself needs
+		encounterService.forEachPatientEncounters(new Cohort(Arrays.asList(999)), 1, (patientId, encounters) -> {});
+		PersistenceContext persistenceContext = sessionFactory.getCurrentSession().unwrap(SessionImplementor.class)
+		        .getPersistenceContext();
+		int managedEntities = persistenceContext.getNumberOfManagedEntities();
+		
+		List<String> patientNames = new ArrayList<>();
+		encounterService.forEachPatientEncounters(new Cohort(Arrays.asList(2, 7)), 1,
+		    (patientId, encounters) -> patientNames.add(encounters.get(0).getPatient().getPersonName().getFullName()));
+		
+		assertEquals(2, patientNames.size());
+		assertEquals(managedEntities, persistenceContext.getNumberOfManagedEntities());
+	}
+	
 	/**
 	 * @see EncounterService#getEncounters(Patient, Location, Date, Date, java.util.Collection,
 	 *      java.util.Collection, java.util.Collection, java.util.Collection, java.util.Collection,
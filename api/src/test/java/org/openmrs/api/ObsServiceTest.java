@@ -42,9 +42,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.openmrs.Cohort;
 import org.openmrs.Concept;
 import org.openmrs.ConceptName;
 import org.openmrs.ConceptProposal;
@@ -90,6 +93,9 @@ public class ObsServiceTest extends BaseContextSensitiveTest {
 	@Autowired
 	private AdministrationService adminService;
 	
+	@Autowired
+	private SessionFactory sessionFactory;
+	
 	/**
 	 * This method gets the revision obs for voided obs
 	 *
@@ -2166,4 +2172,140 @@ public class ObsServiceTest extends BaseContextSensitiveTest {
 		
 		return obs;
 	}
+	
+	/**
+	 * @see ObsService#forEachPatientObs(Cohort, int, java.util.function.BiConsumer)
+	 */
+	@Test
+	public void forEachPatientObs_shouldPassTheObservationsOfEachPatientInTheCohortToTheCallback() {
+		Map<Integer, List<Obs>> obsByPatient = new HashMap<>();
+		obsService.forEachPatientObs(new Cohort(Arrays.asList(7)), 1, obsByPatient::put);
+		
+		List<Obs> expected = obsService.getObservationsByPerson(new Person(7));
+		assertEquals(1, obsByPatient.size());
+		assertEquals(expected.size(), obsByPatient.get(7).size());
+		for (int i = 1; i < obsByPatient.get(7).size(); i++) {
+			assertFalse(obsByPatient.get(7).get(i).getObsDatetime().after(obsByPatient.get(7).get(i - 1).getObsDatetime()));
+		}
+	}
+	
+	/**
+	 * @see ObsService#forEachPatientObs(Cohort, int, java.util.function.BiConsumer)
+	 */
+	@Test
+	public void forEachPatientObs_shouldNotDetachObservationsAlreadyInTheSession() {
+		Integer obsId = obsService.getObservationsByPerson(new Person(7)).get(0).getObsId();
+		Context.clearSession();
+		Obs obs = obsService.getObs(obsId);
+		
+		List<Obs> walked = new ArrayList<>();
+		obsService.forEachPatientObs(new Cohort(Arrays.asList(7)), 1, (patientId, patientObs) -> walked.addAll(patientObs));
+		
+		Session session = sessionFactory.getCurrentSession();
+		assertTrue(walked.size() > 1);
+		assertTrue(walked.contains(obs));
+		assertTrue(session.contains(obs));
+		for (Obs walkedObs : walked) {
+			if (walkedObs != obs) {
+				assertFalse(session.contains(walkedObs));
+			}
+		}
+	}
+	
+	/**
+	 * @see ObsService#saveObsBatch(java.util.Collection, String)
+	 */
+	@Test
+	public void saveObsBatch_shouldSaveAllValidObsAndReportTheInvalidOnes() {
+		Obs first = newNumericObs(50d);
+		Obs invalid = newNumericObs(60d);
+		invalid.setConcept(null);
+		Obs last = newNumericObs(70d);
+		
+		BatchSaveResult<Obs> result = obsService.saveObsBatch(Arrays.asList(first, invalid, last), null);
+		
+		assertEquals(2, result.getSaved().size());
+		assertNotNull(first.getObsId());
+		assertNotNull(last.getObsId());
+		assertNull(invalid.getObsId());
+		assertEquals(1, result.getErrors().size());
+		assertTrue(result.getErrors().get(1) instanceof ValidationException);
+	}
+	
+	/**
+	 * @see ObsService#saveObsBatch(java.util.Collection, String)
+	 */
+	@Test
+	public void saveObsBatch_shouldRequireAChangeMessageForExistingObs() {
+		Obs obs = obsService.getObs(7);
+		
+		BatchSaveResult<Obs> result = obsService.saveObsBatch(Arrays.asList(obs, newNumericObs(50d)), null);
+		
+		assertEquals(1, result.getSaved().size());
+		assertTrue(result.getErrors().containsKey(0));
+		assertFalse(obsService.getObs(7).getVoided());
+	}
+	
+	/**
+	 * @see ObsService#saveObsBatch(java.util.Collection, String)
+	 */
+	@Test
+	public void saveObsBatch_shouldReportTheObsFailingToBeWrittenAndSaveTheOthers() {
+		Obs first = newNumericObs(50d);
+		Obs unwritable = newNumericObs(60d);
+		// passes validation but violates the foreign key to the person table
+		unwritable.setPerson(new Patient(987654));
+		Obs last = newNumericObs(70d);
+		
+		BatchSaveResult<Obs> result = obsService.saveObsBatch(Arrays.asList(first, unwritable, last), null);
+		
+		assertEquals(2, result.getSaved().size());
+		assertEquals(1, result.getErrors().size());
+		assertTrue(result.getErrors().containsKey(1));
+		assertNull(unwritable.getObsId());
+		Context.flushSession();
+		assertNotNull(obsService.getObs(first.getObsId()));
+		assertNotNull(obsService.getObs(last.getObsId()));
+	}
+	
+	/**
+	 * @see ObsService#saveObsBatch(java.util.Collection, String)
+	 */
+	@Test
+	public void saveObsBatch_shouldNotLeaveTheObsFailingToBeWrittenInTheSession() {
+		Obs unwritable = newNumericObs(60d);
+		unwritable.setPerson(new Patient(987654));
+		
+		BatchSaveResult<Obs> result = obsService.saveObsBatch(Arrays.asList(newNumericObs(50d), unwritable), null);
+		
+		assertTrue(result.getErrors().containsKey(1));
+		assertFalse(sessionFactory.getCurrentSession().contains(unwritable));
+		// the session of the caller can still be flushed
+		Context.flushSession();
+		assertEquals(1, result.getSaved().size());
+		assertNotNull(obsService.getObs(result.getSaved().get(0).getObsId()));
+	}
+	
+	/**
+	 * @see ObsService#saveObsBatch(java.util.Collection, String)
+	 */
+	@Test
+	public void saveObsBatch_shouldNotDetachObjectsLoadedBeforeTheCall() {
+		Encounter encounter = Context.getEncounterService().getEncounter(3);
+		
+		obsService.saveObsBatch(Arrays.asList(newNumericObs(50d), newNumericObs(60d)), null);
+		
+		assertTrue(sessionFactory.getCurrentSession().contains(encounter));
+	}
+	
+	private Obs newNumericObs(double value) {
+		Obs obs = new Obs();
+		obs.setConcept(Context.getConceptService().getConcept(3));
+		obs.setPerson(new Patient(2));
+		obs.setEncounter(new Encounter(3));
+		obs.setObsDatetime(new Date());
+		obs.setLocation(new Location(1));
+		obs.setValueNumeric(value);
+		return obs;
+	}
 }
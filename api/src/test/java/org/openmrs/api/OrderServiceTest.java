@@ -330,6 +330,23 @@ public class OrderServiceTest extends BaseContextSensitiveTest {
 		assertEquals(N, uniqueOrderNumbers.size());
 	}
 
+	/**
+	 * @see OrderService#getNextOrderNumberSeedSequenceValues(int)
+	 */
+	@Test
+	public void getNextOrderNumberSeedSequenceValues_shouldReserveTheGivenNumberOfSeeds() {
+		Long first = orderService.getNextOrderNumberSeedSequenceValues(10);
+		assertEquals(first + 10, orderService.getNextOrderNumberSeedSequenceValue());
+	}
+
+	/**
+	 * @see OrderService#getNextOrderNumberSeedSequenceValues(int)
+	 */
+	@Test
+	public void getNextOrderNumberSeedSequenceValues_shouldFailIfCountIsLessThanOne() {
+		assertThrows(IllegalArgumentException.class, () -> orderService.getNextOrderNumberSeedSequenceValues(0));
+	}
+
 	/**
 	 * @see OrderService#getOrderByOrderNumber(String)
 	 */
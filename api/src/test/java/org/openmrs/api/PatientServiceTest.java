@@ -73,6 +73,7 @@ import org.openmrs.api.impl.PatientServiceImplTest;
 import org.openmrs.comparator.PatientIdentifierTypeDefaultComparator;
 import org.openmrs.patient.IdentifierValidator;
 import org.openmrs.patient.impl.LuhnIdentifierValidator;
+import org.openmrs.person.PersonMatch;
 import org.openmrs.person.PersonMergeLog;
 import org.openmrs.person.PersonMergeLogData;
 import org.openmrs.serialization.SerializationException;
@@ -2467,6 +2468,36 @@ public class PatientServiceTest extends BaseContextSensitiveTest {
 		assertTrue(isValueInList(Context.getEncounterService().getEncounter(3).getUuid(), audit.getPersonMergeLogData().getMovedEncounters()), "encounter creation not audited");
 	}
 	
+	/**
+	 * @see PatientService#mergePatients(Patient,Patient)
+	 */
+	@Test
+	public void mergePatients_shouldMoveEncountersAndTheirObservationsWithBulkUpdatesWhenEnabled() throws Exception {
+		Context.getAdministrationService().setGlobalProperty(
+		    OpenmrsConstants.GLOBAL_PROPERTY_PATIENT_MERGE_USE_BULK_UPDATES, "true");
+		Patient preferred = patientService.getPatient(999);
+		Patient notPreferred = patientService.getPatient(7);
+		voidOrders(Collections.singleton(notPreferred));
+		List<String> encounterUuids = new ArrayList<>();
+		for (Encounter encounter : Context.getEncounterService().getEncountersByPatient(notPreferred)) {
+			encounterUuids.add(encounter.getUuid());
+		}
+		assertFalse(encounterUuids.isEmpty());
+		
+		PersonMergeLog audit = mergeAndRetrieveAudit(preferred, notPreferred);
+		Context.clearSession();
+		
+		assertTrue(audit.getPersonMergeLogData().getMovedEncounters().containsAll(encounterUuids));
+		assertTrue(Context.getEncounterService().getEncountersByPatient(patientService.getPatient(7)).isEmpty());
+		for (String uuid : encounterUuids) {
+			Encounter encounter = Context.getEncounterService().getEncounterByUuid(uuid);
+			assertEquals(preferred.getPatientId(), encounter.getPatient().getPatientId());
+			for (Obs obs : encounter.getAllObs(true)) {
+				assertEquals(preferred.getPersonId(), obs.getPerson().getPersonId());
+			}
+		}
+	}
+	
 	/**
 	 * @see PatientService#mergePatients(Patient,Patient)
 	 */
@@ -2750,6 +2781,38 @@ public class PatientServiceTest extends BaseContextSensitiveTest {
 		assertEquals(1, Context.getPatientService().getCountOfPatients("Hor").intValue());
 	}
 	
+	/**
+	 * @see PatientService#getPatients(String,Integer,Integer)
+	 */
+	@Test
+	public void getPatients_shouldReturnEachPatientOnceWhenSearchingThePatientDocuments() throws Exception {
+		Context.getAdministrationService().setGlobalProperty(
+		    OpenmrsConstants.GLOBAL_PROPERTY_PATIENT_SEARCH_USE_PATIENT_DOCUMENT, "true");
+		updateSearchIndex();
+
+		// patient 2 has three names starting with Hor
+		List<Patient> patients = patientService.getPatients("Hor", 0, 10);
+		assertEquals(1, patients.size());
+		assertEquals(2, patients.get(0).getPatientId().intValue());
+		assertEquals(1, patientService.getCountOfPatients("Hor").intValue());
+
+		patients = patientService.getPatients("6TS-4", 0, 10);
+		assertEquals(1, patients.size());
+		assertEquals(7, patients.get(0).getPatientId().intValue());
+	}
+
+	/**
+	 * @see PatientService#getPatients(String,Integer,Integer)
+	 */
+	@Test
+	public void getPatients_shouldNotMatchVoidedIdentifiersWhenSearchingThePatientDocuments() throws Exception {
+		Context.getAdministrationService().setGlobalProperty(
+		    OpenmrsConstants.GLOBAL_PROPERTY_PATIENT_SEARCH_USE_PATIENT_DOCUMENT, "true");
+		updateSearchIndex();
+
+		assertEquals(0, patientService.getPatients("ABC123", 0, 10).size());
+	}
+
 	@Test
 	public void getPatient_shouldCreatePatientFromPerson() throws Exception {
 		executeDataSet(USER_WHO_IS_NOT_PATIENT_XML);
@@ -3330,5 +3393,57 @@ public class PatientServiceTest extends BaseContextSensitiveTest {
 		PatientIdentifierException patientIdentifierException = assertThrows(PatientIdentifierException.class, () -> patientService.getIdentifierValidator("com.example.InvalidIdentifierValidator"));
 		assertEquals("Could not find patient identifier validator com.example.InvalidIdentifierValidator", patientIdentifierException.getMessage());
 	}
+	
+	/**
+	 * @see PatientService#getProbableDuplicatePatients(double, int)
+	 */
+	@Test
+	public void getProbableDuplicatePatients_shouldReturnPatientsWithSimilarNamesGenderAndBirthYear() {
+		adminService.setGlobalProperty(OpenmrsConstants.GLOBAL_PROPERTY_PERSON_MATCH_KEYS_ENABLED, "true");
+		Context.getPersonService().rebuildPersonMatchKeys();
+		
+		// Horatio Test Hornblower, also known as John, and Johnny Test Doe are both men born in 1975
+		List<PersonMatch> matches = patientService.getProbableDuplicatePatients(0.6, 10);
+		
+		assertEquals(1, matches.size());
+		assertEquals(2, matches.get(0).getPerson().getPersonId());
+		assertEquals(6, matches.get(0).getMatch().getPersonId());
+		assertEquals(0.67, matches.get(0).getScore(), 0.001);
+		assertThat(patientService.getProbableDuplicatePatients(0.7, 10), is(empty()));
+	}
+	
+	/**
+	 * @see PatientService#getProbableDuplicatePatients(double, int)
+	 */
+	@Test
+	public void getProbableDuplicatePatients_shouldFindTheBestPairAmongMorePairsThanAreLookedAt() {
+		adminService.setGlobalProperty(OpenmrsConstants.GLOBAL_PROPERTY_PERSON_MATCH_KEYS_ENABLED, "true");
+		// the 91 pairs of these patients share a code, of which only the 10 sharing the most codes are scored
+		String[] familyNames = { "Adams", "Baker", "Clark", "Evans", "Foster", "Hughes", "King", "Lopez", "Morgan",
+		        "Nash", "Owens", "Perry" };
+		for (int i = 0; i < familyNames.length; i++) {
+			saveDuplicateCandidate("Darius", null, familyNames[i], "duplicate-" + i);
+		}
+		Patient patient = saveDuplicateCandidate("Darius", "Grayham", "Jazayeri", "duplicate-patient");
+		Patient duplicate = saveDuplicateCandidate("Darius", "Grayham", "Jazayeri", "duplicate-match");
+		
+		List<PersonMatch> matches = patientService.getProbableDuplicatePatients(0.9, 1);
+		
+		assertEquals(1, matches.size());
+		assertEquals(patient.getPatientId(), matches.get(0).getPerson().getPersonId());
+		assertEquals(duplicate.getPatientId(), matches.get(0).getMatch().getPersonId());
+	}
+	
+	private Patient saveDuplicateCandidate(String givenName, String middleName, String familyName, String identifier) {
+		Patient patient = new Patient();
+		patient.addName(new PersonName(givenName, middleName, familyName));
+		patient.setGender("M");
+		patient.setBirthdate(new GregorianCalendar(1979, Calendar.JUNE, 15).getTime());
+		PatientIdentifier patientIdentifier = new PatientIdentifier(identifier, new PatientIdentifierType(2),
+		        new Location(1));
+		patientIdentifier.setPreferred(true);
+		patient.addIdentifier(patientIdentifier);
+		return patientService.savePatient(patient);
+	}
 
 }
@@ -13,8 +13,10 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -445,6 +447,26 @@ public class PersonServiceTest extends BaseContextSensitiveTest {
 		assertEquals("Birthpalce", patientViewing);
 	}
 	
+	/**
+	 * @see PersonService#savePersonAttributeType(PersonAttributeType)
+	 */
+	@Test
+	public void savePersonAttributeType_shouldUpdateThePatientDocumentsHoldingAttributesOfTheTypeWhenMadeSearchable() {
+		Context.getAdministrationService().setGlobalProperty(
+		    OpenmrsConstants.GLOBAL_PROPERTY_PATIENT_SEARCH_USE_PATIENT_DOCUMENT, "true");
+		updateSearchIndex();
+		PatientService patientService = Context.getPatientService();
+		// patient 2 was born in London, birthplace isn't searchable
+		Patient patient = patientService.getPatient(2);
+		assertThat(patientService.getPatients("London", 0, 10), not(hasItem(patient)));
+		
+		PersonAttributeType birthplace = Context.getPersonService().getPersonAttributeType(2);
+		birthplace.setSearchable(true);
+		Context.getPersonService().savePersonAttributeType(birthplace);
+		
+		assertThat(patientService.getPatients("London", 0, 10), hasItem(patient));
+	}
+	
 	/**
 	 * @see PersonService#getSimilarPeople(String,Integer,String)
 	 */
@@ -613,6 +635,74 @@ public class PersonServiceTest extends BaseContextSensitiveTest {
 		assertTrue(TestUtil.containsId(people, 4));
 	}
 	
+	/**
+	 * @see PersonService#getSimilarPeople(String,Integer,String)
+	 */
+	@Test
+	public void getSimilarPeople_shouldRankPeopleByTheirMatchKeysWhenEnabled() throws Exception {
+		executeDataSet("org/openmrs/api/include/PersonServiceTest-names.xml");
+		Context.getAdministrationService().setGlobalProperty(OpenmrsConstants.GLOBAL_PROPERTY_PERSON_MATCH_KEYS_ENABLED,
+		    "true");
+		Context.getPersonService().rebuildPersonMatchKeys();
+		
+		List<Person> matches = new ArrayList<>(Context.getPersonService().getSimilarPeople("Darius Grayham Jazayeri",
+		    1979, "M"));
+		
+		// the only two people with all three names come first, although one name is misspelled
+		assertEquals(1006, matches.get(0).getPersonId());
+		assertEquals(1007, matches.get(1).getPersonId());
+		assertTrue(TestUtil.containsId(matches, 1000));
+		assertTrue(TestUtil.containsId(matches, 1013));
+	}
+	
+	/**
+	 * @see PersonService#getSimilarPeople(String,Integer,String)
+	 */
+	@Test
+	public void getSimilarPeople_shouldFindTheBestMatchAmongMoreCandidatesThanAreLookedAt() throws Exception {
+		Context.getAdministrationService().setGlobalProperty(OpenmrsConstants.GLOBAL_PROPERTY_PERSON_MATCH_KEYS_ENABLED,
+		    "true");
+		// only the 10 candidates sharing the most match keys are scored
+		Context.getAdministrationService().setGlobalProperty(OpenmrsConstants.GLOBAL_PROPERTY_PERSON_SEARCH_MAX_RESULTS,
+		    "1");
+		Date birthdate = new SimpleDateFormat("yyyy-MM-dd").parse("1979-06-15");
+		for (String familyName : new String[] { "Adams", "Baker", "Clark", "Evans", "Foster", "Hughes", "King", "Lopez",
+		        "Morgan", "Nash", "Owens", "Perry" }) {
+			savePerson("Darius", null, familyName, birthdate);
+		}
+		Person match = savePerson("Darius", "Grayham", "Jazayeri", birthdate);
+		
+		List<Person> matches = new ArrayList<>(Context.getPersonService().getSimilarPeople("Darius Grayham Jazayeri",
+		    1979, "M"));
+		
+		assertEquals(1, matches.size());
+		assertEquals(match.getPersonId(), matches.get(0).getPersonId());
+	}
+	
+	private Person savePerson(String givenName, String middleName, String familyName, Date birthdate) {
+		Person person = new Person();
+		person.addName(new PersonName(givenName, middleName, familyName));
+		person.setGender("M");
+		person.setBirthdate(birthdate);
+		return Context.getPersonService().savePerson(person);
+	}
+	
+	/**
+	 * @see PersonService#rebuildPersonMatchKeys()
+	 */
+	@Test
+	public void rebuildPersonMatchKeys_shouldCreateTheMatchKeysOfAllPeople() throws Exception {
+		executeDataSet("org/openmrs/api/include/PersonServiceTest-names.xml");
+		
+		assertTrue(Context.getPersonService().rebuildPersonMatchKeys() > 0);
+		
+		Context.getAdministrationService().setGlobalProperty(OpenmrsConstants.GLOBAL_PROPERTY_PERSON_MATCH_KEYS_ENABLED,
+		    "true");
+		Set<Person> matches = Context.getPersonService().getSimilarPeople("Darius2", null, null);
+		assertTrue(TestUtil.containsId(matches, 1009));
+		assertTrue(TestUtil.containsId(matches, 1012));
+	}
+	
 	/**
 	 * @see PersonService#getAllPersonAttributeTypes()
 	 */
@@ -0,0 +1,112 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openmrs.GlobalProperty;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+public class GlobalPropertyCacheTest {
+
+	private GlobalPropertyCache cache;
+
+	private AtomicInteger loads;
+
+	@BeforeEach
+	public void setUp() {
+		cache = new GlobalPropertyCache(new ConcurrentMapCacheManager(GlobalPropertyCache.CACHE_NAME));
+		loads = new AtomicInteger();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	public void get_shouldLoadAPropertyOnce() {
+		assertEquals("value", cache.get("Some.GP", loader("value")).getValue());
+		assertEquals("value", cache.get("some.gp", loader("other")).getValue());
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	public void get_shouldNotCacheAMissingProperty() {
+		assertNull(cache.get("some.gp", loader(null)).getValue());
+		assertEquals("value", cache.get("some.gp", loader("value")).getValue());
+	}
+
+	@Test
+	public void get_shouldEvictAPropertyLoadedInATransactionWhichIsRolledBack() {
+		TransactionSynchronizationManager.initSynchronization();
+		cache.get("some.gp", loader("uncommitted"));
+		TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+		    TransactionSynchronization.STATUS_ROLLED_BACK);
+		TransactionSynchronizationManager.clearSynchronization();
+
+		assertEquals("committed", cache.get("some.gp", loader("committed")).getValue());
+	}
+
+	@Test
+	public void get_shouldKeepAPropertyLoadedInATransactionWhichIsCommitted() {
+		TransactionSynchronizationManager.initSynchronization();
+		cache.get("some.gp", loader("value"));
+		TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+		    TransactionSynchronization.STATUS_COMMITTED);
+		TransactionSynchronizationManager.clearSynchronization();
+
+		assertEquals("value", cache.get("some.gp", loader("other")).getValue());
+	}
+
+	@Test
+	public void get_shouldNotCacheAPropertyLoadedWhileItWasEvicted() {
+		// the property is changed and evicted by another thread while the old value is being loaded
+		Function<String, GlobalProperty> oldValueLoader = loader("old");
+		cache.get("some.gp", propertyName -> {
+			GlobalProperty globalProperty = oldValueLoader.apply(propertyName);
+			cache.evict(propertyName);
+			return globalProperty;
+		});
+
+		assertEquals("new", cache.get("some.gp", loader("new")).getValue());
+	}
+
+	@Test
+	public void get_shouldNotCacheAPropertyLoadedWhileTheCacheWasCleared() {
+		Function<String, GlobalProperty> oldValueLoader = loader("old");
+		cache.get("some.gp", propertyName -> {
+			GlobalProperty globalProperty = oldValueLoader.apply(propertyName);
+			cache.clear();
+			return globalProperty;
+		});
+
+		assertEquals("new", cache.get("some.gp", loader("new")).getValue());
+	}
+
+	private Function<String, GlobalProperty> loader(String value) {
+		return propertyName -> {
+			loads.incrementAndGet();
+			return value != null ? new GlobalProperty(propertyName, value) : null;
+		};
+	}
+}
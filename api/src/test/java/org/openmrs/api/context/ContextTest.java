@@ -21,14 +21,19 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.testcontainers.shaded.org.awaitility.Awaitility.await;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Test;
+import org.openmrs.Concept;
+import org.openmrs.ConceptName;
+import org.openmrs.EncounterType;
 import org.openmrs.Location;
 import org.openmrs.OpenmrsObject;
 import org.openmrs.Person;
@@ -370,6 +375,40 @@ public class ContextTest extends BaseContextSensitiveTest {
 		assertThat(sf.getStatistics().getSecondLevelCacheHitCount(), is(hitCount));
 	}
 
+	@Test
+	public void getEncounterType_shouldBeServedFromTheSecondLevelCache() {
+		TestTransaction.end();
+
+		// Load the encounter type so that it is stored in the cache
+		Context.getEncounterService().getEncounterType(1);
+		Context.flushSession();
+		Context.clearSession();
+
+		CacheRegionStatistics statistics = sf.getStatistics().getDomainDataRegionStatistics(EncounterType.class.getName());
+		long hitCount = statistics.getHitCount();
+		Context.getEncounterService().getEncounterType(1);
+		assertThat(statistics.getHitCount(), is(hitCount + 1));
+	}
+
+	@Test
+	public void getConcept_shouldNotReturnCachedNamesAfterANameIsSavedForTheConcept() {
+		Concept concept = Context.getConceptService().getConcept(5089);
+		int nameCount = concept.getNames(true).size();
+		Context.flushSession();
+		Context.clearSession();
+
+		// the name is saved on its own, not through the cached collection of the concept
+		ConceptName name = new ConceptName("another name", Locale.ENGLISH);
+		name.setConcept(Context.getConceptService().getConcept(5089));
+		name.setCreator(Context.getAuthenticatedUser());
+		name.setDateCreated(new Date());
+		sf.getCurrentSession().persist(name);
+		Context.flushSession();
+		Context.clearSession();
+
+		assertEquals(nameCount + 1, Context.getConceptService().getConcept(5089).getNames(true).size());
+	}
+
 	/**
 	 * @see Context#addProxyPrivilege(String...)
 	 */
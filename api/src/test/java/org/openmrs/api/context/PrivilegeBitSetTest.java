@@ -0,0 +1,94 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.context;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Test;
+import org.openmrs.Privilege;
+import org.openmrs.Role;
+import org.openmrs.User;
+import org.openmrs.util.RoleConstants;
+
+/**
+ * Tests {@link PrivilegeBitSet}
+ */
+public class PrivilegeBitSetTest {
+	
+	private static Role newRole(String name, String... privileges) {
+		Role role = new Role(name);
+		for (String privilege : privileges) {
+			role.addPrivilege(new Privilege(privilege));
+		}
+		return role;
+	}
+	
+	@Test
+	public void contains_shouldReturnTrueForPrivilegesOfAnyRole() {
+		PrivilegeBitSet privileges = PrivilegeBitSet.of(Arrays.asList(newRole("Clerk", "Get Patients"),
+		    newRole("Nurse", "Add Obs", "Get Obs")), false);
+		
+		assertTrue(privileges.contains("Get Patients"));
+		assertTrue(privileges.contains("Add Obs"));
+		assertTrue(privileges.contains("Get Obs"));
+		assertFalse(privileges.contains("Delete Obs"));
+		assertFalse(privileges.contains(null));
+	}
+	
+	@Test
+	public void contains_shouldMatchPrivilegeNamesCaseInsensitively() {
+		PrivilegeBitSet privileges = PrivilegeBitSet.of(Collections.singleton(newRole("Clerk", "Get Patients")), false);
+		
+		assertTrue(privileges.contains("get patients"));
+		assertTrue(privileges.contains("GET PATIENTS"));
+	}
+	
+	@Test
+	public void contains_shouldReturnTrueForAnyPrivilegeIfSuperUser() {
+		assertTrue(PrivilegeBitSet.of(Collections.emptySet(), true).contains("Some Unknown Privilege"));
+		assertTrue(PrivilegeBitSet.of(Collections.singleton(new Role(RoleConstants.SUPERUSER)), false).contains(
+		    "Some Unknown Privilege"));
+	}
+	
+	@Test
+	public void isCurrent_shouldReturnFalseAfterRoleOrPrivilegeChanges() {
+		Role role = newRole("Clerk", "Get Patients");
+		PrivilegeBitSet privileges = PrivilegeBitSet.of(Collections.singleton(role), false);
+		assertTrue(privileges.isCurrent());
+		
+		role.addPrivilege(new Privilege("Add Patients"));
+		assertFalse(privileges.isCurrent());
+		
+		privileges = PrivilegeBitSet.of(Collections.singleton(role), false);
+		new User().addRole(role);
+		assertFalse(privileges.isCurrent());
+	}
+	
+	@Test
+	public void isCurrent_shouldReturnFalseAfterRoleOrUserCollectionsAreReplaced() {
+		Role role = newRole("Clerk", "Get Patients");
+		PrivilegeBitSet privileges = PrivilegeBitSet.of(Collections.singleton(role), false);
+		role.setPrivileges(new HashSet<>());
+		assertFalse(privileges.isCurrent());
+		
+		privileges = PrivilegeBitSet.of(Collections.singleton(role), false);
+		role.setInheritedRoles(Collections.singleton(newRole("Nurse", "Add Obs")));
+		assertFalse(privileges.isCurrent());
+		
+		privileges = PrivilegeBitSet.of(Collections.singleton(role), false);
+		new User().setRoles(Collections.singleton(role));
+		assertFalse(privileges.isCurrent());
+	}
+}
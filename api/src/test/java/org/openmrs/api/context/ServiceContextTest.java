@@ -9,6 +9,7 @@
  */
 package org.openmrs.api.context;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -19,11 +20,14 @@ import static org.mockito.MockitoAnnotations.openMocks;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.openmrs.api.APIException;
+import org.openmrs.api.PatientService;
 import org.openmrs.test.jupiter.BaseContextSensitiveTest;
 import org.openmrs.util.DatabaseUpdateException;
 import org.openmrs.util.InputRequiredException;
@@ -96,4 +100,21 @@ public class ServiceContextTest extends BaseContextSensitiveTest {
 		verify(spiedServiceContext, never()).getMessageService();
 		verify(spiedServiceContext, never()).getMessageSourceService();
 	}
+	
+	@Test
+	public void getService_shouldWaitUntilTheContextIsDoneRefreshing() throws Exception {
+		CompletableFuture<PatientService> service;
+		serviceContext.startRefreshingContext();
+		try {
+			service = CompletableFuture.supplyAsync(() -> serviceContext.getService(PatientService.class));
+			Thread.sleep(200);
+			assertFalse(service.isDone());
+		}
+		finally {
+			serviceContext.doneRefreshingContext();
+		}
+		
+		assertNotNull(service.get(10, TimeUnit.SECONDS));
+		assertFalse(serviceContext.isRefreshingContext());
+	}
 }
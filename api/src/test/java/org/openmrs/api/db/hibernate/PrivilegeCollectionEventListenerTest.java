@@ -0,0 +1,47 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db.hibernate;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.openmrs.Privilege;
+import org.openmrs.Role;
+import org.openmrs.api.UserService;
+import org.openmrs.api.context.Context;
+import org.openmrs.api.context.PrivilegeBitSet;
+import org.openmrs.test.jupiter.BaseContextSensitiveTest;
+
+/**
+ * Tests {@link PrivilegeCollectionEventListener}
+ */
+public class PrivilegeCollectionEventListenerTest extends BaseContextSensitiveTest {
+	
+	/**
+	 * @see PrivilegeCollectionEventListener#onPostUpdateCollection(org.hibernate.event.spi.PostCollectionUpdateEvent)
+	 */
+	@Test
+	public void onPostUpdateCollection_shouldInvalidatePrivilegeSetsWhenTheRolePrivilegesAreFlushed() {
+		UserService userService = Context.getUserService();
+		Privilege privilege = userService.savePrivilege(new Privilege("Flushed Privilege", "A privilege"));
+		Role role = userService.getRole("Provider");
+		Context.flushSession();
+		PrivilegeBitSet privileges = PrivilegeBitSet.of(Collections.singleton(role), false);
+		assertTrue(privileges.isCurrent());
+		
+		role.getPrivileges().add(privilege);
+		Context.flushSession();
+		
+		assertFalse(privileges.isCurrent());
+	}
+}
@@ -0,0 +1,99 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.db.hibernate.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openmrs.Drug;
+import org.openmrs.api.db.hibernate.search.SearchIndexProgress.State;
+import org.openmrs.test.jupiter.BaseContextSensitiveTest;
+import org.springframework.beans.factory.annotation.Autowired;
+
+public class SearchIndexRebuilderTest extends BaseContextSensitiveTest {
+
+	@Autowired
+	private SessionFactory sessionFactory;
+
+	@TempDir
+	private Path tempDir;
+
+	private File checkpointFile;
+
+	private SearchIndexRebuilder rebuilder;
+
+	@BeforeEach
+	public void setUp() {
+		checkpointFile = tempDir.resolve("index-rebuild.checkpoint").toFile();
+		rebuilder = new SearchIndexRebuilder(sessionFactory, checkpointFile);
+	}
+
+	@Test
+	public void start_shouldIndexAllRowsOfTheGivenTypesInIdRanges() throws Exception {
+		SearchIndexProgress progress = rebuilder.start(Collections.singletonList(Drug.class), null, 2, 5).get(30,
+		    TimeUnit.SECONDS);
+
+		assertEquals(State.COMPLETED, progress.getState());
+		// the standard dataset has drugs 2, 3, 11 and 12
+		assertEquals(3, progress.getTotalPartitions(Drug.class));
+		assertEquals(3, progress.getCompletedPartitions(Drug.class));
+		assertEquals(4, progress.getIndexedCount(Drug.class));
+		assertEquals(100.0, progress.getPercentComplete());
+		assertFalse(rebuilder.hasCheckpoint());
+	}
+
+	@Test
+	public void start_shouldOnlyIndexRowsChangedSinceTheGivenDate() throws Exception {
+		SearchIndexProgress progress = rebuilder.start(Collections.singletonList(Drug.class), new Date(), 2, 5).get(30,
+		    TimeUnit.SECONDS);
+
+		assertEquals(State.COMPLETED, progress.getState());
+		assertEquals(0, progress.getIndexedCount());
+	}
+
+	@Test
+	public void resume_shouldSkipTheIdsIndexedBeforeTheCheckpoint() throws Exception {
+		Properties checkpoint = new Properties();
+		checkpoint.setProperty(SearchIndexRebuilder.TYPES_KEY, Drug.class.getName());
+		checkpoint.setProperty(SearchIndexRebuilder.CHANGED_SINCE_KEY, "");
+		checkpoint.setProperty(Drug.class.getName(), "6");
+		try (OutputStream out = Files.newOutputStream(checkpointFile.toPath())) {
+			checkpoint.store(out, null);
+		}
+
+		SearchIndexProgress progress = rebuilder.resume(2, 5).get(30, TimeUnit.SECONDS);
+
+		assertTrue(progress.isResumed());
+		assertEquals(State.COMPLETED, progress.getState());
+		assertEquals(2, progress.getIndexedCount(Drug.class));
+		assertFalse(rebuilder.hasCheckpoint());
+	}
+
+	@Test
+	public void resume_shouldReturnNullIfThereIsNoCheckpoint() {
+		assertNull(rebuilder.resume(2, 5));
+		assertNull(rebuilder.getProgress());
+	}
+}
@@ -86,6 +86,22 @@ public abstract class BaseStorageServiceTest extends BaseContextSensitiveTest {
 		});
 	}
 
+	@Test
+	public void getData_shouldReturnTheRequestedRangeOfTheData() throws IOException {
+		saveTestData(null, "key", (key) -> {
+			try (InputStream data = storageService.getData(key, 5, 2L)) {
+				assertEquals("is", IOUtils.toString(data, Charset.defaultCharset()));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			try (InputStream data = storageService.getData(key, 10, null)) {
+				assertEquals("test file", IOUtils.toString(data, Charset.defaultCharset()));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+
 	public void saveTestData(String moduleId, String keySuffix, Consumer<String> verify) throws IOException {
 		saveTestData(moduleId, keySuffix, null, verify);
 	}
@@ -0,0 +1,96 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.api.stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+public class StreamDataServiceTest {
+	
+	private StreamDataService streamDataService;
+	
+	@BeforeEach
+	public void setUp() {
+		streamDataService = new StreamDataService(new SimpleAsyncTaskExecutor());
+	}
+	
+	private static byte[] newTestData(int length) {
+		byte[] data = new byte[length];
+		new Random(42).nextBytes(data);
+		return data;
+	}
+	
+	@Test
+	public void streamData_shouldCopySmallDataInMemory() throws IOException {
+		byte[] data = newTestData(100);
+		
+		InputStream in = streamDataService.streamData(out -> out.write(data), (long) data.length);
+		
+		assertArrayEquals(data, IOUtils.toByteArray(in));
+	}
+	
+	@Test
+	public void streamData_shouldStreamDataLargerThanBufferInBulk() throws IOException {
+		byte[] data = newTestData(StreamDataService.BUFFER_SIZE * 5 + 17);
+		
+		InputStream in = streamDataService.streamData(out -> {
+			// Write in uneven chunks to exercise wrapping around the end of the buffer
+			int offset = 0;
+			while (offset < data.length) {
+				int length = Math.min(10_000, data.length - offset);
+				out.write(data, offset, length);
+				offset += length;
+			}
+		}, null);
+		
+		assertArrayEquals(data, IOUtils.toByteArray(in));
+	}
+	
+	@Test
+	public void streamData_shouldStreamSingleBytes() throws IOException {
+		byte[] data = newTestData(StreamDataService.BUFFER_SIZE + 3);
+		
+		InputStream in = streamDataService.streamData(out -> {
+			for (byte b : data) {
+				out.write(b);
+			}
+		}, null);
+		
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		int b;
+		while ((b = in.read()) != -1) {
+			result.write(b);
+		}
+		assertArrayEquals(data, result.toByteArray());
+		assertThat(in.read(), is(-1));
+	}
+	
+	@Test
+	public void streamData_shouldPropagateWriterException() throws IOException {
+		InputStream in = streamDataService.streamData(out -> {
+			out.write(newTestData(10));
+			throw new IllegalStateException("Failed");
+		}, null);
+		
+		assertThrows(IOException.class, () -> IOUtils.toByteArray(in));
+	}
+}
@@ -0,0 +1,82 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.hl7;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the partitioning and the metrics of the {@link HL7InQueueProcessor}.
+ */
+public class HL7InQueueProcessorTest {
+	
+	private static final String MSH = "MSH|^~\\&|FORMENTRY|AMRS.ELD|HL7LISTENER|AMRS.ELD|20080226102656||ORU^R01|JqnfhKKtouEz8kzTk6Zo|P|2.5|1||||||||16^AMRS.ELD.FORMID\r";
+	
+	@Test
+	public void getPatientIdentifier_shouldReturnTheFirstPatientIdentifier() {
+		String message = MSH + "PID|||3^^^^~4^^^^||John3^Doe^\rPV1||O|1^Unknown Location||||1^Super User (1-8)\r";
+		
+		assertEquals("3", HL7InQueueProcessor.getPatientIdentifier(message));
+	}
+	
+	@Test
+	public void getPatientIdentifier_shouldReturnNullIfThereIsNoPidSegment() {
+		assertNull(HL7InQueueProcessor.getPatientIdentifier(MSH + "PV1||O|1^Unknown Location\r"));
+		assertNull(HL7InQueueProcessor.getPatientIdentifier("a malformed hl7 message"));
+		assertNull(HL7InQueueProcessor.getPatientIdentifier(null));
+	}
+	
+	@Test
+	public void partition_shouldKeepTheMessagesOfAPatientInOrderInTheSamePartition() {
+		List<HL7InQueue> queue = Arrays.asList(queueItem(1, "7"), queueItem(2, "8"), queueItem(3, "7"), queueItem(4, null),
+		    queueItem(5, "8"));
+		
+		List<List<Integer>> partitions = HL7InQueueProcessor.partition(queue, 4);
+		
+		assertEquals(4, partitions.size());
+		assertTrue(partitions.get(0).contains(4));
+		for (List<Integer> partition : partitions) {
+			if (partition.contains(1)) {
+				assertTrue(partition.indexOf(1) < partition.indexOf(3));
+			}
+			if (partition.contains(2)) {
+				assertTrue(partition.indexOf(2) < partition.indexOf(5));
+			}
+		}
+	}
+	
+	@Test
+	public void recordPickedUp_shouldMeasureTheLagFromTheOldestEntry() {
+		HL7InQueue recent = queueItem(1, "7");
+		recent.setDateCreated(new Date(System.currentTimeMillis() - 1000));
+		HL7InQueue oldest = queueItem(2, "8");
+		oldest.setDateCreated(new Date(System.currentTimeMillis() - 60000));
+		HL7InQueueProcessorMetrics metrics = new HL7InQueueProcessorMetrics();
+		
+		metrics.recordPickedUp(Arrays.asList(recent, oldest));
+		
+		assertTrue(metrics.getLagMillis() >= 60000);
+	}
+	
+	private HL7InQueue queueItem(int id, String patientIdentifier) {
+		HL7InQueue hl7InQueue = new HL7InQueue();
+		hl7InQueue.setHL7InQueueId(id);
+		hl7InQueue.setHL7Data(patientIdentifier == null ? "a malformed hl7 message" : MSH + "PID|||" + patientIdentifier
+		        + "^^^^||Doe^John^\r");
+		return hl7InQueue;
+	}
+}
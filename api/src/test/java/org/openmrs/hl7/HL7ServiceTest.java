@@ -23,6 +23,7 @@ import static org.openmrs.util.OpenmrsUtil.deleteDirectory;
 import java.io.File;
 import java.io.IOException;
 import java.util.Calendar;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Properties;
@@ -37,6 +38,7 @@ import ca.uhn.hl7v2.model.v25.message.ORU_R01;
 import ca.uhn.hl7v2.model.v25.segment.NK1;
 import ca.uhn.hl7v2.model.v25.segment.ORC;
 import ca.uhn.hl7v2.model.v25.segment.PV1;
+import org.apache.commons.lang3.time.DateUtils;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.openmrs.Concept;
@@ -78,6 +80,16 @@ public class HL7ServiceTest extends BaseContextSensitiveTest {
 		assertNotNull(hl7.getUuid());
 	}
 	
+	/**
+	 * @see HL7Service#saveHL7InQueue(HL7InQueue)
+	 */
+	@Test
+	public void saveHL7InQueue_shouldSetThePatientKeyFromThePIDSegment() {
+		HL7InQueue hl7 = Context.getHL7Service().saveHL7InQueue(newHL7InQueue("7"));
+		
+		assertEquals("7", hl7.getPatientKey());
+	}
+	
 	/**
 	 * @throws HL7Exception
 	 * @throws IOException
@@ -140,6 +152,115 @@ public class HL7ServiceTest extends BaseContextSensitiveTest {
 		assertThrows(HL7Exception.class, () -> hl7service.processHL7InQueue(queueItem));
 	}
 	
+	/**
+	 * @see HL7Service#claimHL7InQueueBatch(int)
+	 */
+	@Test
+	public void claimHL7InQueueBatch_shouldClaimTheOldestPendingItems() {
+		executeDataSet("org/openmrs/hl7/include/ORUTest-initialData.xml");
+		
+		HL7Service hl7service = Context.getHL7Service();
+		List<HL7InQueue> claimed = hl7service.claimHL7InQueueBatch(1);
+		
+		assertEquals(1, claimed.size());
+		assertEquals(1, claimed.get(0).getHL7InQueueId());
+		assertEquals(HL7Constants.HL7_STATUS_CLAIMED, claimed.get(0).getMessageState());
+		assertNotNull(claimed.get(0).getDateClaimed());
+	}
+	
+	/**
+	 * @see HL7Service#claimHL7InQueueBatch(int)
+	 */
+	@Test
+	public void claimHL7InQueueBatch_shouldClaimThePendingItemsOfOtherPatientsOfASourceWhichHasClaimedItems() {
+		executeDataSet("org/openmrs/hl7/include/ORUTest-initialData.xml");
+		
+		HL7Service hl7service = Context.getHL7Service();
+		assertEquals(2, hl7service.claimHL7InQueueBatch(10).size());
+		HL7InQueue otherPatient = hl7service.saveHL7InQueue(newHL7InQueue("7"));
+		
+		List<HL7InQueue> claimed = hl7service.claimHL7InQueueBatch(10);
+		assertEquals(1, claimed.size());
+		assertEquals(otherPatient, claimed.get(0));
+	}
+	
+	/**
+	 * @see HL7Service#claimHL7InQueueBatch(int)
+	 */
+	@Test
+	public void claimHL7InQueueBatch_shouldNotClaimTheItemsOfAPatientWhichHasClaimedItems() {
+		executeDataSet("org/openmrs/hl7/include/ORUTest-initialData.xml");
+		
+		HL7Service hl7service = Context.getHL7Service();
+		HL7InQueue first = hl7service.saveHL7InQueue(newHL7InQueue("7"));
+		HL7InQueue second = hl7service.saveHL7InQueue(newHL7InQueue("7"));
+		
+		// looking at the oldest item of patient 3 only, but the later items of the patient come along
+		List<HL7InQueue> claimed = hl7service.claimHL7InQueueBatch(1);
+		assertEquals(1, claimed.size());
+		assertEquals(1, claimed.get(0).getHL7InQueueId());
+		
+		claimed = hl7service.claimHL7InQueueBatch(2);
+		assertEquals(3, claimed.size());
+		assertEquals(first, claimed.get(1));
+		assertEquals(second, claimed.get(2));
+		
+		hl7service.saveHL7InQueue(newHL7InQueue("7"));
+		hl7service.saveHL7InQueue(newHL7InQueue("3"));
+		assertTrue(hl7service.claimHL7InQueueBatch(10).isEmpty());
+	}
+	
+	/**
+	 * @see HL7Service#releaseExpiredHL7InQueueClaims(Date)
+	 */
+	@Test
+	public void releaseExpiredHL7InQueueClaims_shouldReleaseTheItemsClaimedBeforeTheGivenDate() {
+		executeDataSet("org/openmrs/hl7/include/ORUTest-initialData.xml");
+		
+		HL7Service hl7service = Context.getHL7Service();
+		HL7InQueue claimed = hl7service.claimHL7InQueueBatch(1).get(0);
+		Context.flushSession();
+		
+		assertEquals(0, hl7service.releaseExpiredHL7InQueueClaims(DateUtils.addMinutes(claimed.getDateClaimed(), -1)));
+		assertEquals(1, hl7service.releaseExpiredHL7InQueueClaims(DateUtils.addMinutes(claimed.getDateClaimed(), 1)));
+		Context.clearSession();
+		
+		List<HL7InQueue> reclaimed = hl7service.claimHL7InQueueBatch(10);
+		assertEquals(2, reclaimed.size());
+		assertEquals(1, reclaimed.get(0).getHL7InQueueId());
+		assertEquals(2, reclaimed.get(1).getHL7InQueueId());
+	}
+	
+	/**
+	 * @see HL7Service#processHL7InQueue(HL7InQueue)
+	 */
+	@Test
+	public void processHL7InQueue_shouldMarkTheQueueItemAsErrorAfterFailedParsing() throws HL7Exception {
+		executeDataSet("org/openmrs/hl7/include/ORUTest-initialData.xml");
+		
+		HL7Service hl7service = Context.getHL7Service();
+		long failedCount = HL7InQueueProcessor.getMetrics().getFailedCount();
+		HL7InQueue queueItem = hl7service.getHL7InQueue(2);
+		new HL7InQueueProcessor().processHL7InQueue(queueItem);
+		
+		assertEquals(HL7Constants.HL7_STATUS_ERROR, queueItem.getMessageState());
+		assertEquals(failedCount + 1, HL7InQueueProcessor.getMetrics().getFailedCount());
+	}
+	
+	/**
+	 * @see HL7Service#processHL7InQueue(HL7InQueue)
+	 */
+	@Test
+	public void processHL7InQueue_shouldProcessClaimedQueueItems() throws HL7Exception {
+		executeDataSet("org/openmrs/hl7/include/ORUTest-initialData.xml");
+		
+		HL7Service hl7service = Context.getHL7Service();
+		HL7InQueue queueItem = hl7service.claimHL7InQueueBatch(1).get(0);
+		hl7service.processHL7InQueue(queueItem);
+		
+		assertNull(hl7service.getHL7InQueue(1));
+	}
+	
 	/**
 	 * @throws HL7Exception
 	 * @see HL7Service#processHL7Message(Message)
@@ -798,4 +919,13 @@ public class HL7ServiceTest extends BaseContextSensitiveTest {
 		Integer userId = hl7service.resolveUserId(xcn);
 		assertThat(userId, is(502));
 	}
+	
+	private static HL7InQueue newHL7InQueue(String patientIdentifier) {
+		HL7InQueue hl7 = new HL7InQueue();
+		hl7.setHL7Data("MSH|^~\\&|FORMENTRY|AMRS.ELD|HL7LISTENER|AMRS.ELD|20080226102656||ORU^R01|JqnfhKKtouEz8kzTk6Zo|P|2.5|1\r"
+		        + "PID|||" + patientIdentifier + "^^^^||John3^Doe^||");
+		hl7.setHL7Source(Context.getHL7Service().getHL7Source(1));
+		hl7.setHL7SourceKey("a random key");
+		return hl7;
+	}
 }
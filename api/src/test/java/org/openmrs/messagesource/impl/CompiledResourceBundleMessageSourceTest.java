@@ -0,0 +1,76 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.messagesource.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Locale;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.ReloadableResourceBundleMessageSource;
+
+/**
+ * Tests {@link CompiledResourceBundleMessageSource}.
+ */
+public class CompiledResourceBundleMessageSourceTest {
+
+	private CompiledResourceBundleMessageSource messageSource;
+
+	private ReloadableResourceBundleMessageSource reloadableMessageSource;
+
+	@BeforeEach
+	public void before() {
+		messageSource = new CompiledResourceBundleMessageSource();
+		reloadableMessageSource = new ReloadableResourceBundleMessageSource();
+		for (ReloadableResourceBundleMessageSource source : new ReloadableResourceBundleMessageSource[] { messageSource,
+		        reloadableMessageSource }) {
+			source.setBasenames("classpath:custom_messages", "classpath:messages");
+			source.setUseCodeAsDefaultMessage(true);
+			source.setDefaultEncoding("UTF-8");
+		}
+	}
+
+	@Test
+	public void getMessage_shouldResolveTheSameMessagesAsTheReloadableResourceBundleMessageSource() {
+		for (Locale locale : new Locale[] { Locale.ENGLISH, Locale.UK, Locale.GERMAN, Locale.FRENCH, Locale.CANADA_FRENCH,
+		        new Locale("zh", "CN"), new Locale("xx") }) {
+			for (String code : new String[] { "general.save", "general.cancel", "error.checkdigits", "no.such.code" }) {
+				assertEquals(reloadableMessageSource.getMessage(code, null, locale), messageSource.getMessage(code, null,
+				    locale), code + " in " + locale);
+				assertEquals(reloadableMessageSource.getMessage(code, new Object[] { "1234" }, locale), messageSource
+				        .getMessage(code, new Object[] { "1234" }, locale), code + " with arguments in " + locale);
+			}
+		}
+	}
+
+	@Test
+	public void getMessage_shouldFallBackToTheBaseMessagesForAnUntranslatedCode() {
+		messageSource.setFallbackToSystemLocale(false);
+		assertEquals("Invalid checkdigit for 1234", messageSource.getMessage("error.checkdigits", new Object[] { "1234" },
+		    new Locale("xx")));
+	}
+
+	@Test
+	public void resolveCode_shouldReuseTheMessageFormatOfAMessage() {
+		assertSame(messageSource.resolveCode("error.checkdigits", Locale.FRENCH), messageSource.resolveCode(
+		    "error.checkdigits", Locale.FRENCH));
+	}
+
+	@Test
+	public void clearCache_shouldCompileTheMessagesAgain() {
+		String message = messageSource.resolveCodeWithoutArguments("general.save", Locale.GERMAN);
+
+		messageSource.clearCache();
+
+		assertEquals(message, messageSource.resolveCodeWithoutArguments("general.save", Locale.GERMAN));
+	}
+}
@@ -0,0 +1,41 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.module;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class ClassLoaderMissCacheTest {
+
+	private final ClassLoaderMissCache cache = new ClassLoaderMissCache();
+
+	@Test
+	public void isMissing_shouldReturnTrueForAMissUntilTheClassLoadersChange() {
+		cache.addMiss("org.openmrs.Missing", ClassLoaderMissCache.getRevision());
+		assertTrue(cache.isMissing("org.openmrs.Missing"));
+		assertFalse(cache.isMissing("org.openmrs.Other"));
+
+		ClassLoaderMissCache.invalidateAll();
+
+		assertFalse(cache.isMissing("org.openmrs.Missing"));
+	}
+
+	@Test
+	public void isMissing_shouldIgnoreAMissOfALookupWhichStartedBeforeTheClassLoadersChanged() {
+		int revision = ClassLoaderMissCache.getRevision();
+		ClassLoaderMissCache.invalidateAll();
+
+		cache.addMiss("org.openmrs.Missing", revision);
+
+		assertFalse(cache.isMissing("org.openmrs.Missing"));
+	}
+}
@@ -19,10 +19,12 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.openmrs.api.context.Context;
 import org.openmrs.test.jupiter.BaseContextSensitiveTest;
 
 public class ModuleFactoryTest extends BaseContextSensitiveTest {
@@ -129,6 +131,37 @@ public class ModuleFactoryTest extends BaseContextSensitiveTest {
 		assertTrue(test2.isStarted());
 	}
 	
+	@Test
+	public void startModules_shouldStartIndependentModulesInParallelOnceTheirDependenciesStarted() {
+		loadModule(MODULE2_PATH, MODULE2, true);
+		loadModule(MODULE3_PATH, MODULE3, true);
+		
+		ModuleFactory.startModules(2);
+		
+		assertTrue(ModuleFactory.isModuleStarted(MODULE2));
+		assertTrue(ModuleFactory.isModuleStarted(MODULE3));
+		assertEquals(MODULE1, ModuleFactory.getStartedModulesInOrder().get(0).getModuleId());
+		assertTrue(ModuleFactory.getStartupTimes().containsKey(MODULE2));
+		assertTrue(ModuleFactory.getStartupTimes().containsKey(MODULE3));
+	}
+	
+	@Test
+	public void startModules_shouldLetTheActivatorsOfModulesStartedInParallelCallPrivilegedServices() {
+		Module test2 = loadModule(MODULE2_PATH, MODULE2, true);
+		Module test3 = loadModule(MODULE3_PATH, MODULE3, true);
+		AtomicReference<Object> test2Users = new AtomicReference<>();
+		AtomicReference<Object> test3Users = new AtomicReference<>();
+		test2.setModuleActivator(new UsersReadingActivator(test2Users));
+		test3.setModuleActivator(new UsersReadingActivator(test3Users));
+		
+		ModuleFactory.startModules(2);
+		
+		assertTrue(ModuleFactory.isModuleStarted(MODULE2), test2.getStartupErrorMessage());
+		assertTrue(ModuleFactory.isModuleStarted(MODULE3), test3.getStartupErrorMessage());
+		assertTrue(test2Users.get() instanceof List, String.valueOf(test2Users.get()));
+		assertTrue(test3Users.get() instanceof List, String.valueOf(test3Users.get()));
+	}
+	
 	@Test
 	public void loadModules_shouldNotCrashWhenFileIsNotFoundOrBroken() {
 		ModuleFactory.unloadModule(ModuleFactory.getModuleById(MODULE1));
@@ -179,6 +212,29 @@ public class ModuleFactoryTest extends BaseContextSensitiveTest {
 		assertFalse(test3.isStarted());
 	}
 	
+	/**
+	 * Reads the users, which requires a privilege, when the module starts and keeps the users or the
+	 * exception thrown.
+	 */
+	private static class UsersReadingActivator extends BaseModuleActivator {
+		
+		private final AtomicReference<Object> result;
+		
+		UsersReadingActivator(AtomicReference<Object> result) {
+			this.result = result;
+		}
+		
+		@Override
+		public void willStart() {
+			try {
+				result.set(Context.getUserService().getAllUsers());
+			}
+			catch (Exception e) {
+				result.set(e);
+			}
+		}
+	}
+	
 	private Module loadModule(String location, String moduleName, boolean replace) {
 		String moduleLocation = ModuleUtil.class.getClassLoader().getResource(location).getPath();
 
@@ -10,9 +10,15 @@
 package org.openmrs.obs;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.commons.io.FilenameUtils;
 import org.junit.jupiter.api.BeforeEach;
@@ -103,4 +109,31 @@ public class AbstractHandlerTest extends BaseContextSensitiveTest {
 		assertEquals(filename, key);
 	}
 	
+	@Test
+	public void saveObs_shouldRejectUnsupportedComplexDataTypes() {
+		Obs obs = new Obs();
+		obs.setComplexData(new ComplexData(FILENAME, "not binary"));
+		
+		assertThrows(APIException.class, () -> handler.saveObs(obs));
+	}
+	
+	@Test
+	public void saveObs_shouldCloseTheInputStreamOfTheComplexData() {
+		AtomicBoolean closed = new AtomicBoolean();
+		InputStream in = new ByteArrayInputStream("A".getBytes(StandardCharsets.UTF_8)) {
+			
+			@Override
+			public void close() throws IOException {
+				closed.set(true);
+				super.close();
+			}
+		};
+		Obs obs = new Obs();
+		obs.setComplexData(new ComplexData(FILENAME, in));
+		
+		handler.saveObs(obs);
+		
+		assertTrue(closed.get());
+	}
+	
 }
@@ -15,8 +15,11 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 
+import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -39,7 +42,7 @@ public class BinaryDataHandlerTest extends BaseContextSensitiveTest {
 	@Test
     public void shouldReturnSupportedViews() {
         String[] actualViews = handler.getSupportedViews();
-        String[] expectedViews = { ComplexObsHandler.RAW_VIEW };
+        String[] expectedViews = { ComplexObsHandler.RAW_VIEW, ComplexObsHandler.STREAM_VIEW };
 
         assertArrayEquals(actualViews, expectedViews);
     }
@@ -134,4 +137,23 @@ public class BinaryDataHandlerTest extends BaseContextSensitiveTest {
 
 	}
 	
+	@Test
+	public void getComplexDataRange_shouldStreamTheRequestedRangeOfTheData() throws IOException {
+		Obs obs = new Obs();
+		obs.setComplexData(new ComplexData("TestingComplexObsRange", "0123456789".getBytes()));
+		adminService.saveGlobalProperty(new GlobalProperty(
+			OpenmrsConstants.GLOBAL_PROPERTY_COMPLEX_OBS_DIR,
+			"obs"
+		));
+		handler.saveObs(obs);
+		
+		ComplexData range = handler.getComplexDataRange(obs, 2, 5L);
+		try (InputStream in = range.getInputStream()) {
+			assertEquals("23456", IOUtils.toString(in, StandardCharsets.UTF_8));
+		}
+		assertEquals(2, range.getOffset());
+		assertEquals(Long.valueOf(10), range.getLength());
+		assertEquals("TestingComplexObsRange", range.getTitle());
+	}
+	
 }
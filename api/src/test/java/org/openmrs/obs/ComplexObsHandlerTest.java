@@ -0,0 +1,113 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.obs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.openmrs.Obs;
+import org.openmrs.api.APIException;
+import org.openmrs.test.jupiter.BaseContextSensitiveTest;
+
+/**
+ * Tests the default methods of {@link ComplexObsHandler}
+ */
+public class ComplexObsHandlerTest extends BaseContextSensitiveTest {
+	
+	private static final byte[] DATA = "0123456789".getBytes(StandardCharsets.UTF_8);
+	
+	/**
+	 * @see ComplexObsHandler#getComplexDataRange(Obs, long, Long)
+	 */
+	@Test
+	public void getComplexDataRange_shouldReadTheRangeFromTheStreamView() throws IOException {
+		ComplexData range = new StreamHandler(true).getComplexDataRange(new Obs(), 3, 4L);
+		
+		try (InputStream in = range.getInputStream()) {
+			assertEquals("3456", new String(IOUtils.toByteArray(in), StandardCharsets.UTF_8));
+		}
+		assertEquals(3, range.getOffset());
+		assertEquals(Long.valueOf(DATA.length), range.getLength());
+		assertEquals("text/plain", range.getMimeType());
+	}
+	
+	/**
+	 * @see ComplexObsHandler#getComplexDataRange(Obs, long, Long)
+	 */
+	@Test
+	public void getComplexDataRange_shouldReadUpToTheEndIfNoLengthIsGiven() throws IOException {
+		ComplexData range = new StreamHandler(true).getComplexDataRange(new Obs(), 7, null);
+		
+		try (InputStream in = range.getInputStream()) {
+			assertEquals("789", new String(IOUtils.toByteArray(in), StandardCharsets.UTF_8));
+		}
+	}
+	
+	/**
+	 * @see ComplexObsHandler#getComplexDataRange(Obs, long, Long)
+	 */
+	@Test
+	public void getComplexDataRange_shouldFailIfTheOffsetIsPastTheEnd() {
+		assertThrows(APIException.class, () -> new StreamHandler(true).getComplexDataRange(new Obs(), 20, null));
+	}
+	
+	/**
+	 * @see ComplexObsHandler#getComplexDataRange(Obs, long, Long)
+	 */
+	@Test
+	public void getComplexDataRange_shouldFailIfTheHandlerDoesNotSupportTheStreamView() {
+		assertThrows(APIException.class, () -> new StreamHandler(false).getComplexDataRange(new Obs(), 0, null));
+	}
+	
+	private static class StreamHandler implements ComplexObsHandler {
+		
+		private final boolean streamViewSupported;
+		
+		StreamHandler(boolean streamViewSupported) {
+			this.streamViewSupported = streamViewSupported;
+		}
+		
+		@Override
+		public Obs saveObs(Obs obs) {
+			return obs;
+		}
+		
+		@Override
+		public Obs getObs(Obs obs, String view) {
+			ComplexData complexData = new ComplexData("numbers.txt", new ByteArrayInputStream(DATA));
+			complexData.setMimeType("text/plain");
+			complexData.setLength((long) DATA.length);
+			obs.setComplexData(complexData);
+			return obs;
+		}
+		
+		@Override
+		public boolean purgeComplexData(Obs obs) {
+			return true;
+		}
+		
+		@Override
+		public String[] getSupportedViews() {
+			return streamViewSupported ? new String[] { STREAM_VIEW } : new String[] { RAW_VIEW };
+		}
+		
+		@Override
+		public boolean supportsView(String view) {
+			return streamViewSupported ? STREAM_VIEW.equals(view) : RAW_VIEW.equals(view);
+		}
+	}
+}
@@ -15,20 +15,28 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import javax.imageio.ImageIO;
 
+import org.apache.commons.io.IOUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.openmrs.GlobalProperty;
 import org.openmrs.Obs;
 import org.openmrs.api.AdministrationService;
+import org.openmrs.api.StorageService;
 import org.openmrs.obs.handler.ImageHandler;
 import org.openmrs.test.jupiter.BaseContextSensitiveTest;
 import org.openmrs.util.OpenmrsConstants;
@@ -39,13 +47,17 @@ public class ImageHandlerTest extends BaseContextSensitiveTest {
 	@Autowired
 	private AdministrationService adminService;
 	
+	@Autowired
+	private StorageService storageService;
+	
 	@Autowired
 	ImageHandler handler;
 	
 	@Test
 	public void shouldReturnSupportedViews() {
 		String[] actualViews = handler.getSupportedViews();
-		String[] expectedViews = { ComplexObsHandler.RAW_VIEW };
+		String[] expectedViews = { ComplexObsHandler.RAW_VIEW, ComplexObsHandler.STREAM_VIEW,
+		        ComplexObsHandler.THUMBNAIL_VIEW, ComplexObsHandler.PREVIEW_VIEW };
 		
 		assertArrayEquals(actualViews, expectedViews);
 	}
@@ -60,7 +72,6 @@ public class ImageHandlerTest extends BaseContextSensitiveTest {
 	public void shouldNotSupportOtherViews() {
 		
 		assertFalse(handler.supportsView(ComplexObsHandler.HTML_VIEW));
-		assertFalse(handler.supportsView(ComplexObsHandler.PREVIEW_VIEW));
 		assertFalse(handler.supportsView(ComplexObsHandler.TEXT_VIEW));
 		assertFalse(handler.supportsView(ComplexObsHandler.TITLE_VIEW));
 		assertFalse(handler.supportsView(ComplexObsHandler.URI_VIEW));
@@ -176,4 +187,141 @@ public class ImageHandlerTest extends BaseContextSensitiveTest {
 		assertTrue(updatedKey.endsWith(filename));
 		assertEquals(initialKeyLength, updatedKeyLength);
 	}
+	
+	@Test
+	public void saveObs_shouldStoreAnImageInTheFormatOfItsNameAsIs() throws IOException {
+		Path sourceFile = Paths.get("src", "test", "resources", "ComplexObsTestImage.png");
+		byte[] bytes = Files.readAllBytes(sourceFile);
+		
+		Obs obs = new Obs();
+		obs.setComplexData(new ComplexData("TestingComplexObsSaving.png", Files.newInputStream(sourceFile)));
+		adminService.saveGlobalProperty(new GlobalProperty(OpenmrsConstants.GLOBAL_PROPERTY_COMPLEX_OBS_DIR,
+		        "obs"));
+		handler.saveObs(obs);
+		
+		Obs complexObs = handler.getObs(obs, ComplexObsHandler.STREAM_VIEW);
+		try (InputStream in = complexObs.getComplexData().getInputStream()) {
+			assertArrayEquals(bytes, IOUtils.toByteArray(in));
+		}
+		assertEquals(Long.valueOf(bytes.length), complexObs.getComplexData().getLength());
+	}
+	
+	@Test
+	public void saveObs_shouldKeepTheMetadataOfAnImageInTheFormatOfItsName() throws IOException {
+		ByteArrayOutputStream jpeg = new ByteArrayOutputStream();
+		ImageIO.write(new BufferedImage(40, 20, BufferedImage.TYPE_INT_RGB), "jpg", jpeg);
+		byte[] encoded = jpeg.toByteArray();
+		
+		// exif and other application segments longer than a typical read ahead buffer follow the start marker
+		ByteArrayOutputStream image = new ByteArrayOutputStream();
+		image.write(encoded, 0, 2);
+		writeApplicationSegment(image, 0xE1, "Exif\0\0GPSLatitude", 60000);
+		writeApplicationSegment(image, 0xE2, "ICC_PROFILE\0", 60000);
+		image.write(encoded, 2, encoded.length - 2);
+		byte[] bytes = image.toByteArray();
+		
+		Obs obs = new Obs();
+		obs.setComplexData(new ComplexData("TestingComplexObsSaving.jpg", new ByteArrayInputStream(bytes)));
+		adminService.saveGlobalProperty(new GlobalProperty(OpenmrsConstants.GLOBAL_PROPERTY_COMPLEX_OBS_DIR,
+		        "obs"));
+		handler.saveObs(obs);
+		
+		Obs complexObs = handler.getObs(obs, ComplexObsHandler.STREAM_VIEW);
+		try (InputStream in = complexObs.getComplexData().getInputStream()) {
+			assertArrayEquals(bytes, IOUtils.toByteArray(in));
+		}
+	}
+	
+	@Test
+	public void getObs_shouldReturnAThumbnailOnceItIsGenerated() throws Exception {
+		Obs obs = saveImage(400, 200);
+		
+		BufferedImage thumbnail = awaitDerivative(obs, ComplexObsHandler.THUMBNAIL_VIEW);
+		assertEquals(128, thumbnail.getWidth());
+		assertEquals(64, thumbnail.getHeight());
+	}
+	
+	@Test
+	public void getObs_shouldReturnAPreviewOfTheConfiguredSize() throws Exception {
+		adminService.saveGlobalProperty(new GlobalProperty(OpenmrsConstants.GLOBAL_PROPERTY_COMPLEX_OBS_PREVIEW_SIZE,
+		        "300"));
+		Obs obs = saveImage(400, 200);
+		
+		BufferedImage preview = awaitDerivative(obs, ComplexObsHandler.PREVIEW_VIEW);
+		assertEquals(300, preview.getWidth());
+		assertEquals(150, preview.getHeight());
+	}
+	
+	@Test
+	public void purgeDerivedData_shouldPurgeTheThumbnailsButNotTheImage() throws Exception {
+		Obs obs = saveImage(400, 200);
+		awaitDerivative(obs, ComplexObsHandler.THUMBNAIL_VIEW);
+		
+		handler.purgeDerivedData(obs);
+		
+		try (InputStream in = handler.getObs(obs, ComplexObsHandler.THUMBNAIL_VIEW).getComplexData().getInputStream()) {
+			assertEquals(400, ImageIO.read(in).getWidth());
+		}
+	}
+	
+	@Test
+	public void saveObs_shouldNotGenerateDerivativesBeforeTheTransactionCommits() throws Exception {
+		Obs obs = saveImage(400, 200);
+		
+		assertTrue(handler.awaitDerivatives(10, TimeUnit.SECONDS));
+		assertFalse(hasDerivatives(obs));
+	}
+	
+	@Test
+	public void getObs_shouldNotGenerateDerivativesOfAVoidedObs() throws Exception {
+		Obs obs = saveImage(400, 200);
+		obs.setVoided(true);
+		
+		try (InputStream in = handler.getObs(obs, ComplexObsHandler.THUMBNAIL_VIEW).getComplexData().getInputStream()) {
+			assertEquals(400, ImageIO.read(in).getWidth());
+		}
+		assertTrue(handler.awaitDerivatives(10, TimeUnit.SECONDS));
+		assertFalse(hasDerivatives(obs));
+	}
+	
+	private boolean hasDerivatives(Obs obs) throws IOException {
+		String key = obs.getValueComplex().substring(obs.getValueComplex().indexOf('|') + 1);
+		try (Stream<String> keys = storageService.getKeys(null, ImageHandler.DERIVATIVES_KEY_PREFIX + key + "/")) {
+			return keys.findAny().isPresent();
+		}
+	}
+	
+	private void writeApplicationSegment(ByteArrayOutputStream out, int marker, String identifier, int length) {
+		byte[] data = new byte[length];
+		byte[] id = identifier.getBytes(StandardCharsets.US_ASCII);
+		System.arraycopy(id, 0, data, 0, id.length);
+		out.write(0xFF);
+		out.write(marker);
+		// the length of a segment includes its two length bytes
+		out.write((length + 2) >> 8);
+		out.write((length + 2) & 0xFF);
+		out.write(data, 0, length);
+	}
+	
+	private Obs saveImage(int width, int height) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+		
+		Obs obs = new Obs();
+		obs.setComplexData(new ComplexData("TestingComplexObsDerivatives.png", out.toByteArray()));
+		adminService.saveGlobalProperty(new GlobalProperty(OpenmrsConstants.GLOBAL_PROPERTY_COMPLEX_OBS_DIR,
+		        "obs"));
+		return handler.saveObs(obs);
+	}
+	
+	/**
+	 * Derivatives are generated in the background once requested, the image is returned until then.
+	 */
+	private BufferedImage awaitDerivative(Obs obs, String view) throws Exception {
+		handler.getObs(obs, view).getComplexData().getInputStream().close();
+		assertTrue(handler.awaitDerivatives(10, TimeUnit.SECONDS));
+		try (InputStream in = handler.getObs(obs, view).getComplexData().getInputStream()) {
+			return ImageIO.read(in);
+		}
+	}
 }
@@ -44,7 +44,7 @@ public class MediaHandlerTest extends BaseContextSensitiveTest {
     public void shouldReturnSupportedViews() {
 		String[] actualViews = handler.getSupportedViews();
 
-		assertArrayEquals(actualViews, new String[]{ ComplexObsHandler.RAW_VIEW });
+		assertArrayEquals(actualViews, new String[]{ ComplexObsHandler.RAW_VIEW, ComplexObsHandler.STREAM_VIEW });
     }
 
     @Test
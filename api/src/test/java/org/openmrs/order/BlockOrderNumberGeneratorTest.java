@@ -0,0 +1,79 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.order;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openmrs.api.context.Context;
+import org.openmrs.test.jupiter.BaseContextSensitiveTest;
+import org.openmrs.util.PrivilegeConstants;
+
+public class BlockOrderNumberGeneratorTest extends BaseContextSensitiveTest {
+	
+	private BlockOrderNumberGenerator generator;
+	
+	@BeforeEach
+	public void setUp() {
+		generator = new BlockOrderNumberGenerator();
+	}
+	
+	@Test
+	public void getNewOrderNumber_shouldHandOutConsecutiveNumbersFromAReservedBlock() {
+		long first = seedOf(generator.getNewOrderNumber(null));
+		
+		assertEquals(first + 1, seedOf(generator.getNewOrderNumber(null)));
+		assertEquals(first + 2, seedOf(generator.getNewOrderNumber(null)));
+		assertEquals(first + BlockOrderNumberGenerator.DEFAULT_BLOCK_SIZE,
+		    (long) Context.getOrderService().getNextOrderNumberSeedSequenceValue());
+	}
+	
+	@Test
+	public void getNewOrderNumber_shouldAlwaysReturnUniqueOrderNumbersWhenCalledConcurrently() throws InterruptedException {
+		int threadCount = 20;
+		int numbersPerThread = 15;
+		Set<String> uniqueOrderNumbers = Collections.synchronizedSet(new HashSet<>());
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < threadCount; i++) {
+			threads.add(new Thread(() -> {
+				try {
+					Context.openSession();
+					Context.addProxyPrivilege(PrivilegeConstants.ADD_ORDERS);
+					for (int j = 0; j < numbersPerThread; j++) {
+						uniqueOrderNumbers.add(generator.getNewOrderNumber(null));
+					}
+				}
+				finally {
+					Context.removeProxyPrivilege(PrivilegeConstants.ADD_ORDERS);
+					Context.closeSession();
+				}
+			}));
+		}
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		
+		assertEquals(threadCount * numbersPerThread, uniqueOrderNumbers.size());
+	}
+	
+	private long seedOf(String orderNumber) {
+		return Long.parseLong(orderNumber.substring(BlockOrderNumberGenerator.ORDER_NUMBER_PREFIX.length()));
+	}
+}
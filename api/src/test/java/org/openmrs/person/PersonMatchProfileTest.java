@@ -0,0 +1,107 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.person;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.openmrs.Person;
+import org.openmrs.PersonName;
+
+/**
+ * Tests {@link PersonMatchProfile}.
+ */
+public class PersonMatchProfileTest {
+
+	@Test
+	public void normalize_shouldRemoveAccentsDigitsAndPunctuation() {
+		assertEquals("zoeobrien", PersonMatchProfile.normalize("Zoë O'Brien3"));
+		assertEquals("", PersonMatchProfile.normalize("42"));
+		assertEquals("", PersonMatchProfile.normalize(null));
+	}
+
+	@Test
+	public void normalize_shouldKeepTheLettersOfOtherScripts() {
+		assertEquals("иван", PersonMatchProfile.normalize("Иван"));
+		assertEquals("李小龍", PersonMatchProfile.normalize("李 小龍"));
+	}
+
+	@Test
+	public void score_shouldMatchEqualNamesOfOtherScriptsWithoutPhoneticCodes() {
+		PersonMatchProfile profile = PersonMatchProfile.of("Иван Петров", 1980, "M");
+
+		assertThat(profile.getNames(), contains("иван", "петров"));
+		assertTrue(profile.getSoundexCodes().isEmpty());
+		assertTrue(profile.getMetaphoneCodes().isEmpty());
+		assertEquals(1.0, profile.score(PersonMatchProfile.of("Петров Иван", 1980, "M")), 0.0001);
+	}
+
+	@Test
+	public void of_shouldUseTheNamePartsOfAllNonVoidedNames() {
+		Person person = new Person();
+		person.addName(new PersonName("Mary-Anne", null, "Smith"));
+		PersonName voidedName = new PersonName("Mary", null, "Jones");
+		voidedName.setVoided(true);
+		person.addName(voidedName);
+		person.addName(new PersonName("Mary", "Anne", "Smith"));
+
+		assertThat(PersonMatchProfile.of(person).getNames(), contains("mary", "anne", "smith"));
+	}
+
+	@Test
+	public void score_shouldScoreEqualProfilesOne() {
+		PersonMatchProfile profile = PersonMatchProfile.of("John Smith", 1980, "M");
+
+		assertEquals(1.0, profile.score(PersonMatchProfile.of("Smith John", 1980, "m")), 0.0001);
+	}
+
+	@Test
+	public void score_shouldScorePhoneticallyEqualNamesLowerThanEqualNames() {
+		PersonMatchProfile profile = PersonMatchProfile.of("John Smith", 1980, "M");
+
+		double equal = profile.score(PersonMatchProfile.of("John Smith", 1981, "M"));
+		double phonetic = profile.score(PersonMatchProfile.of("Jon Smyth", 1981, "M"));
+		double different = profile.score(PersonMatchProfile.of("Peter Jones", 1981, "M"));
+
+		assertTrue(equal > phonetic);
+		assertTrue(phonetic > different);
+	}
+
+	@Test
+	public void score_shouldNotMatchDifferentGendersOrDistantBirthYears() {
+		PersonMatchProfile profile = PersonMatchProfile.of("John Smith", 1980, "M");
+
+		assertEquals(0.6, profile.score(PersonMatchProfile.of("John Smith", 1990, "F")), 0.0001);
+		assertEquals(0.8, profile.score(PersonMatchProfile.of("John Smith", null, null)), 0.0001);
+	}
+
+	@Test
+	public void toKeys_shouldCreateTheNameSoundexAndMetaphoneKeysOfThePerson() {
+		Person person = new Person(1);
+		person.setGender("F");
+		person.setBirthdate(new GregorianCalendar(1975, Calendar.APRIL, 8).getTime());
+		person.addName(new PersonName("Catherine", null, "Smith"));
+
+		List<PersonMatchKey> keys = PersonMatchProfile.of(person).toKeys(person);
+
+		assertThat(keys.stream().map(PersonMatchKey::getSignature).toList(), hasItem("NAME|catherine|F|1975"));
+		assertThat(keys.stream().map(PersonMatchKey::getSignature).toList(), hasItem("SOUNDEX|S530|F|1975"));
+		assertThat(keys.stream().map(PersonMatchKey::getSignature).toList(), hasItem("METAPHONE|K0RN|F|1975"));
+		assertTrue(keys.stream().allMatch(key -> key.getPerson() == person));
+	}
+}
@@ -0,0 +1,113 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.scheduler.executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openmrs.api.context.Context;
+import org.openmrs.scheduler.SchedulerException;
+import org.openmrs.scheduler.TaskDefinition;
+import org.openmrs.scheduler.db.SchedulerDAO;
+import org.openmrs.test.jupiter.BaseContextSensitiveTest;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Tests methods in {@link ExecutorSchedulerServiceImpl}
+ */
+public class ExecutorSchedulerServiceImplTest extends BaseContextSensitiveTest {
+	
+	@Autowired
+	private SchedulerDAO schedulerDAO;
+	
+	private ExecutorSchedulerServiceImpl schedulerService;
+	
+	@BeforeEach
+	public void setUp() {
+		schedulerService = new ExecutorSchedulerServiceImpl(1, false, false, 60);
+		schedulerService.setSchedulerDAO(schedulerDAO);
+	}
+	
+	@AfterEach
+	public void tearDown() {
+		schedulerService.onShutdown();
+	}
+	
+	@Test
+	public void scheduleTask_shouldScheduleCronTasks() throws SchedulerException {
+		TaskDefinition taskDefinition = newTaskDefinition();
+		taskDefinition.setProperty(TaskTrigger.CRON_EXPRESSION_PROPERTY, "0 0 0 1 1 *");
+		
+		assertNotNull(schedulerService.scheduleTask(taskDefinition));
+		
+		assertTrue(taskDefinition.getStarted());
+		assertTrue(schedulerService.getStatus(taskDefinition.getId()).startsWith("Scheduled to execute at"));
+		assertEquals(1, schedulerService.getScheduledTasks().size());
+		assertTrue(schedulerService.getTaskRunMetrics().containsKey(taskDefinition.getId()));
+		
+		schedulerService.shutdownTask(taskDefinition);
+		
+		assertFalse(taskDefinition.getStarted());
+		assertEquals("Not Running", schedulerService.getStatus(taskDefinition.getId()));
+		assertTrue(schedulerService.getScheduledTasks().isEmpty());
+	}
+	
+	@Test
+	public void acquireTaskLease_shouldOnlyGrantTheLeaseOncePerScheduledTime() {
+		TaskDefinition taskDefinition = newTaskDefinition();
+		schedulerDAO.createTask(taskDefinition);
+		Date scheduledTime = new Date();
+		
+		assertTrue(schedulerDAO.acquireTaskLease(taskDefinition.getId(), scheduledTime));
+		assertFalse(schedulerDAO.acquireTaskLease(taskDefinition.getId(), scheduledTime));
+		assertTrue(schedulerDAO.acquireTaskLease(taskDefinition.getId(), new Date(scheduledTime.getTime() + 1000)));
+	}
+	
+	@Test
+	public void acquireTaskLease_shouldGrantTheCatchUpRunOfAnOverrunTask() {
+		TaskDefinition taskDefinition = newTaskDefinition();
+		schedulerDAO.createTask(taskDefinition);
+		TaskTrigger trigger = new TaskTrigger.Interval(0, 60000);
+		Date now = new Date();
+		Date overrun = trigger.next(new Date(now.getTime() - 240000));
+		assertTrue(schedulerDAO.acquireTaskLease(taskDefinition.getId(), overrun));
+		
+		// the run outlasts the following slots and records when it executed
+		taskDefinition.setLastExecutionTime(now);
+		schedulerDAO.updateTask(taskDefinition);
+		Context.flushSession();
+		
+		Date catchUp = trigger.latestNotAfter(trigger.next(overrun), now);
+		assertTrue(catchUp.after(overrun));
+		assertTrue(schedulerDAO.acquireTaskLease(taskDefinition.getId(), catchUp));
+		assertFalse(schedulerDAO.acquireTaskLease(taskDefinition.getId(), catchUp));
+		
+		// saving the task definition must not reopen the claimed run
+		schedulerDAO.updateTask(taskDefinition);
+		Context.flushSession();
+		assertFalse(schedulerDAO.acquireTaskLease(taskDefinition.getId(), catchUp));
+	}
+	
+	private TaskDefinition newTaskDefinition() {
+		TaskDefinition taskDefinition = new TaskDefinition();
+		taskDefinition.setName("ExecutorTestTask");
+		taskDefinition.setTaskClass("org.openmrs.scheduler.tasks.TestTask");
+		taskDefinition.setRepeatInterval(3600L);
+		taskDefinition.setStartOnStartup(false);
+		return taskDefinition;
+	}
+}
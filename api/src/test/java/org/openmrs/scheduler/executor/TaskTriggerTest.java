@@ -0,0 +1,106 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.scheduler.executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+import org.openmrs.scheduler.SchedulerException;
+import org.openmrs.scheduler.TaskDefinition;
+
+/**
+ * Tests the {@link TaskTrigger} and {@link MisfirePolicy} classes.
+ */
+public class TaskTriggerTest {
+	
+	@Test
+	public void forTask_shouldAlignIntervalTasksToTheStartTime() throws SchedulerException {
+		TaskDefinition taskDefinition = new TaskDefinition();
+		taskDefinition.setStartTime(new Date(1000));
+		taskDefinition.setRepeatInterval(10L);
+		
+		TaskTrigger trigger = TaskTrigger.forTask(taskDefinition);
+		
+		assertTrue(trigger.isRepeating());
+		assertEquals(new Date(11000), trigger.next(new Date(1000)));
+		assertEquals(new Date(21000), trigger.next(new Date(15000)));
+		assertEquals(new Date(1000), trigger.first(new Date(500)));
+		assertEquals(new Date(21000), trigger.first(new Date(15000)));
+	}
+	
+	@Test
+	public void forTask_shouldAlignIntervalTasksWithoutStartTimeToTheEpoch() throws SchedulerException {
+		TaskDefinition taskDefinition = new TaskDefinition();
+		taskDefinition.setStartTime(null);
+		taskDefinition.setRepeatInterval(60L);
+		
+		TaskTrigger trigger = TaskTrigger.forTask(taskDefinition);
+		
+		assertEquals(new Date(120000), trigger.next(new Date(61000)));
+	}
+	
+	@Test
+	public void forTask_shouldPreferTheCronExpression() throws SchedulerException {
+		TaskDefinition taskDefinition = new TaskDefinition();
+		taskDefinition.setRepeatInterval(10L);
+		taskDefinition.setProperty(TaskTrigger.CRON_EXPRESSION_PROPERTY, "0 0 * * * *");
+		
+		TaskTrigger trigger = TaskTrigger.forTask(taskDefinition);
+		Date next = trigger.next(new Date());
+		
+		assertTrue(trigger.isRepeating());
+		assertEquals(3600000, trigger.next(next).getTime() - next.getTime());
+	}
+	
+	@Test
+	public void forTask_shouldFailForAnInvalidCronExpression() {
+		TaskDefinition taskDefinition = new TaskDefinition();
+		taskDefinition.setProperty(TaskTrigger.CRON_EXPRESSION_PROPERTY, "every minute");
+		
+		assertThrows(SchedulerException.class, () -> TaskTrigger.forTask(taskDefinition));
+	}
+	
+	@Test
+	public void forTask_shouldCreateOneShotTriggerWithoutRepeatInterval() throws SchedulerException {
+		TaskDefinition taskDefinition = new TaskDefinition();
+		taskDefinition.setStartTime(new Date(5000));
+		
+		TaskTrigger trigger = TaskTrigger.forTask(taskDefinition);
+		
+		assertFalse(trigger.isRepeating());
+		assertEquals(new Date(5000), trigger.first(new Date()));
+		assertNull(trigger.next(new Date(5000)));
+	}
+	
+	@Test
+	public void latestNotAfter_shouldReturnTheMostRecentMissedExecution() throws SchedulerException {
+		TaskDefinition taskDefinition = new TaskDefinition();
+		taskDefinition.setStartTime(new Date(0));
+		taskDefinition.setRepeatInterval(10L);
+		TaskTrigger trigger = TaskTrigger.forTask(taskDefinition);
+		
+		assertEquals(new Date(50000), trigger.latestNotAfter(new Date(10000), new Date(55000)));
+	}
+	
+	@Test
+	public void misfirePolicy_shouldDefaultToFireOnceNow() {
+		TaskDefinition taskDefinition = new TaskDefinition();
+		assertEquals(MisfirePolicy.FIRE_ONCE_NOW, MisfirePolicy.forTask(taskDefinition));
+		
+		taskDefinition.setProperty(MisfirePolicy.MISFIRE_POLICY_PROPERTY, "skip");
+		assertEquals(MisfirePolicy.SKIP, MisfirePolicy.forTask(taskDefinition));
+	}
+}
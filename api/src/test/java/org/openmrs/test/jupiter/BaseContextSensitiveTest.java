@@ -80,6 +80,7 @@ import org.openmrs.PersonAttribute;
 import org.openmrs.PersonName;
 import org.openmrs.User;
 import org.openmrs.annotation.OpenmrsProfileExcludeFilter;
+import org.openmrs.api.cache.GlobalPropertyCache;
 import org.openmrs.api.context.Context;
 import org.openmrs.api.context.ContextAuthenticationException;
 import org.openmrs.api.context.ContextMockHelper;
@@ -838,6 +839,10 @@ public abstract class BaseContextSensitiveTest {
 			//Do the actual update/insert:
 			//insert new rows, update existing rows, and leave others alone
 			DatabaseOperation.REFRESH.execute(dbUnitConn, dataset);
+			// the dataset may change global properties which the API caches and the results of
+			// cached queries, as it does not go through hibernate
+			applicationContext.getBean(GlobalPropertyCache.class).clear();
+			((SessionFactory) applicationContext.getBean("sessionFactory")).getCache().evictQueryRegions();
 			
 			if (isPostgreSQL()) {
 				Context.getAdministrationService().updatePostgresSequence();
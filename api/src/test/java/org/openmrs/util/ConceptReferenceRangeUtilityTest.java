@@ -37,6 +37,8 @@ import java.util.Date;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -689,6 +691,99 @@ class ConceptReferenceRangeUtilityTest extends BaseContextSensitiveTest {
 		);
 	}
 	
+	@Test
+	public void evaluateCriteria_shouldEvaluateACachedCriteriaAgainstEachObs() {
+		String criteria = "$patient.getGender().equals('F')";
+
+		person.setGender("F");
+		Obs femaleObs = buildObs();
+		femaleObs.setPerson(person);
+
+		Person male = new Person();
+		male.setGender("M");
+		Obs maleObs = buildObs();
+		maleObs.setPerson(male);
+
+		assertTrue(conceptReferenceRangeUtility.evaluateCriteria(criteria, femaleObs));
+		assertFalse(new ConceptReferenceRangeUtility().evaluateCriteria(criteria, maleObs));
+		assertTrue(conceptReferenceRangeUtility.evaluateCriteria(criteria, femaleObs));
+	}
+
+	@Test
+	public void evaluateCriteria_shouldLookUpTheLatestObsOncePerConceptAndPerson() {
+		Obs obs = buildObs();
+		obs.setPerson(person);
+		obs.setValueNumeric(20.0);
+
+		Concept concept = new Concept(4900);
+
+		Mockito.when(conceptService.getConceptByReference("CIEL:1234")).thenReturn(concept);
+
+		Mockito.when(obsService.getObservations(Collections.singletonList(person),
+				null,
+				Collections.singletonList(concept),
+				null,
+				null,
+				null,
+				Collections.singletonList("dateCreated"),
+				1,
+				null,
+				null,
+				null,
+				false))
+			.thenReturn(Collections.singletonList(obs));
+
+		for (int i = 0; i < 3; i++) {
+			assertTrue(conceptReferenceRangeUtility.evaluateCriteria(
+				"$fn.getLatestObs('CIEL:1234', $patient).getValueNumeric() >= 20", obs));
+		}
+
+		Mockito.verify(conceptService, Mockito.times(1)).getConceptByReference("CIEL:1234");
+		Mockito.verify(obsService, Mockito.times(1)).getObservations(Mockito.anyList(), Mockito.any(), Mockito.anyList(),
+			Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyList(), Mockito.any(), Mockito.any(), Mockito.any(),
+			Mockito.any(), Mockito.anyBoolean());
+	}
+
+	@Test
+	public void forgetLatestObs_shouldLookUpTheLatestObsOfTheConceptAgain() {
+		Obs obs = buildObs();
+		obs.setPerson(person);
+		obs.setValueNumeric(20.0);
+
+		Concept concept = new Concept(4900);
+		Obs latest = buildObs();
+		latest.setPerson(person);
+		latest.setConcept(concept);
+
+		Mockito.when(conceptService.getConceptByReference("CIEL:1234")).thenReturn(concept);
+		Mockito.when(obsService.getObservations(Mockito.anyList(), Mockito.any(), Mockito.anyList(), Mockito.any(),
+			Mockito.any(), Mockito.any(), Mockito.anyList(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(),
+			Mockito.anyBoolean())).thenReturn(Collections.singletonList(obs));
+
+		String criteria = "$fn.getLatestObs('CIEL:1234', $patient).getValueNumeric() >= 20";
+		assertTrue(conceptReferenceRangeUtility.evaluateCriteria(criteria, obs));
+		conceptReferenceRangeUtility.forgetLatestObs(latest);
+		assertTrue(conceptReferenceRangeUtility.evaluateCriteria(criteria, obs));
+
+		Mockito.verify(conceptService, Mockito.times(1)).getConceptByReference("CIEL:1234");
+		Mockito.verify(obsService, Mockito.times(2)).getObservations(Mockito.anyList(), Mockito.any(), Mockito.anyList(),
+			Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyList(), Mockito.any(), Mockito.any(), Mockito.any(),
+			Mockito.any(), Mockito.anyBoolean());
+	}
+
+	@Test
+	public void getInstance_shouldReturnTheInstanceSharedWithinCallWithSharedInstance() {
+		ConceptReferenceRangeUtility shared = ConceptReferenceRangeUtility.callWithSharedInstance(() -> {
+			ConceptReferenceRangeUtility instance = ConceptReferenceRangeUtility.getInstance();
+			assertSame(instance, ConceptReferenceRangeUtility.getInstance());
+			assertSame(instance, ConceptReferenceRangeUtility.callWithSharedInstance(ConceptReferenceRangeUtility::getInstance));
+			return instance;
+		});
+
+		assertNotSame(shared, ConceptReferenceRangeUtility.getInstance());
+		assertNotSame(ConceptReferenceRangeUtility.getInstance(), ConceptReferenceRangeUtility.getInstance());
+	}
+
 	// all the following tests use data from the standard test dataset instead of mocking
 	@Test
 	public void isEnrolledInProgram_shouldReturnTrueIfPatientIsEnrolledInProgram() {
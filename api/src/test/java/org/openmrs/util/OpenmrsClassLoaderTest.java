@@ -0,0 +1,66 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openmrs.module.ModuleConstants;
+import org.openmrs.module.ModuleUtil;
+import org.openmrs.test.jupiter.BaseContextSensitiveTest;
+
+public class OpenmrsClassLoaderTest extends BaseContextSensitiveTest {
+	
+	@BeforeEach
+	public void startupBeforeEachTest() {
+		ModuleUtil.startup(getRuntimeProperties());
+	}
+	
+	@AfterEach
+	public void cleanupAfterEachTest() {
+		ModuleUtil.shutdown();
+	}
+	
+	@Override
+	public Properties getRuntimeProperties() {
+		Properties props = super.getRuntimeProperties();
+		props.setProperty(ModuleConstants.RUNTIMEPROPERTY_MODULE_LIST_TO_LOAD,
+		    "org/openmrs/module/include/test1-1.0-SNAPSHOT.omod");
+		return props;
+	}
+	
+	/**
+	 * @see OpenmrsClassLoader#getResourceAsStream(String)
+	 */
+	@Test
+	public void getResourceAsStream_shouldReturnTheResourceOfAModuleBeforeTheOneOfTheParent() throws IOException {
+		// the core messages.properties is on the classpath of the parent too
+		try (InputStream in = OpenmrsClassLoader.getInstance().getParent().getResourceAsStream("messages.properties")) {
+			assertNotNull(in);
+			assertThat(IOUtils.toString(in, StandardCharsets.UTF_8), not(containsString("test1.title")));
+		}
+		
+		try (InputStream in = OpenmrsClassLoader.getInstance().getResourceAsStream("messages.properties")) {
+			assertNotNull(in);
+			assertThat(IOUtils.toString(in, StandardCharsets.UTF_8), containsString("test1.title=Test1 Module"));
+		}
+	}
+}
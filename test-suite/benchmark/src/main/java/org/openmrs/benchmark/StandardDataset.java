@@ -0,0 +1,84 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openmrs.api.context.Context;
+import org.openmrs.api.context.UsernamePasswordCredentials;
+import org.openmrs.test.jupiter.BaseContextSensitiveTest;
+import org.springframework.test.context.TestContextManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+/**
+ * Starts the API the way the unit tests do, against the in-memory H2 database loaded with the
+ * standard test dataset and its search index, once per benchmark fork.
+ * <p>
+ * The user context and the hibernate session are bound to the thread, so benchmarks which call the
+ * services keep a thread scoped state which calls {@link #openSession(String)} in its setup and
+ * {@link #closeSession(TransactionStatus)} in its tear down. Like a unit test, each such thread runs
+ * in a transaction which is rolled back at the end.
+ */
+@State(Scope.Benchmark)
+public class StandardDataset {
+
+	public static final String ADMIN = "admin";
+
+	private PlatformTransactionManager transactionManager;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		TestContextManager testContextManager = new TestContextManager(DatasetLoader.class);
+		DatasetLoader loader = new DatasetLoader();
+		testContextManager.prepareTestInstance(loader);
+		loader.baseSetupWithStandardDataAndAuthentication();
+		transactionManager = loader.getTransactionManager();
+		Context.closeSession();
+	}
+
+	/**
+	 * Opens a session in the current thread, authenticated as the given user, and starts a
+	 * transaction.
+	 *
+	 * @param systemId the system id of the user to act as, {@link #ADMIN} for the super user
+	 * @return the transaction to pass to {@link #closeSession(TransactionStatus)}
+	 */
+	public TransactionStatus openSession(String systemId) {
+		Context.openSession();
+		Context.authenticate(new UsernamePasswordCredentials(ADMIN, "test"));
+		if (!ADMIN.equals(systemId)) {
+			Context.becomeUser(systemId);
+		}
+		return transactionManager.getTransaction(new DefaultTransactionDefinition());
+	}
+
+	public void closeSession(TransactionStatus transaction) {
+		try {
+			transactionManager.rollback(transaction);
+		}
+		finally {
+			Context.closeSession();
+		}
+	}
+
+	/**
+	 * Loads the database and the application context through the unit test base class.
+	 */
+	public static class DatasetLoader extends BaseContextSensitiveTest {
+
+		PlatformTransactionManager getTransactionManager() {
+			return applicationContext.getBean(PlatformTransactionManager.class);
+		}
+	}
+}
@@ -0,0 +1,91 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.benchmark.aop;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import org.openmrs.OpenmrsObject;
+import org.openmrs.User;
+import org.openmrs.annotation.AllowDirectAccess;
+import org.openmrs.annotation.DisableHandlers;
+import org.openmrs.annotation.Independent;
+import org.openmrs.aop.RequiredDataAdvice;
+import org.openmrs.api.handler.RequiredDataHandler;
+import org.openmrs.util.HandlerUtil;
+import org.openmrs.util.Reflect;
+import org.springframework.util.StringUtils;
+
+/**
+ * The reflective object graph walk previously done by {@link RequiredDataAdvice} on every call, kept only as a
+ * baseline for {@link RequiredDataAdviceBenchmark}.
+ */
+class LegacyRequiredDataWalk {
+	
+	private LegacyRequiredDataWalk() {
+	}
+	
+	@SuppressWarnings("unchecked")
+	static <H extends RequiredDataHandler<OpenmrsObject>> void recursivelyHandle(Class<H> handlerType,
+	        OpenmrsObject openmrsObject, User currentUser, Date currentDate, String other, Set<OpenmrsObject> alreadyHandled)
+	        throws ReflectiveOperationException {
+		Class<? extends OpenmrsObject> openmrsObjectClass = openmrsObject.getClass();
+		
+		List<H> handlers = HandlerUtil.getHandlersForType(handlerType, openmrsObjectClass);
+		for (H handler : handlers) {
+			handler.handle(openmrsObject, currentUser, currentDate, other);
+		}
+		
+		alreadyHandled.add(openmrsObject);
+		
+		Reflect reflect = new Reflect(OpenmrsObject.class);
+		for (Field field : reflect.getInheritedFields(openmrsObjectClass)) {
+			if (Reflect.isAnnotationPresent(openmrsObjectClass, field.getName(), Independent.class)) {
+				continue;
+			}
+			
+			if (reflect.isCollectionField(field) && !isHandlerMarkedAsDisabled(handlerType, field)) {
+				Collection<OpenmrsObject> childCollection;
+				if (field.isAnnotationPresent(AllowDirectAccess.class)) {
+					field.setAccessible(true);
+					childCollection = (Collection<OpenmrsObject>) field.get(openmrsObject);
+				} else {
+					Method getter = openmrsObjectClass.getMethod("get" + StringUtils.capitalize(field.getName()));
+					childCollection = (Collection<OpenmrsObject>) getter.invoke(openmrsObject);
+				}
+				
+				if (childCollection != null) {
+					for (OpenmrsObject collectionElement : childCollection) {
+						if (!alreadyHandled.contains(collectionElement)) {
+							recursivelyHandle(handlerType, collectionElement, currentUser, currentDate, other,
+							    alreadyHandled);
+						}
+					}
+				}
+			}
+		}
+	}
+	
+	private static boolean isHandlerMarkedAsDisabled(Class<?> handlerType, Field field) {
+		if (!field.isAnnotationPresent(DisableHandlers.class)) {
+			return false;
+		}
+		for (Class<?> h : field.getAnnotation(DisableHandlers.class).handlerTypes()) {
+			if (h.isAssignableFrom(handlerType)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,98 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.benchmark.aop;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openmrs.Concept;
+import org.openmrs.Encounter;
+import org.openmrs.Obs;
+import org.openmrs.User;
+import org.openmrs.aop.RequiredDataAdvice;
+import org.openmrs.api.context.ServiceContext;
+import org.openmrs.api.handler.SaveHandler;
+import org.openmrs.api.handler.VoidSaveHandler;
+import org.openmrs.util.HandlerUtil;
+import org.springframework.context.support.GenericApplicationContext;
+
+/**
+ * Measures the per-save overhead of walking an encounter with many obs in {@link RequiredDataAdvice} against the
+ * reflective walk it replaced. Only the cheap {@link VoidSaveHandler} is registered so that the result is dominated
+ * by the walk itself and not by the handlers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequiredDataAdviceBenchmark {
+	
+	@Param({ "10", "200" })
+	public int obsCount;
+	
+	private GenericApplicationContext applicationContext;
+	
+	private Encounter encounter;
+	
+	private User user;
+	
+	@Setup(Level.Trial)
+	public void setUp() {
+		applicationContext = new GenericApplicationContext();
+		applicationContext.registerBean(VoidSaveHandler.class);
+		applicationContext.refresh();
+		ServiceContext.getInstance().setApplicationContext(applicationContext);
+		HandlerUtil.clearCachedHandlers();
+		RequiredDataAdvice.clearHandlerPlans();
+		
+		user = new User(1);
+		encounter = new Encounter();
+		Concept concept = new Concept(1);
+		for (int i = 0; i < obsCount; i++) {
+			Obs obs = new Obs();
+			obs.setConcept(concept);
+			obs.setValueNumeric((double) i);
+			encounter.addObs(obs);
+		}
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		applicationContext.close();
+	}
+	
+	@Benchmark
+	public Encounter handlerPlan() {
+		RequiredDataAdvice.recursivelyHandle(SaveHandler.class, encounter, user, new Date(), null, new HashSet<>());
+		return encounter;
+	}
+	
+	@Benchmark
+	public Encounter legacyReflection() throws ReflectiveOperationException {
+		LegacyRequiredDataWalk.recursivelyHandle(SaveHandler.class, encounter, user, new Date(), null, new HashSet<>());
+		return encounter;
+	}
+}
@@ -0,0 +1,81 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.benchmark.aop;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openmrs.Encounter;
+import org.openmrs.aop.RequiredDataAdvice;
+import org.openmrs.api.EncounterService;
+import org.openmrs.api.context.Context;
+import org.openmrs.benchmark.StandardDataset;
+import org.springframework.transaction.TransactionStatus;
+
+/**
+ * Measures what {@link RequiredDataAdvice} does before {@link EncounterService#saveEncounter(Encounter)} with all
+ * registered save handlers and validators, for an encounter of the standard dataset and its obs. Unlike
+ * {@link RequiredDataAdviceBenchmark} nothing is stubbed, but nothing is written either.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequiredDataAdviceSaveBenchmark {
+	
+	private StandardDataset dataset;
+	
+	private TransactionStatus transaction;
+	
+	private RequiredDataAdvice advice;
+	
+	private Method saveEncounter;
+	
+	private EncounterService encounterService;
+	
+	private Encounter encounter;
+	
+	@Setup(Level.Trial)
+	public void setUp(StandardDataset dataset) throws NoSuchMethodException {
+		this.dataset = dataset;
+		transaction = dataset.openSession(StandardDataset.ADMIN);
+		advice = new RequiredDataAdvice();
+		saveEncounter = EncounterService.class.getMethod("saveEncounter", Encounter.class);
+		encounterService = Context.getEncounterService();
+		encounter = encounterService.getEncounter(3);
+		// load the obs up front so that the benchmark does not measure lazy loading
+		encounter.getAllObs(true).size();
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		dataset.closeSession(transaction);
+	}
+	
+	@Benchmark
+	public Encounter saveEncounter() throws Throwable {
+		advice.before(saveEncounter, new Object[] { encounter }, encounterService);
+		return encounter;
+	}
+}
@@ -0,0 +1,72 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.benchmark.api;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openmrs.ConceptSearchResult;
+import org.openmrs.api.ConceptService;
+import org.openmrs.api.context.Context;
+import org.openmrs.benchmark.StandardDataset;
+import org.springframework.transaction.TransactionStatus;
+
+/**
+ * Measures the concept search of {@link ConceptService#getConcepts(String, Locale, boolean)} over the
+ * search index.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConceptSearchBenchmark {
+	
+	@Param({ "CD4", "FOOD ASSISTANCE", "COUG" })
+	public String phrase;
+	
+	private StandardDataset dataset;
+	
+	private TransactionStatus transaction;
+	
+	private ConceptService conceptService;
+	
+	@Setup(Level.Trial)
+	public void setUp(StandardDataset dataset) {
+		this.dataset = dataset;
+		transaction = dataset.openSession(StandardDataset.ADMIN);
+		conceptService = Context.getConceptService();
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		dataset.closeSession(transaction);
+	}
+	
+	@Benchmark
+	public List<ConceptSearchResult> getConcepts() {
+		return conceptService.getConcepts(phrase, Locale.ENGLISH, false);
+	}
+}
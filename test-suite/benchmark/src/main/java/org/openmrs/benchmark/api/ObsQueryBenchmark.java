@@ -0,0 +1,81 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.benchmark.api;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openmrs.Concept;
+import org.openmrs.Obs;
+import org.openmrs.Person;
+import org.openmrs.api.ObsService;
+import org.openmrs.api.context.Context;
+import org.openmrs.benchmark.StandardDataset;
+import org.springframework.transaction.TransactionStatus;
+
+/**
+ * Measures the criteria query behind {@link ObsService#getObservations(List, List, List, List, List, List, List,
+ * Integer, Integer, java.util.Date, java.util.Date, boolean)} for all obs of a person and for one question.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ObsQueryBenchmark {
+	
+	private StandardDataset dataset;
+	
+	private TransactionStatus transaction;
+	
+	private ObsService obsService;
+	
+	private List<Person> whom;
+	
+	private List<Concept> questions;
+	
+	@Setup(Level.Trial)
+	public void setUp(StandardDataset dataset) {
+		this.dataset = dataset;
+		transaction = dataset.openSession(StandardDataset.ADMIN);
+		obsService = Context.getObsService();
+		whom = Collections.singletonList(new Person(7));
+		questions = Collections.singletonList(Context.getConceptService().getConcept(5089));
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		dataset.closeSession(transaction);
+	}
+	
+	@Benchmark
+	public List<Obs> byPerson() {
+		return obsService.getObservations(whom, null, null, null, null, null, null, null, null, null, null, false);
+	}
+	
+	@Benchmark
+	public List<Obs> byPersonAndQuestion() {
+		return obsService.getObservations(whom, null, questions, null, null, null, null, null, null, null, null, false);
+	}
+}
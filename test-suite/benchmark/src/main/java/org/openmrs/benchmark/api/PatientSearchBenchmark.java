@@ -0,0 +1,70 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.benchmark.api;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openmrs.Patient;
+import org.openmrs.api.PatientService;
+import org.openmrs.api.context.Context;
+import org.openmrs.benchmark.StandardDataset;
+import org.springframework.transaction.TransactionStatus;
+
+/**
+ * Measures {@link PatientService#getPatients(String)} for a name, a partial name and an identifier.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PatientSearchBenchmark {
+	
+	@Param({ "Hornblower", "Horn", "6TS-4" })
+	public String query;
+	
+	private StandardDataset dataset;
+	
+	private TransactionStatus transaction;
+	
+	private PatientService patientService;
+	
+	@Setup(Level.Trial)
+	public void setUp(StandardDataset dataset) {
+		this.dataset = dataset;
+		transaction = dataset.openSession(StandardDataset.ADMIN);
+		patientService = Context.getPatientService();
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		dataset.closeSession(transaction);
+	}
+	
+	@Benchmark
+	public List<Patient> getPatients() {
+		return patientService.getPatients(query);
+	}
+}
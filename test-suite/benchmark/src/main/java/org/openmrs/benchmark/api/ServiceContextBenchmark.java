@@ -0,0 +1,68 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.benchmark.api;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openmrs.api.PatientService;
+import org.openmrs.api.context.ServiceContext;
+import org.openmrs.benchmark.StandardDataset;
+
+/**
+ * Measures {@link ServiceContext#getService(Class)} called by many threads at once, as done by the
+ * handlers, validators and DAOs of concurrent requests. The legacy benchmark enters a shared
+ * monitor before each lookup, as getService did to check whether the context was refreshing, as
+ * a baseline for the contention this used to cause.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class ServiceContextBenchmark {
+
+	private final Object legacyRefreshingContextLock = new Object();
+
+	private ServiceContext serviceContext;
+
+	@Setup(Level.Trial)
+	public void setUp(StandardDataset dataset) {
+		serviceContext = ServiceContext.getInstance();
+	}
+
+	@Benchmark
+	public PatientService getService() {
+		return serviceContext.getService(PatientService.class);
+	}
+
+	@Benchmark
+	public PatientService legacyGetService() {
+		synchronized (legacyRefreshingContextLock) {
+			if (serviceContext.isRefreshingContext()) {
+				throw new IllegalStateException("The context is refreshing");
+			}
+		}
+		return serviceContext.getService(PatientService.class);
+	}
+}
@@ -0,0 +1,87 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.benchmark.stream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.openmrs.api.stream.StreamDataService;
+
+/**
+ * The per-byte {@link BlockingQueue} transport previously used by {@link StreamDataService}, kept only as a baseline
+ * for {@link StreamDataServiceBenchmark}.
+ */
+class LegacyQueueStreams {
+	
+	private LegacyQueueStreams() {
+	}
+	
+	static class QueueInputStream extends InputStream {
+		
+		private final BlockingQueue<Integer> blockingQueue = new LinkedBlockingQueue<>(StreamDataService.BUFFER_SIZE);
+		
+		private final long timeoutNanos = TimeUnit.SECONDS.toNanos(30);
+		
+		@Override
+		public int read() throws IOException {
+			try {
+				Integer peek = blockingQueue.peek();
+				if (Integer.valueOf(-1).equals(peek)) {
+					return -1;
+				}
+				Integer value = blockingQueue.poll(timeoutNanos, TimeUnit.NANOSECONDS);
+				if (value == null || value == -1) {
+					return -1;
+				}
+				return 255 & value;
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException();
+			}
+		}
+	}
+	
+	static class QueueOutputStream extends OutputStream {
+		
+		private final QueueInputStream in;
+		
+		QueueOutputStream(QueueInputStream in) {
+			this.in = in;
+		}
+		
+		@Override
+		public void write(int b) throws IOException {
+			offer(255 & b);
+		}
+		
+		@Override
+		public void close() throws IOException {
+			offer(-1);
+		}
+		
+		private void offer(int value) throws IOException {
+			try {
+				if (!in.blockingQueue.offer(value, in.timeoutNanos, TimeUnit.NANOSECONDS)) {
+					throw new IOException("Failed to write to full queue");
+				}
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException();
+			}
+		}
+	}
+}
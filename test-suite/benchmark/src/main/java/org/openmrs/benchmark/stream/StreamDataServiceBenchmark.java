@@ -0,0 +1,111 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.benchmark.stream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openmrs.api.stream.StreamDataService;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+/**
+ * Compares the throughput of {@link StreamDataService} with the per-byte queue it replaced.
+ * <p>
+ * Run with <code>java -jar target/benchmarks.jar StreamDataServiceBenchmark -prof gc</code> to also see the allocation
+ * rate of each transport.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class StreamDataServiceBenchmark {
+	
+	private static final int CHUNK_SIZE = 8192;
+	
+	@Param({ "1048576", "16777216" })
+	public int dataSize;
+	
+	private byte[] chunk;
+	
+	private ExecutorService executor;
+	
+	private StreamDataService streamDataService;
+	
+	@Setup(Level.Trial)
+	public void setUp() {
+		chunk = new byte[CHUNK_SIZE];
+		new Random(42).nextBytes(chunk);
+		executor = Executors.newCachedThreadPool();
+		streamDataService = new StreamDataService(new TaskExecutorAdapter(executor));
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+	
+	private void writeData(OutputStream out) throws IOException {
+		for (int written = 0; written < dataSize; written += CHUNK_SIZE) {
+			out.write(chunk, 0, Math.min(CHUNK_SIZE, dataSize - written));
+		}
+	}
+	
+	private static long readData(InputStream in, Blackhole blackhole) throws IOException {
+		byte[] buffer = new byte[CHUNK_SIZE];
+		long total = 0;
+		int read;
+		while ((read = in.read(buffer)) != -1) {
+			blackhole.consume(buffer);
+			total += read;
+		}
+		return total;
+	}
+	
+	@Benchmark
+	public long ringBuffer(Blackhole blackhole) throws IOException {
+		InputStream in = streamDataService.streamData(this::writeData, null);
+		return readData(in, blackhole);
+	}
+	
+	@Benchmark
+	public long legacyQueue(Blackhole blackhole) throws IOException {
+		LegacyQueueStreams.QueueInputStream in = new LegacyQueueStreams.QueueInputStream();
+		executor.execute(() -> {
+			try (OutputStream out = new LegacyQueueStreams.QueueOutputStream(in)) {
+				writeData(out);
+			}
+			catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		return readData(in, blackhole);
+	}
+}
@@ -0,0 +1,61 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.benchmark.util;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openmrs.benchmark.StandardDataset;
+import org.openmrs.util.OpenmrsClassLoader;
+
+/**
+ * Measures {@link OpenmrsClassLoader#loadClass(String)} for a core class and for a class which does
+ * not exist, as looked up for optional module integrations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OpenmrsClassLoaderBenchmark {
+	
+	private OpenmrsClassLoader classLoader;
+	
+	@Setup(Level.Trial)
+	public void setUp(StandardDataset dataset) {
+		classLoader = OpenmrsClassLoader.getInstance();
+	}
+	
+	@Benchmark
+	public Class<?> existingClass() throws ClassNotFoundException {
+		return classLoader.loadClass("org.openmrs.Patient");
+	}
+	
+	@Benchmark
+	public Class<?> missingClass() {
+		try {
+			return classLoader.loadClass("org.openmrs.module.missing.MissingClass");
+		}
+		catch (ClassNotFoundException e) {
+			return null;
+		}
+	}
+}
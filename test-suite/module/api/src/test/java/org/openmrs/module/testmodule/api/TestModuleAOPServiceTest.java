@@ -55,6 +55,7 @@ public class TestModuleAOPServiceTest extends BaseModuleContextSensitiveTest {
 			.getSimpleName()).collect(Collectors.toList());
 
 		assertThat(actualAdvices, contains(
-			"AuthorizationAdvice", "LoggingAdvice", "RequiredDataAdvice", "CacheInterceptor", "TransactionInterceptor"));
+			"MetricsAdvice", "AuthorizationAdvice", "LoggingAdvice", "RequiredDataAdvice", "CacheInterceptor",
+			"TransactionInterceptor"));
 	}
 }
@@ -42,7 +42,7 @@ public class TestModuleServiceNoInterfaceTest extends BaseModuleContextSensitive
 		List<String> actualAdvices = Arrays.stream(advised.getAdvisors()).map(advisor -> advisor.getAdvice().getClass()
 			.getSimpleName()).collect(Collectors.toList());
 
-		assertThat(actualAdvices, contains("AuthorizationAdvice", "LoggingAdvice",
+		assertThat(actualAdvices, contains("MetricsAdvice", "AuthorizationAdvice", "LoggingAdvice",
 			"RequiredDataAdvice", "CacheInterceptor", "TransactionInterceptor"));
 	}
 }
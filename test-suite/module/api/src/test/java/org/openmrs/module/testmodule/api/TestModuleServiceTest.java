@@ -48,7 +48,7 @@ public class TestModuleServiceTest extends BaseModuleContextSensitiveTest {
 		List<String> actualAdvices = Arrays.stream(advised.getAdvisors()).map(advisor -> advisor.getAdvice().getClass()
 			.getSimpleName()).collect(Collectors.toList());
 
-		assertThat(actualAdvices, contains("AuthorizationAdvice", 
+		assertThat(actualAdvices, contains("MetricsAdvice", "AuthorizationAdvice", 
 			"LoggingAdvice", "RequiredDataAdvice", "CacheInterceptor", "TransactionInterceptor"));
 	}
 }
@@ -0,0 +1,64 @@
+/**
+ * This Source Code Form is subject to the terms of the Mozilla Public License,
+ * v. 2.0. If a copy of the MPL was not distributed with this file, You can
+ * obtain one at http://mozilla.org/MPL/2.0/. OpenMRS is also distributed under
+ * the terms of the Healthcare Disclaimer located at http://openmrs.org/license.
+ *
+ * Copyright (C) OpenMRS Inc. OpenMRS is a registered trademark and the OpenMRS
+ * graphic logo is a trademark of OpenMRS Inc.
+ */
+package org.openmrs.web;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.apache.commons.lang3.StringUtils;
+import org.openmrs.api.context.Context;
+import org.openmrs.metrics.OpenmrsMetrics;
+import org.openmrs.util.PrivilegeConstants;
+
+/**
+ * Exposes the metrics of the API in the Prometheus text format for scraping. A scraper
+ * authenticates with the bearer token set in the {@value WebConstants#METRICS_SCRAPE_TOKEN_RUNTIME_PROPERTY}
+ * runtime property, while logged in users need the "View Administration Functions" privilege.
+ * 
+ * @since 3.0.0
+ */
+public class MetricsServlet extends HttpServlet {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+	
+	@Override
+	protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		if (!isAuthorized(request)) {
+			response.setHeader("WWW-Authenticate", "Bearer");
+			response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+			return;
+		}
+		
+		Context.getRegisteredComponent("openmrsMetrics", OpenmrsMetrics.class).refresh();
+		String scrape = Context.getRegisteredComponent("meterRegistry", PrometheusMeterRegistry.class).scrape();
+		
+		response.setContentType(CONTENT_TYPE);
+		response.setHeader("Cache-Control", "no-cache");
+		response.getOutputStream().write(scrape.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	private boolean isAuthorized(HttpServletRequest request) {
+		String token = Context.getRuntimeProperties().getProperty(WebConstants.METRICS_SCRAPE_TOKEN_RUNTIME_PROPERTY);
+		String authorization = request.getHeader("Authorization");
+		if (StringUtils.isNotBlank(token) && authorization != null) {
+			return MessageDigest.isEqual(("Bearer " + token.trim()).getBytes(StandardCharsets.UTF_8),
+			    authorization.trim().getBytes(StandardCharsets.UTF_8));
+		}
+		return Context.isAuthenticated() && Context.hasPrivilege(PrivilegeConstants.VIEW_ADMIN_FUNCTIONS);
+	}
+}
@@ -114,4 +114,12 @@ public class WebConstants {
 	 * Session attribute name for the referer url
 	 */
 	public static final String REFERER_URL = "referer_url";
+	
+	/**
+	 * Runtime property for the bearer token which a metrics scraper must send to read the metrics
+	 * without logging in
+	 * 
+	 * @since 3.0.0
+	 */
+	public static final String METRICS_SCRAPE_TOKEN_RUNTIME_PROPERTY = "metrics.scrape_token";
 }